@@ -11,7 +11,7 @@ for SERVICE in "${SERVICES[@]}"; do
   echo "Building ${SERVICE}..."
   
   cd ../"${SERVICE}"
-  mvn clean package -DskipTests
+  mvn clean package -Pstartup -DskipTests
   
   echo "${SERVICE} built successfully."
 done
@@ -0,0 +1,133 @@
+#!/bin/bash
+
+# Measures how long each service takes to start, and its resident memory once started, when run
+#   jar      as a plain executable jar,
+#   cds      unpacked, with a class data sharing archive of the classes loaded during startup,
+#   aot+cds  as cds, also using the context processed ahead of time.
+#
+# Needs the jars built with the startup profile (mvn package -Pstartup -DskipTests in each service),
+# MySQL on localhost:3306 as in the default configuration, and the service ports free.
+# Usage: ./startup-report.sh [runs] [service...]  (default 3 runs, of which the fastest is reported,
+# and all services)
+
+set -e
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+RUNS=${1:-3}
+shift || true
+SERVICES=("$@")
+if [ ${#SERVICES[@]} -eq 0 ]; then
+  SERVICES=(sh-eureka sh-auth sh-user sh-api-gateway)
+fi
+WORK=$(mktemp -d)
+# Services write their local data (search index, activity log) under the working directory
+cd "$WORK"
+EUREKA_PID=""
+
+# Same as the Dockerfiles: the archive is recorded without Eureka or a database; the run stops
+# after the context is refreshed.
+TRAINING_ARGS=(--eureka.client.enabled=false
+  --spring.datasource.url=jdbc:mysql://localhost:3399/none
+  --spring.flyway.enabled=false
+  --spring.jpa.hibernate.ddl-auto=none
+  --spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false
+  --spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect)
+
+cleanup() {
+  if [ -n "$EUREKA_PID" ]; then
+    kill "$EUREKA_PID" 2>/dev/null || true
+  fi
+  rm -rf "$WORK"
+}
+trap cleanup EXIT
+
+# Unpacks the service's jar and records its class data sharing archive.
+prepare() {
+  local service=$1
+  local jar
+  jar=$(ls "$ROOT/$service"/target/"$service"-*.jar | grep -v plain | head -1)
+  java -Djarmode=tools -jar "$jar" extract --destination "$WORK/$service" > /dev/null
+  mv "$WORK/$service/$(basename "$jar")" "$WORK/$service/app.jar"
+  cp "$jar" "$WORK/$service.jar"
+  local args=("${TRAINING_ARGS[@]}")
+  if [ "$service" = "sh-eureka" ]; then
+    args=()
+  fi
+  java -XX:ArchiveClassesAtExit="$WORK/$service.jsa" -Dspring.context.exit=onRefresh \
+    -jar "$WORK/$service/app.jar" "${args[@]}" > "$WORK/$service-training.log" 2>&1 || true
+}
+
+# Starts the service in the given mode and waits until it has started; sets PID, STARTUP and RSS.
+start() {
+  local service=$1 mode=$2
+  local log="$WORK/$service-$mode.log"
+  case $mode in
+    jar) java -jar "$WORK/$service.jar" > "$log" 2>&1 & ;;
+    cds) java -XX:SharedArchiveFile="$WORK/$service.jsa" -jar "$WORK/$service/app.jar" > "$log" 2>&1 & ;;
+    aot+cds) java -XX:SharedArchiveFile="$WORK/$service.jsa" -Dspring.aot.enabled=true \
+      -jar "$WORK/$service/app.jar" > "$log" 2>&1 & ;;
+  esac
+  PID=$!
+  for _ in $(seq 1 600); do
+    if grep -q "Started .* in .* seconds" "$log"; then
+      STARTUP=$(grep -o "process running for [0-9.]*" "$log" | awk '{print $4}')
+      RSS=$(awk '/VmRSS/ {printf "%d", $2 / 1024}' "/proc/$PID/status")
+      return 0
+    fi
+    if ! kill -0 "$PID" 2>/dev/null; then
+      echo "$service ($mode) did not start, see below" >&2
+      tail -20 "$log" >&2
+      return 1
+    fi
+    sleep 0.5
+  done
+  kill "$PID"
+  echo "$service ($mode) did not start within 5 minutes" >&2
+  return 1
+}
+
+stop() {
+  kill "$1"
+  wait "$1" 2>/dev/null || true
+}
+
+measure() {
+  local service=$1 mode=$2
+  local best_startup="" best_rss=""
+  for _ in $(seq 1 "$RUNS"); do
+    start "$service" "$mode"
+    stop "$PID"
+    if [ -z "$best_startup" ] || awk "BEGIN {exit !($STARTUP < $best_startup)}"; then
+      best_startup=$STARTUP
+      best_rss=$RSS
+    fi
+  done
+  printf "%-16s %-8s %10s s %8s MB\n" "$service" "$mode" "$best_startup" "$best_rss"
+}
+
+echo "Recording class data sharing archives..."
+prepare sh-eureka
+for service in "${SERVICES[@]}"; do
+  if [ "$service" != "sh-eureka" ]; then
+    prepare "$service"
+  fi
+done
+
+printf "%-16s %-8s %12s %11s\n" "service" "mode" "startup" "RSS"
+if [[ " ${SERVICES[*]} " == *" sh-eureka "* ]]; then
+  for mode in jar cds; do
+    measure sh-eureka "$mode"
+  done
+fi
+
+# The other services register with Eureka while they start
+start sh-eureka cds
+EUREKA_PID=$PID
+for service in "${SERVICES[@]}"; do
+  if [ "$service" = "sh-eureka" ]; then
+    continue
+  fi
+  for mode in jar cds aot+cds; do
+    measure "$service" "$mode"
+  done
+done
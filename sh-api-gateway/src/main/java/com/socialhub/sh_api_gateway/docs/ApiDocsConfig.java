@@ -0,0 +1,33 @@
+package com.socialhub.sh_api_gateway.docs;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Keeps the Swagger UI and API docs out of the gateway's startup.
+ */
+@Configuration
+public class ApiDocsConfig {
+
+	/**
+	 * Marks the springdoc beans lazy, so that they are created by the first request for the API
+	 * docs or Swagger UI rather than while the gateway starts.
+	 */
+	@Bean
+	public static BeanFactoryPostProcessor lazyApiDocs() {
+		return beanFactory -> {
+			for (String name : beanFactory.getBeanDefinitionNames()) {
+				BeanDefinition definition = beanFactory.getBeanDefinition(name);
+				if (isSpringdoc(definition.getBeanClassName()) || isSpringdoc(definition.getFactoryBeanName())) {
+					definition.setLazyInit(true);
+				}
+			}
+		};
+	}
+
+	private static boolean isSpringdoc(String name) {
+		return name != null && name.startsWith("org.springdoc.");
+	}
+}
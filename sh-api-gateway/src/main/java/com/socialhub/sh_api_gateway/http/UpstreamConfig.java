@@ -0,0 +1,41 @@
+package com.socialhub.sh_api_gateway.http;
+
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+
+import java.util.List;
+
+/**
+ * Switches the client the gateway forwards requests with to cleartext HTTP/2.
+ * <p>
+ * Each pooled connection then carries as many concurrent requests as the service allows
+ * (SETTINGS_MAX_CONCURRENT_STREAMS), so bursts no longer open a connection per in-flight
+ * request, and headers are HPACK-compressed. At most {@code max-connections} are opened to each
+ * instance; idle and lifetime limits come from {@code spring.cloud.gateway.httpclient.pool}.
+ * WebSocket routes, which need HTTP/1.1, would have to turn this off.
+ */
+@Configuration
+@EnableConfigurationProperties(UpstreamProperties.class)
+public class UpstreamConfig {
+
+	@Bean
+	public HttpClientCustomizer upstreamProtocolCustomizer(UpstreamProperties properties) {
+		return httpClient -> properties.isH2c() ? httpClient.protocol(HttpProtocol.H2C) : httpClient;
+	}
+
+	@Bean
+	public HttpClientFactory gatewayHttpClientFactory(HttpClientProperties httpClientProperties,
+													  ServerProperties serverProperties,
+													  HttpClientSslConfigurer sslConfigurer,
+													  List<HttpClientCustomizer> customizers,
+													  UpstreamProperties properties) {
+		return new UpstreamHttpClientFactory(httpClientProperties, serverProperties, sslConfigurer, customizers, properties);
+	}
+}
@@ -0,0 +1,47 @@
+package com.socialhub.sh_api_gateway.http;
+
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Builds the gateway's client with the pool of {@code spring.cloud.gateway.httpclient.pool},
+ * capping the h2c connections to each service instance.
+ * <p>
+ * Without a cap the HTTP/2 pool opens a connection for each request that finds the open ones
+ * busy being acquired, so a burst fans out over as many connections as HTTP/1.1 would use.
+ */
+class UpstreamHttpClientFactory extends HttpClientFactory {
+
+	private final UpstreamProperties upstreamProperties;
+
+	UpstreamHttpClientFactory(HttpClientProperties properties, ServerProperties serverProperties,
+							  HttpClientSslConfigurer sslConfigurer, List<HttpClientCustomizer> customizers,
+							  UpstreamProperties upstreamProperties) {
+		super(properties, serverProperties, sslConfigurer, customizers);
+		this.upstreamProperties = upstreamProperties;
+	}
+
+	@Override
+	protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+		ConnectionProvider provider = super.buildConnectionProvider(properties);
+		if (!upstreamProperties.isH2c() || properties.getPool().getType() == HttpClientProperties.Pool.PoolType.DISABLED) {
+			return provider;
+		}
+		// Requests beyond the streams of the capped connections wait for a stream to close
+		return provider.mutate()
+				.allocationStrategy(Http2AllocationStrategy.builder()
+						.minConnections(1)
+						.maxConnections(upstreamProperties.getMaxConnections())
+						.build())
+				.pendingAcquireTimeout(Duration.ofMillis(properties.getPool().getAcquireTimeout()))
+				.build();
+	}
+}
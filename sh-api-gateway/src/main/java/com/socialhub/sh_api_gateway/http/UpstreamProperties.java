@@ -0,0 +1,39 @@
+package com.socialhub.sh_api_gateway.http;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the connections from the gateway to the services.
+ */
+@ConfigurationProperties(prefix = "socialhub.gateway.upstream")
+public class UpstreamProperties {
+
+	/**
+	 * Whether requests are forwarded over cleartext HTTP/2 (prior knowledge), multiplexed over
+	 * pooled connections; otherwise over HTTP/1.1, one request per connection at a time.
+	 * Every instance of the routed services must accept h2c.
+	 */
+	private boolean h2c = true;
+
+	/**
+	 * h2c connections opened to each service instance at most; each carries as many concurrent
+	 * requests as the instance allows, and another is opened when all are full.
+	 */
+	private int maxConnections = 128;
+
+	public boolean isH2c() {
+		return h2c;
+	}
+
+	public void setH2c(boolean h2c) {
+		this.h2c = h2c;
+	}
+
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	public void setMaxConnections(int maxConnections) {
+		this.maxConnections = maxConnections;
+	}
+}
@@ -0,0 +1,40 @@
+package com.socialhub.sh_api_gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Beans of each service's load-balancer context. Not a {@code @Configuration}, so that component
+ * scanning leaves it to the contexts {@link BalancerConfig} registers it for.
+ */
+public class BalancerClientConfiguration {
+
+	/**
+	 * Instances from discovery, without the default cache: Eureka's client already keeps the
+	 * registry in memory, refreshed every {@code registry-fetch-interval-seconds}, and a cache on
+	 * top would only keep departed instances around longer.
+	 */
+	@Bean
+	public ServiceInstanceListSupplier serviceInstanceListSupplier(ConfigurableApplicationContext context,
+																   BalancerProperties properties) {
+		return ServiceInstanceListSupplier.builder()
+				.withDiscoveryClient()
+				.with((ignored, delegate) -> new StaticFallbackServiceInstanceListSupplier(delegate, properties))
+				.build(context);
+	}
+
+	@Bean
+	public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(Environment environment,
+																				   LoadBalancerClientFactory factory,
+																				   InstanceStatistics statistics,
+																				   BalancerProperties properties) {
+		String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+		return new EwmaLoadBalancer(factory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), serviceId,
+				statistics, properties);
+	}
+}
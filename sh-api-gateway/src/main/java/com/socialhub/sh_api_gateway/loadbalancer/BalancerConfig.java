@@ -0,0 +1,24 @@
+package com.socialhub.sh_api_gateway.loadbalancer;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the round-robin load balancer of {@code lb://} routes and clients with
+ * {@link EwmaLoadBalancer}, for every service.
+ */
+@Configuration
+@EnableConfigurationProperties(BalancerProperties.class)
+@LoadBalancerClients(defaultConfiguration = BalancerClientConfiguration.class)
+public class BalancerConfig {
+
+	/**
+	 * Shared by the load balancers of all services, and called by each around the requests it routes.
+	 */
+	@Bean
+	public InstanceStatistics instanceStatistics(BalancerProperties properties) {
+		return new InstanceStatistics(properties);
+	}
+}
@@ -0,0 +1,128 @@
+package com.socialhub.sh_api_gateway.loadbalancer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Settings of the load balancer choosing the instance of USER-SERVICE or AUTH-SERVICE a request
+ * goes to.
+ */
+@ConfigurationProperties(prefix = "socialhub.loadbalancer")
+public class BalancerProperties {
+
+	/**
+	 * How quickly the average response time of an instance forgets older responses: a response
+	 * this old weighs about a third of a new one.
+	 */
+	private Duration decay = Duration.ofSeconds(10);
+
+	/**
+	 * Requests sent to an instance and not answered within this time stop counting as in flight;
+	 * cancelled requests are never reported.
+	 */
+	private Duration requestTimeout = Duration.ofSeconds(60);
+
+	private Ejection ejection = new Ejection();
+
+	/**
+	 * Instances used, per service ID, while discovery returns none, e.g. when Eureka has been
+	 * unreachable since startup.
+	 */
+	private Map<String, List<URI>> fallback = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+	public Duration getDecay() {
+		return decay;
+	}
+
+	public void setDecay(Duration decay) {
+		this.decay = decay;
+	}
+
+	public Duration getRequestTimeout() {
+		return requestTimeout;
+	}
+
+	public void setRequestTimeout(Duration requestTimeout) {
+		this.requestTimeout = requestTimeout;
+	}
+
+	public Ejection getEjection() {
+		return ejection;
+	}
+
+	public void setEjection(Ejection ejection) {
+		this.ejection = ejection;
+	}
+
+	public Map<String, List<URI>> getFallback() {
+		return fallback;
+	}
+
+	public void setFallback(Map<String, List<URI>> fallback) {
+		this.fallback = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		this.fallback.putAll(fallback);
+	}
+
+	/**
+	 * Outlier ejection: an instance that keeps failing is left out for a while.
+	 */
+	public static class Ejection {
+
+		/**
+		 * Failures in a row, connection errors or 502, 503 and 504 responses, after which an
+		 * instance is ejected.
+		 */
+		private int consecutiveFailures = 5;
+
+		/**
+		 * How long an instance is ejected the first time; each further ejection without a
+		 * success in between adds as much again.
+		 */
+		private Duration baseTime = Duration.ofSeconds(30);
+
+		private Duration maxTime = Duration.ofMinutes(5);
+
+		/**
+		 * Share of a service's instances that may be ejected at once; beyond it, ejected
+		 * instances are used again.
+		 */
+		private int maxPercent = 50;
+
+		public int getConsecutiveFailures() {
+			return consecutiveFailures;
+		}
+
+		public void setConsecutiveFailures(int consecutiveFailures) {
+			this.consecutiveFailures = consecutiveFailures;
+		}
+
+		public Duration getBaseTime() {
+			return baseTime;
+		}
+
+		public void setBaseTime(Duration baseTime) {
+			this.baseTime = baseTime;
+		}
+
+		public Duration getMaxTime() {
+			return maxTime;
+		}
+
+		public void setMaxTime(Duration maxTime) {
+			this.maxTime = maxTime;
+		}
+
+		public int getMaxPercent() {
+			return maxPercent;
+		}
+
+		public void setMaxPercent(int maxPercent) {
+			this.maxPercent = maxPercent;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.socialhub.sh_api_gateway.loadbalancer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks two instances at random and sends the request to the cheaper one, as costed by
+ * {@link InstanceStatistics}: faster instances with fewer requests in flight get more traffic,
+ * without every gateway piling onto the single fastest one.
+ * <p>
+ * Ejected instances are left out, unless that would leave out more than {@code max-percent}
+ * of the instances; then all are used.
+ */
+public class EwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+	private static final Logger log = LoggerFactory.getLogger(EwmaLoadBalancer.class);
+
+	private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+	private final String serviceId;
+	private final InstanceStatistics statistics;
+	private final BalancerProperties properties;
+
+	public EwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> suppliers, String serviceId,
+							InstanceStatistics statistics, BalancerProperties properties) {
+		this.suppliers = suppliers;
+		this.serviceId = serviceId;
+		this.statistics = statistics;
+		this.properties = properties;
+	}
+
+	@Override
+	public Mono<Response<ServiceInstance>> choose(Request request) {
+		ServiceInstanceListSupplier supplier = suppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+		return supplier.get(request).next().map(instances -> {
+			Response<ServiceInstance> response = choose(instances);
+			if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+				callback.selectedServiceInstance(response.getServer());
+			}
+			return response;
+		});
+	}
+
+	Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+		if (instances.isEmpty()) {
+			log.warn("No instances available for {}", serviceId);
+			return new EmptyResponse();
+		}
+		List<ServiceInstance> candidates = new ArrayList<>(instances.size());
+		for (ServiceInstance instance : instances) {
+			if (!statistics.isEjected(instance)) {
+				candidates.add(instance);
+			}
+		}
+		int ejectable = instances.size() * properties.getEjection().getMaxPercent() / 100;
+		if (candidates.isEmpty() || instances.size() - candidates.size() > ejectable) {
+			candidates = instances;
+		}
+		if (candidates.size() == 1) {
+			return new DefaultResponse(candidates.get(0));
+		}
+
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int first = random.nextInt(candidates.size());
+		int second = random.nextInt(candidates.size() - 1);
+		if (second >= first) {
+			second++;
+		}
+		ServiceInstance a = candidates.get(first);
+		ServiceInstance b = candidates.get(second);
+		return new DefaultResponse(statistics.cost(a) <= statistics.cost(b) ? a : b);
+	}
+}
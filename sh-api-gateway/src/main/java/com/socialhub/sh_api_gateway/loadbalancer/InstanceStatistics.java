@@ -0,0 +1,234 @@
+package com.socialhub.sh_api_gateway.loadbalancer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Response times, requests in flight and failures of each service instance, recorded from the
+ * load balancer's callbacks around every request it routes.
+ * <p>
+ * The response time of an instance is a peak-sensitive moving average: a slower response is
+ * taken as is, faster ones are blended in with a weight that grows with the time since the
+ * previous one. The average also decays while an instance is not used, so that one that was
+ * slow gets tried again. An instance failing {@code consecutive-failures} times in a row is
+ * ejected for a while.
+ */
+public class InstanceStatistics implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+	private static final Logger log = LoggerFactory.getLogger(InstanceStatistics.class);
+
+	/**
+	 * Cost of an instance not measured yet with requests in flight, so that it gets one request
+	 * at a time until the first answer.
+	 */
+	private static final double UNMEASURED_PENALTY = 1e15;
+	private static final Duration IDLE_EXPIRY = Duration.ofMinutes(10);
+	private static final Duration PRUNE_INTERVAL = Duration.ofSeconds(1);
+	private static final String WEIGHT = "weight";
+
+	private final BalancerProperties properties;
+	private final Clock clock;
+	private final ConcurrentMap<String, Stats> stats = new ConcurrentHashMap<>();
+	private volatile Instant nextSweep;
+
+	public InstanceStatistics(BalancerProperties properties) {
+		this(properties, Clock.systemUTC());
+	}
+
+	InstanceStatistics(BalancerProperties properties, Clock clock) {
+		this.properties = properties;
+		this.clock = clock;
+		this.nextSweep = clock.instant().plus(IDLE_EXPIRY);
+	}
+
+	/**
+	 * The cost of sending a request to an instance: its average response time times its
+	 * requests in flight plus one, divided by the instance's {@code weight} metadata.
+	 *
+	 * @param instance the instance
+	 * @return the cost, lower is better
+	 */
+	public double cost(ServiceInstance instance) {
+		Stats instanceStats = stats.get(key(instance));
+		double cost = instanceStats == null ? 0 : instanceStats.cost(clock.instant());
+		return cost / weight(instance);
+	}
+
+	/**
+	 * @param instance the instance
+	 * @return true if the instance has failed too often and is left out for now
+	 */
+	public boolean isEjected(ServiceInstance instance) {
+		Stats instanceStats = stats.get(key(instance));
+		return instanceStats != null && instanceStats.isEjected(clock.instant());
+	}
+
+	@Override
+	public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+		return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+	}
+
+	@Override
+	public void onStart(Request<Object> request) {
+	}
+
+	@Override
+	public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+		if (!lbResponse.hasServer()) {
+			return;
+		}
+		Instant now = clock.instant();
+		stats.computeIfAbsent(key(lbResponse.getServer()), ignored -> new Stats(now)).started(request, now);
+		if (now.isAfter(nextSweep)) {
+			nextSweep = now.plus(IDLE_EXPIRY);
+			stats.values().removeIf(instanceStats -> instanceStats.isIdleSince(now.minus(IDLE_EXPIRY)));
+		}
+	}
+
+	@Override
+	public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+		Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+		if (completionContext.status() == CompletionContext.Status.DISCARD || lbResponse == null
+				|| !lbResponse.hasServer()) {
+			return;
+		}
+		ServiceInstance instance = lbResponse.getServer();
+		Stats instanceStats = stats.get(key(instance));
+		if (instanceStats == null) {
+			return;
+		}
+		boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+				|| completionContext.getClientResponse() instanceof ResponseData response
+				&& response.getHttpStatus() != null && isGatewayFailure(response.getHttpStatus().value());
+		instanceStats.completed(completionContext.getLoadBalancerRequest(), failed, clock.instant(), instance);
+	}
+
+	private static boolean isGatewayFailure(int status) {
+		return status == 502 || status == 503 || status == 504;
+	}
+
+	private static String key(ServiceInstance instance) {
+		return instance.getServiceId() + "/" + instance.getHost() + ":" + instance.getPort();
+	}
+
+	private static int weight(ServiceInstance instance) {
+		String weight = instance.getMetadata() == null ? null : instance.getMetadata().get(WEIGHT);
+		try {
+			return weight == null ? 1 : Math.max(1, Integer.parseInt(weight.trim()));
+		} catch (NumberFormatException ex) {
+			return 1;
+		}
+	}
+
+	private final class Stats {
+
+		private final Map<Request<?>, Instant> pending = new IdentityHashMap<>();
+		/**
+		 * Average response time in nanoseconds, 0 until the first response.
+		 */
+		private double cost;
+		private Instant stamp;
+		private Instant lastUsed;
+		private Instant nextPrune;
+		private int consecutiveFailures;
+		private int ejections;
+		private Instant ejectedUntil;
+
+		Stats(Instant now) {
+			this.stamp = now;
+			this.lastUsed = now;
+			this.nextPrune = now;
+		}
+
+		synchronized double cost(Instant now) {
+			prunePending(now);
+			if (cost == 0) {
+				return pending.isEmpty() ? 0 : UNMEASURED_PENALTY + pending.size();
+			}
+			return decayed(now) * (pending.size() + 1);
+		}
+
+		synchronized boolean isEjected(Instant now) {
+			return ejectedUntil != null && now.isBefore(ejectedUntil);
+		}
+
+		synchronized boolean isIdleSince(Instant since) {
+			return pending.isEmpty() && lastUsed.isBefore(since);
+		}
+
+		synchronized void started(Request<?> request, Instant now) {
+			pending.put(request, now);
+			lastUsed = now;
+		}
+
+		synchronized void completed(Request<?> request, boolean failed, Instant now, ServiceInstance instance) {
+			Instant started = pending.remove(request);
+			double elapsed = started == null ? 0 : Duration.between(started, now).toNanos();
+			if (failed) {
+				// A failure never makes an instance look faster, e.g. a refused connection
+				observe(Math.max(elapsed, decayed(now)), now);
+				fail(now, instance);
+			} else {
+				if (started != null) {
+					observe(elapsed, now);
+				}
+				consecutiveFailures = 0;
+				if (ejectedUntil != null && !now.isBefore(ejectedUntil)) {
+					ejectedUntil = null;
+					ejections = 0;
+				}
+			}
+		}
+
+		private void fail(Instant now, ServiceInstance instance) {
+			BalancerProperties.Ejection ejection = properties.getEjection();
+			consecutiveFailures++;
+			if (consecutiveFailures < ejection.getConsecutiveFailures() || isEjected(now)) {
+				return;
+			}
+			ejections++;
+			Duration time = ejection.getBaseTime().multipliedBy(ejections);
+			if (time.compareTo(ejection.getMaxTime()) > 0) {
+				time = ejection.getMaxTime();
+			}
+			ejectedUntil = now.plus(time);
+			consecutiveFailures = 0;
+			log.warn("Ejected {} instance {}:{} for {} after {} failures in a row", instance.getServiceId(),
+					instance.getHost(), instance.getPort(), time, ejection.getConsecutiveFailures());
+		}
+
+		private void observe(double rtt, Instant now) {
+			double elapsed = Math.max(Duration.between(stamp, now).toNanos(), 0);
+			double weight = Math.exp(-elapsed / properties.getDecay().toNanos());
+			cost = rtt > cost ? rtt : cost * weight + rtt * (1 - weight);
+			stamp = now;
+		}
+
+		private double decayed(Instant now) {
+			double elapsed = Math.max(Duration.between(stamp, now).toNanos(), 0);
+			return cost * Math.exp(-elapsed / properties.getDecay().toNanos());
+		}
+
+		private void prunePending(Instant now) {
+			if (!pending.isEmpty() && !now.isBefore(nextPrune)) {
+				nextPrune = now.plus(PRUNE_INTERVAL);
+				Instant expired = now.minus(properties.getRequestTimeout());
+				pending.values().removeIf(started -> started.isBefore(expired));
+			}
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.socialhub.sh_api_gateway.loadbalancer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Falls back on the instances listed under {@code socialhub.loadbalancer.fallback} while
+ * discovery returns none or fails. Once Eureka has answered, its client keeps the last registry
+ * it fetched, so this only applies until it is first reached or after it has dropped every
+ * instance of the service.
+ */
+public class StaticFallbackServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+	private static final Logger log = LoggerFactory.getLogger(StaticFallbackServiceInstanceListSupplier.class);
+
+	private final List<ServiceInstance> fallback;
+	private final AtomicBoolean usingFallback = new AtomicBoolean();
+
+	public StaticFallbackServiceInstanceListSupplier(ServiceInstanceListSupplier delegate,
+													 BalancerProperties properties) {
+		super(delegate);
+		List<URI> uris = properties.getFallback().getOrDefault(delegate.getServiceId(), List.of());
+		this.fallback = uris.stream().map(uri -> instance(delegate.getServiceId(), uri)).toList();
+	}
+
+	@Override
+	public Flux<List<ServiceInstance>> get() {
+		if (fallback.isEmpty()) {
+			return delegate.get();
+		}
+		return delegate.get()
+				.onErrorResume(ex -> {
+					log.debug("Discovering instances of {} failed", getServiceId(), ex);
+					return Flux.just(List.of());
+				})
+				.map(instances -> {
+					if (instances.isEmpty()) {
+						if (usingFallback.compareAndSet(false, true)) {
+							log.warn("No instances of {} discovered, using the configured ones: {}", getServiceId(),
+									fallback.stream().map(ServiceInstance::getUri).toList());
+						}
+						return fallback;
+					}
+					if (usingFallback.compareAndSet(true, false)) {
+						log.info("Instances of {} discovered again", getServiceId());
+					}
+					return instances;
+				});
+	}
+
+	private static ServiceInstance instance(String serviceId, URI uri) {
+		boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+		int port = uri.getPort() != -1 ? uri.getPort() : secure ? 443 : 80;
+		return new DefaultServiceInstance(serviceId + "-" + uri.getHost() + ":" + port, serviceId, uri.getHost(),
+				port, secure);
+	}
+}
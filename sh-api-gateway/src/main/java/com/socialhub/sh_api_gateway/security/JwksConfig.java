@@ -0,0 +1,52 @@
+package com.socialhub.sh_api_gateway.security;
+
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Resource;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+
+/**
+ * Registers the source of AUTH-SERVICE's public signing keys for {@link JwtVerificationFilter}.
+ * <p>
+ * The JWKS is fetched through the load balancer and cached. Keys are fetched again in the
+ * background before the cache expires, and at once, rate-limited, when a token names a key not
+ * in the cache. If AUTH-SERVICE cannot be reached the cached keys are kept.
+ */
+@Configuration
+@EnableConfigurationProperties(JwksProperties.class)
+public class JwksConfig {
+
+	@Bean
+	public JWKSource<SecurityContext> jwkSource(JwksProperties properties,
+												ReactorLoadBalancerExchangeFilterFunction loadBalancer)
+			throws MalformedURLException {
+		WebClient webClient = WebClient.builder().filter(loadBalancer).build();
+		URL url = URI.create(properties.getUri()).toURL();
+		// Nimbus fetches on its own or the filter's bounded-elastic threads, where blocking is fine
+		return JWKSourceBuilder.<SecurityContext>create(url, ignored -> {
+					String body = webClient.get().uri(properties.getUri())
+							.retrieve()
+							.bodyToMono(String.class)
+							.block(properties.getRefreshTimeout());
+					if (body == null) {
+						throw new IOException("Empty JWKS response from " + properties.getUri());
+					}
+					return new Resource(body, "application/json");
+				})
+				.cache(properties.getCacheTtl().toMillis(), properties.getRefreshTimeout().toMillis())
+				.refreshAheadCache(properties.getRefreshAhead().toMillis(), true)
+				.rateLimited(properties.getMinRefetchInterval().toMillis())
+				.outageTolerantForever()
+				.build();
+	}
+}
@@ -0,0 +1,91 @@
+package com.socialhub.sh_api_gateway.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the access token check at the gateway.
+ */
+@ConfigurationProperties(prefix = "socialhub.jwks")
+public class JwksProperties {
+
+	/**
+	 * Whether requests with an invalid bearer token are rejected here; the services check tokens either way.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Where AUTH-SERVICE publishes its public signing keys, resolved through the load balancer.
+	 */
+	private String uri = "http://AUTH-SERVICE/.well-known/jwks.json";
+
+	/**
+	 * How long fetched keys are used before fetching again; keep it under AUTH-SERVICE's
+	 * {@code socialhub.jwt.publish-ahead}, so that a new key is known before it signs.
+	 */
+	private Duration cacheTtl = Duration.ofMinutes(10);
+
+	/**
+	 * How long before the cache expires the keys are fetched again in the background.
+	 */
+	private Duration refreshAhead = Duration.ofMinutes(1);
+
+	/**
+	 * How long a request waits for keys being fetched.
+	 */
+	private Duration refreshTimeout = Duration.ofSeconds(15);
+
+	/**
+	 * Minimum interval between fetches caused by tokens signed with an unknown key.
+	 */
+	private Duration minRefetchInterval = Duration.ofSeconds(30);
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public String getUri() {
+		return uri;
+	}
+
+	public void setUri(String uri) {
+		this.uri = uri;
+	}
+
+	public Duration getCacheTtl() {
+		return cacheTtl;
+	}
+
+	public void setCacheTtl(Duration cacheTtl) {
+		this.cacheTtl = cacheTtl;
+	}
+
+	public Duration getRefreshAhead() {
+		return refreshAhead;
+	}
+
+	public void setRefreshAhead(Duration refreshAhead) {
+		this.refreshAhead = refreshAhead;
+	}
+
+	public Duration getRefreshTimeout() {
+		return refreshTimeout;
+	}
+
+	public void setRefreshTimeout(Duration refreshTimeout) {
+		this.refreshTimeout = refreshTimeout;
+	}
+
+	public Duration getMinRefetchInterval() {
+		return minRefetchInterval;
+	}
+
+	public void setMinRefetchInterval(Duration minRefetchInterval) {
+		this.minRefetchInterval = minRefetchInterval;
+	}
+}
@@ -0,0 +1,89 @@
+package com.socialhub.sh_api_gateway.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.text.ParseException;
+import java.util.Set;
+
+/**
+ * Rejects requests whose bearer token is not an unexpired RS256 token signed by AUTH-SERVICE,
+ * before they reach a service.
+ * <p>
+ * The check only spares the services requests they would reject anyway: requests without a
+ * bearer token pass, since the services decide what is public, and the services still verify
+ * every token and check roles and revoked sessions. For the same reason a request passes when
+ * the keys cannot be fetched at all.
+ */
+@Component
+public class JwtVerificationFilter implements GlobalFilter, Ordered {
+
+	private static final Logger log = LoggerFactory.getLogger(JwtVerificationFilter.class);
+	private static final String BEARER_PREFIX = "Bearer ";
+
+	private final JwksProperties properties;
+	private final DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+
+	public JwtVerificationFilter(JwksProperties properties, JWKSource<SecurityContext> jwkSource) {
+		this.properties = properties;
+		processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+		// Expiry with a minute of leeway, as the services check it
+		processor.setJWTClaimsSetVerifier(new DefaultJWTClaimsVerifier<>(null, Set.of("sub", "exp")));
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+		if (!properties.isEnabled() || authorization == null
+				|| !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+			return chain.filter(exchange);
+		}
+		String token = authorization.substring(BEARER_PREFIX.length()).trim();
+		// Fetching keys blocks, so the check runs off the event loop; downstream errors stay out of it
+		return Mono.fromCallable(() -> isAcceptable(token))
+				.subscribeOn(Schedulers.boundedElastic())
+				.flatMap(acceptable -> acceptable ? chain.filter(exchange) : reject(exchange));
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+
+	private boolean isAcceptable(String token) {
+		try {
+			processor.process(token, null);
+			return true;
+		} catch (KeySourceException ex) {
+			log.warn("Fetching the signing keys failed, leaving the token check to the services", ex);
+			return true;
+		} catch (ParseException | BadJOSEException | JOSEException ex) {
+			log.debug("Rejected a bearer token: {}", ex.getMessage());
+			return false;
+		}
+	}
+
+	private static Mono<Void> reject(ServerWebExchange exchange) {
+		exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+		exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+		return exchange.getResponse().setComplete();
+	}
+}
@@ -0,0 +1,99 @@
+package com.socialhub.sh_api_gateway.http;
+
+import com.socialhub.sh_api_gateway.ApiGatewayApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the bytes on the wire and the latency of a page of {@code /posts} through the gateway
+ * for each response encoding, with requests forwarded over HTTP/1.1 and over h2c. The upstream
+ * answers after a fixed delay, standing in for the database, and counts the connections the
+ * gateway opened to it.
+ * <p>
+ * Opt-in: {@code mvn test -Dtest=GatewayTransportBenchmarkTests -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class GatewayTransportBenchmarkTests {
+
+	private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(5);
+	private static final int CONCURRENCY = 64;
+	private static final int WARMUP = 1_000;
+	private static final int REQUESTS = 5_000;
+
+	@Test
+	void compareEncodingsAndUpstreamProtocols() {
+		for (boolean h2c : new boolean[]{false, true}) {
+			String protocol = h2c ? "h2c" : "HTTP/1.1";
+			try (StubUpstream upstream = new StubUpstream(UPSTREAM_LATENCY);
+				 ConfigurableApplicationContext gateway = startGateway(upstream, h2c)) {
+				int port = Integer.parseInt(gateway.getEnvironment().getProperty("local.server.port"));
+				// A burst against an empty pool opens a connection per request, before any can be shared
+				run(port, "identity", 1);
+				for (String encoding : new String[]{"identity", "gzip", "br"}) {
+					run(port, encoding, WARMUP);
+					Result result = run(port, encoding, REQUESTS);
+					System.out.printf("upstream %-8s %-8s %6d B/page | p50 %6.2f ms | p99 %6.2f ms | %7.0f req/s%n",
+							protocol, encoding, result.bytesPerPage(), result.p50Millis(), result.p99Millis(),
+							result.requestsPerSecond());
+				}
+				System.out.printf("upstream %-8s connections opened to the service: %d%n", protocol, upstream.connections());
+			}
+		}
+	}
+
+	private static ConfigurableApplicationContext startGateway(StubUpstream upstream, boolean h2c) {
+		return new SpringApplicationBuilder(ApiGatewayApplication.class).run(
+				"--server.port=0",
+				"--eureka.client.enabled=false",
+				"--logging.level.root=WARN",
+				"--spring.cloud.gateway.routes[0].id=stub",
+				"--spring.cloud.gateway.routes[0].uri=http://localhost:" + upstream.port(),
+				"--spring.cloud.gateway.routes[0].predicates[0]=Path=/posts",
+				"--socialhub.gateway.upstream.h2c=" + h2c);
+	}
+
+	private static Result run(int port, String encoding, int requests) {
+		ConnectionProvider connections = ConnectionProvider.builder("benchmark")
+				.maxConnections(CONCURRENCY)
+				.pendingAcquireMaxCount(-1)
+				.build();
+		HttpClient client = HttpClient.create(connections)
+				.headers(headers -> headers.set(HttpHeaders.ACCEPT_ENCODING, encoding));
+		long[] latencies = new long[requests];
+		AtomicLong bytes = new AtomicLong();
+		long started = System.nanoTime();
+		Flux.range(0, requests)
+				.flatMap(i -> {
+					long sent = System.nanoTime();
+					return client.get()
+							.uri("http://localhost:" + port + "/posts")
+							.responseSingle((response, body) -> body.asByteArray())
+							.doOnNext(body -> {
+								latencies[i] = System.nanoTime() - sent;
+								bytes.addAndGet(body.length);
+							});
+				}, CONCURRENCY)
+				.blockLast(Duration.ofMinutes(5));
+		long elapsed = System.nanoTime() - started;
+		connections.disposeLater().block();
+
+		Arrays.sort(latencies);
+		return new Result(bytes.get() / requests,
+				latencies[requests / 2] / 1e6,
+				latencies[(int) (requests * 0.99)] / 1e6,
+				requests * 1e9 / elapsed);
+	}
+
+	private record Result(long bytesPerPage, double p50Millis, double p99Millis, double requestsPerSecond) {
+	}
+}
@@ -0,0 +1,76 @@
+package com.socialhub.sh_api_gateway.http;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "eureka.client.enabled=false")
+class GatewayTransportTests {
+
+	private static final StubUpstream upstream = new StubUpstream(Duration.ZERO);
+
+	@Value("${local.server.port}")
+	private int port;
+
+	@DynamicPropertySource
+	static void routeToStub(DynamicPropertyRegistry registry) {
+		registry.add("spring.cloud.gateway.routes[0].id", () -> "stub");
+		registry.add("spring.cloud.gateway.routes[0].uri", () -> "http://localhost:" + upstream.port());
+		registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/posts,/small,/stream");
+	}
+
+	@AfterAll
+	static void stopUpstream() {
+		upstream.close();
+	}
+
+	@Test
+	void compressesJsonWithTheEncodingTheClientAccepts() {
+		Reply identity = get("/posts", "identity");
+		Reply gzip = get("/posts", "gzip");
+		Reply brotli = get("/posts", "br, gzip");
+
+		assertThat(identity.headers().get(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(gzip.headers().get(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(brotli.headers().get(HttpHeaders.CONTENT_ENCODING)).isEqualTo("br");
+		assertThat(gzip.body().length).isLessThan(identity.body().length / 2);
+		assertThat(brotli.body().length).isLessThan(identity.body().length / 2);
+	}
+
+	@Test
+	void leavesSmallBodiesAndEventStreamsUncompressed() {
+		assertThat(get("/small", "gzip").headers().get(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(get("/stream", "gzip").headers().get(HttpHeaders.CONTENT_ENCODING)).isNull();
+	}
+
+	@Test
+	void forwardsOverCleartextHttp2() {
+		Reply reply = get("/posts", "identity");
+
+		assertThat(upstream.lastProtocol()).isEqualTo("HTTP/2.0");
+		assertThat(reply.headers().get("x-http2-stream-id")).isNull();
+	}
+
+	private Reply get(String path, String acceptEncoding) {
+		return HttpClient.create()
+				.headers(headers -> headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+				.get()
+				.uri("http://localhost:" + port + path)
+				.responseSingle((response, body) -> body.asByteArray()
+						.map(bytes -> new Reply(response.responseHeaders(), bytes)))
+				.block(Duration.ofSeconds(10));
+	}
+
+	private record Reply(io.netty.handler.codec.http.HttpHeaders headers, byte[] body) {
+	}
+}
@@ -0,0 +1,112 @@
+package com.socialhub.sh_api_gateway.http;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A stand-in for USER-SERVICE that accepts HTTP/1.1 and h2c and serves a page of posts shaped
+ * like {@code GET /posts}, a small JSON body and an event stream.
+ */
+final class StubUpstream implements AutoCloseable {
+
+	private static final String[] WORDS = {"the", "a", "weekend", "coffee", "photo", "friends", "new", "just",
+			"great", "today", "trip", "city", "music", "game", "finally", "love", "this", "with", "our", "team",
+			"launch", "morning", "sunset", "beach", "dinner", "project", "release", "congrats", "thanks", "everyone"};
+
+	private final DisposableServer server;
+	private final AtomicReference<String> lastProtocol = new AtomicReference<>();
+	private final AtomicInteger connections = new AtomicInteger();
+
+	StubUpstream(Duration latency) {
+		String postsPage = postsPage(20);
+		server = HttpServer.create()
+				.port(0)
+				.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11)
+				// Once per TCP connection; HTTP/2 streams are child channels
+				.doOnChannelInit((observer, channel, address) -> connections.incrementAndGet())
+				.route(routes -> routes
+						.get("/posts", (request, response) -> {
+							// Netty hands HTTP/2 streams over as HTTP/1.1 requests carrying the stream ID
+							lastProtocol.set(request.requestHeaders().contains("x-http2-stream-id")
+									? "HTTP/2.0" : request.protocol());
+							return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+									.sendString(Mono.delay(latency).thenReturn(postsPage));
+						})
+						.get("/small", (request, response) -> response
+								.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+								.sendString(Mono.just("{\"available\":true}")))
+						.get("/stream", (request, response) -> response
+								.header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE)
+								.sendString(Mono.just("data: {\"type\":\"LIKE\"}\n\n".repeat(100)))))
+				.bindNow();
+	}
+
+	int port() {
+		return server.port();
+	}
+
+	/**
+	 * @return the protocol of the last {@code /posts} request, e.g. HTTP/2.0
+	 */
+	String lastProtocol() {
+		return lastProtocol.get();
+	}
+
+	/**
+	 * @return the connections opened to the stub so far
+	 */
+	int connections() {
+		return connections.get();
+	}
+
+	@Override
+	public void close() {
+		server.disposeNow();
+	}
+
+	/**
+	 * A serialized {@code Page<PostResponse>} with posts of a few dozen words each.
+	 */
+	static String postsPage(int size) {
+		Random random = new Random(42);
+		StringBuilder json = new StringBuilder("{\"content\":[");
+		LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+		for (int i = 0; i < size; i++) {
+			StringBuilder content = new StringBuilder();
+			for (int w = 10 + random.nextInt(40); w > 0; w--) {
+				content.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+			}
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"id\":").append(100_000 + random.nextInt(900_000))
+					.append(",\"authorUsername\":\"user").append(random.nextInt(100_000)).append('"')
+					.append(",\"content\":\"").append(content.toString().trim()).append('"')
+					.append(",\"mediaUrl\":").append(i % 3 == 0
+							? "\"https://cdn.socialhub.example/media/" + Long.toHexString(random.nextLong()) + ".jpg\""
+							: "null")
+					.append(",\"mediaType\":").append(i % 3 == 0 ? "\"IMAGE\"" : "null")
+					.append(",\"createdAt\":\"").append(createdAt.minusMinutes(random.nextInt(10_000))).append('"')
+					.append(",\"likeCount\":").append(random.nextInt(500))
+					.append(",\"commentCount\":").append(random.nextInt(50))
+					.append(",\"likedByMe\":").append(random.nextBoolean())
+					.append('}');
+		}
+		return json.append("],\"pageable\":{\"pageNumber\":0,\"pageSize\":").append(size)
+				.append(",\"sort\":{\"empty\":false,\"sorted\":true,\"unsorted\":false},\"offset\":0,\"paged\":true,\"unpaged\":false}")
+				.append(",\"last\":false,\"totalElements\":1000,\"totalPages\":50,\"size\":").append(size)
+				.append(",\"number\":0,\"sort\":{\"empty\":false,\"sorted\":true,\"unsorted\":false},\"first\":true")
+				.append(",\"numberOfElements\":").append(size).append(",\"empty\":false}")
+				.toString();
+	}
+}
@@ -0,0 +1,165 @@
+package com.socialhub.sh_api_gateway.loadbalancer;
+
+import com.socialhub.sh_api_gateway.MutableClock;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EwmaLoadBalancerTests {
+
+	private static final ServiceInstance A = instance("a", 8001);
+	private static final ServiceInstance B = instance("b", 8002);
+	private static final ServiceInstance C = instance("c", 8003);
+
+	private final MutableClock clock = new MutableClock();
+	private final BalancerProperties properties = new BalancerProperties();
+	private final InstanceStatistics statistics = new InstanceStatistics(properties, clock);
+	private final EwmaLoadBalancer loadBalancer = new EwmaLoadBalancer(emptyProvider(), "USER-SERVICE", statistics,
+			properties);
+
+	@Test
+	void prefersTheInstanceAnsweringFaster() {
+		call(A, Duration.ofMillis(5), HttpStatus.OK);
+		call(B, Duration.ofMillis(50), HttpStatus.OK);
+
+		assertThat(chooseMany(List.of(A, B))).containsOnlyKeys(A);
+	}
+
+	@Test
+	void weighsResponseTimesByRequestsInFlight() {
+		call(A, Duration.ofMillis(10), HttpStatus.OK);
+		call(B, Duration.ofMillis(20), HttpStatus.OK);
+		for (int i = 0; i < 3; i++) {
+			statistics.onStartRequest(new DefaultRequest<>(), new DefaultResponse(A));
+		}
+
+		assertThat(chooseMany(List.of(A, B))).containsOnlyKeys(B);
+
+		// Requests never reported as completed stop counting after request-timeout
+		clock.advance(properties.getRequestTimeout().plusSeconds(1));
+		call(A, Duration.ofMillis(10), HttpStatus.OK);
+		call(B, Duration.ofMillis(20), HttpStatus.OK);
+		assertThat(chooseMany(List.of(A, B))).containsOnlyKeys(A);
+	}
+
+	@Test
+	void triesASlowInstanceAgainOnceItsAverageHasDecayed() {
+		call(A, Duration.ofMillis(20), HttpStatus.OK);
+		call(B, Duration.ofMillis(500), HttpStatus.OK);
+		clock.advance(Duration.ofSeconds(60));
+		// A keeps answering in 20ms while B's half-second answer fades
+		call(A, Duration.ofMillis(20), HttpStatus.OK);
+
+		assertThat(chooseMany(List.of(A, B))).containsOnlyKeys(B);
+	}
+
+	@Test
+	void ejectsAnInstanceFailingInARowUntilTheEjectionTimeHasPassed() {
+		List<ServiceInstance> instances = List.of(A, B, C);
+		for (ServiceInstance instance : instances) {
+			call(instance, Duration.ofMillis(10), HttpStatus.OK);
+		}
+		for (int i = 0; i < 4; i++) {
+			call(A, Duration.ofMillis(1), HttpStatus.SERVICE_UNAVAILABLE);
+		}
+		assertThat(statistics.isEjected(A)).isFalse();
+		fail(A);
+
+		assertThat(statistics.isEjected(A)).isTrue();
+		assertThat(chooseMany(instances)).doesNotContainKey(A);
+
+		clock.advance(properties.getEjection().getBaseTime());
+		assertThat(statistics.isEjected(A)).isFalse();
+
+		// Failing again straight after readmission ejects it for twice as long
+		for (int i = 0; i < 5; i++) {
+			call(A, Duration.ofMillis(1), HttpStatus.BAD_GATEWAY);
+		}
+		clock.advance(properties.getEjection().getBaseTime());
+		assertThat(statistics.isEjected(A)).isTrue();
+		clock.advance(properties.getEjection().getBaseTime());
+		assertThat(statistics.isEjected(A)).isFalse();
+	}
+
+	@Test
+	void doesNotCountOtherErrorsAsFailures() {
+		for (int i = 0; i < 10; i++) {
+			call(A, Duration.ofMillis(1), HttpStatus.INTERNAL_SERVER_ERROR);
+			call(A, Duration.ofMillis(1), HttpStatus.NOT_FOUND);
+		}
+
+		assertThat(statistics.isEjected(A)).isFalse();
+	}
+
+	@Test
+	void usesEjectedInstancesRatherThanEjectingMoreThanMaxPercent() {
+		for (int i = 0; i < 5; i++) {
+			fail(A);
+			fail(B);
+		}
+
+		assertThat(statistics.isEjected(A)).isTrue();
+		assertThat(statistics.isEjected(B)).isTrue();
+		assertThat(chooseMany(List.of(A, B))).containsOnlyKeys(A, B);
+	}
+
+	@Test
+	void dividesTheCostByTheInstanceWeight() {
+		ServiceInstance heavy = instance("heavy", 8004);
+		heavy.getMetadata().put("weight", "4");
+		call(A, Duration.ofMillis(10), HttpStatus.OK);
+		call(heavy, Duration.ofMillis(30), HttpStatus.OK);
+
+		assertThat(chooseMany(List.of(A, heavy))).containsOnlyKeys(heavy);
+	}
+
+	private Map<ServiceInstance, Integer> chooseMany(List<ServiceInstance> instances) {
+		Map<ServiceInstance, Integer> chosen = new HashMap<>();
+		for (int i = 0; i < 100; i++) {
+			chosen.merge(loadBalancer.choose(instances).getServer(), 1, Integer::sum);
+		}
+		return chosen;
+	}
+
+	private void call(ServiceInstance instance, Duration latency, HttpStatus status) {
+		DefaultRequest<Object> request = new DefaultRequest<>();
+		DefaultResponse response = new DefaultResponse(instance);
+		statistics.onStartRequest(request, response);
+		clock.advance(latency);
+		statistics.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response,
+				new ResponseData(status, new HttpHeaders(), null, null)));
+	}
+
+	private void fail(ServiceInstance instance) {
+		DefaultRequest<Object> request = new DefaultRequest<>();
+		DefaultResponse response = new DefaultResponse(instance);
+		statistics.onStartRequest(request, response);
+		statistics.onComplete(new CompletionContext<>(CompletionContext.Status.FAILED,
+				new ConnectException("Connection refused"), request, response));
+	}
+
+	private static ServiceInstance instance(String id, int port) {
+		return new DefaultServiceInstance(id, "USER-SERVICE", "localhost", port, false, new HashMap<>());
+	}
+
+	private static ObjectProvider<ServiceInstanceListSupplier> emptyProvider() {
+		return new StaticListableBeanFactory().getBeanProvider(ServiceInstanceListSupplier.class);
+	}
+}
@@ -0,0 +1,95 @@
+package com.socialhub.sh_api_gateway.loadbalancer;
+
+import com.socialhub.sh_api_gateway.ApiGatewayApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the gateway in front of several local instances of a service, listed as the fallback
+ * since there is no Eureka to discover them.
+ */
+class LoadBalancingTests {
+
+	private static final int REQUESTS = 300;
+	private static final int CONCURRENCY = 4;
+
+	private final List<DisposableServer> servers = new ArrayList<>();
+	private ConfigurableApplicationContext gateway;
+
+	@AfterEach
+	void stop() {
+		if (gateway != null) {
+			gateway.close();
+		}
+		servers.forEach(DisposableServer::disposeNow);
+	}
+
+	@Test
+	void sendsMostRequestsToTheFastestInstanceAndEjectsTheFailingOne() {
+		AtomicInteger fastHits = new AtomicInteger();
+		AtomicInteger slowHits = new AtomicInteger();
+		AtomicInteger failingHits = new AtomicInteger();
+		int fast = start(fastHits, Duration.ZERO, HttpStatus.OK);
+		int slow = start(slowHits, Duration.ofMillis(250), HttpStatus.OK);
+		int failing = start(failingHits, Duration.ZERO, HttpStatus.SERVICE_UNAVAILABLE);
+		int port = startGateway(fast, slow, failing);
+
+		HttpClient client = HttpClient.create();
+		Flux.range(0, REQUESTS)
+				.flatMap(i -> client.get()
+						.uri("http://localhost:" + port + "/posts")
+						.responseSingle((response, body) -> Mono.just(response.status().code())), CONCURRENCY)
+				.blockLast(Duration.ofMinutes(1));
+
+		assertThat(fastHits.get() + slowHits.get() + failingHits.get()).isEqualTo(REQUESTS);
+		// Ejected after consecutive-failures, give or take the requests already on their way
+		assertThat(failingHits.get()).isBetween(5, 5 + CONCURRENCY);
+		assertThat(fastHits.get()).isGreaterThan(4 * slowHits.get());
+		assertThat(slowHits.get()).isPositive();
+	}
+
+	private int start(AtomicInteger hits, Duration latency, HttpStatus status) {
+		DisposableServer server = HttpServer.create()
+				.port(0)
+				.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11)
+				.handle((request, response) -> {
+					hits.incrementAndGet();
+					return response.status(status.value())
+							.sendString(Mono.delay(latency).thenReturn("{\"content\":[]}"));
+				})
+				.bindNow();
+		servers.add(server);
+		return server.port();
+	}
+
+	private int startGateway(int... ports) {
+		List<String> args = new ArrayList<>(List.of(
+				"--server.port=0",
+				"--eureka.client.enabled=false",
+				"--logging.level.root=WARN",
+				"--spring.cloud.gateway.routes[0].id=stub",
+				"--spring.cloud.gateway.routes[0].uri=lb://STUB-SERVICE",
+				"--spring.cloud.gateway.routes[0].predicates[0]=Path=/posts"));
+		for (int i = 0; i < ports.length; i++) {
+			args.add("--socialhub.loadbalancer.fallback.STUB-SERVICE[" + i + "]=http://localhost:" + ports[i]);
+		}
+		gateway = new SpringApplicationBuilder(ApiGatewayApplication.class).run(args.toArray(String[]::new));
+		return Integer.parseInt(gateway.getEnvironment().getProperty("local.server.port"));
+	}
+}
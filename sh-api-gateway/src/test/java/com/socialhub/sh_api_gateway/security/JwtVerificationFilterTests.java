@@ -0,0 +1,100 @@
+package com.socialhub.sh_api_gateway.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtVerificationFilterTests {
+
+	private RSAKey publishedKey;
+	private JwtVerificationFilter filter;
+
+	@BeforeEach
+	void setUp() throws JOSEException {
+		publishedKey = newKey();
+		filter = new JwtVerificationFilter(new JwksProperties(), new ImmutableJWKSet<>(new JWKSet(publishedKey.toPublicJWK())));
+	}
+
+	@Test
+	void passesRequestsWithoutBearerToken() {
+		assertPassed(MockServerWebExchange.from(MockServerHttpRequest.get("/posts")));
+	}
+
+	@Test
+	void passesValidToken() throws JOSEException {
+		assertPassed(exchange(sign(publishedKey, 60_000)));
+	}
+
+	@Test
+	void rejectsExpiredToken() throws JOSEException {
+		assertRejected(exchange(sign(publishedKey, -120_000)));
+	}
+
+	@Test
+	void rejectsTokenSignedWithUnpublishedKey() throws JOSEException {
+		assertRejected(exchange(sign(newKey(), 60_000)));
+	}
+
+	@Test
+	void rejectsMalformedToken() {
+		assertRejected(exchange("not-a-token"));
+	}
+
+	private void assertPassed(MockServerWebExchange exchange) {
+		AtomicBoolean forwarded = new AtomicBoolean();
+		filter.filter(exchange, ignored -> Mono.fromRunnable(() -> forwarded.set(true))).block();
+		assertTrue(forwarded.get());
+		assertNull(exchange.getResponse().getStatusCode());
+	}
+
+	private void assertRejected(MockServerWebExchange exchange) {
+		AtomicBoolean forwarded = new AtomicBoolean();
+		filter.filter(exchange, ignored -> Mono.fromRunnable(() -> forwarded.set(true))).block();
+		assertFalse(forwarded.get());
+		assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+		assertTrue(exchange.getResponse().getHeaders().getFirst(HttpHeaders.WWW_AUTHENTICATE).startsWith("Bearer"));
+	}
+
+	private static MockServerWebExchange exchange(String token) {
+		return MockServerWebExchange.from(MockServerHttpRequest.get("/posts")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+	}
+
+	private static RSAKey newKey() throws JOSEException {
+		return new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate();
+	}
+
+	private static String sign(RSAKey key, long expiresInMillis) throws JOSEException {
+		SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+				new JWTClaimsSet.Builder()
+						.subject("alice")
+						.issueTime(new Date())
+						.expirationTime(new Date(System.currentTimeMillis() + expiresInMillis))
+						.build());
+		jwt.sign(new RSASSASigner(key));
+		return jwt.serialize();
+	}
+}
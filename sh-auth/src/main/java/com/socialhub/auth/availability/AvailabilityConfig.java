@@ -0,0 +1,14 @@
+package com.socialhub.auth.availability;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Registers the availability filter settings and the scheduling its refresh runs on.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(AvailabilityProperties.class)
+public class AvailabilityConfig {
+}
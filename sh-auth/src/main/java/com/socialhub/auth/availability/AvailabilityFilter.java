@@ -0,0 +1,226 @@
+package com.socialhub.auth.availability;
+
+import com.socialhub.auth.repository.UserRepository;
+import com.socialhub.auth.repository.projection.UserKeyView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Collator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Bloom filters of the usernames and emails already taken, so that a free one is confirmed
+ * without asking the database; only keys the filters report as possibly taken are looked up.
+ * <p>
+ * The filters are loaded from the users table once the application is ready and updated as
+ * users register here. Users registered through other instances are picked up by a periodic
+ * scan for users newer than the last one seen; until then the unique constraints of the users
+ * table still reject a duplicate. Before the first load completes every lookup goes to the
+ * database.
+ * <p>
+ * Keys are folded to their primary collation keys, which compare like the table's
+ * utf8mb4_0900_ai_ci collation: case, accents and ligatures are ignored, and "ß" equals "ss".
+ * The folding approximates the collation rather than reproducing it, so the filter's answer is
+ * a hint; the unique constraints decide, and a registration they reject is answered as a
+ * conflict. Folding more than the collation does only costs extra lookups.
+ * <p>
+ * Publishes, per field, the lookups the filter answered, the database lookups that found the
+ * key taken, those that found it free (false positives), the observed false-positive rate, and
+ * the filter's size and expected false-positive rate.
+ */
+@Slf4j
+@Component
+public class AvailabilityFilter {
+
+    /**
+     * Letters with a stroke, which the collation orders with the plain letter but
+     * {@link Collator} gives a primary weight of their own.
+     */
+    private static final String STROKED = "ØøĐđŁłĦħŦŧ";
+    private static final String UNSTROKED = "OoDdLlHhTt";
+
+    private static final ThreadLocal<Collator> COLLATOR = ThreadLocal.withInitial(() -> {
+        Collator collator = Collator.getInstance(Locale.ROOT);
+        collator.setStrength(Collator.PRIMARY);
+        collator.setDecomposition(Collator.FULL_DECOMPOSITION);
+        return collator;
+    });
+
+    private final AvailabilityProperties properties;
+    private final UserRepository userRepository;
+    private final Field username;
+    private final Field email;
+    private volatile boolean loaded;
+    private volatile long lastSeenId;
+
+    public AvailabilityFilter(AvailabilityProperties properties, UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.userRepository = userRepository;
+        this.username = new Field("username", properties, meterRegistry);
+        this.email = new Field("email", properties, meterRegistry);
+    }
+
+    /**
+     * Checks whether a username is taken, asking the database only when the filter cannot rule it out.
+     *
+     * @param username the username
+     * @return true if a user has the username
+     */
+    public boolean isUsernameTaken(String username) {
+        return isTaken(this.username, username, userRepository::existsByUsername);
+    }
+
+    /**
+     * Checks whether an email is in use, asking the database only when the filter cannot rule it out.
+     *
+     * @param email the email
+     * @return true if a user has the email
+     */
+    public boolean isEmailTaken(String email) {
+        return isTaken(this.email, email, userRepository::existsByEmail);
+    }
+
+    /**
+     * Adds a user's username and email. Called before the user is saved, so that the filters
+     * never report free a key that another request can already see taken.
+     *
+     * @param username the username
+     * @param email    the email
+     */
+    public void add(String username, String email) {
+        this.username.filter.add(fold(username));
+        this.email.filter.add(fold(email));
+    }
+
+    /**
+     * Loads the filters from the users table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long started = System.nanoTime();
+        int users = scan();
+        loaded = true;
+        log.info("Loaded the availability filters with {} users in {} ms ({} KiB)", users,
+                (System.nanoTime() - started) / 1_000_000,
+                (username.filter.sizeInBytes() + email.filter.sizeInBytes()) / 1024);
+    }
+
+    /**
+     * Adds users registered since the last scan, including those registered through other instances.
+     */
+    @Scheduled(fixedDelayString = "${socialhub.availability.refresh-interval:PT30S}")
+    public void refresh() {
+        if (loaded) {
+            scan();
+        }
+    }
+
+    /**
+     * @return whether the filters have been loaded and answer lookups
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    private synchronized int scan() {
+        int users = 0;
+        List<UserKeyView> batch;
+        do {
+            batch = userRepository.findKeysAfter(lastSeenId, PageRequest.of(0, properties.getLoadBatchSize()));
+            for (UserKeyView user : batch) {
+                add(user.getUsername(), user.getEmail());
+                lastSeenId = user.getId();
+            }
+            users += batch.size();
+        } while (batch.size() == properties.getLoadBatchSize());
+        return users;
+    }
+
+    private boolean isTaken(Field field, String key, Predicate<String> database) {
+        if (!loaded || !properties.isEnabled()) {
+            return database.test(key);
+        }
+        if (!field.filter.mightContain(fold(key))) {
+            field.negatives.increment();
+            return false;
+        }
+        boolean taken = database.test(key);
+        (taken ? field.truePositives : field.falsePositives).increment();
+        return taken;
+    }
+
+    /**
+     * Folds a key to its primary collation key, so that keys the users table's collation
+     * compares as equal fold to the same string.
+     */
+    static String fold(String key) {
+        char[] chars = key.stripTrailing().toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            int stroked = STROKED.indexOf(chars[i]);
+            if (stroked >= 0) {
+                chars[i] = UNSTROKED.charAt(stroked);
+            }
+        }
+        byte[] primary = COLLATOR.get().getCollationKey(new String(chars)).toByteArray();
+        return new String(primary, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * The filter of one unique column and its meters.
+     */
+    private static final class Field {
+
+        private final ScalableBloomFilter filter;
+        private final Counter negatives;
+        private final Counter truePositives;
+        private final Counter falsePositives;
+
+        Field(String name, AvailabilityProperties properties, MeterRegistry meterRegistry) {
+            this.filter = new ScalableBloomFilter(properties.getExpectedKeys(), properties.getFalsePositiveRate());
+            this.negatives = lookups(name, "filtered", meterRegistry);
+            this.truePositives = lookups(name, "taken", meterRegistry);
+            this.falsePositives = lookups(name, "false_positive", meterRegistry);
+            Gauge.builder("auth.availability.false.positive.rate", this, Field::observedFalsePositiveRate)
+                    .description("Share of lookups of free keys that the filter sent to the database")
+                    .tag("field", name)
+                    .register(meterRegistry);
+            Gauge.builder("auth.availability.filter.expected.false.positive.rate", filter, ScalableBloomFilter::expectedFalsePositiveRate)
+                    .description("False-positive rate expected from the filter's fill")
+                    .tag("field", name)
+                    .register(meterRegistry);
+            Gauge.builder("auth.availability.filter.keys", filter, ScalableBloomFilter::count)
+                    .tag("field", name)
+                    .register(meterRegistry);
+            Gauge.builder("auth.availability.filter.size", filter, ScalableBloomFilter::sizeInBytes)
+                    .baseUnit("bytes")
+                    .tag("field", name)
+                    .register(meterRegistry);
+        }
+
+        private static Counter lookups(String field, String result, MeterRegistry meterRegistry) {
+            return Counter.builder("auth.availability.lookups")
+                    .description("Availability lookups by whether the filter answered or the database found the key taken or free")
+                    .tag("field", field)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        private double observedFalsePositiveRate() {
+            double free = falsePositives.count() + negatives.count();
+            return free == 0 ? 0 : falsePositives.count() / free;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.socialhub.auth.availability;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the in-memory filters of taken usernames and emails.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.availability")
+public class AvailabilityProperties {
+
+    /**
+     * Whether lookups consult the filters; when false every lookup goes to the database.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Keys the first slice of each filter is sized for; the filters grow beyond it.
+     */
+    private int expectedKeys = 100_000;
+
+    /**
+     * Bound on the rate at which a free username or email is reported possibly taken and checked in the database.
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * Users read per query when loading the filters.
+     */
+    private int loadBatchSize = 5000;
+
+    /**
+     * Interval between scans for users registered through other instances.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(30);
+}
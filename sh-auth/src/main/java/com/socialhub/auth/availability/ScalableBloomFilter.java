@@ -0,0 +1,177 @@
+package com.socialhub.auth.availability;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Bloom filter that grows as keys are added: once a slice holds the keys it was sized for, a
+ * slice twice as large with half the false-positive rate is appended, so that the overall rate
+ * stays under the configured one however many keys arrive (Almeida et al., "Scalable Bloom
+ * Filters"). Lookups check every slice.
+ * <p>
+ * Keys are added under the filter's lock; lookups take no lock and see a key as soon as
+ * {@link #add(String)} returns.
+ */
+final class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final double falsePositiveRate;
+    private volatile Slice[] slices;
+
+    /**
+     * @param initialCapacity   keys the first slice is sized for
+     * @param falsePositiveRate bound on the rate at which absent keys are reported present
+     */
+    ScalableBloomFilter(int initialCapacity, double falsePositiveRate) {
+        if (initialCapacity < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter capacity or false-positive rate");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        // The slices' rates form a geometric series summing to the configured rate
+        this.slices = new Slice[]{new Slice(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO))};
+    }
+
+    /**
+     * @return false if the key was certainly never added, true if it probably was
+     */
+    boolean mightContain(String key) {
+        long hash = hash(key);
+        for (Slice slice : slices) {
+            if (slice.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a key, appending a slice when the last one is full.
+     */
+    synchronized void add(String key) {
+        long hash = hash(key);
+        Slice[] current = slices;
+        for (Slice slice : current) {
+            if (slice.mightContain(hash)) {
+                return;
+            }
+        }
+        Slice last = current[current.length - 1];
+        if (last.count >= last.capacity) {
+            last = new Slice((int) Math.min(Integer.MAX_VALUE, (long) last.capacity * GROWTH_FACTOR),
+                    last.falsePositiveRate * TIGHTENING_RATIO);
+            Slice[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = last;
+            slices = grown;
+        }
+        last.add(hash);
+    }
+
+    /**
+     * @return the number of keys added, not counting those the filter already reported present
+     */
+    long count() {
+        long count = 0;
+        for (Slice slice : slices) {
+            count += slice.count;
+        }
+        return count;
+    }
+
+    /**
+     * @return the memory taken by the bits of all slices
+     */
+    long sizeInBytes() {
+        long bytes = 0;
+        for (Slice slice : slices) {
+            bytes += slice.bits.length() * (long) Long.BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * @return the false-positive rate expected at the current fill, from each slice's keys and size
+     */
+    double expectedFalsePositiveRate() {
+        double allNegative = 1;
+        for (Slice slice : slices) {
+            double filled = 1 - Math.exp(-slice.hashes * (double) slice.count / slice.size);
+            allNegative *= 1 - Math.pow(filled, slice.hashes);
+        }
+        return 1 - allNegative;
+    }
+
+    /**
+     * @return the bound the filter was configured with
+     */
+    double falsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    /**
+     * 64-bit FNV-1a over the key's UTF-8 bytes, finished with the MurmurHash3 mixer so that the
+     * two halves used for double hashing are independent enough.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * A plain Bloom filter sized for a number of keys at a false-positive rate.
+     */
+    private static final class Slice {
+
+        private final int capacity;
+        private final double falsePositiveRate;
+        private final long size;
+        private final int hashes;
+        private final AtomicLongArray bits;
+        private volatile int count;
+
+        Slice(int capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            double ln2 = Math.log(2);
+            long words = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2) / Long.SIZE);
+            this.size = Math.max(1, words) * Long.SIZE;
+            this.hashes = Math.max(1, (int) Math.round((double) size / capacity * ln2));
+            this.bits = new AtomicLongArray((int) (size / Long.SIZE));
+        }
+
+        boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, size);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void add(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, size);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                bits.getAndAccumulate(word, mask, (current, m) -> current | m);
+            }
+            count++;
+        }
+    }
+}
@@ -1,57 +1,49 @@
 package com.socialhub.auth.config;
 
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.socialhub.auth.jwk.SigningKeyStore;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
-import jakarta.annotation.PostConstruct;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
-import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
-    @Value("${spring.security.jwt.secret}")
-    private String jwtSecret;
+    private final SigningKeyStore signingKeyStore;
 
+    @Getter
     @Value("${spring.security.jwt.expiration}")
     private Long jwtExpirationInMs;
 
-    @Getter
-    private SecretKey secretKey;
-
-    @PostConstruct
-    public void init() {
-        this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-    }
-
     /**
-     * Generates a JWT token based on the authenticated user.
+     * Generates a JWT access token for a user's session.
      *
-     * @param authentication the authentication object containing user details
+     * @param username  the username of the user
+     * @param roles     the names of the user's roles
+     * @param sessionId the ID of the session, carried as the sid claim so that revoking the session revokes the token
      * @return the generated JWT token as a String
      */
-    public String generateToken(Authentication authentication) {
-        org.springframework.security.core.userdetails.User userPrincipal =
-                (org.springframework.security.core.userdetails.User) authentication.getPrincipal();
-
-        String roles = userPrincipal.getAuthorities().stream()
-                .map(authority -> authority.getAuthority())
-                .collect(Collectors.joining(","));
-
+    public String generateToken(String username, Collection<String> roles, Long sessionId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
+        RSAKey signingKey = signingKeyStore.signingKey();
 
         return Jwts.builder()
-                .setSubject(userPrincipal.getUsername())
-                .claim("roles", roles)
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKeyID())
+                .setSubject(username)
+                .claim("roles", String.join(",", roles))
+                .claim("sid", sessionId)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(secretKey, SignatureAlgorithm.HS256)
+                .signWith(privateKey(signingKey), SignatureAlgorithm.RS256)
                 .compact();
     }
 
@@ -101,9 +93,34 @@ public class JwtTokenProvider {
      */
     private Claims parseClaims(String token) {
         return Jwts.parserBuilder()
-                   .setSigningKey(secretKey)
+                   .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                       @Override
+                       public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                           RSAKey key = signingKeyStore.publicKey(header.getKeyId());
+                           if (key == null) {
+                               throw new JwtException("Unknown signing key " + header.getKeyId());
+                           }
+                           return publicKey(key);
+                       }
+                   })
                    .build()
                    .parseClaimsJws(token)
                    .getBody();
     }
+
+    private static Key privateKey(RSAKey key) {
+        try {
+            return key.toRSAPrivateKey();
+        } catch (JOSEException ex) {
+            throw new IllegalStateException("Signing key " + key.getKeyID() + " has no usable private key", ex);
+        }
+    }
+
+    private static Key publicKey(RSAKey key) {
+        try {
+            return key.toRSAPublicKey();
+        } catch (JOSEException ex) {
+            throw new JwtException("Signing key " + key.getKeyID() + " has no usable public key", ex);
+        }
+    }
 }
@@ -3,6 +3,8 @@ package com.socialhub.auth.config;
 import io.swagger.v3.oas.models.ExternalDocumentation;
 import io.swagger.v3.oas.models.info.*;
 import io.swagger.v3.oas.models.*;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import io.swagger.v3.oas.models.security.*;
@@ -32,4 +34,24 @@ public class SwaggerConfig {
                                 .scheme("bearer")
                                 .bearerFormat("JWT")));
     }
-}
\ No newline at end of file
+
+    /**
+     * Marks the springdoc beans lazy, so that they are created by the first request for the API
+     * docs or Swagger UI rather than while the service starts.
+     */
+    @Bean
+    public static BeanFactoryPostProcessor lazyApiDocs() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (isSpringdoc(definition.getBeanClassName()) || isSpringdoc(definition.getFactoryBeanName())) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static boolean isSpringdoc(String name) {
+        return name != null && name.startsWith("org.springdoc.");
+    }
+}
@@ -0,0 +1,12 @@
+package com.socialhub.auth.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the refresh token settings.
+ */
+@Configuration
+@EnableConfigurationProperties(TokenProperties.class)
+public class TokenConfig {
+}
@@ -0,0 +1,31 @@
+package com.socialhub.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of refresh tokens and session revocation; the access token lifetime stays
+ * {@code spring.security.jwt.expiration}.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.tokens")
+public class TokenProperties {
+
+    /**
+     * Lifetime of a refresh token; each refresh issues a new one, so a session lasts while it is used at least this often.
+     */
+    private Duration refreshTokenTtl = Duration.ofDays(30);
+
+    /**
+     * How far before the requested point revocations are listed again, covering revocations
+     * that committed after later ones.
+     */
+    private Duration revocationOverlap = Duration.ofSeconds(10);
+
+    /**
+     * Interval between deletions of expired sessions and refresh tokens.
+     */
+    private Duration pruneInterval = Duration.ofHours(1);
+}
@@ -2,6 +2,7 @@ package com.socialhub.auth.controller;
 
 import com.socialhub.auth.dto.*;
 import com.socialhub.auth.service.AuthService;
+import com.socialhub.auth.service.TokenService;
 import com.socialhub.auth.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -23,6 +24,7 @@ public class AuthController {
 
     private final AuthService authService;
     private final UserService userService;
+    private final TokenService tokenService;
     private String extractJwtToken(String bearerToken) {
         return bearerToken.startsWith("Bearer ") ? bearerToken.substring(7) : bearerToken;
     }
@@ -32,7 +34,8 @@ public class AuthController {
      */
     @Operation(summary = "Register a new user", responses = {
             @ApiResponse(responseCode = "201", description = "User registered successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid input data")
+            @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "409", description = "Username or email taken by a concurrent registration")
     })
     @PostMapping("/register")
     public ResponseEntity<UserDetailsResponse> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
@@ -40,6 +43,22 @@ public class AuthController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * Username and Email Availability Endpoint
+     * URL: GET /auth/available?username=...&email=...
+     */
+    @Operation(summary = "Check whether a username and/or an email are free to register",
+            description = "Free keys are usually confirmed from an in-memory filter without a database query.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Availability of each key given"),
+                    @ApiResponse(responseCode = "400", description = "Neither a username nor an email given")
+            })
+    @GetMapping("/available")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(@RequestParam(required = false) String username,
+                                                                  @RequestParam(required = false) String email) {
+        return ResponseEntity.ok(userService.checkAvailability(username, email));
+    }
+
     /**
      * User Login Endpoint
      * URL: POST /auth/login
@@ -51,6 +70,42 @@ public class AuthController {
         return ResponseEntity.ok(loginResponse);
     }
 
+    /**
+     * Token Refresh Endpoint
+     * URL: POST /auth/refresh
+     */
+    @Operation(summary = "Exchange a refresh token for a new access token and refresh token", responses = {
+            @ApiResponse(responseCode = "200", description = "Tokens issued; the refresh token given can no longer be used"),
+            @ApiResponse(responseCode = "401", description = "Refresh token unknown, expired, already used or of a revoked session")
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refreshToken(@Valid @RequestBody RefreshRequest refreshRequest) {
+        return ResponseEntity.ok(tokenService.refresh(refreshRequest.getRefreshToken()));
+    }
+
+    /**
+     * Logout Endpoint
+     * URL: POST /auth/logout
+     */
+    @Operation(summary = "Revoke the session of a refresh token, with its access tokens", responses = {
+            @ApiResponse(responseCode = "204", description = "Session revoked, or the token was unknown")
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshRequest refreshRequest) {
+        tokenService.revokeSession(refreshRequest.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Revocations Endpoint, polled by resource servers
+     * URL: GET /auth/revocations?since=...
+     */
+    @Operation(summary = "List sessions revoked since a point whose access tokens may still be live")
+    @GetMapping("/revocations")
+    public ResponseEntity<RevocationsResponse> getRevocations(@RequestParam(required = false) Long since) {
+        return ResponseEntity.ok(tokenService.getRevocations(since));
+    }
+
     // /**
     //  * Token Validation Endpoint
     //  * URL: POST /auth/validate
@@ -0,0 +1,34 @@
+package com.socialhub.auth.controller;
+
+import com.socialhub.auth.jwk.JwkProperties;
+import com.socialhub.auth.jwk.SigningKeyStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "JWKS Controller", description = "Public keys access tokens are verified with")
+public class JwksController {
+
+    private final SigningKeyStore signingKeyStore;
+    private final JwkProperties properties;
+
+    /**
+     * JSON Web Key Set Endpoint, fetched by the services verifying access tokens
+     * URL: GET /.well-known/jwks.json
+     */
+    @Operation(summary = "Get the public keys of the current, previous and next signing keys")
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(properties.getJwksMaxAge()).cachePublic())
+                .body(signingKeyStore.publicKeys().toJSONObject());
+    }
+}
@@ -15,4 +15,10 @@ public class LoginResponse {
     
     @Schema(description = "Type of the token issued", example = "Bearer")
     private String tokenType = "Bearer";
+
+    @Schema(description = "Seconds until the access token expires", example = "900")
+    private Long expiresIn;
+
+    @Schema(description = "Single-use token for POST /auth/refresh; a new one is issued with each access token", example = "q8Yl0bT3x2tq1ZQ0p7m9vUuJr6c4dN1eHk5sA2wB3zI")
+    private String refreshToken;
 }
\ No newline at end of file
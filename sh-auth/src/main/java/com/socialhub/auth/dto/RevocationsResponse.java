@@ -0,0 +1,20 @@
+package com.socialhub.auth.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevocationsResponse {
+
+    @Schema(description = "Sessions revoked since the point requested whose access tokens may still be live")
+    private List<RevokedSessionResponse> sessions;
+
+    @Schema(description = "Epoch milliseconds to pass as since on the next request", example = "1760000000000")
+    private Long until;
+}
@@ -0,0 +1,18 @@
+package com.socialhub.auth.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedSessionResponse {
+
+    @Schema(description = "ID of the revoked session, the sid claim of its access tokens", example = "42")
+    private Long sessionId;
+
+    @Schema(description = "Epoch milliseconds after which no access token of the session is valid anyway", example = "1760000000000")
+    private Long expiresAt;
+}
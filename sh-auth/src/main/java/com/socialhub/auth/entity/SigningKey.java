@@ -0,0 +1,42 @@
+package com.socialhub.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A key pair access tokens are signed with, shared by all instances. A new key is published in
+ * the JWKS ahead of its activation, so that verifiers have it before the first token it signs.
+ */
+@Entity
+@Table(name = "signing_keys")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SigningKey {
+
+    // The kid of the tokens it signs
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false, length = 10)
+    private String algorithm;
+
+    // One more than the key added before it, so that instances adding a key at once conflict
+    @Column(unique = true)
+    private Long generation;
+
+    // The private JWK, encrypted with socialhub.jwt.key-encryption-key
+    @Column(name = "key_data", nullable = false, columnDefinition = "TEXT")
+    private String keyData;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "activates_at", nullable = false)
+    private Instant activatesAt;
+}
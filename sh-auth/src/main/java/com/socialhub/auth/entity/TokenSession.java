@@ -0,0 +1,41 @@
+package com.socialhub.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A login, kept alive by rotating refresh tokens. Access tokens carry its ID in the {@code sid}
+ * claim, so that revoking the session revokes them.
+ */
+@Entity
+@Table(name = "token_sessions", indexes = {
+        @Index(name = "idx_token_sessions_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_token_sessions_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TokenSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Expiry of the latest refresh token
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at")
+    private Instant revokedAt;
+}
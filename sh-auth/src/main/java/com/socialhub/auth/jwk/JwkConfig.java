@@ -0,0 +1,12 @@
+package com.socialhub.auth.jwk;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the signing key settings.
+ */
+@Configuration
+@EnableConfigurationProperties(JwkProperties.class)
+public class JwkConfig {
+}
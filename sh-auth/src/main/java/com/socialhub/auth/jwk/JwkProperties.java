@@ -0,0 +1,39 @@
+package com.socialhub.auth.jwk;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the keys access tokens are signed with.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.jwt")
+public class JwkProperties {
+
+    /**
+     * How long a key signs tokens before the next one takes over.
+     */
+    private Duration rotationInterval = Duration.ofDays(30);
+
+    /**
+     * How long a new key is published before it signs; must exceed how long verifiers cache the JWKS.
+     */
+    private Duration publishAhead = Duration.ofMinutes(15);
+
+    /**
+     * Interval between checks for keys added by other instances and for a rotation being due.
+     */
+    private Duration checkInterval = Duration.ofMinutes(1);
+
+    /**
+     * How long verifiers may cache the JWKS response.
+     */
+    private Duration jwksMaxAge = Duration.ofMinutes(5);
+
+    /**
+     * Base64 AES key (16 or 32 bytes) the private keys are encrypted with in the database; required.
+     */
+    private String keyEncryptionKey;
+}
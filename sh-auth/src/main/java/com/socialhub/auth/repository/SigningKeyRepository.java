@@ -0,0 +1,12 @@
+package com.socialhub.auth.repository;
+
+import com.socialhub.auth.entity.SigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+    List<SigningKey> findAllByOrderByActivatesAtAscIdAsc();
+}
@@ -0,0 +1,30 @@
+package com.socialhub.auth.repository;
+
+import com.socialhub.auth.entity.TokenSession;
+import com.socialhub.auth.repository.projection.RevokedSessionView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TokenSessionRepository extends JpaRepository<TokenSession, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from TokenSession s join fetch s.user where s.id = :id")
+    Optional<TokenSession> findForUpdate(@Param("id") Long id);
+
+    @Query("select s.id as id, s.revokedAt as revokedAt from TokenSession s where s.revokedAt > :after order by s.revokedAt")
+    List<RevokedSessionView> findRevokedAfter(@Param("after") Instant after);
+
+    @Modifying
+    @Query("delete from TokenSession s where s.expiresAt < :before")
+    int deleteExpiredBefore(@Param("before") Instant before);
+}
@@ -1,13 +1,23 @@
 package com.socialhub.auth.repository;
 
 import com.socialhub.auth.entity.User;
+import com.socialhub.auth.repository.projection.UserKeyView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+    boolean existsByUsername(String username);
+    boolean existsByEmail(String email);
+
+    @Query("select u.id as id, u.username as username, u.email as email from User u where u.id > :after order by u.id")
+    List<UserKeyView> findKeysAfter(@Param("after") Long after, Pageable pageable);
 }
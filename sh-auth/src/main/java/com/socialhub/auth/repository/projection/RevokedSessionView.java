@@ -0,0 +1,13 @@
+package com.socialhub.auth.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Projection of a revoked session reduced to its ID and revocation time.
+ */
+public interface RevokedSessionView {
+
+    Long getId();
+
+    Instant getRevokedAt();
+}
@@ -0,0 +1,13 @@
+package com.socialhub.auth.repository.projection;
+
+/**
+ * Projection of a user reduced to the columns that must be unique.
+ */
+public interface UserKeyView {
+
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+}
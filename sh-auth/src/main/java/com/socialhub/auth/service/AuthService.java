@@ -25,13 +25,14 @@ public class AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final TokenService tokenService;
     private final UserRepository userRepository;
 
     /**
-     * Authenticates the user and generates a JWT token upon successful authentication.
+     * Authenticates the user and opens a session upon successful authentication.
      *
      * @param loginRequest the login request containing username and password
-     * @return LoginResponse containing the JWT token and token type
+     * @return LoginResponse containing the JWT access token, its type and lifetime, and the refresh token
      */
     public LoginResponse authenticateUser(LoginRequest loginRequest) {
         Authentication authentication;
@@ -47,11 +48,7 @@ public class AuthService {
         }
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.generateToken(authentication);
-        return LoginResponse.builder()
-                .token(jwt)
-                .tokenType("Bearer")
-                .build();
+        return tokenService.openSession(authentication.getName());
     }
 
     /**
@@ -0,0 +1,198 @@
+package com.socialhub.auth.service;
+
+import com.socialhub.auth.config.JwtTokenProvider;
+import com.socialhub.auth.config.TokenProperties;
+import com.socialhub.auth.dto.LoginResponse;
+import com.socialhub.auth.dto.RevocationsResponse;
+import com.socialhub.auth.dto.RevokedSessionResponse;
+import com.socialhub.auth.entity.RefreshToken;
+import com.socialhub.auth.entity.Role;
+import com.socialhub.auth.entity.TokenSession;
+import com.socialhub.auth.entity.User;
+import com.socialhub.auth.exception.CustomException;
+import com.socialhub.auth.repository.RefreshTokenRepository;
+import com.socialhub.auth.repository.TokenSessionRepository;
+import com.socialhub.auth.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Issues access tokens with rotating refresh tokens, and revokes the sessions they belong to.
+ * <p>
+ * A login opens a session and returns a short-lived access token carrying the session's ID, with
+ * a refresh token. Refreshing exchanges a refresh token for a new pair with two indexed lookups
+ * and no password check. A refresh token is single-use: presenting one that was already
+ * exchanged means it leaked, and revokes the session. Resource servers learn about revoked
+ * sessions through {@link #getRevocations(Long)} and reject their access tokens until these
+ * expire.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenService {
+
+    private static final int REFRESH_TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final TokenProperties properties;
+    private final JwtTokenProvider tokenProvider;
+    private final TokenSessionRepository sessionRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * Opens a session for an authenticated user and issues its first tokens.
+     *
+     * @param username the username of the authenticated user
+     * @return LoginResponse containing the access token and the refresh token
+     */
+    @Transactional
+    public LoginResponse openSession(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
+        Instant now = Instant.now();
+        TokenSession session = sessionRepository.save(TokenSession.builder()
+                .user(user)
+                .createdAt(now)
+                .expiresAt(now.plus(properties.getRefreshTokenTtl()))
+                .build());
+        return issue(session, now);
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and refresh token, without checking the password.
+     *
+     * @param refreshToken the refresh token
+     * @return LoginResponse containing the new access token and refresh token
+     */
+    @Transactional(noRollbackFor = CustomException.class)
+    public LoginResponse refresh(String refreshToken) {
+        // Locks the token, then its session, in the order logout takes them
+        RefreshToken token = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new CustomException("Invalid refresh token", HttpStatus.UNAUTHORIZED));
+        TokenSession session = sessionRepository.findForUpdate(token.getSession().getId())
+                .orElseThrow(() -> new CustomException("Invalid refresh token", HttpStatus.UNAUTHORIZED));
+        Instant now = Instant.now();
+
+        if (session.getRevokedAt() != null) {
+            throw new CustomException("Session has been revoked", HttpStatus.UNAUTHORIZED);
+        }
+        if (token.getUsedAt() != null) {
+            // Kept on the way out: the exception does not roll the revocation back
+            session.setRevokedAt(now);
+            log.warn("Refresh token of session {} was reused; revoking the session", session.getId());
+            throw new CustomException("Refresh token has already been used", HttpStatus.UNAUTHORIZED);
+        }
+        if (token.getExpiresAt().isBefore(now)) {
+            throw new CustomException("Refresh token has expired", HttpStatus.UNAUTHORIZED);
+        }
+
+        token.setUsedAt(now);
+        session.setExpiresAt(now.plus(properties.getRefreshTokenTtl()));
+        return issue(session, now);
+    }
+
+    /**
+     * Revokes the session a refresh token belongs to. Unknown tokens are ignored.
+     *
+     * @param refreshToken the refresh token
+     */
+    @Transactional
+    public void revokeSession(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .flatMap(token -> sessionRepository.findForUpdate(token.getSession().getId()))
+                .filter(session -> session.getRevokedAt() == null)
+                .ifPresent(session -> session.setRevokedAt(Instant.now()));
+    }
+
+    /**
+     * Lists the sessions revoked since a point whose access tokens may still be live.
+     *
+     * @param since epoch milliseconds returned as until by the previous call, or null for all
+     * @return RevocationsResponse containing the revoked sessions and the point to continue from
+     */
+    @Transactional(readOnly = true)
+    public RevocationsResponse getRevocations(Long since) {
+        Instant now = Instant.now();
+        Duration accessTokenTtl = Duration.ofMillis(tokenProvider.getJwtExpirationInMs());
+        Instant after = now.minus(accessTokenTtl);
+        if (since != null) {
+            Instant requested = Instant.ofEpochMilli(since).minus(properties.getRevocationOverlap());
+            if (requested.isAfter(after)) {
+                after = requested;
+            }
+        }
+
+        List<RevokedSessionResponse> sessions = sessionRepository.findRevokedAfter(after).stream()
+                .map(session -> RevokedSessionResponse.builder()
+                        .sessionId(session.getId())
+                        .expiresAt(session.getRevokedAt().plus(accessTokenTtl).toEpochMilli())
+                        .build())
+                .toList();
+        return RevocationsResponse.builder()
+                .sessions(sessions)
+                .until(now.toEpochMilli())
+                .build();
+    }
+
+    /**
+     * Deletes expired refresh tokens and the sessions none of whose tokens are still valid.
+     */
+    @Scheduled(fixedDelayString = "${socialhub.tokens.prune-interval:PT1H}")
+    @Transactional
+    public void pruneExpired() {
+        Instant now = Instant.now();
+        int tokens = refreshTokenRepository.deleteExpiredBefore(now);
+        int sessions = sessionRepository.deleteExpiredBefore(now);
+        if (tokens > 0 || sessions > 0) {
+            log.info("Deleted {} expired refresh tokens and {} expired sessions", tokens, sessions);
+        }
+    }
+
+    private LoginResponse issue(TokenSession session, Instant now) {
+        byte[] bytes = new byte[REFRESH_TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(refreshToken))
+                .session(session)
+                .createdAt(now)
+                .expiresAt(session.getExpiresAt())
+                .build());
+
+        User user = session.getUser();
+        List<String> roles = user.getRoles().stream().map(Role::getName).toList();
+        return LoginResponse.builder()
+                .token(tokenProvider.generateToken(user.getUsername(), roles, session.getId()))
+                .tokenType("Bearer")
+                .expiresIn(tokenProvider.getJwtExpirationInMs() / 1000)
+                .refreshToken(refreshToken)
+                .build();
+    }
+
+    /**
+     * Refresh tokens are random, so a plain SHA-256 is enough to keep them unusable from a dump of the table.
+     */
+    private static String hash(String refreshToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.socialhub.auth.service;
 
+import com.socialhub.auth.availability.AvailabilityFilter;
+import com.socialhub.auth.dto.AvailabilityResponse;
 import com.socialhub.auth.dto.RegisterRequest;
 import com.socialhub.auth.dto.UserDetailsResponse;
 import com.socialhub.auth.entity.Role;
@@ -8,6 +10,7 @@ import com.socialhub.auth.exception.CustomException;
 import com.socialhub.auth.repository.RoleRepository;
 import com.socialhub.auth.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -24,6 +27,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AvailabilityFilter availabilityFilter;
 
     /**
      * Registers a new user and assigns the ROLE_USER by default.
@@ -33,11 +37,11 @@ public class UserService {
      */
     @Transactional
     public UserDetailsResponse registerUser(RegisterRequest registerRequest) {
-        if (userRepository.findByUsername(registerRequest.getUsername()).isPresent()) {
+        if (availabilityFilter.isUsernameTaken(registerRequest.getUsername())) {
             throw new CustomException("Username is already taken", HttpStatus.BAD_REQUEST);
         }
 
-        if (userRepository.findByEmail(registerRequest.getEmail()).isPresent()) {
+        if (availabilityFilter.isEmailTaken(registerRequest.getEmail())) {
             throw new CustomException("Email is already in use", HttpStatus.BAD_REQUEST);
         }
 
@@ -51,7 +55,14 @@ public class UserService {
                 .roles(Collections.singleton(userRole))
                 .build();
 
-        User savedUser = userRepository.save(user);
+        availabilityFilter.add(user.getUsername(), user.getEmail());
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            // Taken through another instance since its filter last caught up, or by a concurrent registration
+            throw new CustomException("Username or email is already taken", HttpStatus.CONFLICT);
+        }
 
         Set<String> roles = savedUser.getRoles().stream()
                 .map(Role::getName)
@@ -64,4 +75,27 @@ public class UserService {
                 .roles(roles)
                 .build();
     }
+
+    /**
+     * Checks whether a username and an email are free to register, without a database query
+     * for those the availability filter rules out.
+     *
+     * @param username the username to check, or null
+     * @param email    the email to check, or null
+     * @return AvailabilityResponse with the availability of each key checked
+     */
+    public AvailabilityResponse checkAvailability(String username, String email) {
+        boolean checkUsername = username != null && !username.isBlank();
+        boolean checkEmail = email != null && !email.isBlank();
+        if (!checkUsername && !checkEmail) {
+            throw new CustomException("A username or an email is required", HttpStatus.BAD_REQUEST);
+        }
+
+        return AvailabilityResponse.builder()
+                .username(checkUsername ? username : null)
+                .usernameAvailable(checkUsername ? !availabilityFilter.isUsernameTaken(username) : null)
+                .email(checkEmail ? email : null)
+                .emailAvailable(checkEmail ? !availabilityFilter.isEmailTaken(email) : null)
+                .build();
+    }
 }
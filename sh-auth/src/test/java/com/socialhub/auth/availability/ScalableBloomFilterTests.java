@@ -0,0 +1,40 @@
+package com.socialhub.auth.availability;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScalableBloomFilterTests {
+
+    @Test
+    void keepsEveryKeyAndTheFalsePositiveRateWhileGrowing() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.add("user" + i);
+        }
+
+        for (int i = 0; i < 50_000; i++) {
+            assertThat(filter.mightContain("user" + i)).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("free" + i)) {
+                falsePositives++;
+            }
+        }
+        // The bound holds in expectation; leave room for sampling noise
+        assertThat(falsePositives / 100_000.0).isLessThan(0.0115);
+        assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.01);
+        assertThat(filter.count()).isGreaterThan(49_000);
+    }
+
+    @Test
+    void foldsKeysAsTheCollationCompares() {
+        assertThat(AvailabilityFilter.fold("José.Smith ")).isEqualTo(AvailabilityFilter.fold("jose.smith"));
+        assertThat(AvailabilityFilter.fold("JOHN_DOE@Example.com")).isEqualTo(AvailabilityFilter.fold("john_doe@example.com"));
+        assertThat(AvailabilityFilter.fold("Straße")).isEqualTo(AvailabilityFilter.fold("strasse"));
+        assertThat(AvailabilityFilter.fold("Øyvind")).isEqualTo(AvailabilityFilter.fold("oyvind"));
+        assertThat(AvailabilityFilter.fold("john.doe")).isNotEqualTo(AvailabilityFilter.fold("john_doe"));
+        assertThat(AvailabilityFilter.fold("john")).isNotEqualTo(AvailabilityFilter.fold("joan"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.socialhub.auth.jwk;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Base64URL;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.Signature;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the JWS algorithms access tokens could be signed with, reporting signatures and
+ * verifications per second on one thread and the size of the signature in a token.
+ * <p>
+ * Ed25519 goes through the JDK directly, as Nimbus needs Tink for it and jjwt 0.11 does not
+ * support it.
+ * <p>
+ * Opt-in: {@code mvn test -Dtest=JwtSigningBenchmarkTests -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JwtSigningBenchmarkTests {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 10_000;
+    private static final String CLAIMS = "{\"sub\":\"alice\",\"roles\":[\"ROLE_USER\"],\"sid\":42,"
+            + "\"iat\":1760000000,\"exp\":1760000900}";
+
+    @Test
+    void compareSigningAlgorithms() throws Exception {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        RSAKey rsaKey = new RSAKeyGenerator(2048).generate();
+        ECKey ecKey = new ECKeyGenerator(Curve.P_256).generate();
+        KeyPair edKeyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+
+        compare("HS256", JWSAlgorithm.HS256, new MACSigner(secret), new MACVerifier(secret));
+        compare("RS256 (2048)", JWSAlgorithm.RS256, new RSASSASigner(rsaKey), new RSASSAVerifier(rsaKey.toRSAPublicKey()));
+        compare("ES256 (P-256)", JWSAlgorithm.ES256, new ECDSASigner(ecKey), new ECDSAVerifier(ecKey.toECPublicKey()));
+        compare("EdDSA (Ed25519)", input -> {
+            Signature signature = Signature.getInstance("Ed25519");
+            signature.initSign(edKeyPair.getPrivate());
+            signature.update(input);
+            return signature.sign();
+        }, (input, signed) -> {
+            Signature signature = Signature.getInstance("Ed25519");
+            signature.initVerify(edKeyPair.getPublic());
+            signature.update(input);
+            return signature.verify(signed);
+        });
+    }
+
+    private void compare(String name, JWSAlgorithm algorithm, JWSSigner signer, JWSVerifier verifier) throws Exception {
+        JWSHeader header = new JWSHeader(algorithm);
+        compare(name, input -> signer.sign(header, input).decode(),
+                (input, signed) -> verifier.verify(header, input, Base64URL.encode(signed)));
+    }
+
+    private void compare(String name, Signer signer, Verifier verifier) throws Exception {
+        byte[] input = (Base64URL.encode("{\"alg\":\"X\",\"kid\":\"00000000-0000-0000-0000-000000000000\"}") + "."
+                + Base64URL.encode(CLAIMS)).getBytes(StandardCharsets.US_ASCII);
+        byte[] signed = signer.sign(input);
+        assertThat(verifier.verify(input, signed)).isTrue();
+
+        for (int i = 0; i < WARMUP; i++) {
+            signer.sign(input);
+            verifier.verify(input, signed);
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            signer.sign(input);
+        }
+        double signsPerSecond = ITERATIONS * 1e9 / (System.nanoTime() - started);
+        started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            verifier.verify(input, signed);
+        }
+        double verifiesPerSecond = ITERATIONS * 1e9 / (System.nanoTime() - started);
+        System.out.printf("%-16s sign: %9.0f ops/s | verify: %9.0f ops/s | signature: %3d chars%n",
+                name, signsPerSecond, verifiesPerSecond, Base64URL.encode(signed).toString().length());
+    }
+
+    @FunctionalInterface
+    private interface Signer {
+        byte[] sign(byte[] input) throws JOSEException, GeneralSecurityException;
+    }
+
+    @FunctionalInterface
+    private interface Verifier {
+        boolean verify(byte[] input, byte[] signed) throws JOSEException, GeneralSecurityException;
+    }
+}
@@ -0,0 +1,112 @@
+package com.socialhub.auth.jwk;
+
+import com.socialhub.auth.MutableClock;
+import com.socialhub.auth.entity.SigningKey;
+import com.socialhub.auth.repository.SigningKeyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rotates and shares signing keys through MySQL.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {"eureka.client.enabled=false", "socialhub.jwt.check-interval=PT1H"})
+class SigningKeyStoreTests {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    private static final Duration ACCESS_TOKEN_TTL = Duration.ofMinutes(15);
+
+    @Autowired
+    private SigningKeyRepository repository;
+
+    @Autowired
+    private JwkProperties properties;
+
+    private final MutableClock clock = new MutableClock();
+
+    @BeforeEach
+    @AfterEach
+    void deleteKeys() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void publishesTheNextKeyBeforeItSignsAndDropsTheReplacedOneOnceItsTokensExpired() {
+        SigningKeyStore store = new SigningKeyStore(properties, repository, ACCESS_TOKEN_TTL, clock);
+        String first = store.signingKey().getKeyID();
+        assertThat(store.publicKeys().getKeys()).hasSize(1);
+
+        clock.advance(properties.getRotationInterval().minus(properties.getPublishAhead()));
+        store.refresh();
+        assertThat(store.signingKey().getKeyID()).isEqualTo(first);
+        assertThat(store.publicKeys().getKeys()).hasSize(2);
+        String next = store.publicKeys().getKeys().get(1).getKeyID();
+
+        clock.advance(properties.getPublishAhead());
+        assertThat(store.signingKey().getKeyID()).isEqualTo(next);
+        assertThat(store.publicKey(first)).isNotNull();
+
+        clock.advance(properties.getCheckInterval().plus(ACCESS_TOKEN_TTL).plus(Duration.ofMinutes(2)));
+        store.refresh();
+        assertThat(store.publicKey(first)).isNull();
+        assertThat(store.publicKeys().getKeys()).hasSize(1);
+        assertThat(repository.findById(first)).isEmpty();
+    }
+
+    @Test
+    void instancesShareEncryptedKeys() {
+        SigningKeyStore store = new SigningKeyStore(properties, repository, ACCESS_TOKEN_TTL, clock);
+        SigningKeyStore other = new SigningKeyStore(properties, repository, ACCESS_TOKEN_TTL, clock);
+
+        assertThat(other.signingKey()).isEqualTo(store.signingKey());
+        assertThat(store.publicKeys().toJSONObject().toString()).doesNotContain("\"d\"");
+        assertThat(repository.findAll()).extracting(SigningKey::getKeyData)
+                .allSatisfy(keyData -> assertThat(keyData).doesNotStartWith("{"));
+    }
+
+    @Test
+    void anInstanceThatLosesTheFirstKeySignsWithTheWinnersKey() {
+        SigningKeyStore winner = new SigningKeyStore(properties, repository, ACCESS_TOKEN_TTL, clock);
+        SigningKeyStore loser = new SigningKeyStore(properties, staleOnce(repository), ACCESS_TOKEN_TTL, clock);
+
+        assertThat(loser.signingKey()).isEqualTo(winner.signingKey());
+        assertThat(repository.count()).isEqualTo(1);
+    }
+
+    /**
+     * Finds no keys on the first read, as an instance does that read the table just before
+     * another one added the first key.
+     */
+    private static SigningKeyRepository staleOnce(SigningKeyRepository repository) {
+        AtomicBoolean read = new AtomicBoolean();
+        return (SigningKeyRepository) Proxy.newProxyInstance(SigningKeyRepository.class.getClassLoader(),
+                new Class<?>[] {SigningKeyRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findAllByOrderByActivatesAtAscIdAsc") && !read.getAndSet(true)) {
+                        return List.of();
+                    }
+                    try {
+                        return method.invoke(repository, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,96 @@
+package com.socialhub.auth.service;
+
+import com.socialhub.auth.dto.LoginResponse;
+import com.socialhub.auth.dto.RegisterRequest;
+import com.socialhub.auth.dto.RevokedSessionResponse;
+import com.socialhub.auth.exception.CustomException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Opens, refreshes and revokes sessions against MySQL.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = "eureka.client.enabled=false")
+class TokenServiceTests {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    void refreshRotatesTheRefreshTokenWithinTheSession() {
+        LoginResponse login = tokenService.openSession(register());
+
+        LoginResponse refreshed = tokenService.refresh(login.getRefreshToken());
+
+        assertThat(refreshed.getRefreshToken()).isNotEqualTo(login.getRefreshToken());
+        assertThat(sessionId(refreshed)).isEqualTo(sessionId(login));
+        assertThat(refreshed.getExpiresIn()).isEqualTo(900);
+        tokenService.refresh(refreshed.getRefreshToken());
+    }
+
+    @Test
+    void reusingARefreshTokenRevokesTheSession() {
+        LoginResponse login = tokenService.openSession(register());
+        LoginResponse refreshed = tokenService.refresh(login.getRefreshToken());
+        long since = System.currentTimeMillis();
+
+        assertThatThrownBy(() -> tokenService.refresh(login.getRefreshToken()))
+                .isInstanceOf(CustomException.class)
+                .hasMessageContaining("already been used");
+        assertThatThrownBy(() -> tokenService.refresh(refreshed.getRefreshToken()))
+                .isInstanceOf(CustomException.class)
+                .hasMessageContaining("revoked");
+        assertThat(tokenService.getRevocations(since).getSessions())
+                .extracting(RevokedSessionResponse::getSessionId)
+                .contains(sessionId(login));
+    }
+
+    @Test
+    void logoutListsTheSessionAsRevoked() {
+        LoginResponse login = tokenService.openSession(register());
+        Long until = tokenService.getRevocations(null).getUntil();
+
+        tokenService.revokeSession(login.getRefreshToken());
+        tokenService.revokeSession("unknown");
+
+        assertThat(tokenService.getRevocations(until).getSessions())
+                .extracting(RevokedSessionResponse::getSessionId)
+                .contains(sessionId(login));
+        assertThatThrownBy(() -> tokenService.refresh(login.getRefreshToken()))
+                .isInstanceOf(CustomException.class);
+    }
+
+    private String register() {
+        String username = "user_" + UUID.randomUUID().toString().substring(0, 8);
+        userService.registerUser(new RegisterRequest(username, username + "@example.com", "password123"));
+        return username;
+    }
+
+    private Long sessionId(LoginResponse response) {
+        Jwt jwt = jwtDecoder.decode(response.getToken());
+        return ((Number) jwt.getClaims().get("sid")).longValue();
+    }
+}
@@ -0,0 +1,66 @@
+package com.socialhub.loadtest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * The users, profiles and posts a generated dataset consists of. Written by the
+ * {@code generate} command and read back by {@code run}, which logs in as these users and
+ * requests these posts and profiles.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.dataset")
+public class DatasetProperties {
+
+    /**
+     * Generated usernames are this prefix followed by the user's ID in USER-SERVICE.
+     */
+    private String usernamePrefix = "lt";
+
+    /**
+     * Password of every generated user.
+     */
+    private String password = "password";
+
+    private long firstUserId = 1;
+    private long lastUserId = 1;
+    private long firstProfileId = 1;
+    private long lastProfileId = 1;
+    private long firstPostId = 1;
+    private long lastPostId = 1;
+
+    /**
+     * @param userId the user's ID in USER-SERVICE
+     * @return the username the user was generated with
+     */
+    public String username(long userId) {
+        return usernamePrefix + userId;
+    }
+
+    /**
+     * Saves the dataset as properties, so that a later run picks it up.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTo(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("socialhub.dataset.username-prefix", usernamePrefix);
+        properties.setProperty("socialhub.dataset.password", password);
+        properties.setProperty("socialhub.dataset.first-user-id", Long.toString(firstUserId));
+        properties.setProperty("socialhub.dataset.last-user-id", Long.toString(lastUserId));
+        properties.setProperty("socialhub.dataset.first-profile-id", Long.toString(firstProfileId));
+        properties.setProperty("socialhub.dataset.last-profile-id", Long.toString(lastProfileId));
+        properties.setProperty("socialhub.dataset.first-post-id", Long.toString(firstPostId));
+        properties.setProperty("socialhub.dataset.last-post-id", Long.toString(lastPostId));
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, "Generated by sh-loadtest generate");
+        }
+    }
+}
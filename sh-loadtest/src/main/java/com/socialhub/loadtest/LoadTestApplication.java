@@ -0,0 +1,16 @@
+package com.socialhub.loadtest;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Command-line tool: {@code generate} fills the databases with synthetic data, {@code run}
+ * drives a mix of API requests against the gateway. See {@link LoadTestCommand}.
+ */
+@SpringBootApplication
+public class LoadTestApplication {
+
+    public static void main(String[] args) {
+        System.exit(SpringApplication.exit(SpringApplication.run(LoadTestApplication.class, args)));
+    }
+}
@@ -0,0 +1,69 @@
+package com.socialhub.loadtest;
+
+import com.socialhub.loadtest.driver.LatencyReport;
+import com.socialhub.loadtest.driver.LoadDriver;
+import com.socialhub.loadtest.driver.LoadProperties;
+import com.socialhub.loadtest.generator.DatasetGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Runs the command named by the first argument:
+ * <ul>
+ *     <li>{@code generate}: adds synthetic data to the databases (settings under
+ *     {@code socialhub.generator}) and records it in the dataset file;</li>
+ *     <li>{@code run}: drives the request mix against the gateway as the recorded users
+ *     (settings under {@code socialhub.load}) and prints throughput and latency percentiles.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class LoadTestCommand implements ApplicationRunner, ExitCodeGenerator {
+
+    private final DatasetGenerator generator;
+    private final LoadDriver driver;
+    private final LoadProperties loadProperties;
+    private int exitCode;
+
+    public LoadTestCommand(DatasetGenerator generator, LoadDriver driver, LoadProperties loadProperties) {
+        this.generator = generator;
+        this.driver = driver;
+        this.loadProperties = loadProperties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        List<String> commands = args.getNonOptionArgs();
+        String command = commands.isEmpty() ? "" : commands.get(0);
+        switch (command) {
+            case "generate" -> {
+                DatasetProperties dataset = generator.generate();
+                log.info("Users {}..{}, posts {}..{}, log in with password '{}'",
+                        dataset.username(dataset.getFirstUserId()), dataset.username(dataset.getLastUserId()),
+                        dataset.getFirstPostId(), dataset.getLastPostId(), dataset.getPassword());
+            }
+            case "run" -> {
+                LatencyReport report = driver.run();
+                report.print(System.out);
+                if (loadProperties.getReportFile() != null) {
+                    report.writeCsv(loadProperties.getReportFile());
+                }
+            }
+            default -> {
+                System.err.println("Usage: java -jar sh-loadtest.jar generate|run [--socialhub.generator.*=...] [--socialhub.load.*=...]");
+                exitCode = 2;
+            }
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
@@ -0,0 +1,162 @@
+package com.socialhub.loadtest.driver;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput and latency percentiles of each operation over the measured period, recorded by
+ * the virtual users concurrently.
+ * <p>
+ * Latencies go into HDR histograms with three significant digits, so percentiles are exact to
+ * 0.1% whatever the number of requests, in constant memory.
+ */
+public class LatencyReport {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private final Duration measured;
+
+    LatencyReport(Duration measured) {
+        this.measured = measured;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    /**
+     * Records a response.
+     *
+     * @param operation the operation
+     * @param status    the HTTP status
+     * @param nanos     the time from when the request was due to the end of the response
+     */
+    void record(Operation operation, int status, long nanos) {
+        Stats stats = this.stats.get(operation);
+        stats.latency.recordValue(Math.min(HIGHEST_MICROS, Math.max(1, nanos / 1_000)));
+        if (status >= 500) {
+            stats.failed.increment();
+        } else if (status >= 400) {
+            stats.rejected.increment();
+        }
+    }
+
+    /**
+     * Records a request that got no response, e.g. because it timed out.
+     */
+    void recordFailure(Operation operation) {
+        stats.get(operation).failed.increment();
+        stats.get(operation).unanswered.increment();
+    }
+
+    /**
+     * @return responses received for the operation
+     */
+    public long getResponses(Operation operation) {
+        return stats.get(operation).latency.getTotalCount();
+    }
+
+    /**
+     * @return 4xx responses received for the operation, e.g. liking a post twice
+     */
+    public long getRejected(Operation operation) {
+        return stats.get(operation).rejected.sum();
+    }
+
+    /**
+     * @return 5xx responses and requests without a response for the operation
+     */
+    public long getFailed(Operation operation) {
+        return stats.get(operation).failed.sum();
+    }
+
+    /**
+     * @param percentile e.g. 99.9
+     * @return the latency below which the given percentage of the operation's responses came, in ms
+     */
+    public double getPercentile(Operation operation, double percentile) {
+        return stats.get(operation).latency.getValueAtPercentile(percentile) / 1_000.0;
+    }
+
+    /**
+     * Prints one line per operation sent, and one for all of them.
+     */
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%-31s %9s %9s %7s %7s %9s %9s %9s %9s %9s%n", "operation", "requests", "req/s", "4xx",
+                "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram all = new Histogram(HIGHEST_MICROS, 3);
+        long rejected = 0;
+        long failed = 0;
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats stats = entry.getValue();
+            if (stats.count() == 0) {
+                continue;
+            }
+            print(out, entry.getKey().getEndpoint(), stats.latency, stats.count(), stats.rejected.sum(),
+                    stats.failed.sum());
+            all.add(stats.latency);
+            rejected += stats.rejected.sum();
+            failed += stats.failed.sum();
+        }
+        long unanswered = stats.values().stream().mapToLong(stats -> stats.unanswered.sum()).sum();
+        print(out, "all", all, all.getTotalCount() + unanswered, rejected, failed);
+    }
+
+    /**
+     * Writes one CSV line per operation sent.
+     */
+    public void writeCsv(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file); PrintWriter out = new PrintWriter(writer)) {
+            out.println("operation,endpoint,requests,requests_per_second,rejected,failed,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+            for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+                Stats stats = entry.getValue();
+                if (stats.count() == 0) {
+                    continue;
+                }
+                Histogram latency = stats.latency;
+                out.printf(Locale.ROOT, "%s,%s,%d,%.1f,%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f%n", entry.getKey(),
+                        entry.getKey().getEndpoint(), stats.count(), perSecond(stats.count()), stats.rejected.sum(),
+                        stats.failed.sum(), millis(latency, 50), millis(latency, 90), millis(latency, 99),
+                        millis(latency, 99.9), latency.getMaxValue() / 1_000.0);
+            }
+        }
+    }
+
+    private void print(PrintStream out, String name, Histogram latency, long requests, long rejected, long failed) {
+        out.printf(Locale.ROOT, "%-31s %9d %9.1f %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, requests,
+                perSecond(requests), rejected, failed, millis(latency, 50), millis(latency, 90), millis(latency, 99),
+                millis(latency, 99.9), latency.getMaxValue() / 1_000.0);
+    }
+
+    private double perSecond(long requests) {
+        return requests * 1_000.0 / Math.max(1, measured.toMillis());
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1_000.0;
+    }
+
+    private static final class Stats {
+        final Histogram latency = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final LongAdder rejected = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder unanswered = new LongAdder();
+
+        long count() {
+            return latency.getTotalCount() + unanswered.sum();
+        }
+    }
+}
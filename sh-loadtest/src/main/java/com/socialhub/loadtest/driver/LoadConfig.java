@@ -0,0 +1,13 @@
+package com.socialhub.loadtest.driver;
+
+import com.socialhub.loadtest.DatasetProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the load test settings and the dataset it runs against.
+ */
+@Configuration
+@EnableConfigurationProperties({LoadProperties.class, DatasetProperties.class})
+public class LoadConfig {
+}
@@ -0,0 +1,74 @@
+package com.socialhub.loadtest.driver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialhub.loadtest.DatasetProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the configured number of virtual users against the gateway for the warmup and measured
+ * periods, and collects their responses into a {@link LatencyReport}.
+ */
+@Slf4j
+@Component
+public class LoadDriver {
+
+    private final LoadProperties properties;
+    private final DatasetProperties dataset;
+    private final ObjectMapper objectMapper;
+    private final Ticker ticker;
+
+    @Autowired
+    public LoadDriver(LoadProperties properties, DatasetProperties dataset, ObjectMapper objectMapper) {
+        this(properties, dataset, objectMapper, Ticker.SYSTEM);
+    }
+
+    LoadDriver(LoadProperties properties, DatasetProperties dataset, ObjectMapper objectMapper, Ticker ticker) {
+        this.properties = properties;
+        this.dataset = dataset;
+        this.objectMapper = objectMapper;
+        this.ticker = ticker;
+    }
+
+    /**
+     * Runs the load test; returns once the measured period is over and every request answered.
+     *
+     * @return the responses measured
+     */
+    public LatencyReport run() {
+        Mix mix = new Mix(properties.getMix());
+        LatencyReport report = new LatencyReport(properties.getDuration());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getRequestTimeout())
+                .build();
+
+        log.info("Running {} virtual users against {} for {} after a {} warmup, as users {}..{}",
+                properties.getVirtualUsers(), properties.getBaseUrl(), properties.getDuration(), properties.getWarmup(),
+                dataset.username(dataset.getFirstUserId()), dataset.username(dataset.getLastUserId()));
+        long start = ticker.nanoTime();
+        long measureFrom = start + properties.getWarmup().toNanos();
+        long end = measureFrom + properties.getDuration().toNanos();
+        List<Thread> threads = new ArrayList<>(properties.getVirtualUsers());
+        for (int i = 0; i < properties.getVirtualUsers(); i++) {
+            Thread thread = new Thread(new VirtualUser(i, client, objectMapper, properties, dataset, mix, report, ticker,
+                    start, measureFrom, end), "virtual-user-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the virtual users", ex);
+            }
+        }
+        return report;
+    }
+}
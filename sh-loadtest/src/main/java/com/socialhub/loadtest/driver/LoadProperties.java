@@ -0,0 +1,98 @@
+package com.socialhub.loadtest.driver;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test run: how many users send requests, for how long, and which requests.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.load")
+public class LoadProperties {
+
+    /**
+     * The gateway, or a USER-SERVICE instance.
+     */
+    private URI baseUrl = URI.create("http://localhost:8080");
+
+    /**
+     * Users sending requests at the same time, each logged in as a different generated user.
+     */
+    private int virtualUsers = 20;
+
+    /**
+     * Time before measuring starts, for connections, caches and the JIT to warm up.
+     */
+    private Duration warmup = Duration.ofSeconds(10);
+
+    /**
+     * Time measured.
+     */
+    private Duration duration = Duration.ofSeconds(60);
+
+    /**
+     * Requests per second over all virtual users. With 0 each user sends its next request as soon
+     * as the previous one is answered (after think-time); otherwise requests are sent on a fixed
+     * schedule and latency is measured from when each was due, so that a stalled service shows
+     * in the percentiles instead of just lowering the rate.
+     */
+    private double rate = 0;
+
+    /**
+     * Pause between a response and the next request when {@code rate} is 0.
+     */
+    private Duration thinkTime = Duration.ZERO;
+
+    /**
+     * Time after which a request counts as failed.
+     */
+    private Duration requestTimeout = Duration.ofSeconds(10);
+
+    /**
+     * How strongly posts are picked among the newest: 1 picks evenly from all generated posts,
+     * 3 picks half of them from the newest eighth.
+     */
+    private double recentPostBias = 3;
+
+    /**
+     * Relative weight of each operation in the mix. The default is read-heavy: mostly feeds,
+     * profiles and comments, with a few likes, comments and posts written.
+     */
+    private Map<Operation, Integer> mix = defaultMix();
+
+    /**
+     * CSV file to write the results to, besides printing them.
+     */
+    private Path reportFile;
+
+    /**
+     * Seed of the virtual users' random choices.
+     */
+    private long seed = 42;
+
+    private static Map<Operation, Integer> defaultMix() {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        mix.put(Operation.FEED, 25);
+        mix.put(Operation.TRENDING, 4);
+        mix.put(Operation.USER_POSTS, 10);
+        mix.put(Operation.COMMENTS, 10);
+        mix.put(Operation.LIKES, 5);
+        mix.put(Operation.CREATE_POST, 2);
+        mix.put(Operation.LIKE, 8);
+        mix.put(Operation.COMMENT, 3);
+        mix.put(Operation.FRIENDS, 8);
+        mix.put(Operation.FRIEND_REQUESTS, 3);
+        mix.put(Operation.FRIEND_REQUEST, 1);
+        mix.put(Operation.MY_PROFILE, 5);
+        mix.put(Operation.VIEW_PROFILE, 15);
+        mix.put(Operation.UPDATE_PROFILE, 1);
+        mix.put(Operation.LOGIN, 0);
+        return mix;
+    }
+}
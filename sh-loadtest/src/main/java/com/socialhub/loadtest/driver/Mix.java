@@ -0,0 +1,36 @@
+package com.socialhub.loadtest.driver;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Picks operations at random in proportion to their weights.
+ */
+class Mix {
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    Mix(Map<Operation, Integer> weights) {
+        operations = weights.entrySet().stream()
+                .filter(entry -> entry.getValue() != null && entry.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .toArray(Operation[]::new);
+        if (operations.length == 0) {
+            throw new IllegalArgumentException("The mix needs at least one operation with a positive weight");
+        }
+        cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    Operation next(SplittableRandom random) {
+        int point = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = Arrays.binarySearch(cumulativeWeights, point + 1);
+        return operations[index >= 0 ? index : -index - 1];
+    }
+}
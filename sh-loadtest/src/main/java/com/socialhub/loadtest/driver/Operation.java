@@ -0,0 +1,121 @@
+package com.socialhub.loadtest.driver;
+
+import java.net.http.HttpRequest;
+import java.util.Map;
+
+/**
+ * The requests a virtual user sends, on the endpoints of PostController, FriendController,
+ * ProfileController and AuthController.
+ */
+public enum Operation {
+
+    FEED("GET /posts") {
+        @Override
+        HttpRequest request(VirtualUser user) {
+            return user.get("/posts?page=" + user.random().nextInt(5) + "&size=10");
+        }
+    },
+    TRENDING("GET /posts/trending") {
+        @Override
+        HttpRequest request(VirtualUser user) {
+            return user.get("/posts/trending");
+        }
+    },
+    USER_POSTS("GET /posts/user/{username}") {
+        @Override
+        HttpRequest request(VirtualUser user) {
+            return user.get("/posts/user/" + user.anyUsername());
+        }
+    },
+    COMMENTS("GET /posts/{id}/comments") {
+        @Override
+        HttpRequest request(VirtualUser user) {
+            return user.get("/posts/" + user.anyPostId() + "/comments");
+        }
+    },
+    LIKES("GET /posts/{id}/likes") {
+        @Override
+        HttpRequest request(VirtualUser user) {
+            return user.get("/posts/" + user.anyPostId() + "/likes");
+        }
+    },
+    CREATE_POST("POST /posts/create") {
+        @Override
+        HttpRequest request(VirtualUser user) {
+            return user.post("/posts/create", Map.of("content", user.text(5, 40)));
+        }
+    },
+    LIKE("POST /posts/{id}/like") {
+        @Override
+        HttpRequest request(VirtualUser user) {
+            return user.post("/posts/" + user.anyPostId() + "/like", null);
+        }
+    },
+    COMMENT("POST /posts/{id}/comment") {
+        @Override
+        HttpRequest request(VirtualUser user) {
+            return user.post("/posts/" + user.anyPostId() + "/comment", Map.of("content", user.text(3, 20)));
+        }
+    },
+    FRIENDS("GET /friends/list") {
+        @Override
+        HttpRequest request(VirtualUser user) {
+            return user.get("/friends/list");
+        }
+    },
+    FRIEND_REQUESTS("GET /friends/requests/received") {
+        @Override
+        HttpRequest request(VirtualUser user) {
+            return user.get("/friends/requests/received");
+        }
+    },
+    FRIEND_REQUEST("POST /friends/request") {
+        @Override
+        HttpRequest request(VirtualUser user) {
+            return user.post("/friends/request", Map.of("friendId", user.anyUserId()));
+        }
+    },
+    MY_PROFILE("GET /profile/me") {
+        @Override
+        HttpRequest request(VirtualUser user) {
+            return user.get("/profile/me");
+        }
+    },
+    VIEW_PROFILE("GET /profile/view/{id}") {
+        @Override
+        HttpRequest request(VirtualUser user) {
+            return user.get("/profile/view/" + user.anyProfileId());
+        }
+    },
+    UPDATE_PROFILE("PUT /profile/me") {
+        @Override
+        HttpRequest request(VirtualUser user) {
+            return user.put("/profile/me", Map.of("bio", user.text(3, 12)));
+        }
+    },
+    LOGIN("POST /auth/login") {
+        @Override
+        HttpRequest request(VirtualUser user) {
+            return user.loginRequest();
+        }
+    };
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * @return the method and path template, for the report
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @param user the virtual user sending the request, which picks its parameters
+     * @return the request to send
+     */
+    abstract HttpRequest request(VirtualUser user);
+}
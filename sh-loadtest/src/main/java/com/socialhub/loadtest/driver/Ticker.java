@@ -0,0 +1,28 @@
+package com.socialhub.loadtest.driver;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The time virtual users send their requests by, in nanoseconds.
+ */
+interface Ticker {
+
+    Ticker SYSTEM = new Ticker() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void parkNanos(long nanos) {
+            LockSupport.parkNanos(nanos);
+        }
+    };
+
+    long nanoTime();
+
+    /**
+     * Waits for up to the given time; may return earlier.
+     */
+    void parkNanos(long nanos);
+}
@@ -0,0 +1,229 @@
+package com.socialhub.loadtest.driver;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialhub.loadtest.DatasetProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One user of the load test: logs in as a generated user, then sends operations picked at random
+ * from the mix until the run ends, recording each response measured.
+ */
+@Slf4j
+class VirtualUser implements Runnable {
+
+    private static final String[] WORDS = {
+            "load", "test", "post", "today", "coffee", "weekend", "music", "friends", "photo", "trip", "great", "new"
+    };
+
+    /**
+     * Tokens are renewed this long before they expire.
+     */
+    private static final long RENEW_BEFORE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final LoadProperties properties;
+    private final DatasetProperties dataset;
+    private final Mix mix;
+    private final LatencyReport report;
+    private final Ticker ticker;
+    private final SplittableRandom random;
+    private final long userId;
+    private final long measureFrom;
+    private final long end;
+    private final long interval;
+    private long due;
+
+    private String token;
+    private long tokenExpiry;
+
+    VirtualUser(int index, HttpClient client, ObjectMapper objectMapper, LoadProperties properties,
+                DatasetProperties dataset, Mix mix, LatencyReport report, Ticker ticker, long start, long measureFrom,
+                long end) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.dataset = dataset;
+        this.mix = mix;
+        this.report = report;
+        this.ticker = ticker;
+        this.random = new SplittableRandom(properties.getSeed() * 31 + index);
+        this.userId = anyUserId();
+        this.measureFrom = measureFrom;
+        this.end = end;
+        this.interval = properties.getRate() > 0
+                ? (long) (TimeUnit.SECONDS.toNanos(1) * properties.getVirtualUsers() / properties.getRate())
+                : 0;
+        // Spreads the users' schedules over one interval
+        this.due = start + interval * index / Math.max(1, properties.getVirtualUsers());
+    }
+
+    @Override
+    public void run() {
+        while (ticker.nanoTime() < end) {
+            if (token == null || ticker.nanoTime() > tokenExpiry - RENEW_BEFORE_NANOS) {
+                if (!login()) {
+                    ticker.parkNanos(TimeUnit.SECONDS.toNanos(1));
+                    continue;
+                }
+            }
+            send(mix.next(random));
+        }
+    }
+
+    private void send(Operation operation) {
+        long started = waitUntilDue();
+        if (started >= end) {
+            return;
+        }
+        HttpRequest request = operation.request(this);
+        try {
+            // Only the login response is read; the others are received in full and dropped
+            HttpResponse<String> response = client.send(request, operation == Operation.LOGIN
+                    ? HttpResponse.BodyHandlers.ofString()
+                    : HttpResponse.BodyHandlers.replacing(null));
+            if (started >= measureFrom) {
+                report.record(operation, response.statusCode(), ticker.nanoTime() - started);
+            }
+            if (operation == Operation.LOGIN) {
+                useToken(response);
+            } else if (response.statusCode() == 401) {
+                token = null;
+            }
+        } catch (IOException ex) {
+            if (started >= measureFrom) {
+                report.recordFailure(operation);
+            }
+            log.debug("{} failed: {}", operation, ex.toString());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted", ex);
+        }
+    }
+
+    /**
+     * In a closed loop, pauses for the think time; with a rate, waits for the next scheduled time.
+     *
+     * @return the time the request counts as sent from
+     */
+    private long waitUntilDue() {
+        if (interval == 0) {
+            if (!properties.getThinkTime().isZero()) {
+                ticker.parkNanos(properties.getThinkTime().toNanos());
+            }
+            return ticker.nanoTime();
+        }
+        long scheduled = due;
+        due += interval;
+        long wait;
+        while ((wait = scheduled - ticker.nanoTime()) > 0) {
+            ticker.parkNanos(wait);
+        }
+        return scheduled;
+    }
+
+    private boolean login() {
+        send(Operation.LOGIN);
+        return token != null;
+    }
+
+    private void useToken(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            log.warn("Logging in as {} failed with {}", dataset.username(userId), response.statusCode());
+            return;
+        }
+        try {
+            JsonNode body = objectMapper.readTree(response.body());
+            token = body.path("token").asText(null);
+            tokenExpiry = ticker.nanoTime() + TimeUnit.SECONDS.toNanos(body.path("expiresIn").asLong(900));
+        } catch (JsonProcessingException ex) {
+            log.warn("Unexpected login response: {}", ex.getMessage());
+        }
+    }
+
+    HttpRequest loginRequest() {
+        return request("/auth/login")
+                .POST(body(Map.of("username", dataset.username(userId), "password", dataset.getPassword())))
+                .build();
+    }
+
+    HttpRequest get(String path) {
+        return authorized(path).GET().build();
+    }
+
+    HttpRequest post(String path, Object body) {
+        return authorized(path).POST(body(body)).build();
+    }
+
+    HttpRequest put(String path, Object body) {
+        return authorized(path).PUT(body(body)).build();
+    }
+
+    SplittableRandom random() {
+        return random;
+    }
+
+    long anyUserId() {
+        return random.nextLong(dataset.getFirstUserId(), dataset.getLastUserId() + 1);
+    }
+
+    String anyUsername() {
+        return dataset.username(anyUserId());
+    }
+
+    long anyProfileId() {
+        return random.nextLong(dataset.getFirstProfileId(), dataset.getLastProfileId() + 1);
+    }
+
+    /**
+     * @return a generated post, more likely a recent one
+     */
+    long anyPostId() {
+        long range = dataset.getLastPostId() - dataset.getFirstPostId() + 1;
+        long back = (long) (Math.pow(random.nextDouble(), properties.getRecentPostBias()) * range);
+        return dataset.getLastPostId() - Math.min(back, range - 1);
+    }
+
+    String text(int minWords, int maxWords) {
+        int words = random.nextInt(minWords, maxWords + 1);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return request(path).header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(properties.getBaseUrl() + path))
+                .timeout(properties.getRequestTimeout())
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher body(Object body) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
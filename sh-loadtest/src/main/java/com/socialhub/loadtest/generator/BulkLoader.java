@@ -0,0 +1,173 @@
+package com.socialhub.loadtest.generator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Inserts rows into one database in multi-row INSERT statements, on a few connections in
+ * parallel.
+ * <p>
+ * Each connection skips unique and foreign key checks: the generated IDs are unique and every
+ * reference points at a generated or existing row, and the checks would otherwise cost a
+ * secondary index lookup per row. Rows carry their IDs, so nothing has to be read back, and
+ * AUTO_INCREMENT moves past them for the rows the services insert later.
+ */
+class BulkLoader implements AutoCloseable {
+
+    private final BlockingQueue<Connection> connections;
+    private final ExecutorService executor;
+    private final Semaphore pending;
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    BulkLoader(String url, String username, String password, int writers) throws SQLException {
+        connections = new ArrayBlockingQueue<>(writers);
+        for (int i = 0; i < writers; i++) {
+            Connection connection = DriverManager.getConnection(url, username, password);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET unique_checks = 0, foreign_key_checks = 0");
+            }
+            connections.add(connection);
+        }
+        executor = Executors.newFixedThreadPool(writers);
+        // Batches queued beyond the running ones; holds back the generator when the database is slower
+        pending = new Semaphore(writers * 2);
+    }
+
+    /**
+     * Creates a buffer collecting rows of a table and inserting them a batch at a time.
+     *
+     * @param table     the table
+     * @param batchSize rows per INSERT
+     * @param columns   the columns given for every row
+     */
+    Table table(String table, int batchSize, String... columns) {
+        return new Table(table, batchSize, columns);
+    }
+
+    /**
+     * Runs a single statement, e.g. to read the current maximum ID of a table.
+     */
+    Connection connection() throws InterruptedException {
+        return connections.take();
+    }
+
+    void release(Connection connection) {
+        connections.add(connection);
+    }
+
+    /**
+     * Waits until every batch has been inserted.
+     *
+     * @throws IllegalStateException if a batch failed
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.HOURS)) {
+                throw new IllegalStateException("Inserting the remaining batches took over an hour");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while inserting the remaining batches", ex);
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // Closing anyway
+                }
+            }
+        }
+        throwIfFailed();
+    }
+
+    private void submit(String sql, List<Object[]> rows) {
+        throwIfFailed();
+        pending.acquireUninterruptibly();
+        executor.execute(() -> {
+            try {
+                Connection connection = connections.take();
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    int index = 1;
+                    for (Object[] row : rows) {
+                        for (Object value : row) {
+                            statement.setObject(index++, value);
+                        }
+                    }
+                    statement.executeUpdate();
+                } finally {
+                    connections.add(connection);
+                }
+            } catch (Exception ex) {
+                failure.compareAndSet(null, ex);
+            } finally {
+                pending.release();
+            }
+        });
+    }
+
+    private void throwIfFailed() {
+        Exception ex = failure.get();
+        if (ex != null) {
+            throw new IllegalStateException("Inserting a batch failed: " + ex.getMessage(), ex);
+        }
+    }
+
+    class Table {
+
+        private final String table;
+        private final String[] columns;
+        private final int batchSize;
+        private final String fullBatchSql;
+        private List<Object[]> rows;
+
+        private Table(String table, int batchSize, String... columns) {
+            this.table = table;
+            this.columns = columns;
+            this.batchSize = batchSize;
+            this.fullBatchSql = insert(batchSize);
+            this.rows = new ArrayList<>(batchSize);
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() == batchSize) {
+                submit(fullBatchSql, rows);
+                rows = new ArrayList<>(batchSize);
+            }
+        }
+
+        /**
+         * Inserts the rows of the last, partial batch.
+         */
+        void flush() {
+            if (!rows.isEmpty()) {
+                submit(insert(rows.size()), rows);
+                rows = new ArrayList<>(batchSize);
+            }
+        }
+
+        private String insert(int count) {
+            String placeholders = "(" + "?,".repeat(columns.length - 1) + "?)";
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+                    .append(" (").append(String.join(", ", columns)).append(") VALUES ");
+            for (int i = 0; i < count; i++) {
+                sql.append(i == 0 ? "" : ",").append(placeholders);
+            }
+            return sql.toString();
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.socialhub.loadtest.generator;
+
+import com.socialhub.loadtest.DatasetProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Generates users, friendships, posts, likes and comments shaped like a social network's:
+ * <ul>
+ *     <li>friendships grow by preferential attachment (Barabási–Albert), so a new user befriends
+ *     well-connected users more often and the number of friends follows a power law;</li>
+ *     <li>posts per user, and likes and comments per post, are Pareto distributed, and posts by
+ *     users with more friends get more likes and comments;</li>
+ *     <li>likers are drawn half by number of friends, half uniformly; comments reply to earlier
+ *     comments of the same post, forming threads.</li>
+ * </ul>
+ * Posts are spread evenly over the configured period; likes and comments follow their post,
+ * most of them soon after it.
+ */
+@Slf4j
+@Component
+public class DatasetGenerator {
+
+    /**
+     * Deepest reply level, as in USER-SERVICE's CommentPath.
+     */
+    private static final int MAX_COMMENT_DEPTH = 32;
+    private static final int ROOT_SEGMENT_LENGTH = 13;
+    private static final int REPLY_SEGMENT_LENGTH = 5;
+
+    private final GeneratorProperties properties;
+    private final Clock clock;
+
+    @Autowired
+    public DatasetGenerator(GeneratorProperties properties) {
+        this(properties, Clock.systemDefaultZone());
+    }
+
+    DatasetGenerator(GeneratorProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Generates the dataset into the configured databases and records it in the dataset file.
+     *
+     * @return the users, profiles and posts generated
+     */
+    public DatasetProperties generate() {
+        DatasetProperties dataset;
+        try (JdbcDatasetSink sink = new JdbcDatasetSink(properties)) {
+            dataset = generate(sink);
+        }
+        try {
+            dataset.writeTo(properties.getDatasetFile());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write " + properties.getDatasetFile(), ex);
+        }
+        return dataset;
+    }
+
+    DatasetProperties generate(DatasetSink sink) {
+        SplittableRandom random = new SplittableRandom(properties.getSeed());
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime start = now.minus(properties.getPeriod());
+        int users = properties.getUsers();
+        DatasetSink.FirstIds first = sink.firstIds();
+        Ids ids = new Ids(first);
+        long started = System.nanoTime();
+
+        for (int i = 0; i < users; i++) {
+            long userId = first.user() + i;
+            String username = properties.getUsernamePrefix() + userId;
+            sink.user(new DatasetSink.User(first.authUser() + i, userId, first.profile() + i, username,
+                    username + "@example.com", Words.firstName(random), Words.lastName(random),
+                    Words.sentence(random, 3, 12, 250)));
+        }
+        log.info("Generated {} users", users);
+
+        int[] friends = new int[users];
+        int[] endpoints = befriend(sink, random, ids, first, friends, start, now);
+        double meanFriends = users == 0 ? 0 : (double) endpoints.length / users;
+        log.info("Generated {} friendships", endpoints.length / 2);
+
+        for (int author = 0; author < users; author++) {
+            int posts = pareto(random, properties.getMeanPosts());
+            // Posts by users with many friends draw more likes and comments
+            double popularity = (friends[author] + 1) / (meanFriends + 1);
+            for (int p = 0; p < posts; p++) {
+                long postId = ids.post++;
+                LocalDateTime createdAt = between(random, start, now, 1);
+                sink.post(new DatasetSink.Post(postId, first.user() + author,
+                        Words.sentence(random, 5, 40, 255), createdAt));
+                like(sink, random, ids, first, endpoints, users, author, postId, createdAt, now, popularity);
+                comment(sink, random, ids, first, users, postId, createdAt, now, popularity);
+            }
+            if (users >= 10 && (author + 1) % (users / 10) == 0) {
+                log.info("Generated posts of {}% of the users in {}s", (author + 1) * 100L / users,
+                        Duration.ofNanos(System.nanoTime() - started).toSeconds());
+            }
+        }
+        log.info("Generated {} posts, {} likes and {} comments", ids.post - first.post(), ids.like - first.like(),
+                ids.comment - first.comment());
+
+        DatasetProperties dataset = new DatasetProperties();
+        dataset.setUsernamePrefix(properties.getUsernamePrefix());
+        dataset.setPassword(properties.getUserPassword());
+        dataset.setFirstUserId(first.user());
+        dataset.setLastUserId(first.user() + users - 1);
+        dataset.setFirstProfileId(first.profile());
+        dataset.setLastProfileId(first.profile() + users - 1);
+        dataset.setFirstPostId(first.post());
+        dataset.setLastPostId(ids.post - 1);
+        return dataset;
+    }
+
+    /**
+     * Connects each user to earlier users chosen by preferential attachment: the first users form
+     * a clique, then every user befriends {@code meanFriends / 2} distinct users picked from the
+     * endpoints of all friendships so far, i.e. with probability proportional to their friends.
+     *
+     * @return both users of every friendship, in the order they were made
+     */
+    private int[] befriend(DatasetSink sink, SplittableRandom random, Ids ids, DatasetSink.FirstIds first,
+                           int[] friends, LocalDateTime start, LocalDateTime now) {
+        int users = friends.length;
+        int links = Math.max(1, properties.getMeanFriends() / 2);
+        int[] endpoints = new int[Math.toIntExact(2L * links * users)];
+        int size = 0;
+        int[] chosen = new int[links];
+        for (int user = 1; user < users; user++) {
+            int count = Math.min(user, links);
+            if (user <= links) {
+                for (int other = 0; other < count; other++) {
+                    chosen[other] = other;
+                }
+            } else {
+                int found = 0;
+                while (found < count) {
+                    int other = endpoints[random.nextInt(size)];
+                    if (!contains(chosen, found, other)) {
+                        chosen[found++] = other;
+                    }
+                }
+            }
+            for (int c = 0; c < count; c++) {
+                int other = chosen[c];
+                endpoints[size++] = user;
+                endpoints[size++] = other;
+                friends[user]++;
+                friends[other]++;
+                long a = first.user() + user;
+                long b = first.user() + other;
+                LocalDateTime requestedAt = between(random, start, now, 1);
+                if (random.nextDouble() < properties.getPendingRequests()) {
+                    boolean fromNewer = random.nextBoolean();
+                    sink.friend(new DatasetSink.Friend(ids.friend++, fromNewer ? a : b, fromNewer ? b : a,
+                            "PENDING", requestedAt));
+                } else {
+                    // Accepting a request stores the friendship once for each side
+                    sink.friend(new DatasetSink.Friend(ids.friend++, a, b, "ACCEPTED", requestedAt));
+                    sink.friend(new DatasetSink.Friend(ids.friend++, b, a, "ACCEPTED", requestedAt));
+                }
+            }
+        }
+        return Arrays.copyOf(endpoints, size);
+    }
+
+    private void like(DatasetSink sink, SplittableRandom random, Ids ids, DatasetSink.FirstIds first, int[] endpoints,
+                      int users, int author, long postId, LocalDateTime createdAt, LocalDateTime now,
+                      double popularity) {
+        // At most half of the users, so that drawing distinct likers stays quick
+        int likes = Math.min(pareto(random, properties.getMeanLikes() * popularity), (users - 1) / 2);
+        if (likes == 0) {
+            return;
+        }
+        Set<Integer> likers = new HashSet<>();
+        while (likers.size() < likes) {
+            int liker = random.nextBoolean() ? endpoints[random.nextInt(endpoints.length)] : random.nextInt(users);
+            if (liker != author) {
+                likers.add(liker);
+            }
+        }
+        LocalDateTime[] times = times(random, likes, createdAt, now);
+        int t = 0;
+        for (int liker : likers) {
+            sink.like(new DatasetSink.Like(ids.like++, postId, first.user() + liker, times[t++]));
+        }
+    }
+
+    private void comment(DatasetSink sink, SplittableRandom random, Ids ids, DatasetSink.FirstIds first, int users,
+                         long postId, LocalDateTime createdAt, LocalDateTime now, double popularity) {
+        int count = pareto(random, properties.getMeanComments() * popularity);
+        if (count == 0) {
+            return;
+        }
+        LocalDateTime[] times = times(random, count, createdAt, now);
+        List<Node> nodes = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) {
+            long id = ids.comment++;
+            Node parent = null;
+            if (!nodes.isEmpty() && random.nextDouble() < properties.getReplies()) {
+                parent = nodes.get(random.nextInt(nodes.size()));
+                if (parent.depth >= MAX_COMMENT_DEPTH) {
+                    parent = null;
+                }
+            }
+            Node node;
+            if (parent == null) {
+                node = new Node(id, null, segment(id, ROOT_SEGMENT_LENGTH), 0);
+            } else {
+                parent.replyCount++;
+                node = new Node(id, parent, parent.path + segment(parent.replyCount, REPLY_SEGMENT_LENGTH),
+                        parent.depth + 1);
+                for (Node ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+                    ancestor.totalReplyCount++;
+                }
+            }
+            node.userId = first.user() + random.nextInt(users);
+            node.createdAt = times[c];
+            node.content = Words.sentence(random, 3, 20, 255);
+            nodes.add(node);
+        }
+        for (Node node : nodes) {
+            sink.comment(new DatasetSink.Comment(node.id, postId, node.userId, node.content, node.createdAt,
+                    node.parent == null ? null : node.parent.id, node.path, node.depth, node.replyCount,
+                    node.totalReplyCount));
+        }
+    }
+
+    /**
+     * Samples a count from a Pareto distribution with the given mean, rounded at random so that
+     * the mean is kept.
+     */
+    private int pareto(SplittableRandom random, double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        double shape = properties.getTailShape();
+        double scale = mean * (shape - 1) / shape;
+        double value = scale / Math.pow(1 - random.nextDouble(), 1 / shape);
+        double whole = Math.floor(value);
+        return (int) Math.min(Integer.MAX_VALUE, whole + (random.nextDouble() < value - whole ? 1 : 0));
+    }
+
+    /**
+     * @return {@code count} ascending times after {@code from}, most of them soon after it
+     */
+    private static LocalDateTime[] times(SplittableRandom random, int count, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime[] times = new LocalDateTime[count];
+        for (int i = 0; i < count; i++) {
+            times[i] = between(random, from, to, 3);
+        }
+        Arrays.sort(times);
+        return times;
+    }
+
+    /**
+     * @param skew 1 for evenly spread times, higher to gather them towards {@code from}
+     */
+    private static LocalDateTime between(SplittableRandom random, LocalDateTime from, LocalDateTime to, int skew) {
+        long micros = Duration.between(from, to).toNanos() / 1_000;
+        return from.plusNanos((long) (Math.pow(random.nextDouble(), skew) * micros) * 1_000);
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String segment(long value, int length) {
+        String digits = Long.toString(value, Character.MAX_RADIX);
+        return "0".repeat(length - digits.length()) + digits;
+    }
+
+    private static final class Ids {
+        long friend;
+        long post;
+        long like;
+        long comment;
+
+        Ids(DatasetSink.FirstIds first) {
+            friend = first.friend();
+            post = first.post();
+            like = first.like();
+            comment = first.comment();
+        }
+    }
+
+    private static final class Node {
+        final long id;
+        final Node parent;
+        final String path;
+        final int depth;
+        int replyCount;
+        int totalReplyCount;
+        long userId;
+        LocalDateTime createdAt;
+        String content;
+
+        Node(long id, Node parent, String path, int depth) {
+            this.id = id;
+            this.parent = parent;
+            this.path = path;
+            this.depth = depth;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.socialhub.loadtest.generator;
+
+import java.time.LocalDateTime;
+
+/**
+ * Destination of the rows {@link DatasetGenerator} produces, in the layout of the AUTH-SERVICE
+ * and USER-SERVICE tables.
+ */
+public interface DatasetSink extends AutoCloseable {
+
+    /**
+     * @return the first free ID of each table, so that generated rows follow the existing ones
+     */
+    FirstIds firstIds();
+
+    /**
+     * A user, with its AUTH-SERVICE account, USER-SERVICE user and profile.
+     */
+    void user(User user);
+
+    void friend(Friend friend);
+
+    void post(Post post);
+
+    void like(Like like);
+
+    void comment(Comment comment);
+
+    /**
+     * Waits until every row has been stored.
+     */
+    @Override
+    void close();
+
+    record FirstIds(long authUser, long user, long profile, long friend, long post, long like, long comment) {
+    }
+
+    record User(long authUserId, long id, long profileId, String username, String email,
+                String firstName, String lastName, String bio) {
+    }
+
+    record Friend(long id, long userId, long friendId, String status, LocalDateTime requestedAt) {
+    }
+
+    record Post(long id, long userId, String content, LocalDateTime createdAt) {
+    }
+
+    record Like(long id, long postId, long userId, LocalDateTime likedAt) {
+    }
+
+    record Comment(long id, long postId, long userId, String content, LocalDateTime createdAt, Long parentId,
+                   String path, int depth, int replyCount, int totalReplyCount) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.socialhub.loadtest.generator;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the dataset generator settings.
+ */
+@Configuration
+@EnableConfigurationProperties(GeneratorProperties.class)
+public class GeneratorConfig {
+}
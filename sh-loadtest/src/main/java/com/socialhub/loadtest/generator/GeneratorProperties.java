@@ -0,0 +1,106 @@
+package com.socialhub.loadtest.generator;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the synthetic dataset: its size, the shape of its distributions, and the
+ * databases it is loaded into.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.generator")
+public class GeneratorProperties {
+
+    /**
+     * AUTH-SERVICE's database; its tables must exist, i.e. the service has been started once.
+     */
+    private String authUrl = "jdbc:mysql://localhost:3306/sh_auth_db";
+
+    /**
+     * USER-SERVICE's database, migrated by Flyway; sharded layouts are not supported.
+     */
+    private String userUrl = "jdbc:mysql://localhost:3306/sh_user_db";
+
+    private String databaseUsername = "root";
+    private String databasePassword = "";
+
+    /**
+     * Users to add. Rows are added after the existing ones, so several runs add up.
+     */
+    private int users = 100_000;
+
+    /**
+     * Average friends per user. Friendships grow by preferential attachment, so the number of
+     * friends follows a power law: most users have a few, some have thousands.
+     */
+    private int meanFriends = 20;
+
+    /**
+     * Share of friendships left as a pending request instead of accepted.
+     */
+    private double pendingRequests = 0.05;
+
+    /**
+     * Average posts per user.
+     */
+    private double meanPosts = 10;
+
+    /**
+     * Average likes per post; posts of users with more friends get proportionally more.
+     */
+    private double meanLikes = 5;
+
+    /**
+     * Average comments per post; posts of users with more friends get proportionally more.
+     */
+    private double meanComments = 2;
+
+    /**
+     * Share of comments replying to an earlier comment instead of the post.
+     */
+    private double replies = 0.3;
+
+    /**
+     * Pareto shape of posts per user and of likes and comments per post; closer to 1 gives a
+     * longer tail of very active users and very popular posts.
+     */
+    private double tailShape = 1.6;
+
+    /**
+     * Period the posts, likes, comments and friend requests are spread over, up to now.
+     */
+    private Duration period = Duration.ofDays(365);
+
+    /**
+     * Usernames are this prefix followed by the user ID.
+     */
+    private String usernamePrefix = "lt";
+
+    /**
+     * Password every generated user logs in with.
+     */
+    private String userPassword = "password";
+
+    /**
+     * Rows per multi-row INSERT.
+     */
+    private int batchSize = 1_000;
+
+    /**
+     * Connections inserting batches in parallel, per database.
+     */
+    private int writers = 4;
+
+    /**
+     * Seed of the random generator; the same seed and settings give the same dataset.
+     */
+    private long seed = 42;
+
+    /**
+     * Where the users, profiles and posts generated are recorded for the {@code run} command.
+     */
+    private Path datasetFile = Path.of("loadtest-dataset.properties");
+}
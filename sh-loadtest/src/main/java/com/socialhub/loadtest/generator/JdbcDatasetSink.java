@@ -0,0 +1,132 @@
+package com.socialhub.loadtest.generator;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Loads the generated rows into AUTH-SERVICE's and USER-SERVICE's databases with
+ * {@link BulkLoader}.
+ */
+class JdbcDatasetSink implements DatasetSink {
+
+    private final BulkLoader auth;
+    private final BulkLoader user;
+    private final long userRoleId;
+    private final String passwordHash;
+
+    private final BulkLoader.Table authUsers;
+    private final BulkLoader.Table authUserRoles;
+    private final BulkLoader.Table users;
+    private final BulkLoader.Table profiles;
+    private final BulkLoader.Table friends;
+    private final BulkLoader.Table posts;
+    private final BulkLoader.Table likes;
+    private final BulkLoader.Table comments;
+
+    JdbcDatasetSink(GeneratorProperties properties) {
+        try {
+            auth = new BulkLoader(properties.getAuthUrl(), properties.getDatabaseUsername(),
+                    properties.getDatabasePassword(), properties.getWriters());
+            user = new BulkLoader(properties.getUserUrl(), properties.getDatabaseUsername(),
+                    properties.getDatabasePassword(), properties.getWriters());
+            userRoleId = queryLong(auth, "SELECT id FROM roles WHERE name = 'ROLE_USER'", -1);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not connect to the databases: " + ex.getMessage(), ex);
+        }
+        if (userRoleId < 0) {
+            throw new IllegalStateException("ROLE_USER is missing; start AUTH-SERVICE once to create its tables and roles");
+        }
+        // Hashed once: at BCrypt's cost, hashing per user would take longer than everything else
+        passwordHash = new BCryptPasswordEncoder().encode(properties.getUserPassword());
+
+        int batch = properties.getBatchSize();
+        authUsers = auth.table("users", batch, "id", "username", "email", "password");
+        authUserRoles = auth.table("users_roles", batch, "user_id", "role_id");
+        users = user.table("users", batch, "id", "auth_user_id", "username", "email");
+        profiles = user.table("profiles", batch, "id", "user_id", "first_name", "last_name", "bio", "version");
+        friends = user.table("friends", batch, "id", "user_id", "friend_id", "status", "requested_at");
+        posts = user.table("posts", batch, "id", "user_id", "content", "created_at");
+        likes = user.table("likes", batch, "id", "post_id", "user_id", "liked_at");
+        comments = user.table("comments", batch, "id", "post_id", "user_id", "content", "created_at", "parent_id",
+                "path", "depth", "reply_count", "total_reply_count");
+    }
+
+    @Override
+    public FirstIds firstIds() {
+        try {
+            return new FirstIds(nextId(auth, "users"), nextId(user, "users"), nextId(user, "profiles"),
+                    nextId(user, "friends"), nextId(user, "posts"), nextId(user, "likes"), nextId(user, "comments"));
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not read the tables; is USER-SERVICE's schema migrated? "
+                    + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public void user(User row) {
+        authUsers.add(row.authUserId(), row.username(), row.email(), passwordHash);
+        authUserRoles.add(row.authUserId(), userRoleId);
+        users.add(row.id(), row.authUserId(), row.username(), row.email());
+        profiles.add(row.profileId(), row.id(), row.firstName(), row.lastName(), row.bio(), 0);
+    }
+
+    @Override
+    public void friend(Friend row) {
+        friends.add(row.id(), row.userId(), row.friendId(), row.status(), row.requestedAt());
+    }
+
+    @Override
+    public void post(Post row) {
+        posts.add(row.id(), row.userId(), row.content(), row.createdAt());
+    }
+
+    @Override
+    public void like(Like row) {
+        likes.add(row.id(), row.postId(), row.userId(), row.likedAt());
+    }
+
+    @Override
+    public void comment(Comment row) {
+        comments.add(row.id(), row.postId(), row.userId(), row.content(), row.createdAt(), row.parentId(), row.path(),
+                row.depth(), row.replyCount(), row.totalReplyCount());
+    }
+
+    @Override
+    public void close() {
+        try {
+            for (BulkLoader.Table table : new BulkLoader.Table[]{authUsers, authUserRoles, users, profiles, friends,
+                    posts, likes, comments}) {
+                table.flush();
+            }
+        } finally {
+            try {
+                auth.close();
+            } finally {
+                user.close();
+            }
+        }
+    }
+
+    private static long nextId(BulkLoader loader, String table) throws SQLException {
+        return queryLong(loader, "SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, 1);
+    }
+
+    private static long queryLong(BulkLoader loader, String sql, long fallback) throws SQLException {
+        Connection connection;
+        try {
+            connection = loader.connection();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted", ex);
+        }
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            return result.next() ? result.getLong(1) : fallback;
+        } finally {
+            loader.release(connection);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.socialhub.loadtest.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Filler text for names, bios, posts and comments.
+ */
+final class Words {
+
+    private static final String[] FIRST_NAMES = {
+            "Aisha", "Ben", "Carlos", "Dana", "Elif", "Farid", "Grace", "Hiro", "Ines", "Jonas", "Kavya", "Liam",
+            "Maya", "Noah", "Olga", "Priya", "Quinn", "Rosa", "Sami", "Tara", "Umar", "Vera", "Wen", "Yusuf", "Zoe"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Ahmed", "Brown", "Chen", "Diaz", "Evans", "Fischer", "Garcia", "Hughes", "Ivanova", "Jensen", "Khan",
+            "Lopez", "Memon", "Nakamura", "Okafor", "Patel", "Rossi", "Silva", "Tanaka", "Weber", "Yilmaz"
+    };
+
+    private static final String[] WORDS = {
+            "the", "a", "today", "finally", "new", "old", "great", "small", "city", "coffee", "weekend", "project",
+            "music", "trip", "photo", "friends", "family", "book", "movie", "game", "code", "release", "morning",
+            "evening", "run", "walk", "dinner", "lunch", "idea", "question", "team", "launch", "beach", "mountain",
+            "rain", "sun", "snow", "train", "flight", "concert", "recipe", "garden", "dog", "cat", "bike", "match",
+            "is", "was", "feels", "looks", "loved", "tried", "found", "made", "shared", "started", "finished",
+            "really", "so", "very", "quite", "never", "always", "again", "with", "and", "for", "at", "in", "on"
+    };
+
+    private Words() {
+    }
+
+    static String firstName(SplittableRandom random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+    }
+
+    static String lastName(SplittableRandom random) {
+        return LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    /**
+     * @return between {@code min} and {@code max} random words, cut to {@code maxLength} characters
+     */
+    static String sentence(SplittableRandom random, int min, int max, int maxLength) {
+        int count = random.nextInt(min, max + 1);
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.length() > maxLength ? sentence.substring(0, maxLength) : sentence.toString();
+    }
+}
@@ -0,0 +1,136 @@
+package com.socialhub.loadtest.driver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialhub.loadtest.DatasetProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the driver against a stub gateway that accepts any login.
+ */
+class LoadDriverTests {
+
+    private final Set<String> tokens = ConcurrentHashMap.newKeySet();
+    private final VirtualTicker ticker = new VirtualTicker();
+    private final List<Long> sentAt = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/auth/login", exchange -> respond(exchange, 200, "{\"token\":\"t\",\"expiresIn\":900}"));
+        server.createContext("/", exchange -> {
+            tokens.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            sentAt.add(ticker.nanoTime());
+            // Every post is already liked
+            respond(exchange, exchange.getRequestURI().getPath().endsWith("/like") ? 400 : 200, "[]");
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void reportsEveryOperationOfTheMix() {
+        LoadProperties properties = new LoadProperties();
+        properties.setBaseUrl(URI.create("http://localhost:" + server.getAddress().getPort()));
+        properties.setVirtualUsers(2);
+        properties.setWarmup(Duration.ZERO);
+        properties.setDuration(Duration.ofSeconds(1));
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        mix.put(Operation.FEED, 3);
+        mix.put(Operation.LIKE, 1);
+        properties.setMix(mix);
+
+        LatencyReport report = new LoadDriver(properties, dataset(), new ObjectMapper()).run();
+
+        assertThat(report.getResponses(Operation.FEED)).isPositive();
+        assertThat(report.getResponses(Operation.LIKE)).isPositive();
+        assertThat(report.getRejected(Operation.FEED)).isZero();
+        assertThat(report.getRejected(Operation.LIKE)).isEqualTo(report.getResponses(Operation.LIKE));
+        assertThat(report.getResponses(Operation.LOGIN)).isEqualTo(2);
+        assertThat(report.getResponses(Operation.COMMENTS)).isZero();
+        assertThat(report.getPercentile(Operation.FEED, 99)).isPositive();
+        assertThat(tokens).containsExactly("Bearer t");
+    }
+
+    @Test
+    void pacesRequestsAtTheConfiguredRate() {
+        LoadProperties properties = new LoadProperties();
+        properties.setBaseUrl(URI.create("http://localhost:" + server.getAddress().getPort()));
+        properties.setVirtualUsers(1);
+        properties.setWarmup(Duration.ZERO);
+        properties.setDuration(Duration.ofSeconds(1));
+        properties.setRate(50);
+        properties.setMix(Map.of(Operation.FRIENDS, 1));
+
+        LatencyReport report = new LoadDriver(properties, dataset(), new ObjectMapper(), ticker).run();
+
+        // 50 slots in the second, the first one taken by logging in
+        List<Long> schedule = LongStream.rangeClosed(1, 49).map(slot -> slot * 20_000_000).boxed().toList();
+        assertThat(sentAt).isEqualTo(schedule);
+        assertThat(report.getResponses(Operation.FRIENDS)).isEqualTo(49);
+    }
+
+    private static DatasetProperties dataset() {
+        DatasetProperties dataset = new DatasetProperties();
+        dataset.setFirstUserId(1);
+        dataset.setLastUserId(100);
+        dataset.setFirstProfileId(1);
+        dataset.setLastProfileId(100);
+        dataset.setFirstPostId(1);
+        dataset.setLastPostId(1000);
+        return dataset;
+    }
+
+    /**
+     * Time that passes only while a virtual user waits, so that requests take no time at all.
+     */
+    private static class VirtualTicker implements Ticker {
+
+        private final AtomicLong now = new AtomicLong();
+
+        @Override
+        public long nanoTime() {
+            return now.get();
+        }
+
+        @Override
+        public void parkNanos(long nanos) {
+            now.addAndGet(nanos);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
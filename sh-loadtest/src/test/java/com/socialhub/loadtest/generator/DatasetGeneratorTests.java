@@ -0,0 +1,153 @@
+package com.socialhub.loadtest.generator;
+
+import com.socialhub.loadtest.DatasetProperties;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Generates a small dataset into memory and checks that it is consistent and heavy-tailed.
+ */
+class DatasetGeneratorTests {
+
+    private static final int USERS = 2_000;
+
+    private static final RecordingSink sink = new RecordingSink();
+    private static DatasetProperties dataset;
+
+    @BeforeAll
+    static void generate() {
+        GeneratorProperties properties = new GeneratorProperties();
+        properties.setUsers(USERS);
+        DatasetGenerator generator = new DatasetGenerator(properties,
+                Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC));
+        dataset = generator.generate(sink);
+    }
+
+    @Test
+    void followsTheExistingRows() {
+        assertThat(sink.users).hasSize(USERS);
+        assertThat(sink.users.get(0).id()).isEqualTo(11);
+        assertThat(sink.users.get(0).authUserId()).isEqualTo(21);
+        assertThat(sink.users.get(0).username()).isEqualTo("lt11");
+        assertThat(dataset.getFirstUserId()).isEqualTo(11);
+        assertThat(dataset.getLastUserId()).isEqualTo(10 + USERS);
+        assertThat(dataset.getFirstPostId()).isEqualTo(101);
+        assertThat(dataset.getLastPostId()).isEqualTo(100 + sink.posts.size());
+    }
+
+    @Test
+    void storesAcceptedFriendshipsForBothUsers() {
+        Set<String> rows = new HashSet<>();
+        Map<Long, Integer> degree = new HashMap<>();
+        for (DatasetSink.Friend friend : sink.friends) {
+            assertThat(friend.userId()).isNotEqualTo(friend.friendId());
+            assertThat(rows.add(friend.userId() + ">" + friend.friendId())).isTrue();
+            degree.merge(friend.userId(), 1, Integer::sum);
+        }
+        for (DatasetSink.Friend friend : sink.friends) {
+            String reverse = friend.friendId() + ">" + friend.userId();
+            assertThat(rows.contains(reverse)).isEqualTo(friend.status().equals("ACCEPTED"));
+        }
+
+        // Preferential attachment: the best-connected users have many times the mean
+        double mean = degree.values().stream().mapToInt(Integer::intValue).average().orElseThrow();
+        int max = degree.values().stream().mapToInt(Integer::intValue).max().orElseThrow();
+        assertThat(mean).isBetween(15.0, 25.0);
+        assertThat(max).isGreaterThan((int) (mean * 5));
+    }
+
+    @Test
+    void likesEachPostOnceByOtherUsers() {
+        Map<Long, Long> authors = new HashMap<>();
+        sink.posts.forEach(post -> authors.put(post.id(), post.userId()));
+        Set<String> likes = new HashSet<>();
+        for (DatasetSink.Like like : sink.likes) {
+            assertThat(authors).containsKey(like.postId());
+            assertThat(like.userId()).isNotEqualTo(authors.get(like.postId()));
+            assertThat(likes.add(like.postId() + ":" + like.userId())).isTrue();
+        }
+        assertThat(sink.likes.size()).isGreaterThan(sink.posts.size());
+    }
+
+    @Test
+    void keepsCommentTreesConsistent() {
+        Map<Long, DatasetSink.Comment> comments = new HashMap<>();
+        Map<Long, Integer> replies = new HashMap<>();
+        for (DatasetSink.Comment comment : sink.comments) {
+            comments.put(comment.id(), comment);
+            if (comment.parentId() != null) {
+                replies.merge(comment.parentId(), 1, Integer::sum);
+            }
+        }
+        int nested = 0;
+        for (DatasetSink.Comment comment : sink.comments) {
+            assertThat(comment.path()).hasSize(13 + 5 * comment.depth());
+            assertThat(comment.replyCount()).isEqualTo(replies.getOrDefault(comment.id(), 0));
+            if (comment.parentId() == null) {
+                assertThat(comment.depth()).isZero();
+                continue;
+            }
+            DatasetSink.Comment parent = comments.get(comment.parentId());
+            assertThat(comment.postId()).isEqualTo(parent.postId());
+            assertThat(comment.depth()).isEqualTo(parent.depth() + 1);
+            assertThat(comment.path()).startsWith(parent.path());
+            assertThat(parent.totalReplyCount()).isGreaterThanOrEqualTo(comment.totalReplyCount() + 1);
+            nested++;
+        }
+        assertThat(nested).isPositive();
+    }
+
+    private static final class RecordingSink implements DatasetSink {
+        final List<User> users = new ArrayList<>();
+        final List<Friend> friends = new ArrayList<>();
+        final List<Post> posts = new ArrayList<>();
+        final List<Like> likes = new ArrayList<>();
+        final List<Comment> comments = new ArrayList<>();
+
+        @Override
+        public FirstIds firstIds() {
+            return new FirstIds(21, 11, 11, 1, 101, 1, 1);
+        }
+
+        @Override
+        public void user(User user) {
+            users.add(user);
+        }
+
+        @Override
+        public void friend(Friend friend) {
+            friends.add(friend);
+        }
+
+        @Override
+        public void post(Post post) {
+            posts.add(post);
+        }
+
+        @Override
+        public void like(Like like) {
+            likes.add(like);
+        }
+
+        @Override
+        public void comment(Comment comment) {
+            comments.add(comment);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
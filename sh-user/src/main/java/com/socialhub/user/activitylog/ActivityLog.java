@@ -0,0 +1,345 @@
+package com.socialhub.user.activitylog;
+
+import com.socialhub.user.outbox.ChangeEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Local, durable, append-only log of post, like, comment and friend activity.
+ * <p>
+ * Records are length-prefixed and checksummed (see {@link RecordFormat}) and written to
+ * {@link LogSegment segments} of fixed size. A single writer thread takes every append queued
+ * while the previous group was being forced, writes the group with one gathering write and
+ * forces it once, so concurrent appends share the cost of {@code fsync}. Appends complete once
+ * their records are on disk; readers never see records that are not.
+ * <p>
+ * Readers address records by offset, counted from the first record ever written, and read them
+ * through memory-mapped segments; payloads are views of the map. Sparse offset indexes keep
+ * seeks by offset or time short. Full segments are deleted once their newest record is older
+ * than the retention period. Replaying the log rebuilds derived state without the database.
+ */
+@Slf4j
+@Component
+public class ActivityLog {
+
+    private static final int REPLAY_BATCH_SIZE = 1000;
+
+    private final ActivityLogProperties properties;
+    private final Clock clock;
+    private final Path directory;
+    private final int segmentSize;
+    private final int indexInterval;
+    private final ConcurrentSkipListMap<Long, LogSegment> segments = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> lastSequenceNumbers = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingAppend> pending = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    @Autowired
+    public ActivityLog(ActivityLogProperties properties) throws IOException {
+        this(properties, Clock.systemUTC());
+    }
+
+    ActivityLog(ActivityLogProperties properties, Clock clock) throws IOException {
+        this.properties = properties;
+        this.clock = clock;
+        this.directory = properties.getDirectory();
+        this.segmentSize = (int) properties.getSegmentSize().toBytes();
+        this.indexInterval = (int) properties.getIndexInterval().toBytes();
+
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> LogSegment.baseOffsetOf(path) >= 0)
+                    .sorted((a, b) -> Long.compare(LogSegment.baseOffsetOf(a), LogSegment.baseOffsetOf(b)))
+                    .toList();
+        }
+        for (int i = 0; i < files.size(); i++) {
+            LogSegment segment = LogSegment.open(files.get(i), indexInterval, i == files.size() - 1);
+            segments.put(segment.baseOffset(), segment);
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, LogSegment.create(directory, 0, segmentSize, indexInterval));
+        }
+        recoverLastSequenceNumbers();
+
+        this.writer = new Thread(this::writeLoop, "activity-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Appends change events, in order.
+     *
+     * @param events the change events
+     * @return completes with the offset of the last event once all of them are on disk
+     */
+    public CompletableFuture<Long> append(List<ChangeEvent> events) {
+        if (events.isEmpty()) {
+            return CompletableFuture.completedFuture(endOffset() - 1);
+        }
+        List<ByteBuffer> records = new ArrayList<>(events.size());
+        for (ChangeEvent event : events) {
+            ByteBuffer record = RecordFormat.encode(event);
+            if (record.remaining() > segmentSize) {
+                throw new IllegalArgumentException("Change event " + event.type() + " #" + event.sequenceNumber()
+                        + " of " + record.remaining() + " bytes does not fit in a segment");
+            }
+            records.add(record);
+        }
+        PendingAppend append = new PendingAppend(events, records, new CompletableFuture<>());
+        if (!writer.isAlive()) {
+            append.result().completeExceptionally(new IllegalStateException("The activity log is closed"));
+        } else {
+            pending.add(append);
+        }
+        return append.result();
+    }
+
+    /**
+     * Reads records in offset order.
+     *
+     * @param offset     the offset of the first record; records before the oldest retained one are skipped
+     * @param maxRecords the maximum number of records to read
+     * @return the records, empty if there are none at or after the offset yet
+     */
+    public List<ActivityRecord> read(long offset, int maxRecords) {
+        List<ActivityRecord> records = new ArrayList<>(Math.min(maxRecords, REPLAY_BATCH_SIZE));
+        Map.Entry<Long, LogSegment> first = segments.floorEntry(offset);
+        Long from = first != null ? first.getKey() : segments.firstKey();
+        long next = Math.max(offset, from);
+        for (LogSegment segment : segments.tailMap(from).values()) {
+            if (records.size() >= maxRecords) {
+                break;
+            }
+            segment.read(Math.max(next, segment.baseOffset()), maxRecords, records);
+        }
+        return records;
+    }
+
+    /**
+     * @return the offset of the oldest retained record
+     */
+    public long startOffset() {
+        return segments.firstKey();
+    }
+
+    /**
+     * @return the offset the next record will get once on disk
+     */
+    public long endOffset() {
+        return segments.lastEntry().getValue().endOffset();
+    }
+
+    /**
+     * Finds the oldest record written at or after a time.
+     *
+     * @param time the time
+     * @return the offset of the record, or {@link #endOffset()} if all records are older
+     */
+    public long offsetForTime(Instant time) {
+        long timestamp = time.toEpochMilli();
+        for (LogSegment segment : segments.values()) {
+            long offset = segment.offsetForTime(timestamp);
+            if (offset >= 0) {
+                return offset;
+            }
+        }
+        return endOffset();
+    }
+
+    /**
+     * Hands every record written at or after a time to a consumer, in offset order, up to the
+     * records on disk when the replay started.
+     *
+     * @param since    the time to replay from
+     * @param consumer called with each record
+     * @return the number of records replayed
+     */
+    public long replay(Instant since, Consumer<ActivityRecord> consumer) {
+        long end = endOffset();
+        long offset = offsetForTime(since);
+        long replayed = 0;
+        while (offset < end) {
+            List<ActivityRecord> records = read(offset, (int) Math.min(REPLAY_BATCH_SIZE, end - offset));
+            if (records.isEmpty()) {
+                break;
+            }
+            records.forEach(consumer);
+            replayed += records.size();
+            offset = records.get(records.size() - 1).offset() + 1;
+        }
+        return replayed;
+    }
+
+    /**
+     * @param shard the shard
+     * @return the highest sequence number of the shard's change log appended so far, or 0 if none
+     */
+    public long lastSequenceNumber(String shard) {
+        return lastSequenceNumbers.getOrDefault(shard, 0L);
+    }
+
+    /**
+     * Deletes full segments whose newest record is older than the retention period.
+     */
+    @Scheduled(initialDelayString = "${socialhub.activity-log.retention-check-interval:PT5M}",
+            fixedDelayString = "${socialhub.activity-log.retention-check-interval:PT5M}")
+    public void deleteExpiredSegments() {
+        long cutoff = clock.millis() - properties.getRetention().toMillis();
+        for (LogSegment segment : segments.values()) {
+            if (segment == segments.lastEntry().getValue() || segment.maxTimestamp() >= cutoff) {
+                return;
+            }
+            segments.remove(segment.baseOffset());
+            try {
+                segment.delete();
+                log.info("Deleted activity log segment {} (offsets up to {})", segment.baseOffset(), segment.endOffset());
+            } catch (IOException ex) {
+                log.warn("Could not delete activity log segment {}", segment.baseOffset(), ex);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        writer.interrupt();
+        writer.join();
+        for (LogSegment segment : segments.values()) {
+            segment.close();
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> group = new ArrayList<>();
+        long commitDelayNanos = properties.getCommitDelay().toNanos();
+        try {
+            while (true) {
+                group.add(pending.take());
+                if (commitDelayNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(commitDelayNanos);
+                }
+                pending.drainTo(group);
+                commit(group);
+                group.clear();
+            }
+        } catch (InterruptedException ex) {
+            // Closing: fail appends that will never be written
+            pending.drainTo(group);
+            for (PendingAppend append : group) {
+                append.result().completeExceptionally(new IllegalStateException("The activity log is closed"));
+            }
+        }
+    }
+
+    /**
+     * Writes a group of appends and forces them to disk, rolling to new segments as they fill up.
+     * <p>
+     * Rolling forces the full segment first. If writing fails later in the group, the records
+     * forced before stay in the log: their sequence numbers are recorded and the appends wholly
+     * among them complete, so that the relay, publishing the failed batches again, only appends
+     * what is missing.
+     */
+    private void commit(List<PendingAppend> group) {
+        LogSegment segment = segments.lastEntry().getValue();
+        long[] lastOffsets = new long[group.size()];
+        List<ChangeEvent> unflushed = new ArrayList<>();
+        int completed = 0;
+        try {
+            for (int i = 0; i < group.size(); i++) {
+                PendingAppend append = group.get(i);
+                for (int j = 0; j < append.records().size(); j++) {
+                    ByteBuffer record = append.records().get(j);
+                    if (!segment.fits(record.remaining())) {
+                        if (segment.isEmpty()) {
+                            throw new IllegalStateException("Record larger than an empty segment");
+                        }
+                        segment.flush();
+                        completed = flushed(group, completed, i, unflushed, lastOffsets);
+                        segment = next(segment);
+                    }
+                    lastOffsets[i] = segment.append(record);
+                    unflushed.add(append.events().get(j));
+                }
+            }
+            segment.flush();
+        } catch (IOException | RuntimeException ex) {
+            log.error("Writing {} appends to the activity log failed", group.size() - completed, ex);
+            for (PendingAppend append : group.subList(completed, group.size())) {
+                append.result().completeExceptionally(ex);
+            }
+            return;
+        }
+        flushed(group, completed, group.size(), unflushed, lastOffsets);
+    }
+
+    /**
+     * Records the sequence numbers of events just forced to disk and completes the appends
+     * before {@code to}, all of whose records are on disk.
+     *
+     * @return the index of the first append not completed
+     */
+    private int flushed(List<PendingAppend> group, int from, int to, List<ChangeEvent> events, long[] lastOffsets) {
+        for (ChangeEvent event : events) {
+            lastSequenceNumbers.merge(event.shard(), event.sequenceNumber(), Math::max);
+        }
+        events.clear();
+        for (int i = from; i < to; i++) {
+            group.get(i).result().complete(lastOffsets[i]);
+        }
+        return to;
+    }
+
+    /**
+     * Starts the segment after a full one.
+     */
+    private LogSegment next(LogSegment full) throws IOException {
+        LogSegment next = LogSegment.create(directory, full.nextWriteOffset(), segmentSize, indexInterval);
+        segments.put(next.baseOffset(), next);
+        return next;
+    }
+
+    /**
+     * Recovers the last sequence number appended per shard from the two newest segments. Any
+     * batch repeated by the outbox relay after a crash is at the end of the log, so this is enough
+     * to recognise it.
+     */
+    private void recoverLastSequenceNumbers() {
+        Long from = segments.lastKey();
+        Long previous = segments.lowerKey(from);
+        long offset = previous != null ? previous : from;
+        List<ActivityRecord> records;
+        while (!(records = read(offset, REPLAY_BATCH_SIZE)).isEmpty()) {
+            for (ActivityRecord record : records) {
+                lastSequenceNumbers.merge(record.shard(), record.sequenceNumber(), Math::max);
+            }
+            offset = records.get(records.size() - 1).offset() + 1;
+        }
+    }
+
+    /**
+     * Events queued for the writer thread, with their encoded records.
+     */
+    private record PendingAppend(List<ChangeEvent> events, List<ByteBuffer> records, CompletableFuture<Long> result) {
+    }
+}
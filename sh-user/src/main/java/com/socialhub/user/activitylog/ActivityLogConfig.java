@@ -0,0 +1,12 @@
+package com.socialhub.user.activitylog;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the activity log settings.
+ */
+@Configuration
+@EnableConfigurationProperties(ActivityLogProperties.class)
+public class ActivityLogConfig {
+}
@@ -0,0 +1,48 @@
+package com.socialhub.user.activitylog;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the local activity log.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.activity-log")
+public class ActivityLogProperties {
+
+    /**
+     * Directory holding the segment and index files.
+     */
+    private Path directory = Path.of("data/activity-log");
+
+    /**
+     * Size each segment file is preallocated to; a new segment starts when a record no longer fits.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Bytes of records between two offset index entries. Smaller intervals make seeks scan less
+     * and indexes larger.
+     */
+    private DataSize indexInterval = DataSize.ofKilobytes(4);
+
+    /**
+     * How long a full segment is kept after its newest record.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Interval between checks for expired segments.
+     */
+    private Duration retentionCheckInterval = Duration.ofMinutes(5);
+
+    /**
+     * How long the writer waits for more appends before writing and forcing a group to disk.
+     * Zero commits whatever has queued up while the previous group was being forced.
+     */
+    private Duration commitDelay = Duration.ZERO;
+}
@@ -0,0 +1,84 @@
+package com.socialhub.user.activitylog;
+
+import com.socialhub.user.outbox.ChangeEvent;
+import com.socialhub.user.outbox.ChangeEventSink;
+import com.socialhub.user.outbox.ChangeEventType;
+import com.socialhub.user.outbox.OutboxProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Instance-local outbox sink appending post, like, comment and friend changes to the
+ * {@link ActivityLog}.
+ * <p>
+ * The relay advances this instance's offset only after the log has forced a batch to disk, so
+ * after a crash it publishes the last batch again. Changes at or below the last sequence number
+ * the log holds for their shard are skipped, so the log records each change once.
+ */
+@Component
+@RequiredArgsConstructor
+public class ActivityLogSink implements ChangeEventSink {
+
+    /**
+     * The sink's name in {@code socialhub.outbox.sinks}.
+     */
+    public static final String NAME = "activity-log";
+
+    private static final Set<ChangeEventType> RECORDED = EnumSet.of(
+            ChangeEventType.POST_CREATED,
+            ChangeEventType.POST_DELETED,
+            ChangeEventType.POST_LIKED,
+            ChangeEventType.POST_COMMENTED,
+            ChangeEventType.FRIEND_REQUEST_SENT,
+            ChangeEventType.FRIEND_REQUEST_ACCEPTED,
+            ChangeEventType.FRIEND_REQUEST_DECLINED,
+            ChangeEventType.FRIEND_REMOVED);
+
+    private final ActivityLog activityLog;
+    private final OutboxProperties outboxProperties;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String consumerName() {
+        return NAME + "@" + instanceId();
+    }
+
+    @Override
+    public void publish(List<ChangeEvent> events) throws IOException {
+        long last = activityLog.lastSequenceNumber(events.get(0).shard());
+        List<ChangeEvent> recorded = events.stream()
+                .filter(event -> RECORDED.contains(event.type()) && event.sequenceNumber() > last)
+                .toList();
+        try {
+            activityLog.append(recorded).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while appending to the activity log", ex);
+        } catch (ExecutionException ex) {
+            throw new IOException("Appending to the activity log failed", ex.getCause());
+        }
+    }
+
+    private String instanceId() {
+        if (outboxProperties.getInstanceId() != null) {
+            return outboxProperties.getInstanceId();
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            return "localhost";
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.socialhub.user.activitylog;
+
+import com.socialhub.user.outbox.ChangeEventType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A record read from the activity log.
+ *
+ * @param offset         the position of the record in the log
+ * @param timestamp      when the change was written, in epoch milliseconds
+ * @param type           the kind of change
+ * @param shard          the shard whose outbox recorded the change
+ * @param sequenceNumber the position of the change in the shard's change log
+ * @param aggregateId    the ID of the post, friend request, user or profile the change is about
+ * @param payload        the domain event as UTF-8 JSON; a read-only view of the mapped segment, not a copy
+ */
+public record ActivityRecord(long offset,
+                             long timestamp,
+                             ChangeEventType type,
+                             String shard,
+                             long sequenceNumber,
+                             long aggregateId,
+                             ByteBuffer payload) {
+
+    /**
+     * Decodes the payload. Consumers that only need the type and aggregate ID can skip this.
+     *
+     * @return the domain event as JSON
+     */
+    public String payloadAsString() {
+        return StandardCharsets.UTF_8.decode(payload.duplicate()).toString();
+    }
+}
@@ -0,0 +1,429 @@
+package com.socialhub.user.activitylog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One segment of the activity log: a file preallocated to a fixed size holding the records from
+ * {@link #baseOffset()} on, and a sparse index of the offsets, positions and timestamps of
+ * every {@code indexInterval} bytes of records.
+ * <p>
+ * Only the log's writer thread appends. Appended records are staged until {@link #flush()} writes
+ * them with one gathering write and forces them to disk; only then do readers see them. Readers
+ * go through a read-only memory map of the whole file, so reads copy nothing and take no lock
+ * except for the index lookup.
+ */
+final class LogSegment implements Closeable {
+
+    static final String LOG_SUFFIX = ".log";
+    static final String INDEX_SUFFIX = ".index";
+
+    private static final int INDEX_ENTRY_BYTES = 4 + 4 + 8;
+
+    private final long baseOffset;
+    private final Path logPath;
+    private final Path indexPath;
+    private final int capacity;
+    private final int indexInterval;
+    private final FileChannel logChannel;
+    private final FileChannel indexChannel;
+    private final MappedByteBuffer map;
+
+    // Index entries: relative offset, position, and the newest timestamp of the records before it.
+    // Guarded by this; entries past the flushed records are never returned to readers.
+    private int[] indexOffsets = new int[64];
+    private int[] indexPositions = new int[64];
+    private long[] indexTimestamps = new long[64];
+    private int indexEntries;
+
+    // Writer state, including staged records
+    private final List<ByteBuffer> staged = new ArrayList<>();
+    private int writePosition;
+    private int writeCount;
+    private long writeMaxTimestamp = Long.MIN_VALUE;
+    private int bytesSinceIndexEntry;
+    private int writtenIndexEntries;
+
+    private volatile Flushed flushed;
+
+    private LogSegment(Path directory, long baseOffset, int capacity, int indexInterval, boolean create)
+            throws IOException {
+        this.baseOffset = baseOffset;
+        this.logPath = directory.resolve(fileName(baseOffset, LOG_SUFFIX));
+        this.indexPath = directory.resolve(fileName(baseOffset, INDEX_SUFFIX));
+        this.indexInterval = indexInterval;
+        if (create) {
+            this.logChannel = FileChannel.open(logPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            // Sparse on most file systems: blocks are allocated as records are written
+            logChannel.write(ByteBuffer.allocate(1), capacity - 1);
+            this.capacity = capacity;
+        } else {
+            this.logChannel = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.capacity = (int) logChannel.size();
+        }
+        this.indexChannel = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.map = logChannel.map(FileChannel.MapMode.READ_ONLY, 0, this.capacity);
+        this.flushed = new Flushed(0, 0, Long.MIN_VALUE);
+    }
+
+    /**
+     * Creates an empty segment.
+     */
+    static LogSegment create(Path directory, long baseOffset, int capacity, int indexInterval) throws IOException {
+        return new LogSegment(directory, baseOffset, capacity, indexInterval, true);
+    }
+
+    /**
+     * Opens an existing segment, finding the end of its intact records.
+     *
+     * @param logPath     the segment file
+     * @param fullScan    whether to check every record and rebuild the index, as for the segment that
+     *                    was being written when the log last closed; other segments were forced
+     *                    completely before the next one started, so their index is trusted
+     */
+    static LogSegment open(Path logPath, int indexInterval, boolean fullScan) throws IOException {
+        String name = logPath.getFileName().toString();
+        long baseOffset = Long.parseLong(name.substring(0, name.length() - LOG_SUFFIX.length()));
+        LogSegment segment = new LogSegment(logPath.getParent(), baseOffset, 0, indexInterval, false);
+        segment.recover(fullScan);
+        return segment;
+    }
+
+    /**
+     * @return the base offset parsed from a segment file name, or -1 if the file is not a segment
+     */
+    static long baseOffsetOf(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.endsWith(LOG_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(0, name.length() - LOG_SUFFIX.length()));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    long baseOffset() {
+        return baseOffset;
+    }
+
+    /**
+     * @return the offset after the last flushed record
+     */
+    long endOffset() {
+        return baseOffset + flushed.count();
+    }
+
+    /**
+     * @return the offset the next appended record gets
+     */
+    long nextWriteOffset() {
+        return baseOffset + writeCount;
+    }
+
+    /**
+     * @return the newest timestamp among the flushed records, or {@link Long#MIN_VALUE} if there are none
+     */
+    long maxTimestamp() {
+        return flushed.maxTimestamp();
+    }
+
+    /**
+     * @return whether a record of the given size fits after the staged records
+     */
+    boolean fits(int size) {
+        return writePosition <= capacity - size;
+    }
+
+    /**
+     * @return whether nothing has been appended to this segment
+     */
+    boolean isEmpty() {
+        return writeCount == 0;
+    }
+
+    /**
+     * Stages an encoded record after the last one. Writer thread only.
+     *
+     * @param record the record, as encoded by {@link RecordFormat#encode}
+     * @return the offset of the record
+     */
+    long append(ByteBuffer record) {
+        int size = record.remaining();
+        if (bytesSinceIndexEntry >= indexInterval) {
+            addIndexEntry(writeCount, writePosition, writeMaxTimestamp);
+            bytesSinceIndexEntry = 0;
+        }
+        staged.add(record);
+        long offset = baseOffset + writeCount;
+        writeMaxTimestamp = Math.max(writeMaxTimestamp, RecordFormat.timestamp(record, record.position()));
+        writePosition += size;
+        writeCount++;
+        bytesSinceIndexEntry += size;
+        return offset;
+    }
+
+    /**
+     * Writes the staged records and new index entries, forces the records to disk and makes them
+     * visible to readers. Writer thread only.
+     *
+     * @throws IOException if writing failed; the staged records are dropped
+     */
+    void flush() throws IOException {
+        if (staged.isEmpty()) {
+            return;
+        }
+        Flushed before = flushed;
+        try {
+            ByteBuffer[] buffers = staged.toArray(ByteBuffer[]::new);
+            logChannel.position(before.size());
+            while (buffers[buffers.length - 1].hasRemaining()) {
+                logChannel.write(buffers);
+            }
+            writeIndexEntries();
+            logChannel.force(false);
+        } catch (IOException ex) {
+            discardStaged(before);
+            throw ex;
+        } finally {
+            staged.clear();
+        }
+        flushed = new Flushed(writePosition, writeCount, writeMaxTimestamp);
+    }
+
+    /**
+     * Reads flushed records into a list.
+     *
+     * @param offset     the offset of the first record to read
+     * @param maxRecords the maximum number of records in the list
+     * @param records    the list to add the records to
+     */
+    void read(long offset, int maxRecords, List<ActivityRecord> records) {
+        Flushed current = flushed;
+        int relative = (int) (offset - baseOffset);
+        if (relative < 0 || relative >= current.count()) {
+            return;
+        }
+        int position = positionOf(relative, current);
+        for (int i = relative; i < current.count() && records.size() < maxRecords; i++) {
+            records.add(RecordFormat.decode(map, position, baseOffset + i));
+            position += RecordFormat.size(map, position);
+        }
+    }
+
+    /**
+     * Finds the first flushed record written at or after a time.
+     *
+     * @param timestamp the time in epoch milliseconds
+     * @return the offset of the record, or -1 if every record is older
+     */
+    long offsetForTime(long timestamp) {
+        Flushed current = flushed;
+        if (current.maxTimestamp() < timestamp) {
+            return -1;
+        }
+        int relative = 0;
+        int position = 0;
+        synchronized (this) {
+            // Entry timestamps are the newest before the entry, so every record before a matching entry is older
+            for (int i = entryCount(current) - 1; i >= 0; i--) {
+                if (indexTimestamps[i] < timestamp) {
+                    relative = indexOffsets[i];
+                    position = indexPositions[i];
+                    break;
+                }
+            }
+        }
+        for (; relative < current.count(); relative++) {
+            if (RecordFormat.timestamp(map, position) >= timestamp) {
+                return baseOffset + relative;
+            }
+            position += RecordFormat.size(map, position);
+        }
+        return -1;
+    }
+
+    /**
+     * Closes the segment's files. Records already read stay readable: the memory map is released
+     * only once no record refers to it.
+     */
+    @Override
+    public void close() throws IOException {
+        logChannel.close();
+        indexChannel.close();
+    }
+
+    /**
+     * Closes and deletes the segment's files.
+     */
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(logPath);
+        Files.deleteIfExists(indexPath);
+    }
+
+    private int positionOf(int relative, Flushed current) {
+        int position = 0;
+        int from = 0;
+        synchronized (this) {
+            int entry = Arrays.binarySearch(indexOffsets, 0, entryCount(current), relative);
+            if (entry < 0) {
+                entry = -entry - 2;
+            }
+            if (entry >= 0) {
+                from = indexOffsets[entry];
+                position = indexPositions[entry];
+            }
+        }
+        for (int i = from; i < relative; i++) {
+            position += RecordFormat.size(map, position);
+        }
+        return position;
+    }
+
+    /**
+     * @return the number of index entries that point at flushed records
+     */
+    private int entryCount(Flushed current) {
+        int count = indexEntries;
+        while (count > 0 && indexOffsets[count - 1] >= current.count()) {
+            count--;
+        }
+        return count;
+    }
+
+    private synchronized void addIndexEntry(int relative, int position, long maxTimestamp) {
+        if (indexEntries == indexOffsets.length) {
+            indexOffsets = Arrays.copyOf(indexOffsets, indexEntries * 2);
+            indexPositions = Arrays.copyOf(indexPositions, indexEntries * 2);
+            indexTimestamps = Arrays.copyOf(indexTimestamps, indexEntries * 2);
+        }
+        indexOffsets[indexEntries] = relative;
+        indexPositions[indexEntries] = position;
+        indexTimestamps[indexEntries] = maxTimestamp;
+        indexEntries++;
+    }
+
+    /**
+     * Appends the index entries added since the last flush to the index file. The index file is
+     * not forced: entries lost in a crash are rebuilt or simply missing, which only makes seeks scan more.
+     */
+    private void writeIndexEntries() throws IOException {
+        int entries;
+        ByteBuffer buffer;
+        synchronized (this) {
+            entries = indexEntries;
+            buffer = ByteBuffer.allocate((entries - writtenIndexEntries) * INDEX_ENTRY_BYTES);
+            for (int i = writtenIndexEntries; i < entries; i++) {
+                buffer.putInt(indexOffsets[i]).putInt(indexPositions[i]).putLong(indexTimestamps[i]);
+            }
+        }
+        buffer.flip();
+        long position = (long) writtenIndexEntries * INDEX_ENTRY_BYTES;
+        while (buffer.hasRemaining()) {
+            position += indexChannel.write(buffer, position);
+        }
+        writtenIndexEntries = entries;
+    }
+
+    private void discardStaged(Flushed before) {
+        synchronized (this) {
+            while (indexEntries > 0 && indexOffsets[indexEntries - 1] >= before.count()) {
+                indexEntries--;
+            }
+            writtenIndexEntries = Math.min(writtenIndexEntries, indexEntries);
+        }
+        writePosition = before.size();
+        writeCount = before.count();
+        writeMaxTimestamp = before.maxTimestamp();
+        bytesSinceIndexEntry = before.size() - (indexEntries > 0 ? indexPositions[indexEntries - 1] : 0);
+    }
+
+    /**
+     * Finds the end of the intact records and drops index entries and bytes past it.
+     */
+    private void recover(boolean fullScan) throws IOException {
+        if (!fullScan) {
+            loadIndex();
+        }
+        int position = indexEntries > 0 ? indexPositions[indexEntries - 1] : 0;
+        int count = indexEntries > 0 ? indexOffsets[indexEntries - 1] : 0;
+        long maxTimestamp = indexEntries > 0 ? indexTimestamps[indexEntries - 1] : Long.MIN_VALUE;
+        int sinceIndexEntry = 0;
+        int size;
+        while ((size = RecordFormat.validSize(map, position, capacity)) > 0) {
+            if (sinceIndexEntry >= indexInterval) {
+                addIndexEntry(count, position, maxTimestamp);
+                sinceIndexEntry = 0;
+            }
+            maxTimestamp = Math.max(maxTimestamp, RecordFormat.timestamp(map, position));
+            position += size;
+            count++;
+            sinceIndexEntry += size;
+        }
+
+        if (fullScan) {
+            indexChannel.truncate(0);
+            writtenIndexEntries = 0;
+            writeIndexEntries();
+            // Clear whatever a torn write left past the end, so that it cannot pass for records later
+            logChannel.truncate(position);
+            logChannel.write(ByteBuffer.allocate(1), capacity - 1);
+        }
+
+        writePosition = position;
+        writeCount = count;
+        writeMaxTimestamp = maxTimestamp;
+        bytesSinceIndexEntry = sinceIndexEntry;
+        flushed = new Flushed(position, count, maxTimestamp);
+    }
+
+    /**
+     * Loads the index file, keeping the entries up to the first one that is out of order or does
+     * not point at an intact record.
+     */
+    private void loadIndex() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (indexChannel.size() / INDEX_ENTRY_BYTES * INDEX_ENTRY_BYTES));
+        while (buffer.hasRemaining() && indexChannel.read(buffer, buffer.position()) >= 0) {
+            // read until full
+        }
+        buffer.flip();
+        int lastOffset = 0;
+        int lastPosition = 0;
+        while (buffer.remaining() >= INDEX_ENTRY_BYTES) {
+            int relative = buffer.getInt();
+            int position = buffer.getInt();
+            long maxTimestamp = buffer.getLong();
+            if (relative <= lastOffset || position <= lastPosition || RecordFormat.validSize(map, position, capacity) < 0) {
+                break;
+            }
+            addIndexEntry(relative, position, maxTimestamp);
+            lastOffset = relative;
+            lastPosition = position;
+        }
+        writtenIndexEntries = indexEntries;
+        indexChannel.truncate((long) indexEntries * INDEX_ENTRY_BYTES);
+    }
+
+    static String fileName(long baseOffset, String suffix) {
+        return String.format("%020d%s", baseOffset, suffix);
+    }
+
+    /**
+     * Extent of the records visible to readers.
+     */
+    private record Flushed(int size, int count, long maxTimestamp) {
+    }
+}
@@ -0,0 +1,128 @@
+package com.socialhub.user.activitylog;
+
+import com.socialhub.user.outbox.ChangeEvent;
+import com.socialhub.user.outbox.ChangeEventType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of an activity log record, big-endian:
+ * <pre>
+ * int    length          bytes after this field
+ * int    crc             CRC32C of the body
+ * body:
+ * long   timestamp       epoch milliseconds
+ * byte   type            {@link ChangeEventType} ordinal
+ * long   aggregateId
+ * long   sequenceNumber
+ * short  shard length, then the shard name in UTF-8
+ * bytes  payload         the domain event as UTF-8 JSON, up to the end of the record
+ * </pre>
+ * Segments are preallocated and zero-filled, so a zero length marks the end of the written records.
+ */
+final class RecordFormat {
+
+    static final int LENGTH_BYTES = 4;
+    static final int CRC_BYTES = 4;
+    static final int BODY_FIXED_BYTES = 8 + 1 + 8 + 8 + 2;
+
+    private static final ChangeEventType[] TYPES = ChangeEventType.values();
+
+    private RecordFormat() {
+    }
+
+    /**
+     * Encodes a change event as a record ready to be written.
+     *
+     * @param event the change event
+     * @return the record, positioned at its start
+     */
+    static ByteBuffer encode(ChangeEvent event) {
+        byte[] shard = event.shard().getBytes(StandardCharsets.UTF_8);
+        byte[] payload = event.payload().getBytes(StandardCharsets.UTF_8);
+        int bodyLength = BODY_FIXED_BYTES + shard.length + payload.length;
+
+        ByteBuffer record = ByteBuffer.allocate(LENGTH_BYTES + CRC_BYTES + bodyLength);
+        record.putInt(CRC_BYTES + bodyLength);
+        record.putInt(0);
+        record.putLong(event.createdAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        record.put((byte) event.type().ordinal());
+        record.putLong(event.aggregateId());
+        record.putLong(event.sequenceNumber());
+        record.putShort((short) shard.length);
+        record.put(shard);
+        record.put(payload);
+
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), LENGTH_BYTES + CRC_BYTES, bodyLength);
+        record.putInt(LENGTH_BYTES, (int) crc.getValue());
+        return record.flip();
+    }
+
+    /**
+     * Checks the record at a position of a segment.
+     *
+     * @param segment  the segment's buffer
+     * @param position the position of the record
+     * @param limit    the end of the readable bytes
+     * @return the size of the record, or -1 if no intact record starts there
+     */
+    static int validSize(ByteBuffer segment, int position, int limit) {
+        if (position > limit - LENGTH_BYTES - CRC_BYTES) {
+            return -1;
+        }
+        int length = segment.getInt(position);
+        if (length < CRC_BYTES + BODY_FIXED_BYTES || length > limit - position - LENGTH_BYTES) {
+            return -1;
+        }
+        int bodyLength = length - CRC_BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(segment.slice(position + LENGTH_BYTES + CRC_BYTES, bodyLength));
+        if ((int) crc.getValue() != segment.getInt(position + LENGTH_BYTES)) {
+            return -1;
+        }
+        return LENGTH_BYTES + length;
+    }
+
+    /**
+     * @return the size of the record at a position already known to be intact
+     */
+    static int size(ByteBuffer segment, int position) {
+        return LENGTH_BYTES + segment.getInt(position);
+    }
+
+    /**
+     * @return the timestamp of the record at a position already known to be intact
+     */
+    static long timestamp(ByteBuffer segment, int position) {
+        return segment.getLong(position + LENGTH_BYTES + CRC_BYTES);
+    }
+
+    /**
+     * Reads the record at a position already known to be intact. The payload is a view of the
+     * segment's buffer.
+     *
+     * @param segment  the segment's buffer
+     * @param position the position of the record
+     * @param offset   the offset of the record in the log
+     * @return the record
+     */
+    static ActivityRecord decode(ByteBuffer segment, int position, long offset) {
+        int end = position + size(segment, position);
+        int body = position + LENGTH_BYTES + CRC_BYTES;
+        long timestamp = segment.getLong(body);
+        ChangeEventType type = TYPES[segment.get(body + 8)];
+        long aggregateId = segment.getLong(body + 9);
+        long sequenceNumber = segment.getLong(body + 17);
+        int shardLength = segment.getShort(body + 25);
+        int shardStart = body + BODY_FIXED_BYTES;
+        byte[] shard = new byte[shardLength];
+        segment.get(shardStart, shard);
+        int payloadStart = shardStart + shardLength;
+        return new ActivityRecord(offset, timestamp, type, new String(shard, StandardCharsets.UTF_8), sequenceNumber,
+                aggregateId, segment.slice(payloadStart, end - payloadStart).asReadOnlyBuffer());
+    }
+}
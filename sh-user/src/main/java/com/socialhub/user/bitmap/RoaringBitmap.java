@@ -0,0 +1,131 @@
+package com.socialhub.user.bitmap;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of unsigned 32-bit integers in the Roaring layout.
+ * <p>
+ * Values are grouped by their high 16 bits. Each group is stored as a sorted array of the low
+ * 16 bits while it holds at most {@value #ARRAY_MAX} values, and as a 65536-bit bitmap once it
+ * holds more, so sparse groups take two bytes per value and dense ones one bit. Not thread-safe.
+ */
+public final class RoaringBitmap {
+
+    static final int ARRAY_MAX = 4096;
+
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    private char[] keys = new char[0];
+    private Object[] containers = new Object[0];
+    private int[] cardinalities = new int[0];
+    private int size;
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value, read as unsigned
+     * @return true if the value was not in the set
+     */
+    public boolean add(int value) {
+        char key = (char) (value >>> 16);
+        char low = (char) value;
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, key);
+        }
+        Object container = containers[index];
+        if (container instanceof long[] words) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) != 0) {
+                return false;
+            }
+            words[low >>> 6] |= bit;
+        } else {
+            char[] values = (char[]) container;
+            int cardinality = cardinalities[index];
+            int position = Arrays.binarySearch(values, 0, cardinality, low);
+            if (position >= 0) {
+                return false;
+            }
+            position = -position - 1;
+            if (cardinality == ARRAY_MAX) {
+                long[] words = toBitmap(values, cardinality);
+                words[low >>> 6] |= 1L << low;
+                containers[index] = words;
+            } else {
+                if (cardinality == values.length) {
+                    values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+                    containers[index] = values;
+                }
+                System.arraycopy(values, position, values, position + 1, cardinality - position);
+                values[position] = low;
+            }
+        }
+        cardinalities[index]++;
+        return true;
+    }
+
+    /**
+     * @param value the value, read as unsigned
+     * @return whether the value is in the set
+     */
+    public boolean contains(int value) {
+        int index = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) value;
+        Object container = containers[index];
+        if (container instanceof long[] words) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) container, 0, cardinalities[index], low) >= 0;
+    }
+
+    /**
+     * @return the number of values in the set
+     */
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += cardinalities[i];
+        }
+        return cardinality;
+    }
+
+    /**
+     * @return an estimate of the heap the set occupies, in bytes
+     */
+    public long sizeInBytes() {
+        long bytes = 64 + keys.length * 2L + containers.length * 4L + cardinalities.length * 4L;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i] instanceof long[] ? 16 + BITMAP_WORDS * 8L : 16 + ((char[]) containers[i]).length * 2L;
+        }
+        return bytes;
+    }
+
+    private void insertContainer(int index, char key) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+            cardinalities = Arrays.copyOf(cardinalities, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        System.arraycopy(cardinalities, index, cardinalities, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = new char[4];
+        cardinalities[index] = 0;
+        size++;
+    }
+
+    private static long[] toBitmap(char[] values, int cardinality) {
+        long[] words = new long[BITMAP_WORDS];
+        for (int i = 0; i < cardinality; i++) {
+            words[values[i] >>> 6] |= 1L << values[i];
+        }
+        return words;
+    }
+}
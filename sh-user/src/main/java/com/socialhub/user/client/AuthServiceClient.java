@@ -2,12 +2,15 @@ package com.socialhub.user.client;
 
 import com.socialhub.user.dto.*;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
 /**
  * Feign client to communicate with the AUTH_SERVICE.
+ * <p>
+ * Bodies are exchanged in {@code socialhub.wire-format.auth-client}, see {@link AuthServiceClientConfiguration}.
  */
-@FeignClient(name = "AUTH-SERVICE")
+@FeignClient(name = "AUTH-SERVICE", configuration = AuthServiceClientConfiguration.class)
 public interface AuthServiceClient {
 
     /**
@@ -28,4 +31,49 @@ public interface AuthServiceClient {
     @PostMapping("/auth/register")
     UserDetailsResponse register(@RequestBody RegisterRequest registerRequest);
 
+    /**
+     * Endpoint to exchange a refresh token for a new access token and refresh token.
+     *
+     * @param refreshRequest containing the refresh token
+     * @return LoginResponse containing the new tokens
+     */
+    @PostMapping("/auth/refresh")
+    LoginResponse refresh(@RequestBody RefreshRequest refreshRequest);
+
+    /**
+     * Endpoint to revoke the session of a refresh token.
+     *
+     * @param refreshRequest containing the refresh token
+     */
+    @PostMapping("/auth/logout")
+    void logout(@RequestBody RefreshRequest refreshRequest);
+
+    /**
+     * Endpoint publishing the public keys access tokens are signed with.
+     *
+     * @return the JSON Web Key Set
+     */
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    String getJwks();
+
+    /**
+     * Endpoint listing the sessions revoked since a point.
+     *
+     * @param since the until of the previous response, or null for all revocations still relevant
+     * @return RevocationsResponse containing the revoked sessions
+     */
+    @GetMapping("/auth/revocations")
+    RevocationsResponse getRevocations(@RequestParam(value = "since", required = false) Long since);
+
+    /**
+     * Endpoint to check whether a username and an email are free to register.
+     *
+     * @param username the username to check, or null
+     * @param email    the email to check, or null
+     * @return AvailabilityResponse with the availability of each key checked
+     */
+    @GetMapping("/auth/available")
+    AvailabilityResponse checkAvailability(@RequestParam(value = "username", required = false) String username,
+                                           @RequestParam(value = "email", required = false) String email);
+
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.socialhub.user.client;
+
+import com.socialhub.user.wire.WireFormat;
+import com.socialhub.user.wire.WireFormatProperties;
+import feign.RequestInterceptor;
+import feign.codec.Encoder;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+/**
+ * Exchanges the bodies of {@link AuthServiceClient} in {@code socialhub.wire-format.auth-client}.
+ * <p>
+ * Request bodies are written in the format and responses are asked for in it, with JSON as the
+ * fallback. Responses are decoded by Feign's default decoder, which picks the converter by the
+ * response's Content-Type. Methods declaring what they produce keep their own Accept header.
+ * <p>
+ * Not a {@code @Configuration}, so that it only applies to this client.
+ */
+public class AuthServiceClientConfiguration {
+
+    @Bean
+    public Encoder authServiceEncoder(ObjectFactory<HttpMessageConverters> messageConverters,
+                                      WireFormatProperties properties) {
+        SpringEncoder delegate = new SpringEncoder(messageConverters);
+        WireFormat format = properties.getAuthClient();
+        return (object, bodyType, template) -> {
+            if (!template.headers().containsKey(HttpHeaders.CONTENT_TYPE)) {
+                template.header(HttpHeaders.CONTENT_TYPE, format.getMediaType().toString());
+            }
+            delegate.encode(object, bodyType, template);
+        };
+    }
+
+    @Bean
+    public RequestInterceptor authServiceAcceptInterceptor(WireFormatProperties properties) {
+        WireFormat format = properties.getAuthClient();
+        String accept = format == WireFormat.JSON
+                ? MediaType.APPLICATION_JSON_VALUE
+                : format.getMediaType() + ", " + MediaType.APPLICATION_JSON_VALUE + ";q=0.5";
+        return template -> {
+            if (!template.headers().containsKey(HttpHeaders.ACCEPT)) {
+                template.header(HttpHeaders.ACCEPT, accept);
+            }
+        };
+    }
+}
@@ -0,0 +1,159 @@
+package com.socialhub.user.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Publish-subscribe between the instances of USER-SERVICE, for changes other instances must
+ * see right away: cache invalidations and live notifications.
+ * <p>
+ * A published message is handed to the subscribers on this instance first, then posted to
+ * every other {@link ClusterMembership member} in the background. Delivery to other instances
+ * is at most once: a message is dropped when an instance cannot be reached or too many sends
+ * are pending. Changes that must not be missed also travel through the outbox, which every
+ * instance tails; this channel only removes its delay.
+ */
+@Slf4j
+@Component
+public class ClusterBus {
+
+    /**
+     * Header carrying {@code socialhub.cluster.secret} on messages between instances.
+     */
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+
+    static final String MESSAGES_PATH = "/internal/cluster/messages";
+
+    private final ClusterProperties properties;
+    private final ClusterMembership membership;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final Semaphore pendingSends;
+    private final Map<String, List<Consumer<ClusterMessage>>> subscribers = new ConcurrentHashMap<>();
+
+    public ClusterBus(ClusterProperties properties, ClusterMembership membership, ObjectMapper objectMapper) {
+        if (properties.getTransport() == ClusterProperties.Transport.HTTP
+                && (properties.getSecret() == null || properties.getSecret().isBlank())) {
+            throw new IllegalStateException("socialhub.cluster.secret must be set when socialhub.cluster.transport is http");
+        }
+        this.properties = properties;
+        this.membership = membership;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getSendTimeout())
+                .build();
+        this.pendingSends = new Semaphore(properties.getMaxPendingSends());
+    }
+
+    /**
+     * Subscribes to a topic, on this instance.
+     *
+     * @param topic      the topic
+     * @param type       the class the payload is read as
+     * @param subscriber called with each payload published on the topic by any instance
+     */
+    public <T> void subscribe(String topic, Class<T> type, Consumer<T> subscriber) {
+        subscribers.computeIfAbsent(topic, name -> new CopyOnWriteArrayList<>())
+                .add(message -> subscriber.accept(decode(message, type)));
+    }
+
+    /**
+     * Hands a payload to the topic's subscribers on this instance and sends it to the other instances.
+     *
+     * @param topic   the topic
+     * @param payload the payload, written as JSON
+     */
+    public void publish(String topic, Object payload) {
+        ClusterMessage message = new ClusterMessage(topic, membership.getSelf().id(), objectMapper.valueToTree(payload));
+        deliver(message);
+        if (properties.getTransport() == ClusterProperties.Transport.HTTP) {
+            membership.getPeers().forEach(peer -> send(peer, message));
+        }
+    }
+
+    /**
+     * Hands a message sent by another instance to the subscribers on this instance.
+     *
+     * @param message the message
+     */
+    public void receive(ClusterMessage message) {
+        if (!message.origin().equals(membership.getSelf().id())) {
+            deliver(message);
+        }
+    }
+
+    /**
+     * @param secret the secret a received message carried, or null
+     * @return whether the message may be received; never without a configured secret
+     */
+    public boolean isAuthorized(String secret) {
+        if (secret == null || properties.getSecret() == null || properties.getSecret().isBlank()) {
+            return false;
+        }
+        return MessageDigest.isEqual(properties.getSecret().getBytes(StandardCharsets.UTF_8),
+                secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void deliver(ClusterMessage message) {
+        for (Consumer<ClusterMessage> subscriber : subscribers.getOrDefault(message.topic(), List.of())) {
+            try {
+                subscriber.accept(message);
+            } catch (RuntimeException ex) {
+                log.warn("Cluster subscriber failed on {} from {}", message.topic(), message.origin(), ex);
+            }
+        }
+    }
+
+    private void send(ClusterMember peer, ClusterMessage message) {
+        if (!pendingSends.tryAcquire()) {
+            log.warn("Too many messages pending, dropping {} to {}", message.topic(), peer.id());
+            return;
+        }
+        HttpRequest.Builder request;
+        try {
+            request = HttpRequest.newBuilder(peer.uri().resolve(MESSAGES_PATH))
+                    .timeout(properties.getSendTimeout())
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(message)));
+        } catch (JsonProcessingException ex) {
+            pendingSends.release();
+            throw new IllegalStateException("Could not write " + message.topic() + " message", ex);
+        }
+        request.header(SECRET_HEADER, properties.getSecret());
+        httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    pendingSends.release();
+                    if (error != null) {
+                        log.warn("Sending {} to {} failed: {}", message.topic(), peer.id(), error.toString());
+                    } else if (response.statusCode() >= 300) {
+                        log.warn("Sending {} to {} failed with status {}", message.topic(), peer.id(),
+                                response.statusCode());
+                    }
+                });
+    }
+
+    private <T> T decode(ClusterMessage message, Class<T> type) {
+        try {
+            return objectMapper.treeToValue(message.payload(), type);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read " + message.topic() + " from " + message.origin(), ex);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.socialhub.user.cluster;
+
+import java.net.URI;
+
+/**
+ * An instance of USER-SERVICE.
+ *
+ * @param id  the instance ID, as registered in Eureka or derived from its address
+ * @param uri the base URI other instances reach it at
+ */
+public record ClusterMember(String id, URI uri) {
+}
@@ -0,0 +1,217 @@
+package com.socialhub.user.cluster;
+
+import com.socialhub.user.sharding.ConsistentHashRing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The instances of USER-SERVICE currently running, and which of them owns a key.
+ * <p>
+ * Members are read from the Eureka registry every {@code refresh-interval}, or taken from
+ * {@code socialhub.cluster.members} while the registry lists none. Keys, such as user IDs or
+ * the names of jobs that should run once per cluster, are placed on a consistent-hash ring of
+ * the member IDs, so every instance seeing the same members agrees on the owners, and an
+ * instance joining or leaving only moves the keys it takes over or gave up. Until the registry
+ * has propagated a change (up to about 20 seconds), instances may briefly disagree.
+ */
+@Slf4j
+@Component
+public class ClusterMembership {
+
+    private final ClusterProperties properties;
+    private final Supplier<List<ClusterMember>> discovery;
+    private final Supplier<String> registeredId;
+
+    private volatile int port;
+    private volatile View view;
+
+    @Autowired
+    public ClusterMembership(ClusterProperties properties,
+                             ObjectProvider<DiscoveryClient> discoveryClient,
+                             ObjectProvider<Registration> registration) {
+        this(properties,
+                () -> {
+                    DiscoveryClient client = discoveryClient.getIfAvailable();
+                    return client == null ? List.of() : client.getInstances(properties.getServiceId()).stream()
+                            .map(instance -> new ClusterMember(instance.getInstanceId(), instance.getUri()))
+                            .toList();
+                },
+                () -> {
+                    Registration self = registration.getIfAvailable();
+                    return self != null ? self.getInstanceId() : null;
+                });
+    }
+
+    ClusterMembership(ClusterProperties properties, Supplier<List<ClusterMember>> discovery,
+                      Supplier<String> registeredId) {
+        this.properties = properties;
+        this.discovery = discovery;
+        this.registeredId = registeredId;
+        // Alone and owning every key until the web server knows its port
+        this.view = new View(new ClusterMember("localhost:0", URI.create("http://localhost:0")), properties);
+    }
+
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        start(event.getWebServer().getPort());
+    }
+
+    /**
+     * Sets the port this instance listens on and reads the members for the first time.
+     *
+     * @param port the local server port
+     */
+    void start(int port) {
+        this.port = port;
+        refresh();
+    }
+
+    /**
+     * Reads the members again and rebuilds the ownership ring when they changed.
+     */
+    @Scheduled(fixedDelayString = "${socialhub.cluster.refresh-interval:PT5S}")
+    public void refresh() {
+        if (port <= 0) {
+            return;
+        }
+        List<ClusterMember> members;
+        try {
+            members = new ArrayList<>(discovery.get());
+        } catch (RuntimeException ex) {
+            log.warn("Reading the instances of {} failed, keeping the current members", properties.getServiceId(), ex);
+            return;
+        }
+
+        ClusterMember self;
+        if (members.isEmpty()) {
+            members.addAll(properties.getMembers().stream().map(ClusterMembership::member).toList());
+            self = members.stream().filter(member -> isThisInstance(member.uri())).findFirst().orElse(null);
+        } else {
+            String id = registeredId.get();
+            self = members.stream().filter(member -> member.id().equals(id)).findFirst().orElse(null);
+            if (self == null && id != null) {
+                // Registered, but not yet in the registry this instance fetched
+                self = new ClusterMember(id, URI.create("http://localhost:" + port));
+                members.add(self);
+            }
+        }
+        if (self == null) {
+            self = new ClusterMember("localhost:" + port, URI.create("http://localhost:" + port));
+            members.add(self);
+        }
+        members.sort(Comparator.comparing(ClusterMember::id));
+
+        View current = view;
+        if (!current.members().equals(members) || !current.self().equals(self)) {
+            view = new View(self, members, properties);
+            log.info("Cluster members of {}: {} (this instance: {})", properties.getServiceId(),
+                    members.stream().map(ClusterMember::id).toList(), self.id());
+        }
+    }
+
+    /**
+     * @return this instance
+     */
+    public ClusterMember getSelf() {
+        return view.self();
+    }
+
+    /**
+     * @return every member, this instance included, ordered by ID
+     */
+    public List<ClusterMember> getMembers() {
+        return view.members();
+    }
+
+    /**
+     * @return every member but this instance
+     */
+    public List<ClusterMember> getPeers() {
+        View current = view;
+        return current.members().stream().filter(member -> !member.equals(current.self())).toList();
+    }
+
+    /**
+     * Finds the member owning a key, such as a user ID.
+     *
+     * @param key the key
+     * @return the owning member
+     */
+    public ClusterMember ownerOf(long key) {
+        View current = view;
+        return current.member(current.ring().shardFor(key));
+    }
+
+    /**
+     * @param key the key, such as a user ID
+     * @return whether this instance owns the key
+     */
+    public boolean owns(long key) {
+        View current = view;
+        return current.self().id().equals(current.ring().shardFor(key));
+    }
+
+    /**
+     * @param name the name, such as that of a job to run on one instance only
+     * @return whether this instance owns the name
+     */
+    public boolean owns(String name) {
+        View current = view;
+        return current.self().id().equals(current.ring().shardFor(name));
+    }
+
+    private boolean isThisInstance(URI uri) {
+        int memberPort = uri.getPort() != -1 ? uri.getPort() : "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        if (memberPort != port) {
+            return false;
+        }
+        try {
+            InetAddress address = InetAddress.getByName(uri.getHost());
+            return address.isLoopbackAddress() || address.isAnyLocalAddress()
+                    || NetworkInterface.getByInetAddress(address) != null;
+        } catch (UnknownHostException | SocketException ex) {
+            return false;
+        }
+    }
+
+    private static ClusterMember member(URI uri) {
+        int memberPort = uri.getPort() != -1 ? uri.getPort() : "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        return new ClusterMember(uri.getHost() + ":" + memberPort, uri);
+    }
+
+    /**
+     * Members and ring, replaced as a whole when the members change.
+     */
+    private record View(ClusterMember self, List<ClusterMember> members, ConsistentHashRing ring) {
+
+        View(ClusterMember self, ClusterProperties properties) {
+            this(self, List.of(self), properties);
+        }
+
+        View(ClusterMember self, List<ClusterMember> members, ClusterProperties properties) {
+            this(self, List.copyOf(members), new ConsistentHashRing(
+                    members.stream().map(ClusterMember::id).toList(), properties.getVirtualNodes()));
+        }
+
+        ClusterMember member(String id) {
+            return members.stream().filter(member -> member.id().equals(id)).findFirst().orElseThrow();
+        }
+    }
+}
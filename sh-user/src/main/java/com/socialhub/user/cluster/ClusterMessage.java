@@ -0,0 +1,13 @@
+package com.socialhub.user.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A message exchanged between instances.
+ *
+ * @param topic   the topic subscribers listen on
+ * @param origin  the ID of the instance that published it
+ * @param payload the published object as JSON
+ */
+public record ClusterMessage(String topic, String origin, JsonNode payload) {
+}
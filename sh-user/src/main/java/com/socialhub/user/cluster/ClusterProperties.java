@@ -0,0 +1,72 @@
+package com.socialhub.user.cluster;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the cluster of USER-SERVICE instances: how they find each other and how they
+ * exchange invalidations.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.cluster")
+public class ClusterProperties {
+
+    /**
+     * Service ID the instances register under in Eureka.
+     */
+    private String serviceId = "USER-SERVICE";
+
+    /**
+     * How messages reach the other instances.
+     */
+    private Transport transport = Transport.HTTP;
+
+    /**
+     * Instances used while Eureka returns none, e.g. when running without it. This instance is
+     * recognised among them by its port and a local host name.
+     */
+    private List<URI> members = new ArrayList<>();
+
+    /**
+     * Interval between reads of the registry.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(5);
+
+    /**
+     * Positions of each instance on the ownership ring.
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * Timeout for connecting to another instance and for its answer.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Messages on their way to other instances beyond which new ones are dropped.
+     */
+    private int maxPendingSends = 10_000;
+
+    /**
+     * Shared secret instances send in {@value ClusterBus#SECRET_HEADER}; messages without it are
+     * rejected. Required with the HTTP transport.
+     */
+    private String secret;
+
+    public enum Transport {
+        /**
+         * Messages are posted to every other instance.
+         */
+        HTTP,
+        /**
+         * Messages only reach subscribers on this instance; stand-in for a broker when running
+         * a single instance.
+         */
+        LOCAL
+    }
+}
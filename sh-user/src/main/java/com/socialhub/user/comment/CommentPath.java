@@ -0,0 +1,134 @@
+package com.socialhub.user.comment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Materialized paths of threaded comments.
+ * <p>
+ * A path concatenates one fixed-width, base-36 segment per level: the ID of the top-level
+ * comment, then for each reply its position among its siblings (1 for the first reply).
+ * Ordering comments by path therefore lists every thread depth first with replies in the
+ * order they were written, and a comment's subtree is the contiguous range of paths that
+ * start with its own path.
+ */
+public final class CommentPath {
+
+    /**
+     * Length of the first segment, enough for any positive {@code long} ID.
+     */
+    public static final int ROOT_SEGMENT_LENGTH = 13;
+
+    /**
+     * Length of each reply segment.
+     */
+    public static final int REPLY_SEGMENT_LENGTH = 5;
+
+    /**
+     * Deepest level a reply may be at; top-level comments are at depth 0.
+     */
+    public static final int MAX_DEPTH = 32;
+
+    /**
+     * Most replies a single comment can receive.
+     */
+    public static final int MAX_REPLIES = 36 * 36 * 36 * 36 * 36 - 1;
+
+    /**
+     * Sorts after every character used in segments.
+     */
+    private static final char AFTER_LAST_SEGMENT = '~';
+
+    private CommentPath() {
+    }
+
+    /**
+     * @param commentId the ID of a top-level comment
+     * @return the path of the comment
+     */
+    public static String root(long commentId) {
+        return segment(commentId, ROOT_SEGMENT_LENGTH);
+    }
+
+    /**
+     * @param parentPath the path of the comment replied to
+     * @param position   the position of the reply among the parent's replies, starting at 1
+     * @return the path of the reply
+     */
+    public static String reply(String parentPath, int position) {
+        return parentPath + segment(position, REPLY_SEGMENT_LENGTH);
+    }
+
+    /**
+     * @param path a comment path
+     * @return the depth of the comment, 0 for top-level comments
+     */
+    public static int depth(String path) {
+        return (path.length() - ROOT_SEGMENT_LENGTH) / REPLY_SEGMENT_LENGTH;
+    }
+
+    /**
+     * @param path a comment path
+     * @return the paths of the comment's ancestors, top-level comment first
+     */
+    public static List<String> ancestors(String path) {
+        List<String> ancestors = new ArrayList<>(depth(path));
+        for (int end = ROOT_SEGMENT_LENGTH; end < path.length(); end += REPLY_SEGMENT_LENGTH) {
+            ancestors.add(path.substring(0, end));
+        }
+        return ancestors;
+    }
+
+    /**
+     * @param path a comment path
+     * @return the exclusive upper bound of the paths in the comment's subtree
+     */
+    public static String subtreeEnd(String path) {
+        return path + AFTER_LAST_SEGMENT;
+    }
+
+    /**
+     * @param path    a comment path
+     * @param replies the number of direct replies to include
+     * @return the exclusive upper bound of the paths of the comment and its first replies with their subtrees
+     */
+    public static String firstRepliesEnd(String path, int replies) {
+        return replies >= MAX_REPLIES ? subtreeEnd(path) : reply(path, replies + 1);
+    }
+
+    /**
+     * Checks whether a comment in a subtree is reached through the first replies at every level.
+     *
+     * @param path     the path of a comment in the subtree
+     * @param rootPath the path of the subtree's root
+     * @param replies  the number of replies included per comment
+     * @return true if every position below the subtree's root is at most {@code replies}
+     */
+    public static boolean withinFirstReplies(String path, String rootPath, int replies) {
+        return beyondFirstReplies(path, rootPath, replies) == null;
+    }
+
+    /**
+     * Finds the highest comment on the way down to a comment that is not among the first
+     * replies to its parent. Nothing in its subtree is within the first replies either.
+     *
+     * @param path     the path of a comment in the subtree
+     * @param rootPath the path of the subtree's root
+     * @param replies  the number of replies included per comment
+     * @return the path of that comment, or null if the comment is within the first replies at every level
+     */
+    public static String beyondFirstReplies(String path, String rootPath, int replies) {
+        for (int start = rootPath.length(); start < path.length(); start += REPLY_SEGMENT_LENGTH) {
+            String segment = path.substring(start, start + REPLY_SEGMENT_LENGTH);
+            if (Integer.parseInt(segment, Character.MAX_RADIX) > replies) {
+                return path.substring(0, start + REPLY_SEGMENT_LENGTH);
+            }
+        }
+        return null;
+    }
+
+    private static String segment(long value, int length) {
+        String digits = Long.toString(value, Character.MAX_RADIX);
+        return "0".repeat(length - digits.length()) + digits;
+    }
+}
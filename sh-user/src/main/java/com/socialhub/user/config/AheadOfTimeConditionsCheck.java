@@ -0,0 +1,47 @@
+package com.socialhub.user.config;
+
+import com.socialhub.user.datasource.ReadWriteRoutingConfig;
+import com.socialhub.user.sharding.ShardRoutingDataSourcePostProcessor;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stops the application when sharding or a read replica is configured but their beans are
+ * missing.
+ * <p>
+ * This happens when the context was processed ahead of time ({@code mvn package -Pstartup}, run
+ * with {@code -Dspring.aot.enabled=true}) without those settings: the bean conditions were
+ * evaluated when the image was built and are not evaluated again, so the settings would
+ * otherwise be ignored.
+ */
+@Component
+public class AheadOfTimeConditionsCheck implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        if (environment.getProperty("socialhub.sharding.enabled", Boolean.class, false)
+                && beanFactory.getBeanNamesForType(ShardRoutingDataSourcePostProcessor.class, true, false).length == 0) {
+            throw missing("socialhub.sharding.enabled is true");
+        }
+        String replicaUrl = environment.getProperty("socialhub.datasource.replica.url");
+        if (replicaUrl != null && !"false".equalsIgnoreCase(replicaUrl)
+                && beanFactory.getBeanNamesForType(ReadWriteRoutingConfig.class, true, false).length == 0) {
+            throw missing("socialhub.datasource.replica.url is set");
+        }
+    }
+
+    private static IllegalStateException missing(String setting) {
+        return new IllegalStateException(setting + " but the context was processed ahead of time without it; "
+                + "start with -Dspring.aot.enabled=false (e.g. JAVA_TOOL_OPTIONS= in the Docker image)");
+    }
+}
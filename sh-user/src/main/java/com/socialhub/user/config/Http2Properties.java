@@ -0,0 +1,25 @@
+package com.socialhub.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the cleartext HTTP/2 connections the gateway forwards requests over.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.http2")
+public class Http2Properties {
+
+    /**
+     * Requests one connection may carry at once; the gateway opens another connection beyond it,
+     * which spreads the load over its event loops. Open notification streams count too, though
+     * they hold no thread, so this times the gateway's connections per instance bounds them.
+     */
+    private int maxConcurrentStreams = 200;
+
+    /**
+     * Requests of one connection processed on a thread at once; Tomcat's default of 20 would
+     * queue most of the requests a gateway connection multiplexes.
+     */
+    private int maxConcurrentStreamExecution = 200;
+}
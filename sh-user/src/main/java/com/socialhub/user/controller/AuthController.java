@@ -5,6 +5,7 @@ import com.socialhub.user.exception.CustomException;
 import com.socialhub.user.dto.*;
 import com.socialhub.user.service.UserService;
 import com.socialhub.user.client.AuthServiceClient;
+import feign.FeignException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -68,6 +69,103 @@ public class AuthController {
         }
     }
 
+    /**
+     * Token Refresh Endpoint
+     * URL: POST /auth/refresh
+     *
+     * @param refreshRequest containing the refresh token
+     * @return ResponseEntity with the new access token and refresh token
+     */
+    @Operation(
+            summary = "Token Refresh",
+            description = "Exchange a refresh token for a new access token and refresh token, without the password. "
+                    + "Each refresh token can be used once; reusing one revokes the session.",
+            responses = {
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                            responseCode = "200",
+                            description = "Tokens issued"
+                    ),
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                            responseCode = "401",
+                            description = "Refresh token unknown, expired, already used or of a revoked session"
+                    )
+            }
+    )
+    @SecurityRequirement(name = "")
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refreshToken(@Valid @RequestBody RefreshRequest refreshRequest) {
+        try {
+            return ResponseEntity.ok(authServiceClient.refresh(refreshRequest));
+        } catch (FeignException.Unauthorized ex) {
+            throw new CustomException("Invalid or expired refresh token", HttpStatus.UNAUTHORIZED);
+        } catch (Exception ex) {
+            throw new CustomException("An unexpected error occurred during token refresh", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Logout Endpoint
+     * URL: POST /auth/logout
+     *
+     * @param refreshRequest containing the refresh token of the session to end
+     * @return ResponseEntity with no content
+     */
+    @Operation(
+            summary = "Logout",
+            description = "Revoke the session of a refresh token. Its access tokens are rejected within seconds.",
+            responses = {
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                            responseCode = "204",
+                            description = "Session revoked, or the token was unknown"
+                    )
+            }
+    )
+    @SecurityRequirement(name = "")
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshRequest refreshRequest) {
+        try {
+            authServiceClient.logout(refreshRequest);
+            return ResponseEntity.noContent().build();
+        } catch (Exception ex) {
+            throw new CustomException("An unexpected error occurred during logout", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Username and Email Availability Endpoint
+     * URL: GET /auth/available?username=...&email=...
+     *
+     * @param username the username to check, or null
+     * @param email    the email to check, or null
+     * @return ResponseEntity with the availability of each key checked
+     */
+    @Operation(
+            summary = "Username and Email Availability",
+            description = "Check, e.g. while a sign-up form is filled in, whether a username and/or an email are free to register.",
+            responses = {
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                            responseCode = "200",
+                            description = "Availability of each key given"
+                    ),
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                            responseCode = "400",
+                            description = "Neither a username nor an email given"
+                    )
+            }
+    )
+    @SecurityRequirement(name = "")
+    @GetMapping("/available")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(@RequestParam(required = false) String username,
+                                                                  @RequestParam(required = false) String email) {
+        try {
+            return ResponseEntity.ok(authServiceClient.checkAvailability(username, email));
+        } catch (HttpStatusCodeException ex) {
+            throw new CustomException("Availability check failed", (HttpStatus) ex.getStatusCode());
+        } catch (Exception ex) {
+            throw new CustomException("An unexpected error occurred during the availability check", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * User Login Endpoint
      * URL: POST /auth/login
@@ -0,0 +1,52 @@
+package com.socialhub.user.controller;
+
+import com.socialhub.user.cluster.ClusterMember;
+import com.socialhub.user.cluster.ClusterMembership;
+import com.socialhub.user.cluster.ClusterProperties;
+import com.socialhub.user.dto.ClusterLayoutResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.*;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Controller to inspect the cluster of USER-SERVICE instances. Admins only.
+ */
+@RestController
+@RequestMapping("/admin/cluster")
+@RequiredArgsConstructor
+@Tag(name = "Cluster Admin Controller", description = "Endpoints for inspecting the USER-SERVICE instances")
+@SecurityRequirement(name = "Bearer Authentication")
+@PreAuthorize("hasRole('ADMIN')")
+public class ClusterAdminController {
+
+    private final ClusterMembership clusterMembership;
+    private final ClusterProperties clusterProperties;
+
+    /**
+     * Get the instances the answering instance currently sees.
+     * URL: GET /admin/cluster
+     *
+     * @return ClusterLayoutResponse with the members and the answering instance
+     */
+    @Operation(summary = "Get cluster members", description = "Show the USER-SERVICE instances that share invalidations and own users")
+    @GetMapping
+    public ResponseEntity<ClusterLayoutResponse> getLayout() {
+        Map<String, String> members = new LinkedHashMap<>();
+        for (ClusterMember member : clusterMembership.getMembers()) {
+            members.put(member.id(), member.uri().toString());
+        }
+        return ResponseEntity.ok(ClusterLayoutResponse.builder()
+                .transport(clusterProperties.getTransport().name())
+                .self(clusterMembership.getSelf().id())
+                .members(members)
+                .build());
+    }
+}
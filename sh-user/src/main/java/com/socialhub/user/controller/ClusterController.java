@@ -0,0 +1,40 @@
+package com.socialhub.user.controller;
+
+import com.socialhub.user.cluster.ClusterBus;
+import com.socialhub.user.cluster.ClusterMessage;
+import com.socialhub.user.exception.CustomException;
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller receiving messages from the other USER-SERVICE instances. Not routed by the gateway.
+ */
+@Hidden
+@RestController
+@RequestMapping("/internal/cluster")
+@RequiredArgsConstructor
+public class ClusterController {
+
+    private final ClusterBus clusterBus;
+
+    /**
+     * Receive a message published on another instance.
+     * URL: POST /internal/cluster/messages
+     *
+     * @param secret  the shared cluster secret
+     * @param message the message
+     * @return empty response once the local subscribers have handled it
+     */
+    @PostMapping("/messages")
+    public ResponseEntity<Void> receive(@RequestHeader(value = ClusterBus.SECRET_HEADER, required = false) String secret,
+                                        @RequestBody ClusterMessage message) {
+        if (!clusterBus.isAuthorized(secret)) {
+            throw new CustomException("Invalid cluster secret.", HttpStatus.FORBIDDEN);
+        }
+        clusterBus.receive(message);
+        return ResponseEntity.noContent().build();
+    }
+}
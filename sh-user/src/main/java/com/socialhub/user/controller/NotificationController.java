@@ -0,0 +1,98 @@
+package com.socialhub.user.controller;
+
+import com.socialhub.user.dto.NotificationPageResponse;
+import com.socialhub.user.dto.NotificationReadRequest;
+import com.socialhub.user.dto.UnreadCountResponse;
+import com.socialhub.user.service.NotificationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Controller to handle notification endpoints.
+ */
+@RestController
+@RequestMapping("/notifications")
+@RequiredArgsConstructor
+@Tag(name = "Notification Controller", description = "Endpoints for receiving and reading notifications")
+@SecurityRequirement(name = "Bearer Authentication")
+public class NotificationController {
+
+    private final NotificationService notificationService;
+
+    /**
+     * Stream the authenticated user's notifications as Server-Sent Events.
+     * URL: GET /notifications/stream
+     *
+     * @param lastEventId the ID of the last event received before reconnecting
+     * @param jwt the JWT token of the authenticated user
+     * @return SseEmitter sending likes, comments and friend request notifications as they happen
+     */
+    @Operation(
+            summary = "Stream notifications",
+            description = "Opens a Server-Sent Events stream of likes, comments and friend requests. "
+                    + "Reconnect with the Last-Event-ID header to receive events missed in the meantime.",
+            parameters = @Parameter(name = "Last-Event-ID", description = "ID of the last event received", example = "1769518383911936005")
+    )
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                             @AuthenticationPrincipal Jwt jwt) {
+        return notificationService.subscribe(jwt.getSubject(), lastEventId);
+    }
+
+    /**
+     * Retrieve the authenticated user's notifications, newest first.
+     * URL: GET /notifications
+     *
+     * @param before return notifications older than this ID; omit for the newest
+     * @param size the number of notifications to return
+     * @param jwt the JWT token of the authenticated user
+     * @return ResponseEntity with the notifications, the unread count and the cursor of the next page
+     */
+    @Operation(summary = "List notifications",
+            description = "Retrieve the notification inbox newest first. Pass the returned nextCursor as 'before' to get the next page.")
+    @GetMapping
+    public ResponseEntity<NotificationPageResponse> getNotifications(@RequestParam(required = false) Long before,
+                                                                     @RequestParam(defaultValue = "20") int size,
+                                                                     @AuthenticationPrincipal Jwt jwt) {
+        return ResponseEntity.ok(notificationService.getNotifications(jwt.getSubject(), before, size));
+    }
+
+    /**
+     * Retrieve the authenticated user's number of unread notifications.
+     * URL: GET /notifications/unread-count
+     *
+     * @param jwt the JWT token of the authenticated user
+     * @return ResponseEntity with the unread count
+     */
+    @Operation(summary = "Count unread notifications", description = "Retrieve the number of unread notifications for the badge.")
+    @GetMapping("/unread-count")
+    public ResponseEntity<UnreadCountResponse> getUnreadCount(@AuthenticationPrincipal Jwt jwt) {
+        return ResponseEntity.ok(notificationService.getUnreadCount(jwt.getSubject()));
+    }
+
+    /**
+     * Mark notifications of the authenticated user as read.
+     * URL: POST /notifications/read
+     *
+     * @param request the IDs of the notifications, or the ID up to which all are marked
+     * @param jwt the JWT token of the authenticated user
+     * @return ResponseEntity with the remaining unread count
+     */
+    @Operation(summary = "Mark notifications as read",
+            description = "Mark up to 500 notifications as read by ID, or all notifications up to upToId.")
+    @PostMapping("/read")
+    public ResponseEntity<UnreadCountResponse> markAsRead(@Valid @RequestBody NotificationReadRequest request,
+                                                          @AuthenticationPrincipal Jwt jwt) {
+        return ResponseEntity.ok(notificationService.markAsRead(jwt.getSubject(), request));
+    }
+}
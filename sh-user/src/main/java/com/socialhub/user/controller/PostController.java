@@ -68,7 +68,7 @@ public class PostController {
      * @param jwt the JWT token of the authenticated user
      * @return ResponseEntity with the created Comment
      */
-    @Operation(summary = "Comment on a post", description = "Allows an authenticated user to add a comment to a specific post.")
+    @Operation(summary = "Comment on a post", description = "Allows an authenticated user to add a comment to a specific post, or to reply to one of its comments by giving parentId.")
     @PostMapping("/{postId}/comment")
     public ResponseEntity<CommentResponse> commentOnPost(@PathVariable Long postId,
                                                          @Valid @RequestBody CommentRequest commentRequest,
@@ -81,27 +81,67 @@ public class PostController {
      * Retrieve all posts.
      * URL: GET /posts
      *
+     * @param jwt the JWT token of the authenticated user
      * @return ResponseEntity with a list of all posts
      */
-    @Operation(summary = "Retrieve all posts", description = "Fetches a paginated list of all posts.")
+    @Operation(summary = "Retrieve all posts", description = "Fetches a paginated list of all posts, each marked with whether the authenticated user liked it.")
     @GetMapping
     public ResponseEntity<List<PostResponse>> getAllPosts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        List<PostResponse> posts = postService.getAllPosts(page, size);
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal Jwt jwt) {
+        List<PostResponse> posts = postService.getAllPosts(page, size, jwt.getSubject());
         return ResponseEntity.ok(posts);
     }
 
+    /**
+     * Retrieve trending posts.
+     * URL: GET /posts/trending
+     *
+     * @param limit the maximum number of posts to return
+     * @return ResponseEntity with the trending posts, highest score first
+     */
+    @Operation(summary = "Retrieve trending posts", description = "Fetches the posts with the most recent likes and comments, from a snapshot refreshed every few seconds.")
+    @GetMapping("/trending")
+    public ResponseEntity<TrendingPostsResponse> getTrendingPosts(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(postService.getTrendingPosts(limit));
+    }
+
+    /**
+     * Search posts by content.
+     * URL: GET /posts/search
+     *
+     * @param q the search text
+     * @return ResponseEntity with a page of matching posts, most relevant first
+     */
+    @Operation(
+            summary = "Search posts",
+            description = "Full-text search over post content, ranked by relevance (BM25).",
+            parameters = {
+                    @Parameter(name = "q", description = "Search text", example = "spring boot"),
+                    @Parameter(name = "page", description = "Page number (zero-based)", example = "0"),
+                    @Parameter(name = "size", description = "Number of items per page", example = "10")
+            }
+    )
+    @GetMapping("/search")
+    public ResponseEntity<PaginatedResponse<PostSearchResult>> searchPosts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(postService.searchPosts(q, page, size));
+    }
+
     /**
      * Retrieve posts by a specific user.
      * URL: GET /posts/user/{username}
      *
      * @param username the username of the user whose posts are to be fetched
+     * @param jwt the JWT token of the authenticated user
      * @return ResponseEntity with a list of posts by the specified user
      */
     @Operation(
             summary = "Retrieve posts by user",
-            description = "Fetches a paginated list of posts created by a specific user.",
+            description = "Fetches a paginated list of posts created by a specific user, each marked with whether the authenticated user liked it.",
             parameters = {
                     @Parameter(name = "page", description = "Page number (zero-based)", example = "0"),
                     @Parameter(name = "size", description = "Number of items per page", example = "10")
@@ -111,8 +151,9 @@ public class PostController {
     public ResponseEntity<PaginatedResponse<PostResponse>> getPostsByUser(
             @PathVariable String username,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        PaginatedResponse<PostResponse> response = postService.getPostsByUsername(username, page, size);
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal Jwt jwt) {
+        PaginatedResponse<PostResponse> response = postService.getPostsByUsername(username, page, size, jwt.getSubject());
         return ResponseEntity.ok(response);
     }
     /**
@@ -132,30 +173,64 @@ public class PostController {
     }
 
     /**
-     * Retrieve all comments for a specific post.
+     * Retrieve the comments for a specific post, a page at a time.
      * URL: GET /posts/{postId}/comments
      *
      * @param postId the ID of the post
-     * @return ResponseEntity with a list of comments
+     * @param after the nextCursor of the previous page; omit for the first page
+     * @param size the number of comments per page, at most 100
+     * @param summary whether to return only the comment count and the first few comments
+     * @return ResponseEntity with a page of comments
      */
-    @Operation(summary = "Retrieve comments for a post", description = "Fetches a list of all comments on a specific post, including commenter usernames and content.")
+    @Operation(summary = "Retrieve comments for a post", description = "Fetches a page of comments on a specific post in thread order, each comment followed by its replies. "
+            + "Pass nextCursor as 'after' for the next page. With summary=true only the total count and the first few comments are returned.")
     @GetMapping("/{postId}/comments")
-    public ResponseEntity<List<CommentResponse>> getCommentsForPost(@PathVariable Long postId) {
-        List<CommentResponse> comments = postService.getCommentsByPostId(postId);
+    public ResponseEntity<CursorPageResponse<CommentResponse>> getCommentsForPost(@PathVariable Long postId,
+                                                                                  @RequestParam(required = false) String after,
+                                                                                  @RequestParam(defaultValue = "20") int size,
+                                                                                  @RequestParam(defaultValue = "false") boolean summary) {
+        CursorPageResponse<CommentResponse> comments = postService.getCommentsByPostId(postId, after, size, summary);
         return ResponseEntity.ok(comments);
     }
 
     /**
-     * Retrieve all likes for a specific post.
+     * Retrieve a comment together with its replies.
+     * URL: GET /posts/{postId}/comments/{commentId}/thread
+     *
+     * @param postId the ID of the post
+     * @param commentId the ID of the comment at the top of the thread
+     * @param depth the number of reply levels to include; all when omitted
+     * @param replies the number of replies to include per comment; all when omitted
+     * @return ResponseEntity with the comment followed by its replies in thread order
+     */
+    @Operation(summary = "Retrieve a comment thread", description = "Fetches a comment and its nested replies in thread order, optionally limited to a number of levels and to the first replies of each comment.")
+    @GetMapping("/{postId}/comments/{commentId}/thread")
+    public ResponseEntity<List<CommentResponse>> getCommentThread(@PathVariable Long postId,
+                                                                  @PathVariable Long commentId,
+                                                                  @RequestParam(required = false) Integer depth,
+                                                                  @RequestParam(required = false) Integer replies) {
+        List<CommentResponse> thread = postService.getCommentThread(postId, commentId, depth, replies);
+        return ResponseEntity.ok(thread);
+    }
+
+    /**
+     * Retrieve the likes for a specific post, a page at a time.
      * URL: GET /posts/{postId}/likes
      *
      * @param postId the ID of the post
-     * @return ResponseEntity with a list of likes
+     * @param after the nextCursor of the previous page; omit for the first page
+     * @param size the number of likes per page, at most 100
+     * @param summary whether to return only the like count and the most recent likers
+     * @return ResponseEntity with a page of likes
      */
-    @Operation(summary = "Retrieve likes for a post", description = "Fetches a list of all likes on a specific post, including usernames of users who liked the post.")
+    @Operation(summary = "Retrieve likes for a post", description = "Fetches a page of likes on a specific post, newest first, including usernames of users who liked the post. "
+            + "Pass nextCursor as 'after' for the next page. With summary=true only the total count and the most recent likers are returned.")
     @GetMapping("/{postId}/likes")
-    public ResponseEntity<List<LikeResponse>> getLikesForPost(@PathVariable Long postId) {
-        List<LikeResponse> likes = postService.getLikesByPostId(postId);
+    public ResponseEntity<CursorPageResponse<LikeResponse>> getLikesForPost(@PathVariable Long postId,
+                                                                            @RequestParam(required = false) String after,
+                                                                            @RequestParam(defaultValue = "20") int size,
+                                                                            @RequestParam(defaultValue = "false") boolean summary) {
+        CursorPageResponse<LikeResponse> likes = postService.getLikesByPostId(postId, after, size, summary);
         return ResponseEntity.ok(likes);
     }
 }
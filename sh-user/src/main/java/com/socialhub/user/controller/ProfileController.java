@@ -1,7 +1,10 @@
 package com.socialhub.user.controller;
 
+import com.socialhub.user.dto.ProfileBatchRequest;
+import com.socialhub.user.dto.ProfileBatchResponse;
 import com.socialhub.user.dto.UserProfileResponse;
 import com.socialhub.user.dto.UserProfileUpdateRequest;
+import com.socialhub.user.profile.CachedProfile;
 import com.socialhub.user.service.ProfileService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.*;
@@ -9,6 +12,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
@@ -25,6 +29,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @SecurityRequirement(name = "Bearer Authentication")
 public class ProfileController {
 
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final ProfileService profileService;
 
     /**
@@ -32,13 +38,15 @@ public class ProfileController {
      * URL: GET /profile/me
      *
      * @param jwt the JWT token of the authenticated user
-     * @return UserProfileResponse containing profile details
+     * @param request the request, checked for If-None-Match
+     * @return UserProfileResponse containing profile details, or 304 if the client's copy is current
      */
-    @Operation(summary = "Get my profile", description = "Retrieve the profile of the authenticated user")
+    @Operation(summary = "Get my profile", description = "Retrieve the profile of the authenticated user. "
+            + "Responses carry an ETag; send it back in If-None-Match to get 304 Not Modified while the profile is unchanged.")
     @GetMapping("/me")
-    public ResponseEntity<UserProfileResponse> getMyProfile(@AuthenticationPrincipal Jwt jwt) {
-        UserProfileResponse profile = profileService.getProfileByUsername(jwt.getSubject());
-        return ResponseEntity.ok(profile);
+    public ResponseEntity<UserProfileResponse> getMyProfile(@AuthenticationPrincipal Jwt jwt, WebRequest request) {
+        CachedProfile profile = profileService.getProfileByUsername(jwt.getSubject());
+        return conditional(profile, request);
     }
 
     /**
@@ -64,14 +72,15 @@ public class ProfileController {
      * Accessible only by users with ADMIN role.
      *
      * @param id the ID of the profile to retrieve
-     * @return UserProfileResponse containing profile details
+     * @param request the request, checked for If-None-Match
+     * @return UserProfileResponse containing profile details, or 304 if the client's copy is current
      */
-    @Operation(summary = "Get user profile by ID", description = "Retrieve any user's profile by their profile ID. Admins only.")
+    @Operation(summary = "Get user profile by ID", description = "Retrieve any user's profile by their profile ID. Admins only. Supports If-None-Match.")
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<UserProfileResponse> getProfileById(@PathVariable Long id) {
-        UserProfileResponse profile = profileService.getProfileById(id);
-        return ResponseEntity.ok(profile);
+    public ResponseEntity<UserProfileResponse> getProfileById(@PathVariable Long id, WebRequest request) {
+        CachedProfile profile = profileService.getProfileById(id);
+        return conditional(profile, request);
     }
 
     /**
@@ -81,12 +90,51 @@ public class ProfileController {
      * Accessible by any authenticated user.
      *
      * @param id the ID of the profile to view
-     * @return UserProfileResponse containing profile details
+     * @param request the request, checked for If-None-Match
+     * @return UserProfileResponse containing profile details, or 304 if the client's copy is current
      */
-    @Operation(summary = "View user profile by ID", description = "View any user's profile by their profile ID. Accessible by any authenticated user.")
+    @Operation(summary = "View user profile by ID", description = "View any user's profile by their profile ID. Accessible by any authenticated user. Supports If-None-Match.")
     @GetMapping("/view/{id}")
-    public ResponseEntity<UserProfileResponse> viewProfile(@PathVariable Long id) {
-        UserProfileResponse profile = profileService.getProfileById(id);
-        return ResponseEntity.ok(profile);
+    public ResponseEntity<UserProfileResponse> viewProfile(@PathVariable Long id, WebRequest request) {
+        CachedProfile profile = profileService.getProfileById(id);
+        return conditional(profile, request);
+    }
+
+    /**
+     * View several users' profiles at once.
+     * URL: POST /profile/batch
+     *
+     * Accessible by any authenticated user.
+     *
+     * @param request the profile IDs and user IDs to look up, at most 100 of each
+     * @return ProfileBatchResponse with the profiles found and the IDs not found
+     */
+    @Operation(summary = "View profiles in batch", description = "Look up to 100 profiles by profile ID and up to 100 by user ID in one call. "
+            + "Duplicate IDs are ignored; IDs without a profile are listed as missing instead of failing the call.")
+    @PostMapping("/batch")
+    public ResponseEntity<ProfileBatchResponse> getProfiles(@Valid @RequestBody ProfileBatchRequest request) {
+        return ResponseEntity.ok(profileService.getProfiles(request));
+    }
+
+    /**
+     * Answers with 304 Not Modified when the request's If-None-Match names the profile's current
+     * version, and with the profile otherwise. Either way the response carries the ETag and asks
+     * clients to revalidate before reusing their copy.
+     *
+     * @param profile the current profile
+     * @param request the request
+     * @return the conditional response
+     */
+    private ResponseEntity<UserProfileResponse> conditional(CachedProfile profile, WebRequest request) {
+        if (request.checkNotModified(profile.etag())) {
+            // checkNotModified has already set the ETag header
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(REVALIDATE)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(profile.etag())
+                .cacheControl(REVALIDATE)
+                .body(profile.response());
     }
 }
@@ -0,0 +1,38 @@
+package com.socialhub.user.controller;
+
+import com.socialhub.user.dto.SearchIndexRebuildResponse;
+import com.socialhub.user.search.PostSearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.*;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controller to maintain the post search index. Admins only.
+ */
+@RestController
+@RequestMapping("/admin/search")
+@RequiredArgsConstructor
+@Tag(name = "Search Admin Controller", description = "Endpoints for maintaining the post search index")
+@SecurityRequirement(name = "Bearer Authentication")
+@PreAuthorize("hasRole('ADMIN')")
+public class SearchAdminController {
+
+    private final PostSearchIndex postSearchIndex;
+
+    /**
+     * Rebuild the search index from the database.
+     * URL: POST /admin/search/rebuild
+     *
+     * @return SearchIndexRebuildResponse with the number of posts indexed
+     */
+    @Operation(summary = "Rebuild search index", description = "Replace this instance's search index with every post in the database")
+    @PostMapping("/rebuild")
+    public ResponseEntity<SearchIndexRebuildResponse> rebuild() {
+        return ResponseEntity.ok(postSearchIndex.rebuild());
+    }
+}
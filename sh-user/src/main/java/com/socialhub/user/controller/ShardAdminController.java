@@ -0,0 +1,51 @@
+package com.socialhub.user.controller;
+
+import com.socialhub.user.dto.ShardLayoutResponse;
+import com.socialhub.user.dto.ShardRebalanceResponse;
+import com.socialhub.user.sharding.ShardRebalancer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.*;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controller to inspect and rebalance post shards. Admins only.
+ */
+@RestController
+@RequestMapping("/admin/shards")
+@RequiredArgsConstructor
+@Tag(name = "Shard Admin Controller", description = "Endpoints for inspecting and rebalancing post shards")
+@SecurityRequirement(name = "Bearer Authentication")
+@PreAuthorize("hasRole('ADMIN')")
+public class ShardAdminController {
+
+    private final ShardRebalancer shardRebalancer;
+
+    /**
+     * Get the current placement of buckets on shards.
+     * URL: GET /admin/shards
+     *
+     * @return ShardLayoutResponse with the number of buckets per shard
+     */
+    @Operation(summary = "Get shard layout", description = "Show how post buckets are spread over the configured shards")
+    @GetMapping
+    public ResponseEntity<ShardLayoutResponse> getLayout() {
+        return ResponseEntity.ok(shardRebalancer.getLayout());
+    }
+
+    /**
+     * Move posts, likes and comments to the shard owning their author's bucket.
+     * URL: POST /admin/shards/rebalance
+     *
+     * @return ShardRebalanceResponse with the number of rows scanned and moved
+     */
+    @Operation(summary = "Rebalance shards", description = "Move posts to the shard owning their author's bucket after shards are added or removed")
+    @PostMapping("/rebalance")
+    public ResponseEntity<ShardRebalanceResponse> rebalance() {
+        return ResponseEntity.ok(shardRebalancer.rebalance());
+    }
+}
@@ -0,0 +1,48 @@
+package com.socialhub.user.controller;
+
+import com.socialhub.user.dto.UserSuggestionResponse;
+import com.socialhub.user.service.UserSuggestService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controller to handle user lookup endpoints.
+ */
+@RestController
+@RequestMapping("/users")
+@RequiredArgsConstructor
+@Tag(name = "User Controller", description = "Endpoints for finding users")
+@SecurityRequirement(name = "Bearer Authentication")
+public class UserController {
+
+    private final UserSuggestService userSuggestService;
+
+    /**
+     * Suggest users matching a prefix.
+     * URL: GET /users/suggest?prefix=
+     *
+     * @param prefix the beginning of a username, first name, last name or full name
+     * @param limit  the maximum number of suggestions
+     * @return ResponseEntity with the suggested users, most popular first
+     */
+    @Operation(
+            summary = "Suggest users",
+            description = "Autocompletes usernames and profile names from an in-memory index, ranking users by number of friends.",
+            parameters = {
+                    @Parameter(name = "prefix", description = "Beginning of a username or name", example = "jo"),
+                    @Parameter(name = "limit", description = "Maximum number of suggestions", example = "10")
+            }
+    )
+    @GetMapping("/suggest")
+    public ResponseEntity<List<UserSuggestionResponse>> suggest(@RequestParam String prefix,
+                                                                @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(userSuggestService.suggest(prefix, limit));
+    }
+}
@@ -0,0 +1,9 @@
+package com.socialhub.user.datasource;
+
+/**
+ * Lookup keys of the physical data sources behind {@link ReadWriteRoutingDataSource}.
+ */
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,95 @@
+package com.socialhub.user.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Splits reads and writes between the primary database and a read replica.
+ * <p>
+ * Active only when {@code socialhub.datasource.replica.url} is set; otherwise the
+ * auto-configured single data source is used unchanged. The primary pool is configured
+ * through the usual {@code spring.datasource.*} properties and the replica pool through
+ * {@code socialhub.datasource.replica.*}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "socialhub.datasource.replica", name = "url")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryPhysicalDataSource(
+            @Qualifier("primaryDataSourceProperties") DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("socialhub.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("socialhub.datasource.replica.hikari")
+    public HikariDataSource replicaPhysicalDataSource(
+            @Qualifier("replicaDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public RecentWriteTracker recentWriteTracker() {
+        return new RecentWriteTracker();
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaPhysicalDataSource") DataSource replica,
+                                               ReplicaRoutingProperties properties) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, properties);
+        monitor.refresh();
+        return monitor;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(@Qualifier("primaryPhysicalDataSource") DataSource primary,
+                                                                 @Qualifier("replicaPhysicalDataSource") DataSource replica,
+                                                                 ReplicaLagMonitor lagMonitor,
+                                                                 RecentWriteTracker writeTracker,
+                                                                 ReplicaRoutingProperties properties) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(lagMonitor, writeTracker, properties);
+        routing.setTargetDataSources(Map.of(
+                DataSourceRole.PRIMARY, primary,
+                DataSourceRole.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        return routing;
+    }
+
+    /**
+     * The application-wide data source: a lazy proxy over the routing data source, so the
+     * routing decision is taken when the first statement runs inside the transaction.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+}
@@ -0,0 +1,77 @@
+package com.socialhub.user.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Routes connections of read-only transactions to the replica and everything else to the primary.
+ * <p>
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so that the physical connection is only requested once the transaction's read-only flag is set.
+ * Reads fall back to the primary while the replica is lagging and, for read-your-own-writes,
+ * while the authenticated user has written within the configured window.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final RecentWriteTracker writeTracker;
+    private final ReplicaRoutingProperties properties;
+
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor lagMonitor,
+                                      RecentWriteTracker writeTracker,
+                                      ReplicaRoutingProperties properties) {
+        this.lagMonitor = lagMonitor;
+        this.writeTracker = writeTracker;
+        this.properties = properties;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return DataSourceRole.PRIMARY;
+        }
+
+        String username = currentUsername();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (username != null) {
+                writeTracker.recordWrite(username);
+            }
+            return DataSourceRole.PRIMARY;
+        }
+
+        if (!lagMonitor.isReplicaUsable()) {
+            return DataSourceRole.PRIMARY;
+        }
+        if (username != null && writeTracker.wroteWithin(username, readYourWritesWindow())) {
+            return DataSourceRole.PRIMARY;
+        }
+        return DataSourceRole.REPLICA;
+    }
+
+    /**
+     * Drops write timestamps that can no longer pin anybody's reads to the primary.
+     */
+    @Scheduled(fixedDelayString = "${socialhub.datasource.routing.lag-check-interval:PT1S}")
+    public void evictExpiredWrites() {
+        writeTracker.evictOlderThan(readYourWritesWindow());
+    }
+
+    /**
+     * @return the configured window, stretched to the last observed replica lag if that is longer
+     */
+    Duration readYourWritesWindow() {
+        Duration configured = properties.getReadYourWritesWindow();
+        Duration lag = lagMonitor.getObservedLag();
+        return lag.compareTo(configured) > 0 ? lag : configured;
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
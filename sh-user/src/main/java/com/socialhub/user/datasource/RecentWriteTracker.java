@@ -0,0 +1,45 @@
+package com.socialhub.user.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each user last opened a read-write transaction, so that their
+ * subsequent reads can be pinned to the primary until the replica has caught up.
+ */
+public class RecentWriteTracker {
+
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+
+    /**
+     * Records that the given user is writing now.
+     *
+     * @param username the username of the writing user
+     */
+    public void recordWrite(String username) {
+        lastWriteNanos.put(username, System.nanoTime());
+    }
+
+    /**
+     * Checks whether the given user wrote within the given window.
+     *
+     * @param username the username of the user
+     * @param window   the look-back window
+     * @return true if the user's last write is younger than the window
+     */
+    public boolean wroteWithin(String username, Duration window) {
+        Long writtenAt = lastWriteNanos.get(username);
+        return writtenAt != null && System.nanoTime() - writtenAt < window.toNanos();
+    }
+
+    /**
+     * Forgets writes older than the given window to keep the map bounded by the number of recent writers.
+     *
+     * @param window the look-back window
+     */
+    public void evictOlderThan(Duration window) {
+        long cutoff = System.nanoTime() - window.toNanos();
+        lastWriteNanos.values().removeIf(writtenAt -> writtenAt - cutoff < 0);
+    }
+}
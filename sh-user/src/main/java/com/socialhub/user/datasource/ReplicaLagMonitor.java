@@ -0,0 +1,81 @@
+package com.socialhub.user.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodically samples the replica's replication lag and decides whether it may serve reads.
+ * <p>
+ * A replica that cannot be queried, whose replication thread is stopped (lag reported as
+ * {@code NULL}) or whose lag exceeds {@link ReplicaRoutingProperties#getMaxReplicaLag()} is
+ * taken out of rotation until the next successful sample. A server that reports no
+ * replication status at all (for example an H2 stand-in) is treated as current.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final ReplicaRoutingProperties properties;
+
+    private volatile boolean replicaUsable;
+    private volatile Duration observedLag = Duration.ZERO;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, ReplicaRoutingProperties properties) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.properties = properties;
+    }
+
+    /**
+     * Samples the replication lag. Scheduled with a fixed delay so a slow replica never stacks up checks.
+     */
+    @Scheduled(fixedDelayString = "${socialhub.datasource.routing.lag-check-interval:PT1S}")
+    public void refresh() {
+        try {
+            List<Map<String, Object>> status = replicaJdbcTemplate.queryForList(properties.getLagQuery());
+            if (status.isEmpty()) {
+                update(true, Duration.ZERO);
+                return;
+            }
+            Object seconds = status.get(0).get(properties.getLagColumn());
+            if (seconds == null) {
+                update(false, observedLag);
+                return;
+            }
+            Duration lag = Duration.ofSeconds(Long.parseLong(seconds.toString()));
+            update(lag.compareTo(properties.getMaxReplicaLag()) <= 0, lag);
+        } catch (Exception ex) {
+            if (replicaUsable) {
+                log.warn("Replica lag check failed, routing reads to the primary: {}", ex.getMessage());
+            }
+            update(false, observedLag);
+        }
+    }
+
+    /**
+     * @return true if read-only transactions may currently use the replica
+     */
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    /**
+     * @return the replication lag seen by the last successful sample
+     */
+    public Duration getObservedLag() {
+        return observedLag;
+    }
+
+    private void update(boolean usable, Duration lag) {
+        if (usable != replicaUsable) {
+            log.info("Replica {} for reads (lag {}s)", usable ? "enabled" : "disabled", lag.toSeconds());
+        }
+        this.observedLag = lag;
+        this.replicaUsable = usable;
+    }
+}
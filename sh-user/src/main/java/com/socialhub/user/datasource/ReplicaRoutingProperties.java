@@ -0,0 +1,35 @@
+package com.socialhub.user.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings controlling when read-only transactions may be served by the replica.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    /**
+     * Largest replication lag at which the replica still serves reads.
+     */
+    private Duration maxReplicaLag = Duration.ofSeconds(2);
+
+    /**
+     * How long a user's reads stay on the primary after that user wrote.
+     * The effective window is never shorter than the last observed replica lag.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * Statement executed on the replica to read its replication status.
+     */
+    private String lagQuery = "SHOW REPLICA STATUS";
+
+    /**
+     * Column of {@link #lagQuery} holding the lag in seconds.
+     */
+    private String lagColumn = "Seconds_Behind_Source";
+}
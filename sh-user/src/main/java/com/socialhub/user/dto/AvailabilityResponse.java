@@ -0,0 +1,29 @@
+package com.socialhub.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+/**
+ * DTO representing the availability of a username and an email, as reported by AUTH_SERVICE.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityResponse {
+
+    @Schema(description = "Username that was checked", example = "john_doe")
+    private String username;
+
+    @Schema(description = "Whether the username is free, absent when no username was checked", example = "true")
+    private Boolean usernameAvailable;
+
+    @Schema(description = "Email that was checked", example = "john_doe@example.com")
+    private String email;
+
+    @Schema(description = "Whether the email is free, absent when no email was checked", example = "false")
+    private Boolean emailAvailable;
+}
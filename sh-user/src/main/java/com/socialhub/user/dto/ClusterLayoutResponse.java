@@ -0,0 +1,25 @@
+package com.socialhub.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * DTO describing the USER-SERVICE instances as seen by the instance answering.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClusterLayoutResponse {
+
+    @Schema(description = "How invalidations reach the other instances", example = "HTTP")
+    private String transport;
+
+    @Schema(description = "ID of the instance answering", example = "10.0.0.5:USER-SERVICE:8082")
+    private String self;
+
+    @Schema(description = "Base URI of each instance by ID", example = "{\"10.0.0.5:USER-SERVICE:8082\": \"http://10.0.0.5:8082\"}")
+    private Map<String, String> members;
+}
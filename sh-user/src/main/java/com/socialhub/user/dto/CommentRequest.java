@@ -17,4 +17,7 @@ public class CommentRequest {
     @NotBlank(message = "Comment content cannot be empty")
     @Schema(description = "Content of the comment", example = "This is a comment.")
     private String content;
+
+    @Schema(description = "ID of the comment being replied to; omit for a top-level comment", example = "12")
+    private Long parentId;
 }
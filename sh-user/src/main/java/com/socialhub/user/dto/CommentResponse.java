@@ -28,4 +28,16 @@ public class CommentResponse {
 
     @Schema(description = "Timestamp when the comment was created", example = "2023-10-04T12:34:56.789")
     private LocalDateTime createdAt;
+
+    @Schema(description = "ID of the comment replied to, or null for a top-level comment", example = "12")
+    private Long parentId;
+
+    @Schema(description = "Nesting level, 0 for a top-level comment", example = "1")
+    private int depth;
+
+    @Schema(description = "Number of direct replies", example = "3")
+    private int replyCount;
+
+    @Schema(description = "Number of replies including nested ones", example = "7")
+    private int totalReplyCount;
 }
@@ -0,0 +1,25 @@
+package com.socialhub.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO representing a page of items read by cursor rather than by page number.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+
+    @Schema(description = "Items on this page")
+    private List<T> content;
+
+    @Schema(description = "Value of 'after' for the next page, or null on the last page", example = "1042")
+    private String nextCursor;
+
+    @Schema(description = "Total number of items; only returned in summary mode", example = "200000")
+    private Long totalCount;
+}
@@ -5,7 +5,7 @@ import lombok.*;
 
 /**
  * DTO representing the response from AUTH_SERVICE's /auth/login endpoint.
- * Contains both the JWT token and its type.
+ * Contains the JWT access token, its type and lifetime, and the refresh token to renew it.
  */
 @Data
 @NoArgsConstructor
@@ -17,4 +17,10 @@ public class LoginResponse {
 
     @Schema(description = "Type of the token issued", example = "Bearer")
     private String tokenType;
+
+    @Schema(description = "Seconds until the access token expires", example = "900")
+    private Long expiresIn;
+
+    @Schema(description = "Single-use token for POST /auth/refresh; a new one is issued with each access token", example = "q8Yl0bT3x2tq1ZQ0p7m9vUuJr6c4dN1eHk5sA2wB3zI")
+    private String refreshToken;
 }
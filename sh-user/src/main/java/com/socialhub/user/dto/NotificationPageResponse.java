@@ -0,0 +1,25 @@
+package com.socialhub.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO representing a page of the notification inbox, newest first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationPageResponse {
+
+    @Schema(description = "Notifications on this page, newest first")
+    private List<NotificationResponse> notifications;
+
+    @Schema(description = "Number of unread notifications", example = "3")
+    private int unreadCount;
+
+    @Schema(description = "Value of 'before' for the next page, or null on the last page", example = "1769518383911936005")
+    private Long nextCursor;
+}
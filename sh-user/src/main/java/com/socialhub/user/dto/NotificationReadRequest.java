@@ -0,0 +1,24 @@
+package com.socialhub.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO for marking notifications as read, either by ID or everything up to a notification.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationReadRequest {
+
+    @Size(max = 500, message = "At most 500 notifications can be marked at once")
+    @Schema(description = "IDs of the notifications to mark as read", example = "[1769518383911936005, 1769518383911937029]")
+    private List<Long> ids;
+
+    @Schema(description = "Marks this notification and all older ones as read", example = "1769518383911937029")
+    private Long upToId;
+}
@@ -0,0 +1,41 @@
+package com.socialhub.user.dto;
+
+import com.socialhub.user.notification.NotificationType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO representing a notification about activity involving the user.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationResponse {
+
+    @Schema(description = "Notification ID, increasing over time for each user; used as the SSE event ID", example = "1769518383911936005")
+    private Long id;
+
+    @Schema(description = "Kind of activity", example = "POST_LIKED")
+    private NotificationType type;
+
+    @Schema(description = "Username of the user who caused the notification", example = "jane_doe")
+    private String actorUsername;
+
+    @Schema(description = "ID of the post involved, for likes and comments", example = "10")
+    private Long postId;
+
+    @Schema(description = "ID of the comment, for comments", example = "55")
+    private Long commentId;
+
+    @Schema(description = "ID of the friend request, for friend requests", example = "7")
+    private Long friendRequestId;
+
+    @Schema(description = "When the activity happened", example = "2023-10-04T12:34:56.789")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Whether the notification has been marked as read", example = "false")
+    private boolean read;
+}
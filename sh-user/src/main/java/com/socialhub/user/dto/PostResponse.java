@@ -36,4 +36,7 @@ public class PostResponse {
 
     @Schema(description = "Number of comments on the post", example = "5")
     private Long commentCount;
+
+    @Schema(description = "Whether the authenticated user liked the post", example = "true")
+    private Boolean likedByMe;
 }
@@ -0,0 +1,31 @@
+package com.socialhub.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO representing a post matching a search query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PostSearchResult {
+
+    @Schema(description = "Unique identifier of the post", example = "10")
+    private Long postId;
+
+    @Schema(description = "Username of the post's author", example = "john_doe")
+    private String authorUsername;
+
+    @Schema(description = "Content of the post", example = "Hello, world!")
+    private String content;
+
+    @Schema(description = "Timestamp when the post was created", example = "2023-10-04T12:34:56.789")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "BM25 relevance score", example = "3.21")
+    private float score;
+}
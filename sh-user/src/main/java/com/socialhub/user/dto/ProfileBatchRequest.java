@@ -0,0 +1,25 @@
+package com.socialhub.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO for looking up several profiles at once, by profile ID, by user ID or both.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProfileBatchRequest {
+
+    @Size(max = 100, message = "At most 100 profile IDs can be looked up at once")
+    @Schema(description = "IDs of the profiles to look up; duplicates are ignored", example = "[1, 2, 3]")
+    private List<Long> profileIds;
+
+    @Size(max = 100, message = "At most 100 user IDs can be looked up at once")
+    @Schema(description = "IDs of the users whose profiles to look up; duplicates are ignored", example = "[10, 11]")
+    private List<Long> userIds;
+}
@@ -0,0 +1,29 @@
+package com.socialhub.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO representing the profiles found by a batch lookup and the IDs that were not found.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProfileBatchResponse {
+
+    @Schema(description = "Profiles found, keyed by the requested profile ID")
+    private Map<Long, UserProfileResponse> profiles;
+
+    @Schema(description = "Profiles found, keyed by the requested user ID")
+    private Map<Long, UserProfileResponse> users;
+
+    @Schema(description = "Requested profile IDs with no profile", example = "[3]")
+    private List<Long> missingProfileIds;
+
+    @Schema(description = "Requested user IDs with no profile", example = "[]")
+    private List<Long> missingUserIds;
+}
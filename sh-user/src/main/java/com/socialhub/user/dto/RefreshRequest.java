@@ -0,0 +1,20 @@
+package com.socialhub.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+
+/**
+ * DTO for refresh and logout requests.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshRequest {
+
+    @NotBlank(message = "Refresh token is mandatory")
+    @Schema(description = "Refresh token issued with the last access token", example = "q8Yl0bT3x2tq1ZQ0p7m9vUuJr6c4dN1eHk5sA2wB3zI")
+    private String refreshToken;
+}
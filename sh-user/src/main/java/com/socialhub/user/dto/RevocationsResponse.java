@@ -0,0 +1,20 @@
+package com.socialhub.user.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO representing the response from AUTH_SERVICE's /auth/revocations endpoint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevocationsResponse {
+
+    private List<RevokedSessionResponse> sessions;
+
+    // Epoch milliseconds to pass as since on the next request
+    private Long until;
+}
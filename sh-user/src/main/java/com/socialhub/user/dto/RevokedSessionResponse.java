@@ -0,0 +1,18 @@
+package com.socialhub.user.dto;
+
+import lombok.*;
+
+/**
+ * DTO representing a session revoked in AUTH_SERVICE, whose access tokens must be rejected.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedSessionResponse {
+
+    private Long sessionId;
+
+    // Epoch milliseconds after which no access token of the session is valid anyway
+    private Long expiresAt;
+}
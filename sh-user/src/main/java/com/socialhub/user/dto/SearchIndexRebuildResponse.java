@@ -0,0 +1,20 @@
+package com.socialhub.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+/**
+ * DTO summarising a search index rebuild.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchIndexRebuildResponse {
+
+    @Schema(description = "Number of posts indexed", example = "120000")
+    private long postsIndexed;
+
+    @Schema(description = "Time taken in milliseconds", example = "8400")
+    private long durationMillis;
+}
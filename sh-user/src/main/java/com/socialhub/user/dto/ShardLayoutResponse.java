@@ -0,0 +1,25 @@
+package com.socialhub.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * DTO describing how post buckets are currently spread over the shards.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShardLayoutResponse {
+
+    @Schema(description = "Whether sharding is enabled", example = "true")
+    private boolean enabled;
+
+    @Schema(description = "Total number of logical buckets", example = "1024")
+    private int buckets;
+
+    @Schema(description = "Number of buckets owned by each shard", example = "{\"shard-0\": 518, \"shard-1\": 506}")
+    private Map<String, Long> bucketsPerShard;
+}
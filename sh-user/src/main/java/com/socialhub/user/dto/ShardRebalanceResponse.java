@@ -0,0 +1,26 @@
+package com.socialhub.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+/**
+ * DTO summarising a shard rebalance run.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShardRebalanceResponse {
+
+    @Schema(description = "Number of posts inspected across all shards", example = "120000")
+    private long postsScanned;
+
+    @Schema(description = "Number of posts moved to the shard owning their author's bucket", example = "30000")
+    private long postsMoved;
+
+    @Schema(description = "Number of likes moved together with their posts", example = "250000")
+    private long likesMoved;
+
+    @Schema(description = "Number of comments moved together with their posts", example = "90000")
+    private long commentsMoved;
+}
@@ -0,0 +1,23 @@
+package com.socialhub.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+/**
+ * DTO representing a post's position in the trending list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrendingPostResponse {
+
+    @Schema(description = "Position in the trending list, starting at 1", example = "1")
+    private int rank;
+
+    @Schema(description = "Unique identifier of the post", example = "10")
+    private Long postId;
+
+    @Schema(description = "Time-decayed activity score of the post within the window", example = "42.5")
+    private double score;
+}
@@ -0,0 +1,23 @@
+package com.socialhub.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO representing a published snapshot of trending posts.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrendingPostsResponse {
+
+    @Schema(description = "When the snapshot was computed", example = "2024-10-04T12:34:56Z")
+    private Instant generatedAt;
+
+    @Schema(description = "Trending posts, highest score first")
+    private List<TrendingPostResponse> posts;
+}
@@ -0,0 +1,17 @@
+package com.socialhub.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+/**
+ * DTO representing the number of unread notifications.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UnreadCountResponse {
+
+    @Schema(description = "Number of unread notifications", example = "3")
+    private int unreadCount;
+}
@@ -0,0 +1,23 @@
+package com.socialhub.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+/**
+ * DTO representing a user suggested for a search prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSuggestionResponse {
+
+    @Schema(description = "Profile ID, usable with /profile/view/{id}", example = "42")
+    private Long profileId;
+
+    @Schema(description = "Username of the user", example = "john_doe")
+    private String username;
+
+    @Schema(description = "First and last name from the profile", example = "John Doe")
+    private String displayName;
+}
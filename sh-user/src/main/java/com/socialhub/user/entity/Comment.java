@@ -5,8 +5,14 @@ import lombok.*;
 
 import java.time.LocalDateTime;
 
+/**
+ * Entity representing a comment on a post or a reply to another comment.
+ */
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_post_id_created_at", columnList = "postId, createdAt"),
+        @Index(name = "idx_comments_post_id_path_depth", columnList = "postId, path, depth")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,4 +27,30 @@ public class Comment {
     private Long userId;
     private String content;
     private LocalDateTime createdAt;
+
+    /**
+     * The comment replied to, or null for a top-level comment.
+     */
+    private Long parentId;
+
+    /**
+     * Materialized path of the comment within its post, see {@link com.socialhub.user.comment.CommentPath}.
+     */
+    @Column(nullable = false, length = 200)
+    private String path;
+
+    /**
+     * Number of ancestors, 0 for a top-level comment.
+     */
+    private int depth;
+
+    /**
+     * Number of direct replies.
+     */
+    private int replyCount;
+
+    /**
+     * Number of replies in the whole subtree; for a top-level comment, the size of its thread.
+     */
+    private int totalReplyCount;
 }
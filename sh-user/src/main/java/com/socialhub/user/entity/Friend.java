@@ -9,7 +9,10 @@ import java.time.LocalDateTime;
  * Entity representing a friend relationship or friend request.
  */
 @Entity
-@Table(name = "friends")
+@Table(name = "friends", indexes = {
+        @Index(name = "idx_friends_user_id_status_friend_id", columnList = "userId, status, friendId"),
+        @Index(name = "idx_friends_friend_id_status", columnList = "friendId, status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
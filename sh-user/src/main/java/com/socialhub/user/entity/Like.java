@@ -8,7 +8,10 @@ import java.time.LocalDateTime;
  * Entity representing a like on a post.
  */
 @Entity
-@Table(name = "likes")
+@Table(name = "likes", indexes = {
+        @Index(name = "idx_likes_post_id_user_id", columnList = "postId, userId"),
+        @Index(name = "idx_likes_post_id_id", columnList = "postId, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
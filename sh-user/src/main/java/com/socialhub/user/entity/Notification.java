@@ -0,0 +1,63 @@
+package com.socialhub.user.entity;
+
+import com.socialhub.user.notification.NotificationType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Entity representing a notification in a user's inbox.
+ * <p>
+ * The ID is microseconds since the epoch at the time the notification was recorded,
+ * followed by ten bits identifying the instance that recorded it, so it also serves as the
+ * creation time.
+ */
+@Entity
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_id", columnList = "id")
+})
+@IdClass(Notification.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Notification {
+
+    /**
+     * The user the notification is for.
+     */
+    @Id
+    private Long userId;
+
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.ORDINAL)
+    @Column(nullable = false)
+    private NotificationType type;
+
+    /**
+     * The user who caused the notification.
+     */
+    @Column(nullable = false)
+    private Long actorId;
+
+    private Long postId;
+    private Long commentId;
+    private Long friendRequestId;
+
+    @Column(name = "is_read", nullable = false)
+    private boolean read;
+
+    /**
+     * Primary key of a notification.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long id;
+    }
+}
@@ -0,0 +1,28 @@
+package com.socialhub.user.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Entity holding the number of unread notifications of a user.
+ */
+@Entity
+@Table(name = "notification_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationCounter {
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private int unreadCount;
+
+    /**
+     * The last notification ID handed out to the user.
+     */
+    @Column(nullable = false)
+    private long lastId;
+}
@@ -0,0 +1,51 @@
+package com.socialhub.user.entity;
+
+import com.socialhub.user.outbox.ChangeEventType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a change event in the transactional outbox, written in the same
+ * transaction as the change it describes.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "uk_outbox_events_sequence_number", columnList = "sequence_number", unique = true),
+        @Index(name = "idx_outbox_events_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Position of the event in the shard's change log, assigned by the relay after commit.
+     */
+    private Long sequenceNumber;
+
+    @Enumerated(EnumType.ORDINAL)
+    @Column(nullable = false)
+    private ChangeEventType type;
+
+    /**
+     * The ID of the post, friend request, user or profile the event is about.
+     */
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    /**
+     * The domain event as JSON.
+     */
+    @Column(nullable = false, length = 2000)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
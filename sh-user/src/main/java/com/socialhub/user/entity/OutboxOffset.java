@@ -0,0 +1,23 @@
+package com.socialhub.user.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Entity holding the last outbox sequence number a consumer has processed on a shard.
+ */
+@Entity
+@Table(name = "outbox_offsets")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxOffset {
+
+    @Id
+    @Column(length = 100)
+    private String consumer;
+
+    @Column(nullable = false)
+    private long sequenceNumber;
+}
@@ -20,6 +20,9 @@ public class Profile {
     private String bio;
     private String profilePictureUrl;
 
+    @Version
+    private Long version;
+
     @OneToOne
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
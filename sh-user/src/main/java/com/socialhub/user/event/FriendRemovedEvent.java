@@ -0,0 +1,10 @@
+package com.socialhub.user.event;
+
+/**
+ * Published when a user removes a friend.
+ *
+ * @param userId   the ID of the user who removed the friend
+ * @param friendId the ID of the removed friend
+ */
+public record FriendRemovedEvent(Long userId, Long friendId) {
+}
@@ -0,0 +1,12 @@
+package com.socialhub.user.event;
+
+/**
+ * Published when a user accepts a friend request.
+ *
+ * @param requestId        the ID of the accepted friend request
+ * @param accepterId       the ID of the user who accepted the request
+ * @param accepterUsername the username of the user who accepted the request
+ * @param requesterId      the ID of the user who sent the request
+ */
+public record FriendRequestAcceptedEvent(Long requestId, Long accepterId, String accepterUsername, Long requesterId) {
+}
@@ -0,0 +1,11 @@
+package com.socialhub.user.event;
+
+/**
+ * Published when a user declines a friend request.
+ *
+ * @param requestId   the ID of the friend request
+ * @param declinerId  the ID of the user who declined the request
+ * @param requesterId the ID of the user who sent the request
+ */
+public record FriendRequestDeclinedEvent(Long requestId, Long declinerId, Long requesterId) {
+}
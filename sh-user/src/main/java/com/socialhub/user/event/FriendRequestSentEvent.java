@@ -0,0 +1,12 @@
+package com.socialhub.user.event;
+
+/**
+ * Published when a user sends a friend request.
+ *
+ * @param requestId      the ID of the friend request
+ * @param senderId       the ID of the user who sent the request
+ * @param senderUsername the username of the user who sent the request
+ * @param recipientId    the ID of the user receiving the request
+ */
+public record FriendRequestSentEvent(Long requestId, Long senderId, String senderUsername, Long recipientId) {
+}
@@ -0,0 +1,17 @@
+package com.socialhub.user.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a user comments on a post.
+ *
+ * @param postId            the ID of the post
+ * @param postAuthorId      the ID of the post's author
+ * @param commentId         the ID of the new comment
+ * @param commenterId       the ID of the user who commented
+ * @param commenterUsername the username of the user who commented
+ * @param createdAt         when the comment was created
+ */
+public record PostCommentedEvent(Long postId, Long postAuthorId, Long commentId, Long commenterId,
+                                 String commenterUsername, LocalDateTime createdAt) {
+}
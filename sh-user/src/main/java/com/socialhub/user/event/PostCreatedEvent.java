@@ -0,0 +1,16 @@
+package com.socialhub.user.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a user creates a post.
+ *
+ * @param postId         the ID of the new post
+ * @param authorId       the ID of the post's author
+ * @param authorUsername the username of the post's author
+ * @param content        the text content of the post
+ * @param createdAt      when the post was created
+ */
+public record PostCreatedEvent(Long postId, Long authorId, String authorUsername, String content,
+                               LocalDateTime createdAt) {
+}
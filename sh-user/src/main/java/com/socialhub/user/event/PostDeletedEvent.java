@@ -0,0 +1,10 @@
+package com.socialhub.user.event;
+
+/**
+ * Published when an author deletes a post.
+ *
+ * @param postId       the ID of the deleted post
+ * @param postAuthorId the ID of the post's author
+ */
+public record PostDeletedEvent(Long postId, Long postAuthorId) {
+}
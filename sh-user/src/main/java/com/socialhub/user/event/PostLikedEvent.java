@@ -0,0 +1,16 @@
+package com.socialhub.user.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a user likes a post.
+ *
+ * @param postId        the ID of the liked post
+ * @param postAuthorId  the ID of the post's author
+ * @param likerId       the ID of the user who liked the post
+ * @param likerUsername the username of the user who liked the post
+ * @param likedAt       when the like was created
+ */
+public record PostLikedEvent(Long postId, Long postAuthorId, Long likerId, String likerUsername,
+                             LocalDateTime likedAt) {
+}
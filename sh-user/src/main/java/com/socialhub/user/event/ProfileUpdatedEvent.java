@@ -0,0 +1,15 @@
+package com.socialhub.user.event;
+
+/**
+ * Published when a user updates their profile.
+ *
+ * @param profileId the ID of the profile
+ * @param userId    the ID of the profile's user
+ * @param username  the username
+ * @param firstName the first name after the update
+ * @param lastName  the last name after the update
+ * @param version   the profile version after the update
+ */
+public record ProfileUpdatedEvent(Long profileId, Long userId, String username, String firstName, String lastName,
+                                  long version) {
+}
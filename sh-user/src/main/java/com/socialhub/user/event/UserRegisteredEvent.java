@@ -0,0 +1,11 @@
+package com.socialhub.user.event;
+
+/**
+ * Published when a user's local account and default profile are created.
+ *
+ * @param userId    the ID of the new user
+ * @param profileId the ID of the user's profile
+ * @param username  the username
+ */
+public record UserRegisteredEvent(Long userId, Long profileId, String username) {
+}
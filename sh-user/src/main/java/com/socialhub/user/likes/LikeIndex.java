@@ -0,0 +1,232 @@
+package com.socialhub.user.likes;
+
+import com.socialhub.user.bitmap.RoaringBitmap;
+import com.socialhub.user.cluster.ClusterBus;
+import com.socialhub.user.event.PostDeletedEvent;
+import com.socialhub.user.event.PostLikedEvent;
+import com.socialhub.user.outbox.ChangeEventBus;
+import com.socialhub.user.repository.LikeRepository;
+import com.socialhub.user.repository.projection.LikerView;
+import com.socialhub.user.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Who liked which post, as a compressed bitmap of liker IDs per post, so that a page of posts
+ * can be marked "liked by me" without a query per post.
+ * <p>
+ * A post's bitmap is loaded from the likes table the first time the post is looked up; the
+ * posts of a page missing from the index are loaded with one query per shard. New likes are
+ * added as they commit, on this instance or on others, which announce them on the
+ * {@link ClusterBus} and again through the outbox's {@link ChangeEventBus}. Likes from the last {@link #RECENT_LIKES_MILLIS} ms are also replayed into freshly
+ * loaded bitmaps, covering likes that committed while the load was running or that a lagging
+ * replica did not return. Bitmaps of the least recently read posts are dropped once the index
+ * outgrows its memory budget.
+ */
+@Component
+public class LikeIndex {
+
+    static final long RECENT_LIKES_MILLIS = 10_000;
+    static final int MAX_RECENT_LIKES = 10_000;
+    static final String LIKES = "likes";
+    static final String POST_DELETIONS = "post-deletions";
+
+    private static final long MAX_USER_ID = 0xFFFFFFFFL;
+
+    private final Clock clock;
+    private final long maxBytes;
+    private final Function<Collection<Long>, List<LikerView>> loader;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ArrayDeque<RecentLike> recentLikes = new ArrayDeque<>();
+    private long bytes;
+    private ClusterBus clusterBus;
+
+    @Autowired
+    public LikeIndex(LikeIndexProperties properties,
+                     ShardRouter shardRouter,
+                     LikeRepository likeRepository,
+                     ChangeEventBus changeEventBus,
+                     ClusterBus clusterBus) {
+        this(properties, Clock.systemUTC(), postIds -> shardRouter.onEveryShard(true,
+                        shard -> likeRepository.findLikersByPostIdIn(postIds)).values().stream()
+                .flatMap(List::stream)
+                .toList());
+        // Likes made through other instances are announced right away, and arrive through the outbox
+        this.clusterBus = clusterBus;
+        clusterBus.subscribe(LIKES, PostLikedEvent.class, this::add);
+        clusterBus.subscribe(POST_DELETIONS, PostDeletedEvent.class, this::remove);
+        changeEventBus.subscribe(PostLikedEvent.class, this::add);
+        changeEventBus.subscribe(PostDeletedEvent.class, this::remove);
+    }
+
+    LikeIndex(LikeIndexProperties properties, Clock clock, Function<Collection<Long>, List<LikerView>> loader) {
+        this.clock = clock;
+        this.maxBytes = properties.getMaxMemory().toBytes();
+        this.loader = loader;
+    }
+
+    /**
+     * Finds which of the given posts a user liked, loading the likers of posts not yet indexed.
+     *
+     * @param userId  the ID of the user
+     * @param postIds the IDs of the posts
+     * @return the IDs of the posts among them the user liked
+     */
+    public Set<Long> likedBy(Long userId, Collection<Long> postIds) {
+        Set<Long> liked = new HashSet<>();
+        if (userId == null || userId < 0 || userId > MAX_USER_ID) {
+            return liked;
+        }
+        int member = (int) (long) userId;
+        List<Long> missing = lookUp(member, postIds, liked);
+        if (missing.isEmpty()) {
+            return liked;
+        }
+
+        Map<Long, RoaringBitmap> loaded = new HashMap<>();
+        missing.forEach(postId -> loaded.put(postId, new RoaringBitmap()));
+        for (LikerView liker : loader.apply(missing)) {
+            Long likerId = liker.getUserId();
+            if (likerId != null && likerId >= 0 && likerId <= MAX_USER_ID) {
+                loaded.get(liker.getPostId()).add((int) (long) likerId);
+            }
+        }
+        install(loaded);
+        loaded.forEach((postId, bitmap) -> {
+            if (bitmap.contains(member)) {
+                liked.add(postId);
+            }
+        });
+        return liked;
+    }
+
+    /**
+     * @return the number of posts indexed
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return an estimate of the heap the bitmaps occupy, in bytes
+     */
+    public synchronized long sizeInBytes() {
+        return bytes;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostLiked(PostLikedEvent event) {
+        if (clusterBus != null) {
+            clusterBus.publish(LIKES, event);
+        } else {
+            add(event);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostDeleted(PostDeletedEvent event) {
+        if (clusterBus != null) {
+            clusterBus.publish(POST_DELETIONS, event);
+        } else {
+            remove(event);
+        }
+    }
+
+    private synchronized void add(PostLikedEvent event) {
+        Long likerId = event.likerId();
+        if (likerId == null || likerId < 0 || likerId > MAX_USER_ID) {
+            return;
+        }
+        long now = clock.millis();
+        recentLikes.addLast(new RecentLike(event.postId(), (int) (long) likerId, now));
+        while (recentLikes.size() > MAX_RECENT_LIKES || recentLikes.getFirst().time() < now - RECENT_LIKES_MILLIS) {
+            recentLikes.removeFirst();
+        }
+        Entry entry = entries.get(event.postId());
+        if (entry != null) {
+            entry.bitmap().add((int) (long) likerId);
+            resize(event.postId(), entry);
+        }
+    }
+
+    private synchronized void remove(PostDeletedEvent event) {
+        Entry entry = entries.remove(event.postId());
+        if (entry != null) {
+            bytes -= entry.bytes();
+        }
+    }
+
+    /**
+     * Answers from the index where it can and lists the posts it has to load.
+     */
+    private synchronized List<Long> lookUp(int member, Collection<Long> postIds, Set<Long> liked) {
+        List<Long> missing = new ArrayList<>();
+        for (Long postId : postIds) {
+            Entry entry = entries.get(postId);
+            if (entry == null) {
+                if (!missing.contains(postId)) {
+                    missing.add(postId);
+                }
+            } else if (entry.bitmap().contains(member)) {
+                liked.add(postId);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Adds loaded bitmaps, with the recent likes replayed into them, unless another load got
+     * there first, and drops the least recently read bitmaps beyond the memory budget.
+     */
+    private synchronized void install(Map<Long, RoaringBitmap> loaded) {
+        for (RecentLike like : recentLikes) {
+            RoaringBitmap bitmap = loaded.get(like.postId());
+            if (bitmap != null) {
+                bitmap.add(like.userId());
+            }
+        }
+        loaded.forEach((postId, bitmap) -> {
+            if (!entries.containsKey(postId)) {
+                Entry entry = new Entry(bitmap, bitmap.sizeInBytes());
+                entries.put(postId, entry);
+                bytes += entry.bytes();
+            }
+        });
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().bytes();
+            eldest.remove();
+        }
+    }
+
+    private void resize(Long postId, Entry entry) {
+        long resized = entry.bitmap().sizeInBytes();
+        if (resized != entry.bytes()) {
+            bytes += resized - entry.bytes();
+            entries.put(postId, new Entry(entry.bitmap(), resized));
+        }
+    }
+
+    /**
+     * A post's likers and the heap they were last measured to take.
+     */
+    private record Entry(RoaringBitmap bitmap, long bytes) {
+    }
+
+    private record RecentLike(Long postId, int userId, long time) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.socialhub.user.likes;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the like index settings.
+ */
+@Configuration
+@EnableConfigurationProperties(LikeIndexProperties.class)
+public class LikeIndexConfig {
+}
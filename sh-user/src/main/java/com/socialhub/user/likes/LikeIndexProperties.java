@@ -0,0 +1,18 @@
+package com.socialhub.user.likes;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings of the in-memory index of who liked which post.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.likes")
+public class LikeIndexProperties {
+
+    /**
+     * Heap the likers' bitmaps may take; the bitmaps of the least recently read posts are dropped beyond it.
+     */
+    private DataSize maxMemory = DataSize.ofMegabytes(64);
+}
@@ -0,0 +1,243 @@
+package com.socialhub.user.notification;
+
+import com.socialhub.user.cluster.ClusterBus;
+import com.socialhub.user.dto.NotificationResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process fan-out of notifications to the users' open SSE streams.
+ * <p>
+ * Streams are held as async requests, so an idle stream costs a socket and a few small
+ * objects but no thread. Publishing never blocks on the network: events are queued per
+ * connection and written by a small writer pool. A write the client has not accepted
+ * within {@code write-timeout} is given up on: the stream is closed, and the pool gets a
+ * thread in place of the one waiting until the container times the write out, so clients
+ * that stop reading cannot hold up the others. The most recent notifications of each
+ * user are kept for a short window so a reconnecting client can resume with
+ * {@code Last-Event-ID}.
+ * <p>
+ * Notifications are published on the {@link ClusterBus}, so every instance delivers them to
+ * the streams it holds and keeps them for replay, whichever instance created them or the
+ * client reconnects to.
+ */
+@Slf4j
+@Component
+public class NotificationBus {
+
+    static final String TOPIC = "notifications";
+
+    private final NotificationProperties properties;
+    private final ClusterBus clusterBus;
+    private final Map<Long, Set<SseSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Long, ReplayBuffer> replayBuffers = new ConcurrentHashMap<>();
+    /**
+     * Streams whose emitter has not been completed yet, including closed ones still waiting on a write.
+     */
+    private final Set<SseSubscriber> connections = ConcurrentHashMap.newKeySet();
+    /**
+     * Streams given up on while a write was waiting; each has a thread added to the pool.
+     */
+    private final Set<SseSubscriber> stalled = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor writers;
+
+    public NotificationBus(NotificationProperties properties, ClusterBus clusterBus) {
+        this.properties = properties;
+        this.clusterBus = clusterBus;
+        this.writers = new ThreadPoolExecutor(properties.getWriterThreads(), properties.getWriterThreads(),
+                1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), new CustomizableThreadFactory("notification-writer-"));
+        clusterBus.subscribe(TOPIC, Delivery.class, delivery -> deliver(delivery.recipientId(), delivery.notification()));
+    }
+
+    /**
+     * Opens a stream for a user, first replaying notifications newer than the last one
+     * the client received.
+     *
+     * @param userId      the ID of the subscribing user
+     * @param lastEventId the ID of the last notification received, or null
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        return subscribe(userId, lastEventId, new SseEmitter(properties.getStreamTimeout().toMillis()));
+    }
+
+    SseEmitter subscribe(Long userId, Long lastEventId, SseEmitter emitter) {
+        SseSubscriber subscriber = new SseSubscriber(userId, emitter, properties.getConnectionBufferSize(),
+                writers, this::unsubscribe);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        connections.add(subscriber);
+
+        ReplayBuffer replay = replayBuffers.computeIfAbsent(userId, id -> new ReplayBuffer());
+        synchronized (replay) {
+            if (lastEventId != null) {
+                replay.after(lastEventId).forEach(subscriber::offer);
+            }
+            subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+        // an initial heartbeat flushes the response headers to the client
+        subscriber.offerHeartbeat();
+        return emitter;
+    }
+
+    /**
+     * Delivers a notification to every open stream of the recipient, on every instance.
+     *
+     * @param recipientId  the ID of the user to notify
+     * @param notification the notification; its ID must be greater than any earlier one
+     */
+    public void publish(Long recipientId, NotificationResponse notification) {
+        clusterBus.publish(TOPIC, new Delivery(recipientId, notification));
+    }
+
+    private void deliver(Long recipientId, NotificationResponse notification) {
+        ReplayBuffer replay = replayBuffers.computeIfAbsent(recipientId, id -> new ReplayBuffer());
+        synchronized (replay) {
+            replay.add(notification, properties.getReplaySize());
+            Set<SseSubscriber> userSubscribers = subscribers.get(recipientId);
+            if (userSubscribers != null) {
+                userSubscribers.forEach(subscriber -> subscriber.offer(notification));
+            }
+        }
+    }
+
+    /**
+     * @return the number of open streams on this instance
+     */
+    public int getConnectionCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Sends a heartbeat comment on every stream, which finds clients that went away.
+     */
+    @Scheduled(fixedDelayString = "${socialhub.notifications.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(SseSubscriber::offerHeartbeat));
+    }
+
+    /**
+     * Closes streams whose write has waited longer than the write timeout and replaces
+     * the writer threads they hold; takes the extra threads back once those writes return.
+     */
+    @Scheduled(fixedDelayString = "${socialhub.notifications.write-timeout:PT10S}")
+    public void abandonStalledWrites() {
+        long now = System.nanoTime();
+        for (SseSubscriber subscriber : connections) {
+            if (subscriber.isFinished()) {
+                connections.remove(subscriber);
+                if (stalled.remove(subscriber)) {
+                    resizeWriters(-1);
+                }
+            } else if (!stalled.contains(subscriber) && subscriber.isStalled(now, properties.getWriteTimeout())) {
+                log.info("Closing notification stream of user {}: write blocked for over {}",
+                        subscriber.getUserId(), properties.getWriteTimeout());
+                stalled.add(subscriber);
+                resizeWriters(1);
+                subscriber.close();
+            }
+        }
+    }
+
+    /**
+     * @return the number of threads writing to streams
+     */
+    int getWriterThreads() {
+        return writers.getCorePoolSize();
+    }
+
+    /**
+     * Forgets notifications older than the replay window.
+     */
+    @Scheduled(fixedDelayString = "${socialhub.notifications.replay-window:PT5M}")
+    public void pruneReplayBuffers() {
+        long cutoff = System.currentTimeMillis() - properties.getReplayWindow().toMillis();
+        replayBuffers.forEach((userId, replay) -> {
+            synchronized (replay) {
+                replay.removeOlderThan(cutoff);
+                if (replay.isEmpty()) {
+                    replayBuffers.remove(userId, replay);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.forEach(SseSubscriber::close);
+        writers.shutdown();
+    }
+
+    private void resizeWriters(int delta) {
+        int size = writers.getCorePoolSize() + delta;
+        if (delta > 0) {
+            writers.setMaximumPoolSize(size);
+            writers.setCorePoolSize(size);
+        } else {
+            writers.setCorePoolSize(size);
+            writers.setMaximumPoolSize(size);
+        }
+    }
+
+    private void unsubscribe(SseSubscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.getUserId(), (userId, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    /**
+     * A notification and its recipient, as sent to the other instances.
+     */
+    record Delivery(Long recipientId, NotificationResponse notification) {
+    }
+
+    /**
+     * Recent notifications of one user, oldest first. Guarded by its own monitor.
+     */
+    private static final class ReplayBuffer {
+
+        private final Deque<Entry> entries = new ArrayDeque<>();
+
+        void add(NotificationResponse notification, int maxSize) {
+            entries.addLast(new Entry(notification, System.currentTimeMillis()));
+            while (entries.size() > maxSize) {
+                entries.removeFirst();
+            }
+        }
+
+        Iterable<NotificationResponse> after(long lastEventId) {
+            return entries.stream()
+                    .map(Entry::notification)
+                    .filter(notification -> notification.getId() > lastEventId)
+                    .toList();
+        }
+
+        void removeOlderThan(long cutoffMillis) {
+            while (!entries.isEmpty() && entries.peekFirst().publishedAt() < cutoffMillis) {
+                entries.removeFirst();
+            }
+        }
+
+        boolean isEmpty() {
+            return entries.isEmpty();
+        }
+
+        private record Entry(NotificationResponse notification, long publishedAt) {
+        }
+    }
+}
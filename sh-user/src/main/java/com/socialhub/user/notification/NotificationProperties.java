@@ -0,0 +1,79 @@
+package com.socialhub.user.notification;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the notification stream.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.notifications")
+public class NotificationProperties {
+
+    /**
+     * How long a stream stays open before the client has to reconnect.
+     */
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    /**
+     * Interval between heartbeat comments, which keep proxies from closing idle streams
+     * and detect dead connections.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * Events queued per connection; a connection falling further behind is closed and
+     * has to resume with Last-Event-ID.
+     */
+    private int connectionBufferSize = 256;
+
+    /**
+     * Number of recent notifications kept per user for Last-Event-ID resume.
+     */
+    private int replaySize = 100;
+
+    /**
+     * How long notifications stay available for Last-Event-ID resume.
+     */
+    private Duration replayWindow = Duration.ofMinutes(5);
+
+    /**
+     * Threads writing events to connections.
+     */
+    private int writerThreads = 4;
+
+    /**
+     * How long a write may wait on a client that stopped reading before its connection is
+     * closed and its writer thread replaced.
+     */
+    private Duration writeTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Written into the low bits of the IDs of the notifications this instance records, from 0
+     * to 1023, so that instances recording notifications within the same microsecond produce
+     * distinct IDs. Derived from the instance's ID in the cluster when not set.
+     */
+    private Integer nodeId;
+
+    /**
+     * How long notifications are kept in the inbox.
+     */
+    private Duration inboxRetention = Duration.ofDays(30);
+
+    /**
+     * Interval between runs deleting notifications older than the retention.
+     */
+    private Duration inboxPruneInterval = Duration.ofHours(1);
+
+    /**
+     * Expired notifications deleted per transaction; small batches keep row locks short.
+     */
+    private int inboxPruneBatchSize = 1000;
+
+    /**
+     * Largest page of the inbox returned at once.
+     */
+    private int inboxMaxPageSize = 100;
+}
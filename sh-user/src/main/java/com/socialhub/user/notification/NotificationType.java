@@ -0,0 +1,12 @@
+package com.socialhub.user.notification;
+
+/**
+ * Kinds of activity a user is notified about.
+ * Stored in the inbox by ordinal, so new kinds must be added at the end.
+ */
+public enum NotificationType {
+    POST_LIKED,
+    POST_COMMENTED,
+    FRIEND_REQUEST_RECEIVED,
+    FRIEND_REQUEST_ACCEPTED
+}
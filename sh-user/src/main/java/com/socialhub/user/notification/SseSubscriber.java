@@ -0,0 +1,162 @@
+package com.socialhub.user.notification;
+
+import com.socialhub.user.dto.NotificationResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * One open notification stream with its bounded outgoing queue.
+ * <p>
+ * Publishers only enqueue; a writer thread drains the queue into the emitter, and at most
+ * one drain runs per connection at a time. An idle connection holds no thread and an
+ * empty queue. The emitter is only ever completed from a drain, because completing it
+ * waits for a write in progress, and a client that stopped reading must not block the
+ * publisher closing its stream.
+ */
+final class SseSubscriber {
+
+    /**
+     * Queue marker for a heartbeat comment.
+     */
+    private static final NotificationResponse HEARTBEAT = new NotificationResponse();
+
+    private final Long userId;
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final Executor writers;
+    private final Consumer<SseSubscriber> onClosed;
+    private final Queue<NotificationResponse> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closing = new AtomicBoolean();
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private volatile boolean writing;
+    private volatile long writeStartedAt;
+
+    /**
+     * @param writers  the pool running drains
+     * @param onClosed called once when the connection is closed, by either side
+     */
+    SseSubscriber(Long userId, SseEmitter emitter, int capacity, Executor writers,
+                  Consumer<SseSubscriber> onClosed) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.writers = writers;
+        this.onClosed = onClosed;
+    }
+
+    Long getUserId() {
+        return userId;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    boolean isClosed() {
+        return closing.get();
+    }
+
+    /**
+     * @return whether the emitter has been completed and no write is in progress
+     */
+    boolean isFinished() {
+        return completed.get() && !writing;
+    }
+
+    /**
+     * @return whether a write has been waiting on the client for longer than the timeout
+     */
+    boolean isStalled(long nowNanos, Duration timeout) {
+        return writing && nowNanos - writeStartedAt > timeout.toNanos();
+    }
+
+    /**
+     * Queues a notification and schedules a drain. Closes the connection if its queue is
+     * full, so one slow client cannot hold unbounded memory; it resumes from its
+     * Last-Event-ID.
+     *
+     * @return true if the notification was queued
+     */
+    boolean offer(NotificationResponse notification) {
+        if (closing.get()) {
+            return false;
+        }
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            close();
+            return false;
+        }
+        queue.add(notification);
+        writers.execute(this::drain);
+        return true;
+    }
+
+    boolean offerHeartbeat() {
+        return offer(HEARTBEAT);
+    }
+
+    /**
+     * Writes queued events to the connection, or completes it once closed. Called from a
+     * writer thread.
+     */
+    void drain() {
+        while ((closing.get() ? !completed.get() : !queue.isEmpty()) && draining.compareAndSet(false, true)) {
+            try {
+                NotificationResponse notification;
+                while (!closing.get() && (notification = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    write(notification);
+                }
+                if (closing.get() && completed.compareAndSet(false, true)) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // the client went away or the request already completed
+                completed.set(true);
+                close();
+                emitter.completeWithError(ex);
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    /**
+     * Stops delivering to the connection and completes it from a writer thread.
+     */
+    void close() {
+        if (closing.compareAndSet(false, true)) {
+            queue.clear();
+            onClosed.accept(this);
+            if (!completed.get()) {
+                writers.execute(this::drain);
+            }
+        }
+    }
+
+    private void write(NotificationResponse notification) throws IOException {
+        writeStartedAt = System.nanoTime();
+        writing = true;
+        try {
+            emitter.send(notification == HEARTBEAT
+                    ? SseEmitter.event().comment("heartbeat")
+                    : SseEmitter.event()
+                            .id(notification.getId().toString())
+                            .name(notification.getType().name())
+                            .data(notification, MediaType.APPLICATION_JSON));
+        } finally {
+            writing = false;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.socialhub.user.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change read from a shard's outbox, as handed to sinks.
+ *
+ * @param shard          the shard whose outbox recorded the change
+ * @param sequenceNumber the position of the change in the shard's change log; consumers store it as their offset
+ * @param type           the kind of change
+ * @param aggregateId    the ID of the post, friend request, user or profile the change is about
+ * @param payload        the domain event as JSON
+ * @param createdAt      when the change was written
+ */
+public record ChangeEvent(String shard,
+                          long sequenceNumber,
+                          ChangeEventType type,
+                          Long aggregateId,
+                          @JsonRawValue String payload,
+                          LocalDateTime createdAt) {
+}
@@ -0,0 +1,84 @@
+package com.socialhub.user.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process sink: hands change events to subscribers on this instance.
+ * <p>
+ * Every instance tails the outbox on its own, starting from the end of the log at startup, so
+ * subscribers see changes made through any instance. That suits state that is rebuilt on
+ * startup anyway, such as caches and in-memory indexes. Subscribers run on the relay thread and
+ * should return quickly.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChangeEventBus implements ChangeEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final List<Consumer<ChangeEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Subscribes to all change events.
+     *
+     * @param subscriber called with each event, in sequence order per shard
+     */
+    public void subscribe(Consumer<ChangeEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Subscribes to the changes carrying one kind of domain event.
+     *
+     * @param eventClass the domain event class
+     * @param subscriber called with each domain event, in sequence order per shard
+     */
+    public <T> void subscribe(Class<T> eventClass, Consumer<T> subscriber) {
+        ChangeEventType type = ChangeEventType.of(eventClass);
+        subscribe(event -> {
+            if (event.type() == type) {
+                subscriber.accept(decode(event, eventClass));
+            }
+        });
+    }
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    @Override
+    public String consumerName() {
+        return null;
+    }
+
+    @Override
+    public void publish(List<ChangeEvent> events) {
+        for (ChangeEvent event : events) {
+            for (Consumer<ChangeEvent> subscriber : subscribers) {
+                try {
+                    subscriber.accept(event);
+                } catch (RuntimeException ex) {
+                    log.warn("Change event subscriber failed on {} #{} of shard {}",
+                            event.type(), event.sequenceNumber(), event.shard(), ex);
+                }
+            }
+        }
+    }
+
+    private <T> T decode(ChangeEvent event, Class<T> eventClass) {
+        try {
+            return objectMapper.readValue(event.payload(), eventClass);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read " + event.type() + " #" + event.sequenceNumber(), ex);
+        }
+    }
+}
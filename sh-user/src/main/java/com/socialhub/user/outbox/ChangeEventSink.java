@@ -0,0 +1,35 @@
+package com.socialhub.user.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination the {@link OutboxRelay} publishes change events to.
+ * <p>
+ * Delivery is at least once: the relay advances the sink's offset only after {@link #publish}
+ * returns, so events published before a failure or a crash are published again.
+ */
+public interface ChangeEventSink {
+
+    /**
+     * @return the name selecting this sink in {@code socialhub.outbox.sinks}
+     */
+    String name();
+
+    /**
+     * Names the offset this sink advances in each shard's {@code outbox_offsets}. Instances sharing
+     * a consumer name share the offset, and the row lock lets only one of them publish each batch.
+     *
+     * @return the consumer name, or null to keep the offset in memory, starting from the end of the
+     * log at startup
+     */
+    String consumerName();
+
+    /**
+     * Publishes events of one shard, in sequence order.
+     *
+     * @param events the events
+     * @throws IOException if the events could not be published; they are retried on the next run
+     */
+    void publish(List<ChangeEvent> events) throws IOException;
+}
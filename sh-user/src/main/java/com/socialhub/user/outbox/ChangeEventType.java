@@ -0,0 +1,58 @@
+package com.socialhub.user.outbox;
+
+import com.socialhub.user.event.FriendRemovedEvent;
+import com.socialhub.user.event.FriendRequestAcceptedEvent;
+import com.socialhub.user.event.FriendRequestDeclinedEvent;
+import com.socialhub.user.event.FriendRequestSentEvent;
+import com.socialhub.user.event.PostCommentedEvent;
+import com.socialhub.user.event.PostCreatedEvent;
+import com.socialhub.user.event.PostDeletedEvent;
+import com.socialhub.user.event.PostLikedEvent;
+import com.socialhub.user.event.ProfileUpdatedEvent;
+import com.socialhub.user.event.UserRegisteredEvent;
+
+/**
+ * Kinds of change recorded in the outbox, each carrying one domain event as its payload.
+ * Stored by ordinal, so new kinds must be added at the end.
+ */
+public enum ChangeEventType {
+    USER_REGISTERED(UserRegisteredEvent.class),
+    PROFILE_UPDATED(ProfileUpdatedEvent.class),
+    POST_CREATED(PostCreatedEvent.class),
+    POST_DELETED(PostDeletedEvent.class),
+    POST_LIKED(PostLikedEvent.class),
+    POST_COMMENTED(PostCommentedEvent.class),
+    FRIEND_REQUEST_SENT(FriendRequestSentEvent.class),
+    FRIEND_REQUEST_ACCEPTED(FriendRequestAcceptedEvent.class),
+    FRIEND_REQUEST_DECLINED(FriendRequestDeclinedEvent.class),
+    FRIEND_REMOVED(FriendRemovedEvent.class);
+
+    private final Class<?> eventClass;
+
+    ChangeEventType(Class<?> eventClass) {
+        this.eventClass = eventClass;
+    }
+
+    /**
+     * @return the class of the domain event carried as payload
+     */
+    public Class<?> getEventClass() {
+        return eventClass;
+    }
+
+    /**
+     * Finds the change type carrying events of the given class.
+     *
+     * @param eventClass the domain event class
+     * @return the change type
+     * @throws IllegalArgumentException if no change type carries the class
+     */
+    public static ChangeEventType of(Class<?> eventClass) {
+        for (ChangeEventType type : values()) {
+            if (type.eventClass == eventClass) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("No change event type for " + eventClass.getName());
+    }
+}
@@ -0,0 +1,45 @@
+package com.socialhub.user.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Stand-in for a message broker: writes each change event as one JSON line to the
+ * {@code socialhub.changes} logger.
+ * <p>
+ * Its offset is shared by all instances, so like a broker producer each event is published by
+ * exactly one of them, at least once. A Kafka or RabbitMQ producer would implement
+ * {@link ChangeEventSink} the same way, returning from {@link #publish} once the broker has
+ * acknowledged the batch.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoggingChangeEventSink implements ChangeEventSink {
+
+    private static final Logger CHANGES = LoggerFactory.getLogger("socialhub.changes");
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public String consumerName() {
+        return "log";
+    }
+
+    @Override
+    public void publish(List<ChangeEvent> events) throws IOException {
+        for (ChangeEvent event : events) {
+            CHANGES.info(objectMapper.writeValueAsString(event));
+        }
+    }
+}
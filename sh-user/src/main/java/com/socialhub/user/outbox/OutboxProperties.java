@@ -0,0 +1,63 @@
+package com.socialhub.user.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings of the transactional outbox and its relay.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.outbox")
+public class OutboxProperties {
+
+    /**
+     * Whether writes append change events to the outbox and the relay publishes them.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Sinks the relay publishes to: {@code memory} (in-process {@link ChangeEventBus}),
+     * {@code activity-log} (local segmented log, see {@link com.socialhub.user.activitylog.ActivityLog})
+     * and {@code log} (broker stand-in).
+     */
+    private List<String> sinks = List.of("memory", "activity-log");
+
+    /**
+     * Interval between relay runs.
+     */
+    private Duration relayInterval = Duration.ofMillis(200);
+
+    /**
+     * Events sequenced or published per shard and sink in one transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Batches per shard and sink in one relay run, so that one backlog does not hold up the others.
+     */
+    private int maxBatchesPerRun = 10;
+
+    /**
+     * How long published events stay in the outbox for consumers catching up.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Interval between deletions of expired events.
+     */
+    private Duration pruneInterval = Duration.ofHours(1);
+
+    /**
+     * Events deleted per statement when pruning.
+     */
+    private int pruneBatchSize = 1000;
+
+    /**
+     * Name of this instance in the offsets of instance-local sinks; the host name when not set.
+     * Must stay the same across restarts for the {@code activity-log} sink to resume where it stopped.
+     */
+    private String instanceId;
+}
@@ -0,0 +1,215 @@
+package com.socialhub.user.outbox;
+
+import com.socialhub.user.cluster.ClusterMembership;
+import com.socialhub.user.entity.OutboxEvent;
+import com.socialhub.user.entity.OutboxOffset;
+import com.socialhub.user.repository.OutboxEventRepository;
+import com.socialhub.user.repository.OutboxOffsetRepository;
+import com.socialhub.user.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Tails the outbox of every shard and publishes its events to the configured sinks.
+ * <p>
+ * Outbox IDs are not a usable log position: sharded writes draw them with the bucket's identity
+ * stride and transactions commit out of ID order. Each run therefore first gives committed,
+ * unsequenced events the next sequence numbers of their shard while holding the shard's
+ * sequencer row lock, so sequence numbers are dense and never assigned behind a consumer's
+ * offset. Sinks then read strictly by sequence number from their offset.
+ * <p>
+ * Any instance may run the relay; row locks on {@code outbox_offsets} keep instances from
+ * sequencing or publishing the same events twice for shared consumers.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    static final String SEQUENCER = "_sequencer";
+
+    private final OutboxProperties properties;
+    private final ShardRouter shardRouter;
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxOffsetRepository outboxOffsetRepository;
+    private final ClusterMembership clusterMembership;
+    private final List<ChangeEventSink> sinks;
+    private final Map<String, Long> localOffsets = new ConcurrentHashMap<>();
+
+    public OutboxRelay(OutboxProperties properties,
+                       ShardRouter shardRouter,
+                       OutboxEventRepository outboxEventRepository,
+                       OutboxOffsetRepository outboxOffsetRepository,
+                       ClusterMembership clusterMembership,
+                       List<ChangeEventSink> availableSinks) {
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxOffsetRepository = outboxOffsetRepository;
+        this.clusterMembership = clusterMembership;
+
+        Map<String, ChangeEventSink> byName = availableSinks.stream()
+                .collect(Collectors.toMap(ChangeEventSink::name, sink -> sink));
+        this.sinks = properties.getSinks().stream()
+                .map(name -> {
+                    ChangeEventSink sink = byName.get(name);
+                    if (sink == null) {
+                        throw new IllegalArgumentException("Unknown outbox sink '" + name + "', expected one of "
+                                + byName.keySet());
+                    }
+                    return sink;
+                })
+                .toList();
+    }
+
+    /**
+     * Sequences new events and publishes them to every sink, shard by shard.
+     */
+    @Scheduled(fixedDelayString = "${socialhub.outbox.relay-interval:PT0.2S}")
+    public void relay() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (String shard : shardRouter.getShards()) {
+            try {
+                repeat(() -> assignSequenceNumbers(shard));
+            } catch (RuntimeException ex) {
+                log.warn("Sequencing the outbox of shard {} failed, retrying on the next run", shard, ex);
+            }
+            for (ChangeEventSink sink : sinks) {
+                try {
+                    repeat(() -> publish(shard, sink));
+                } catch (RuntimeException ex) {
+                    log.warn("Publishing the outbox of shard {} to the {} sink failed, retrying on the next run",
+                            shard, sink.name(), ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes published events older than the retention period. Consumers further behind than
+     * that miss them. Runs on the instance owning the job only.
+     */
+    @Scheduled(initialDelayString = "${socialhub.outbox.prune-interval:PT1H}",
+            fixedDelayString = "${socialhub.outbox.prune-interval:PT1H}")
+    public void prune() {
+        if (!clusterMembership.owns("outbox-prune")) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRetention());
+        for (String shard : shardRouter.getShards()) {
+            int deleted;
+            do {
+                deleted = shardRouter.inShard(shard, false,
+                        () -> outboxEventRepository.deleteSequencedBefore(cutoff, properties.getPruneBatchSize()));
+            } while (deleted == properties.getPruneBatchSize());
+        }
+    }
+
+    /**
+     * Gives the oldest unsequenced events of a shard the next sequence numbers.
+     *
+     * @param shard the shard
+     * @return the number of events sequenced
+     */
+    int assignSequenceNumbers(String shard) {
+        return shardRouter.inShard(shard, false, () -> {
+            OutboxOffset sequencer = lockOffset(SEQUENCER);
+            List<OutboxEvent> events = outboxEventRepository.findUnsequenced(PageRequest.of(0, properties.getBatchSize()));
+            long sequenceNumber = sequencer.getSequenceNumber();
+            for (OutboxEvent event : events) {
+                event.setSequenceNumber(++sequenceNumber);
+            }
+            sequencer.setSequenceNumber(sequenceNumber);
+            return events.size();
+        });
+    }
+
+    /**
+     * Publishes the next batch of a shard's events to a sink and advances the sink's offset.
+     *
+     * @param shard the shard
+     * @param sink  the sink
+     * @return the number of events published
+     */
+    int publish(String shard, ChangeEventSink sink) {
+        if (sink.consumerName() == null) {
+            return publishFromLocalOffset(shard, sink);
+        }
+        return shardRouter.inShard(shard, false, () -> {
+            OutboxOffset offset = lockOffset(sink.consumerName());
+            List<ChangeEvent> events = findAfter(shard, offset.getSequenceNumber());
+            if (!events.isEmpty()) {
+                publish(sink, events);
+                offset.setSequenceNumber(events.get(events.size() - 1).sequenceNumber());
+            }
+            return events.size();
+        });
+    }
+
+    private int publishFromLocalOffset(String shard, ChangeEventSink sink) {
+        String key = sink.name() + "@" + shard;
+        // The sink itself stands in for the offset row lock, so concurrent runs deliver each event once
+        synchronized (sink) {
+            Long offset = localOffsets.get(key);
+            if (offset == null) {
+                Long last = shardRouter.inShard(shard, true, outboxEventRepository::findLastSequenceNumber);
+                localOffsets.put(key, last != null ? last : 0L);
+                return 0;
+            }
+            List<ChangeEvent> events = shardRouter.inShard(shard, true, () -> findAfter(shard, offset));
+            if (!events.isEmpty()) {
+                publish(sink, events);
+                localOffsets.put(key, events.get(events.size() - 1).sequenceNumber());
+            }
+            return events.size();
+        }
+    }
+
+    private List<ChangeEvent> findAfter(String shard, long sequenceNumber) {
+        return outboxEventRepository.findAfter(sequenceNumber, PageRequest.of(0, properties.getBatchSize())).stream()
+                .map(event -> new ChangeEvent(shard, event.getSequenceNumber(), event.getType(),
+                        event.getAggregateId(), event.getPayload(), event.getCreatedAt()))
+                .toList();
+    }
+
+    private OutboxOffset lockOffset(String consumer) {
+        // Lock before inserting: INSERT IGNORE on an existing row takes a shared lock, and two
+        // relays upgrading their shared locks would deadlock
+        return outboxOffsetRepository.findForUpdate(consumer).orElseGet(() -> {
+            outboxOffsetRepository.insertIfAbsent(consumer, 0);
+            return outboxOffsetRepository.findForUpdate(consumer)
+                    .orElseThrow(() -> new IllegalStateException("Offset of " + consumer + " disappeared"));
+        });
+    }
+
+    private static void publish(ChangeEventSink sink, List<ChangeEvent> events) {
+        try {
+            sink.publish(events);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Publishing to the " + sink.name() + " sink failed", ex);
+        }
+    }
+
+    /**
+     * Runs a batch step again while it processes full batches, up to the per-run limit.
+     */
+    private void repeat(IntSupplier step) {
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            if (step.getAsInt() < properties.getBatchSize()) {
+                return;
+            }
+        }
+    }
+}
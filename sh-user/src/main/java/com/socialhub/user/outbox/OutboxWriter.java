@@ -0,0 +1,106 @@
+package com.socialhub.user.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialhub.user.entity.OutboxEvent;
+import com.socialhub.user.event.FriendRemovedEvent;
+import com.socialhub.user.event.FriendRequestAcceptedEvent;
+import com.socialhub.user.event.FriendRequestDeclinedEvent;
+import com.socialhub.user.event.FriendRequestSentEvent;
+import com.socialhub.user.event.PostCommentedEvent;
+import com.socialhub.user.event.PostCreatedEvent;
+import com.socialhub.user.event.PostDeletedEvent;
+import com.socialhub.user.event.PostLikedEvent;
+import com.socialhub.user.event.ProfileUpdatedEvent;
+import com.socialhub.user.event.UserRegisteredEvent;
+import com.socialhub.user.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Appends every domain event to the outbox. The listeners run synchronously while the event is
+ * published, inside the transaction making the change and on the same shard, so the outbox row
+ * commits or rolls back together with the change.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    public void onUserRegistered(UserRegisteredEvent event) {
+        append(event.userId(), event);
+    }
+
+    @EventListener
+    public void onProfileUpdated(ProfileUpdatedEvent event) {
+        append(event.profileId(), event);
+    }
+
+    @EventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        append(event.postId(), event);
+    }
+
+    @EventListener
+    public void onPostDeleted(PostDeletedEvent event) {
+        append(event.postId(), event);
+    }
+
+    @EventListener
+    public void onPostLiked(PostLikedEvent event) {
+        append(event.postId(), event);
+    }
+
+    @EventListener
+    public void onPostCommented(PostCommentedEvent event) {
+        append(event.postId(), event);
+    }
+
+    @EventListener
+    public void onFriendRequestSent(FriendRequestSentEvent event) {
+        append(event.requestId(), event);
+    }
+
+    @EventListener
+    public void onFriendRequestAccepted(FriendRequestAcceptedEvent event) {
+        append(event.requestId(), event);
+    }
+
+    @EventListener
+    public void onFriendRequestDeclined(FriendRequestDeclinedEvent event) {
+        append(event.requestId(), event);
+    }
+
+    @EventListener
+    public void onFriendRemoved(FriendRemovedEvent event) {
+        append(event.userId(), event);
+    }
+
+    private void append(Long aggregateId, Object event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize " + event.getClass().getSimpleName(), ex);
+        }
+        outboxEventRepository.save(OutboxEvent.builder()
+                .type(ChangeEventType.of(event.getClass()))
+                .aggregateId(aggregateId)
+                .payload(payload)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
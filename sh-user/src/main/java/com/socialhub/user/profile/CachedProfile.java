@@ -0,0 +1,22 @@
+package com.socialhub.user.profile;
+
+import com.socialhub.user.dto.UserProfileResponse;
+
+/**
+ * A profile response together with the profile version it was built from.
+ *
+ * @param profileId the ID of the profile
+ * @param version   the version of the profile row
+ * @param response  the response body; shared between requests and never modified
+ */
+public record CachedProfile(Long profileId, long version, UserProfileResponse response) {
+
+    /**
+     * Returns the strong entity tag of this profile version, quoted as sent in the ETag header.
+     *
+     * @return the entity tag
+     */
+    public String etag() {
+        return "\"" + profileId + "-" + version + "\"";
+    }
+}
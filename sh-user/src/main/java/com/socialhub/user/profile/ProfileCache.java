@@ -0,0 +1,146 @@
+package com.socialhub.user.profile;
+
+import com.socialhub.user.cluster.ClusterBus;
+import com.socialhub.user.event.ProfileUpdatedEvent;
+import com.socialhub.user.outbox.ChangeEventBus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded, least-recently-read cache of profile responses, looked up by profile ID, user ID or username.
+ * <p>
+ * Every entry carries the profile version it was read at. An update replaces the entry with a
+ * marker holding the new version, so a read that started before the update, or that was served
+ * by a lagging replica, cannot put the old version back. Entries expire after the configured
+ * TTL. Updates made through other instances are announced to this one right after they commit
+ * on the {@link ClusterBus}, and arrive again through the outbox's {@link ChangeEventBus} in case
+ * the announcement was lost; the TTL bounds staleness when both fall behind.
+ */
+@Component
+public class ProfileCache {
+
+    static final String INVALIDATIONS = "profile-invalidations";
+
+    private final Clock clock;
+    private final long ttlMillis;
+    private final Map<Long, Entry> entries;
+    private final Map<String, Long> profileIdsByUsername;
+    private final Map<Long, Long> profileIdsByUserId;
+    private ClusterBus clusterBus;
+
+    @Autowired
+    public ProfileCache(ProfileProperties properties, ChangeEventBus changeEventBus, ClusterBus clusterBus) {
+        this(properties, Clock.systemUTC());
+        // Updates made through other instances are announced right away, and arrive through the outbox
+        this.clusterBus = clusterBus;
+        clusterBus.subscribe(INVALIDATIONS, ProfileUpdatedEvent.class, this::invalidate);
+        changeEventBus.subscribe(ProfileUpdatedEvent.class, this::invalidate);
+    }
+
+    ProfileCache(ProfileProperties properties, Clock clock) {
+        this.clock = clock;
+        this.ttlMillis = properties.getCacheTtl().toMillis();
+        this.entries = leastRecentlyRead(properties.getCacheSize());
+        this.profileIdsByUsername = leastRecentlyRead(properties.getCacheSize());
+        this.profileIdsByUserId = leastRecentlyRead(properties.getCacheSize());
+    }
+
+    /**
+     * Returns the cached profile with the given ID.
+     *
+     * @param profileId the ID of the profile
+     * @return the profile, or empty if it is not cached or has expired
+     */
+    public synchronized Optional<CachedProfile> getById(Long profileId) {
+        Entry entry = entries.get(profileId);
+        if (entry == null || entry.profile() == null || entry.expiresAt() <= clock.millis()) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.profile());
+    }
+
+    /**
+     * Returns the cached profile of the user with the given username.
+     *
+     * @param username the username of the user
+     * @return the profile, or empty if it is not cached or has expired
+     */
+    public synchronized Optional<CachedProfile> getByUsername(String username) {
+        Long profileId = profileIdsByUsername.get(username);
+        return profileId != null ? getById(profileId) : Optional.empty();
+    }
+
+    /**
+     * Returns the cached profile of the user with the given ID.
+     *
+     * @param userId the ID of the user
+     * @return the profile, or empty if it is not cached or has expired
+     */
+    public synchronized Optional<CachedProfile> getByUserId(Long userId) {
+        Long profileId = profileIdsByUserId.get(userId);
+        return profileId != null ? getById(profileId) : Optional.empty();
+    }
+
+    /**
+     * Caches a profile read from the database, unless a newer version is already known.
+     *
+     * @param profile the profile and the version it was read at
+     */
+    public synchronized void put(CachedProfile profile) {
+        long now = clock.millis();
+        Entry existing = entries.get(profile.profileId());
+        if (existing != null && existing.version() > profile.version() && existing.expiresAt() > now) {
+            return;
+        }
+        entries.put(profile.profileId(), new Entry(profile, profile.version(), now + ttlMillis));
+        profileIdsByUsername.put(profile.response().getUsername(), profile.profileId());
+        profileIdsByUserId.put(profile.response().getId(), profile.profileId());
+    }
+
+    /**
+     * Drops the cached profile and rejects versions older than the given one until the TTL passes.
+     *
+     * @param profileId the ID of the profile
+     * @param version   the version the profile was updated to
+     */
+    public synchronized void invalidate(Long profileId, long version) {
+        Entry existing = entries.get(profileId);
+        if (existing == null || existing.version() <= version) {
+            entries.put(profileId, new Entry(null, version, clock.millis() + ttlMillis));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileUpdated(ProfileUpdatedEvent event) {
+        if (clusterBus != null) {
+            clusterBus.publish(INVALIDATIONS, event);
+        } else {
+            invalidate(event);
+        }
+    }
+
+    private void invalidate(ProfileUpdatedEvent event) {
+        invalidate(event.profileId(), event.version());
+    }
+
+    private static <K, V> Map<K, V> leastRecentlyRead(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * A cached profile, or only the newest known version when the profile was invalidated.
+     */
+    private record Entry(CachedProfile profile, long version, long expiresAt) {
+    }
+}
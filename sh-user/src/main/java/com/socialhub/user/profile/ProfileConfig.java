@@ -0,0 +1,12 @@
+package com.socialhub.user.profile;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the profile cache settings.
+ */
+@Configuration
+@EnableConfigurationProperties(ProfileProperties.class)
+public class ProfileConfig {
+}
@@ -0,0 +1,25 @@
+package com.socialhub.user.profile;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the profile response cache.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.profile")
+public class ProfileProperties {
+
+    /**
+     * Largest number of profiles kept in the cache; the least recently read are evicted first.
+     */
+    private int cacheSize = 100_000;
+
+    /**
+     * Time after which a cached profile is read again from the database. Bounds how long another
+     * instance may serve a profile updated elsewhere.
+     */
+    private Duration cacheTtl = Duration.ofMinutes(5);
+}
@@ -2,8 +2,18 @@
 package com.socialhub.user.repository;
 
 import com.socialhub.user.entity.Comment;
+import com.socialhub.user.repository.projection.CommentView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Comment entity.
@@ -17,4 +27,90 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      * @return List of comments on the post
      */
     List<Comment> findByPostId(Long postId);
+
+    /**
+     * Finds all comments on a post in thread order: each comment followed by its replies.
+     *
+     * @param postId the ID of the post
+     * @return List of comments on the post
+     */
+    List<Comment> findByPostIdOrderByPath(Long postId);
+
+    /**
+     * Counts the comments on a post, replies included.
+     *
+     * @param postId the ID of the post
+     * @return the number of comments
+     */
+    long countByPostId(Long postId);
+
+    /**
+     * Finds the comments of a post after a given path in thread order, with the authors' usernames.
+     *
+     * @param postId    the ID of the post
+     * @param afterPath the path of the comment to continue after, or an empty string for the first page
+     * @param pageable  the number of comments to return
+     * @return List of comment projections
+     */
+    @Query("select c.id as id, c.postId as postId, c.userId as userId, u.username as username, "
+            + "c.content as content, c.createdAt as createdAt, c.parentId as parentId, c.path as path, "
+            + "c.depth as depth, c.replyCount as replyCount, c.totalReplyCount as totalReplyCount "
+            + "from Comment c left join User u on u.id = c.userId "
+            + "where c.postId = :postId and c.path > :afterPath order by c.path")
+    List<CommentView> findPageByPostId(@Param("postId") Long postId, @Param("afterPath") String afterPath,
+                                       Pageable pageable);
+
+    /**
+     * Finds a comment on a specific post.
+     *
+     * @param id     the ID of the comment
+     * @param postId the ID of the post
+     * @return Optional containing the comment if found
+     */
+    Optional<Comment> findByIdAndPostId(Long id, Long postId);
+
+    /**
+     * Finds a comment on a specific post and locks it until the transaction ends,
+     * so concurrent replies get distinct positions.
+     *
+     * @param id     the ID of the comment
+     * @param postId the ID of the post
+     * @return Optional containing the comment if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Comment c where c.id = :id and c.postId = :postId")
+    Optional<Comment> findByIdAndPostIdForUpdate(@Param("id") Long id, @Param("postId") Long postId);
+
+    /**
+     * Finds the comments of a post within a range of paths in thread order, with the authors' usernames.
+     *
+     * @param postId   the ID of the post
+     * @param fromPath the inclusive lower bound of the paths
+     * @param toPath   the exclusive upper bound of the paths
+     * @param maxDepth the deepest level to include
+     * @param pageable the maximum number of comments to return
+     * @return List of comment projections in the range
+     */
+    @Query("select c.id as id, c.postId as postId, c.userId as userId, u.username as username, "
+            + "c.content as content, c.createdAt as createdAt, c.parentId as parentId, c.path as path, "
+            + "c.depth as depth, c.replyCount as replyCount, c.totalReplyCount as totalReplyCount "
+            + "from Comment c left join User u on u.id = c.userId "
+            + "where c.postId = :postId and c.path >= :fromPath and c.path < :toPath "
+            + "and c.depth <= :maxDepth order by c.path")
+    List<CommentView> findThread(@Param("postId") Long postId, @Param("fromPath") String fromPath,
+                             @Param("toPath") String toPath, @Param("maxDepth") int maxDepth, Pageable pageable);
+
+    /**
+     * Counts a new reply on all its ancestors, and as a direct reply on its parent.
+     *
+     * @param postId        the ID of the post
+     * @param ancestorPaths the paths of the reply's ancestors
+     * @param parentId      the ID of the comment replied to
+     */
+    @Modifying
+    @Query("update Comment c set c.totalReplyCount = c.totalReplyCount + 1, "
+            + "c.replyCount = c.replyCount + case when c.id = :parentId then 1 else 0 end "
+            + "where c.postId = :postId and c.path in :ancestorPaths")
+    void incrementReplyCounts(@Param("postId") Long postId, @Param("ancestorPaths") Collection<String> ancestorPaths,
+                              @Param("parentId") Long parentId);
 }
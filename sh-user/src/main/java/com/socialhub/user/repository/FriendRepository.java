@@ -1,7 +1,11 @@
 package com.socialhub.user.repository;
 
 import com.socialhub.user.entity.Friend;
+import com.socialhub.user.repository.projection.FriendCountView;
+import com.socialhub.user.repository.projection.FriendRequestView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -48,4 +52,49 @@ public interface FriendRepository extends JpaRepository<Friend, Long> {
      * @return List of Friend entities
      */
     List<Friend> findByFriendIdAndStatus(Long friendId, Friend.Status status);
+
+    /**
+     * Counts each user's relationships with a specific status.
+     * Scans the whole status index; intended for periodic batch jobs.
+     *
+     * @param status the status of the relationships (e.g., ACCEPTED)
+     * @return List of per-user counts, omitting users with none
+     */
+    @Query("select f.userId as userId, count(f) as friendCount from Friend f where f.status = :status group by f.userId")
+    List<FriendCountView> countByStatusGroupByUserId(@Param("status") Friend.Status status);
+
+    /**
+     * Finds the usernames of the users a user is related to with a given status.
+     *
+     * @param userId the ID of the user
+     * @param status the status of the relationship
+     * @return List of usernames
+     */
+    @Query("select u.username from Friend f join User u on u.id = f.friendId "
+            + "where f.userId = :userId and f.status = :status")
+    List<String> findFriendUsernames(@Param("userId") Long userId, @Param("status") Friend.Status status);
+
+    /**
+     * Finds the friend requests received by a user with a given status, with both usernames.
+     *
+     * @param friendId the ID of the user who received the requests
+     * @param status   the status of the requests
+     * @return List of friend request projections
+     */
+    @Query("select f.id as requestId, fu.username as fromUsername, tu.username as toUsername, f.requestedAt as requestedAt "
+            + "from Friend f join User fu on fu.id = f.userId join User tu on tu.id = f.friendId "
+            + "where f.friendId = :friendId and f.status = :status")
+    List<FriendRequestView> findReceivedRequests(@Param("friendId") Long friendId, @Param("status") Friend.Status status);
+
+    /**
+     * Finds the friend requests sent by a user with a given status, with both usernames.
+     *
+     * @param userId the ID of the user who sent the requests
+     * @param status the status of the requests
+     * @return List of friend request projections
+     */
+    @Query("select f.id as requestId, fu.username as fromUsername, tu.username as toUsername, f.requestedAt as requestedAt "
+            + "from Friend f join User fu on fu.id = f.userId join User tu on tu.id = f.friendId "
+            + "where f.userId = :userId and f.status = :status")
+    List<FriendRequestView> findSentRequests(@Param("userId") Long userId, @Param("status") Friend.Status status);
 }
@@ -1,7 +1,14 @@
 package com.socialhub.user.repository;
 
 import com.socialhub.user.entity.Like;
+import com.socialhub.user.repository.projection.LikeView;
+import com.socialhub.user.repository.projection.LikerView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -33,4 +40,27 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
      * @return List of Like entities
      */
     List<Like> findByPostId(Long postId);
+
+    /**
+     * Finds the likes of a post older than a given like, newest first, with the likers' usernames.
+     *
+     * @param postId   the ID of the post
+     * @param beforeId the ID of the like to continue after
+     * @param pageable the number of likes to return
+     * @return List of like projections
+     */
+    @Query("select l.id as id, l.userId as userId, u.username as username, l.likedAt as likedAt "
+            + "from Like l left join User u on u.id = l.userId "
+            + "where l.postId = :postId and l.id < :beforeId order by l.id desc")
+    List<LikeView> findPageByPostId(@Param("postId") Long postId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    /**
+     * Finds who liked each of the given posts, ordered by post and liker.
+     *
+     * @param postIds the IDs of the posts
+     * @return List of post and liker ID pairs
+     */
+    @Query("select l.postId as postId, l.userId as userId from Like l where l.postId in :postIds "
+            + "order by l.postId, l.userId")
+    List<LikerView> findLikersByPostIdIn(@Param("postIds") Collection<Long> postIds);
 }
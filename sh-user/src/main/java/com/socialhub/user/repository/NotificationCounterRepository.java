@@ -0,0 +1,48 @@
+package com.socialhub.user.repository;
+
+import com.socialhub.user.entity.NotificationCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repository interface for NotificationCounter entity.
+ */
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, Long> {
+
+    /**
+     * Adds to a user's unread count, creating the counter if needed and never going below zero.
+     *
+     * @param userId the ID of the user
+     * @param delta  the change, negative when notifications were read or deleted
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notification_counters (user_id, unread_count) VALUES (:userId, GREATEST(:delta, 0)) "
+            + "ON DUPLICATE KEY UPDATE unread_count = GREATEST(unread_count + :delta, 0)", nativeQuery = true)
+    void addUnread(@Param("userId") Long userId, @Param("delta") int delta);
+
+    /**
+     * Counts a new unread notification for a user and hands out its ID: the given one, or one
+     * more than the last ID handed out to the user if that is higher. The counter stays locked
+     * until the transaction ends, so a user's notification IDs increase in the order they are
+     * recorded, whichever instance records them and whatever its clock says.
+     *
+     * @param userId the ID of the user
+     * @param id     the ID derived from this instance's clock
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notification_counters (user_id, unread_count, last_id) VALUES (:userId, 1, :id) "
+            + "ON DUPLICATE KEY UPDATE unread_count = unread_count + 1, last_id = GREATEST(last_id + 1, :id)",
+            nativeQuery = true)
+    void addNotification(@Param("userId") Long userId, @Param("id") long id);
+
+    /**
+     * Finds the last notification ID handed out to a user.
+     *
+     * @param userId the ID of the user
+     * @return the ID, or null if the user never had a notification
+     */
+    @Query("select c.lastId from NotificationCounter c where c.userId = :userId")
+    Long findLastId(@Param("userId") Long userId);
+}
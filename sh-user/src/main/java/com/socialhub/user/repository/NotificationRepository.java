@@ -0,0 +1,98 @@
+package com.socialhub.user.repository;
+
+import com.socialhub.user.entity.Notification;
+import com.socialhub.user.repository.projection.NotificationView;
+import com.socialhub.user.repository.projection.UnreadCountView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for Notification entity.
+ */
+public interface NotificationRepository extends JpaRepository<Notification, Notification.Key> {
+
+    /**
+     * Inserts a notification without first looking it up, as saving an entity with an assigned key would.
+     *
+     * @param notification the notification to insert
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notifications (user_id, id, type, actor_id, post_id, comment_id, friend_request_id, is_read) "
+            + "VALUES (:#{#n.userId}, :#{#n.id}, :#{#n.type.ordinal()}, :#{#n.actorId}, :#{#n.postId}, "
+            + ":#{#n.commentId}, :#{#n.friendRequestId}, :#{#n.read})", nativeQuery = true)
+    void insert(@Param("n") Notification notification);
+
+    /**
+     * Finds a user's notifications older than a given one, newest first, with the actors' usernames.
+     *
+     * @param userId   the ID of the user
+     * @param beforeId the ID to start after
+     * @param pageable the number of notifications to return
+     * @return List of notification projections
+     */
+    @Query("select n.id as id, n.type as type, u.username as actorUsername, n.postId as postId, "
+            + "n.commentId as commentId, n.friendRequestId as friendRequestId, n.read as read "
+            + "from Notification n left join User u on u.id = n.actorId "
+            + "where n.userId = :userId and n.id < :beforeId order by n.id desc")
+    List<NotificationView> findPageByUserId(@Param("userId") Long userId, @Param("beforeId") Long beforeId,
+                                            Pageable pageable);
+
+    /**
+     * Marks the given unread notifications of a user as read.
+     *
+     * @param userId the ID of the user
+     * @param ids    the IDs of the notifications
+     * @return the number of notifications that were unread
+     */
+    @Modifying
+    @Query("update Notification n set n.read = true where n.userId = :userId and n.id in :ids and n.read = false")
+    int markRead(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Marks all unread notifications of a user up to a given one as read.
+     *
+     * @param userId the ID of the user
+     * @param upToId the ID of the newest notification to mark
+     * @return the number of notifications that were unread
+     */
+    @Modifying
+    @Query("update Notification n set n.read = true where n.userId = :userId and n.id <= :upToId and n.read = false")
+    int markReadUpTo(@Param("userId") Long userId, @Param("upToId") Long upToId);
+
+    /**
+     * Finds the ID that bounds the next batch of expired notifications.
+     *
+     * @param cutoffId  notifications with lower IDs have expired
+     * @param batchSize the number of notifications per batch
+     * @return the ID of the first notification after the batch, or null if fewer expired notifications remain
+     */
+    @Query(value = "SELECT id FROM notifications WHERE id < :cutoffId ORDER BY id LIMIT 1 OFFSET :batchSize",
+            nativeQuery = true)
+    Long findPruneBound(@Param("cutoffId") Long cutoffId, @Param("batchSize") int batchSize);
+
+    /**
+     * Counts unread notifications below an ID per user, locking them until they are deleted.
+     *
+     * @param boundId the exclusive upper bound of the IDs
+     * @return List of unread counts, one per user with unread notifications below the bound
+     */
+    @Query(value = "SELECT user_id AS userId, COUNT(*) AS unreadCount FROM notifications "
+            + "WHERE id < :boundId AND is_read = 0 GROUP BY user_id ORDER BY user_id FOR UPDATE", nativeQuery = true)
+    List<UnreadCountView> countUnreadBefore(@Param("boundId") Long boundId);
+
+    /**
+     * Deletes all notifications below an ID.
+     *
+     * @param boundId the exclusive upper bound of the IDs
+     * @return the number of deleted notifications
+     */
+    @Modifying
+    @Query(value = "DELETE FROM notifications WHERE id < :boundId", nativeQuery = true)
+    int deleteBefore(@Param("boundId") Long boundId);
+}
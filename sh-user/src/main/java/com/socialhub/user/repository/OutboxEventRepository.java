@@ -0,0 +1,56 @@
+package com.socialhub.user.repository;
+
+import com.socialhub.user.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for OutboxEvent entity.
+ */
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Finds committed events that have no sequence number yet, oldest ID first.
+     *
+     * @param pageable the maximum number of events
+     * @return List of unsequenced events
+     */
+    @Query("select e from OutboxEvent e where e.sequenceNumber is null order by e.id")
+    List<OutboxEvent> findUnsequenced(Pageable pageable);
+
+    /**
+     * Finds the events after a position in the change log, in sequence order.
+     *
+     * @param sequenceNumber the last sequence number already processed
+     * @param pageable       the maximum number of events
+     * @return List of events
+     */
+    @Query("select e from OutboxEvent e where e.sequenceNumber > :sequenceNumber order by e.sequenceNumber")
+    List<OutboxEvent> findAfter(@Param("sequenceNumber") long sequenceNumber, Pageable pageable);
+
+    /**
+     * Finds the highest sequence number assigned so far.
+     *
+     * @return the sequence number, or null if no event has been sequenced
+     */
+    @Query("select max(e.sequenceNumber) from OutboxEvent e")
+    Long findLastSequenceNumber();
+
+    /**
+     * Deletes a batch of sequenced events created before the given time.
+     *
+     * @param cutoff    the creation time before which events expire
+     * @param batchSize the maximum number of events to delete
+     * @return the number of events deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE created_at < :cutoff AND sequence_number IS NOT NULL "
+            + "ORDER BY created_at LIMIT :batchSize", nativeQuery = true)
+    int deleteSequencedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
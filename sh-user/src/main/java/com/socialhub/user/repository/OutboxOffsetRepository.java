@@ -0,0 +1,39 @@
+package com.socialhub.user.repository;
+
+import com.socialhub.user.entity.OutboxOffset;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for OutboxOffset entity.
+ */
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+
+    /**
+     * Creates a consumer's offset at the given position unless it already exists.
+     *
+     * @param consumer       the consumer name
+     * @param sequenceNumber the initial position
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO outbox_offsets (consumer, sequence_number) VALUES (:consumer, :sequenceNumber)",
+            nativeQuery = true)
+    void insertIfAbsent(@Param("consumer") String consumer, @Param("sequenceNumber") long sequenceNumber);
+
+    /**
+     * Finds and locks a consumer's offset until the end of the transaction, so that only one
+     * instance advances it at a time.
+     *
+     * @param consumer the consumer name
+     * @return Optional containing the offset if it exists
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from OutboxOffset o where o.consumer = :consumer")
+    Optional<OutboxOffset> findForUpdate(@Param("consumer") String consumer);
+}
@@ -2,15 +2,43 @@
 package com.socialhub.user.repository;
 
 import com.socialhub.user.entity.Post;
+import com.socialhub.user.repository.projection.PostView;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Post entity.
  */
 public interface PostRepository extends JpaRepository<Post, Long> {
 
+    /**
+     * Selects the columns of {@link PostView}; the counts are index-only subqueries on likes and comments.
+     */
+    String POST_VIEW = "select p.id as id, p.userId as userId, u.username as username, p.content as content, "
+            + "p.mediaUrl as mediaUrl, p.mediaType as mediaType, p.createdAt as createdAt, "
+            + "(select count(l) from Like l where l.postId = p.id) as likeCount, "
+            + "(select count(c) from Comment c where c.postId = p.id) as commentCount "
+            + "from Post p left join User u on u.id = p.userId";
+
+    /**
+     * Finds a post and takes a shared lock on it until the transaction ends, so the post
+     * is not moved to another shard while likes or comments are added to it.
+     *
+     * @param id the ID of the post
+     * @return Optional containing the post if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select p from Post p where p.id = :id")
+    Optional<Post> findByIdForShare(@Param("id") Long id);
+
     /**
      * Finds all posts by a specific user with pagination.
      *
@@ -19,4 +47,33 @@ public interface PostRepository extends JpaRepository<Post, Long> {
      * @return Page of posts created by the user
      */
     Page<Post> findByUserId(Long userId, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Finds a page of a user's posts with usernames and counts.
+     *
+     * @param userId   the ID of the user
+     * @param pageable pagination information
+     * @return Page of post projections
+     */
+    @Query(value = POST_VIEW + " where p.userId = :userId",
+            countQuery = "select count(p) from Post p where p.userId = :userId")
+    Page<PostView> findViewsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Finds a page of posts with usernames and counts, without counting the total.
+     *
+     * @param pageable pagination and sort information
+     * @return List of post projections in the requested order
+     */
+    @Query(POST_VIEW)
+    List<PostView> findViewsBy(Pageable pageable);
+
+    /**
+     * Finds posts with an ID greater than the given one, for walking the table in ID order.
+     *
+     * @param id       the last ID already seen
+     * @param pageable page size and sort information
+     * @return List of posts after the given ID
+     */
+    List<Post> findByIdGreaterThan(Long id, Pageable pageable);
+}
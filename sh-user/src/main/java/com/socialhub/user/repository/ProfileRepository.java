@@ -2,8 +2,15 @@ package com.socialhub.user.repository;
 
 import com.socialhub.user.entity.Profile;
 import com.socialhub.user.entity.User;
+import com.socialhub.user.repository.projection.ProfileNameView;
+import com.socialhub.user.repository.projection.ProfileView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -18,4 +25,64 @@ public interface ProfileRepository extends JpaRepository<Profile, Long> {
      * @return Optional containing the Profile if found
      */
     Optional<Profile> findByUser(User user);
+
+    /**
+     * Finds the profile of a user by username, with the user's username and email.
+     *
+     * @param username the username of the user
+     * @return Optional containing the profile projection if found
+     */
+    @Query("select p.id as profileId, p.version as version, u.id as userId, u.username as username, "
+            + "u.email as email, p.firstName as firstName, p.lastName as lastName, p.bio as bio, "
+            + "p.profilePictureUrl as profilePictureUrl "
+            + "from Profile p join p.user u where u.username = :username")
+    Optional<ProfileView> findViewByUsername(@Param("username") String username);
+
+    /**
+     * Finds a profile by ID, with the owner's username and email.
+     *
+     * @param id the ID of the profile
+     * @return Optional containing the profile projection if found
+     */
+    @Query("select p.id as profileId, p.version as version, u.id as userId, u.username as username, "
+            + "u.email as email, p.firstName as firstName, p.lastName as lastName, p.bio as bio, "
+            + "p.profilePictureUrl as profilePictureUrl "
+            + "from Profile p join p.user u where p.id = :id")
+    Optional<ProfileView> findViewById(@Param("id") Long id);
+
+    /**
+     * Finds the profiles with the given IDs, with their owners' usernames and emails.
+     *
+     * @param ids the IDs of the profiles
+     * @return List of the profile projections found, in no particular order
+     */
+    @Query("select p.id as profileId, p.version as version, u.id as userId, u.username as username, "
+            + "u.email as email, p.firstName as firstName, p.lastName as lastName, p.bio as bio, "
+            + "p.profilePictureUrl as profilePictureUrl "
+            + "from Profile p join p.user u where p.id in :ids")
+    List<ProfileView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Finds the profiles of the users with the given IDs, with their usernames and emails.
+     *
+     * @param userIds the IDs of the users
+     * @return List of the profile projections found, in no particular order
+     */
+    @Query("select p.id as profileId, p.version as version, u.id as userId, u.username as username, "
+            + "u.email as email, p.firstName as firstName, p.lastName as lastName, p.bio as bio, "
+            + "p.profilePictureUrl as profilePictureUrl "
+            + "from Profile p join p.user u where u.id in :userIds")
+    List<ProfileView> findViewsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Finds the names of the users whose profile ID is greater than the given one, in profile ID order.
+     *
+     * @param afterId  the last profile ID already seen
+     * @param pageable the maximum number of rows
+     * @return List of profile names
+     */
+    @Query("select p.id as profileId, u.id as userId, u.username as username, "
+            + "p.firstName as firstName, p.lastName as lastName "
+            + "from Profile p join p.user u where p.id > :afterId order by p.id")
+    List<ProfileNameView> findNamesAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -0,0 +1,34 @@
+package com.socialhub.user.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a comment with its author's username.
+ */
+public interface CommentView {
+
+    Long getId();
+
+    Long getPostId();
+
+    Long getUserId();
+
+    /**
+     * @return the author's username, or null if the user is not stored in the database the comment was read from
+     */
+    String getUsername();
+
+    String getContent();
+
+    LocalDateTime getCreatedAt();
+
+    Long getParentId();
+
+    String getPath();
+
+    int getDepth();
+
+    int getReplyCount();
+
+    int getTotalReplyCount();
+}
@@ -0,0 +1,11 @@
+package com.socialhub.user.repository.projection;
+
+/**
+ * Projection of a user's number of friends.
+ */
+public interface FriendCountView {
+
+    Long getUserId();
+
+    long getFriendCount();
+}
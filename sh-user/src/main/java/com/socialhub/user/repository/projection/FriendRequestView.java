@@ -0,0 +1,17 @@
+package com.socialhub.user.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a friend request with the usernames of both users.
+ */
+public interface FriendRequestView {
+
+    Long getRequestId();
+
+    String getFromUsername();
+
+    String getToUsername();
+
+    LocalDateTime getRequestedAt();
+}
@@ -0,0 +1,20 @@
+package com.socialhub.user.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a like with the liker's username.
+ */
+public interface LikeView {
+
+    Long getId();
+
+    Long getUserId();
+
+    /**
+     * @return the liker's username, or null if the user is not stored in the database the like was read from
+     */
+    String getUsername();
+
+    LocalDateTime getLikedAt();
+}
@@ -0,0 +1,11 @@
+package com.socialhub.user.repository.projection;
+
+/**
+ * Projection of a like reduced to the post and the liker.
+ */
+public interface LikerView {
+
+    Long getPostId();
+
+    Long getUserId();
+}
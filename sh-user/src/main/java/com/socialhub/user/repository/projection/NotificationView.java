@@ -0,0 +1,23 @@
+package com.socialhub.user.repository.projection;
+
+import com.socialhub.user.notification.NotificationType;
+
+/**
+ * Projection of an inbox notification with the actor's username.
+ */
+public interface NotificationView {
+
+    Long getId();
+
+    NotificationType getType();
+
+    String getActorUsername();
+
+    Long getPostId();
+
+    Long getCommentId();
+
+    Long getFriendRequestId();
+
+    boolean isRead();
+}
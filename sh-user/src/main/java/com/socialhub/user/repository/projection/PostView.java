@@ -0,0 +1,30 @@
+package com.socialhub.user.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a post with its author's username and its like and comment counts.
+ */
+public interface PostView {
+
+    Long getId();
+
+    Long getUserId();
+
+    /**
+     * @return the author's username, or null if the user is not stored in the database the post was read from
+     */
+    String getUsername();
+
+    String getContent();
+
+    String getMediaUrl();
+
+    String getMediaType();
+
+    LocalDateTime getCreatedAt();
+
+    long getLikeCount();
+
+    long getCommentCount();
+}
@@ -0,0 +1,17 @@
+package com.socialhub.user.repository.projection;
+
+/**
+ * Projection of the names identifying a user, used to build the username suggestion index.
+ */
+public interface ProfileNameView {
+
+    Long getProfileId();
+
+    Long getUserId();
+
+    String getUsername();
+
+    String getFirstName();
+
+    String getLastName();
+}
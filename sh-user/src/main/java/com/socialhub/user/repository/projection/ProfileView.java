@@ -0,0 +1,25 @@
+package com.socialhub.user.repository.projection;
+
+/**
+ * Projection of a profile with the owner's username and email.
+ */
+public interface ProfileView {
+
+    Long getProfileId();
+
+    long getVersion();
+
+    Long getUserId();
+
+    String getUsername();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getBio();
+
+    String getProfilePictureUrl();
+}
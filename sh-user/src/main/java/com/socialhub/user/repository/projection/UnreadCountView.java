@@ -0,0 +1,11 @@
+package com.socialhub.user.repository.projection;
+
+/**
+ * Projection of a user's number of unread notifications.
+ */
+public interface UnreadCountView {
+
+    Long getUserId();
+
+    int getUnreadCount();
+}
@@ -0,0 +1,12 @@
+package com.socialhub.user.search;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the post search settings.
+ */
+@Configuration
+@EnableConfigurationProperties(PostSearchProperties.class)
+public class PostSearchConfig {
+}
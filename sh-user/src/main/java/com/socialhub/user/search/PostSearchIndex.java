@@ -0,0 +1,466 @@
+package com.socialhub.user.search;
+
+import com.socialhub.user.dto.PaginatedResponse;
+import com.socialhub.user.dto.PostSearchResult;
+import com.socialhub.user.dto.SearchIndexRebuildResponse;
+import com.socialhub.user.entity.Post;
+import com.socialhub.user.entity.User;
+import com.socialhub.user.event.PostCreatedEvent;
+import com.socialhub.user.event.PostDeletedEvent;
+import com.socialhub.user.exception.CustomException;
+import com.socialhub.user.outbox.ChangeEventBus;
+import com.socialhub.user.repository.PostRepository;
+import com.socialhub.user.repository.UserRepository;
+import com.socialhub.user.sharding.ShardRouter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Embedded Lucene index over post content, ranked with BM25.
+ * <p>
+ * Segment files are memory-mapped ({@link MMapDirectory}), so the OS page cache rather than
+ * the heap holds the index. Posts are added and removed after their transaction commits and
+ * become searchable at the next refresh (about a second). Changes are committed to disk
+ * periodically and on shutdown; anything lost in a crash is restored by a rebuild.
+ * <p>
+ * Every instance keeps its own index. Posts created or deleted through other instances arrive
+ * through the outbox's {@link ChangeEventBus}; re-applying a change made here is harmless, as
+ * posts are indexed by ID.
+ * <p>
+ * A rebuild reads the database into a separate index while searches keep using the current
+ * one, then swaps the new contents in and re-applies the changes made meanwhile. Refreshes and
+ * commits wait for the swap, so neither an empty nor a partial index is ever published.
+ */
+@Slf4j
+@Component
+public class PostSearchIndex {
+
+    private static final String ID = "id";
+    private static final String CONTENT = "content";
+    private static final String AUTHOR_USERNAME = "authorUsername";
+    private static final String CREATED_AT = "createdAt";
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final PostSearchProperties properties;
+    private final PostReader postReader;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final Object swapLock = new Object();
+    private final ExecutorService startupRebuild = Executors.newSingleThreadExecutor(
+            new CustomizableThreadFactory("search-index-rebuild-"));
+
+    /**
+     * Changes made while a rebuild runs, re-applied to its result; null when none runs.
+     * Guarded by {@link #swapLock}.
+     */
+    private List<IndexChange> changesDuringRebuild;
+
+    @Autowired
+    public PostSearchIndex(PostSearchProperties properties,
+                           ShardRouter shardRouter,
+                           PostRepository postRepository,
+                           UserRepository userRepository,
+                           ChangeEventBus changeEventBus) throws IOException {
+        this(properties, new RepositoryPostReader(shardRouter, postRepository, userRepository));
+        changeEventBus.subscribe(PostCreatedEvent.class, this::onPostCreated);
+        changeEventBus.subscribe(PostDeletedEvent.class, this::onPostDeleted);
+    }
+
+    PostSearchIndex(PostSearchProperties properties, PostReader postReader) throws IOException {
+        this.properties = properties;
+        this.postReader = postReader;
+
+        Files.createDirectories(properties.getIndexPath());
+        this.directory = new MMapDirectory(properties.getIndexPath());
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setSimilarity(new BM25Similarity())
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, new SearcherFactory() {
+            @Override
+            public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                searcher.setSimilarity(new BM25Similarity());
+                return searcher;
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        Document document = document(event.postId(), event.authorUsername(), event.content(), event.createdAt());
+        apply(target -> target.updateDocument(new Term(ID, event.postId().toString()), document),
+                "Failed to index post " + event.postId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostDeleted(PostDeletedEvent event) {
+        apply(target -> target.deleteDocuments(new Term(ID, event.postId().toString())),
+                "Failed to remove post " + event.postId() + " from the search index");
+    }
+
+    /**
+     * Rebuilds an empty index in the background, e.g. on first start or after the index
+     * directory was removed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (properties.isRebuildOnEmptyIndex() && writer.getDocStats().numDocs == 0) {
+            startupRebuild.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException ex) {
+                    log.error("Rebuilding the empty post search index failed", ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Finds posts whose content matches any of the query's terms, best BM25 score first.
+     *
+     * @param text the search text
+     * @param page the page number (zero-based)
+     * @param size the page size
+     * @return PaginatedResponse of matching posts
+     */
+    public PaginatedResponse<PostSearchResult> search(String text, int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new CustomException("Page must not be negative and size must be positive.", HttpStatus.BAD_REQUEST);
+        }
+        if ((long) (page + 1) * size > properties.getMaxResultWindow()) {
+            throw new CustomException("Search results are limited to the first "
+                    + properties.getMaxResultWindow() + " matches.", HttpStatus.BAD_REQUEST);
+        }
+
+        Query query = parse(text);
+        List<PostSearchResult> content = new ArrayList<>();
+        int total = 0;
+        if (query != null) {
+            try {
+                IndexSearcher searcher = searcherManager.acquire();
+                try {
+                    ScoreDoc[] hits = searcher.search(query, (page + 1) * size).scoreDocs;
+                    total = searcher.count(query);
+                    StoredFields storedFields = searcher.storedFields();
+                    for (int i = page * size; i < hits.length; i++) {
+                        content.add(toResult(storedFields.document(hits[i].doc), hits[i].score));
+                    }
+                } finally {
+                    searcherManager.release(searcher);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to search posts", ex);
+            }
+        }
+
+        return PaginatedResponse.<PostSearchResult>builder()
+                .content(content)
+                .pageNumber(page)
+                .pageSize(size)
+                .totalPages((total + size - 1) / size)
+                .totalElements(total)
+                .build();
+    }
+
+    /**
+     * Replaces the index contents with every post in the database, reading each shard in ID order.
+     * The current contents stay searchable until the new ones are complete; if reading fails
+     * they are kept.
+     *
+     * @return SearchIndexRebuildResponse with the number of posts indexed
+     */
+    public SearchIndexRebuildResponse rebuild() {
+        if (!rebuildLock.tryLock()) {
+            throw new CustomException("A search index rebuild is already running.", HttpStatus.CONFLICT);
+        }
+        long started = System.currentTimeMillis();
+        long indexed = 0;
+        Path rebuildPath = properties.getIndexPath().resolveSibling(properties.getIndexPath().getFileName() + ".rebuild");
+        try {
+            synchronized (swapLock) {
+                changesDuringRebuild = new ArrayList<>();
+            }
+            FileSystemUtils.deleteRecursively(rebuildPath);
+            try (Directory rebuildDirectory = new MMapDirectory(rebuildPath)) {
+                try (IndexWriter rebuildWriter = new IndexWriter(rebuildDirectory, new IndexWriterConfig(analyzer)
+                        .setSimilarity(new BM25Similarity())
+                        .setOpenMode(IndexWriterConfig.OpenMode.CREATE))) {
+                    indexed = readPosts(rebuildWriter);
+                    rebuildWriter.commit();
+                }
+                swapIn(rebuildDirectory);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to rebuild the search index", ex);
+        } finally {
+            synchronized (swapLock) {
+                changesDuringRebuild = null;
+            }
+            try {
+                FileSystemUtils.deleteRecursively(rebuildPath);
+            } catch (IOException ex) {
+                log.warn("Could not delete {}", rebuildPath, ex);
+            }
+            rebuildLock.unlock();
+        }
+
+        long duration = System.currentTimeMillis() - started;
+        log.info("Rebuilt post search index with {} posts in {} ms", indexed, duration);
+        return SearchIndexRebuildResponse.builder()
+                .postsIndexed(indexed)
+                .durationMillis(duration)
+                .build();
+    }
+
+    /**
+     * Makes recent changes searchable.
+     */
+    @Scheduled(fixedDelayString = "${socialhub.search.refresh-interval:PT1S}")
+    public void refresh() throws IOException {
+        synchronized (swapLock) {
+            searcherManager.maybeRefresh();
+        }
+    }
+
+    /**
+     * Persists recent changes to the segment files.
+     */
+    @Scheduled(fixedDelayString = "${socialhub.search.commit-interval:PT30S}")
+    public void commit() throws IOException {
+        synchronized (swapLock) {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        startupRebuild.shutdownNow();
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+        analyzer.close();
+    }
+
+    /**
+     * Indexes every post of every shard.
+     *
+     * @return the number of posts indexed
+     */
+    private long readPosts(IndexWriter target) throws IOException {
+        long indexed = 0;
+        for (String shard : postReader.shards()) {
+            long lastId = 0;
+            List<PostSearchResult> batch;
+            do {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IOException("Interrupted while rebuilding the search index");
+                }
+                batch = postReader.readAfter(shard, lastId, REBUILD_BATCH_SIZE);
+                for (PostSearchResult post : batch) {
+                    target.addDocument(document(post.getPostId(), post.getAuthorUsername(), post.getContent(),
+                            post.getCreatedAt()));
+                    lastId = post.getPostId();
+                }
+                indexed += batch.size();
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        }
+        return indexed;
+    }
+
+    /**
+     * Replaces the index contents with the rebuilt ones, re-applies the changes made while
+     * rebuilding and publishes the result. Searches see the old contents until then.
+     */
+    private void swapIn(Directory rebuilt) throws IOException {
+        synchronized (swapLock) {
+            writer.deleteAll();
+            writer.addIndexes(rebuilt);
+            for (IndexChange change : changesDuringRebuild) {
+                change.applyTo(writer);
+            }
+            changesDuringRebuild = null;
+            writer.commit();
+            searcherManager.maybeRefresh();
+        }
+    }
+
+    /**
+     * Applies a change to the index and, while a rebuild runs, records it for the rebuilt index.
+     */
+    private void apply(IndexChange change, String failure) {
+        synchronized (swapLock) {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        }
+        try {
+            change.applyTo(writer);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(failure, ex);
+        }
+    }
+
+    private static Document document(Long postId, String authorUsername, String content, LocalDateTime createdAt) {
+        Document document = new Document();
+        document.add(new StringField(ID, postId.toString(), Field.Store.YES));
+        document.add(new TextField(CONTENT, content != null ? content : "", Field.Store.YES));
+        if (authorUsername != null) {
+            document.add(new StoredField(AUTHOR_USERNAME, authorUsername));
+        }
+        if (createdAt != null) {
+            document.add(new StoredField(CREATED_AT, createdAt.toString()));
+        }
+        return document;
+    }
+
+    /**
+     * Turns the search text into a disjunction of its analyzed terms.
+     *
+     * @return the query, or null if the text has no searchable terms
+     */
+    private Query parse(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        try (TokenStream stream = analyzer.tokenStream(CONTENT, text != null ? text : "")) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken() && terms.size() < properties.getMaxQueryTerms()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to analyze search text", ex);
+        }
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        terms.forEach(term -> query.add(new TermQuery(new Term(CONTENT, term)), BooleanClause.Occur.SHOULD));
+        return query.build();
+    }
+
+    private static PostSearchResult toResult(Document document, float score) {
+        String createdAt = document.get(CREATED_AT);
+        return PostSearchResult.builder()
+                .postId(Long.valueOf(document.get(ID)))
+                .authorUsername(document.get(AUTHOR_USERNAME))
+                .content(document.get(CONTENT))
+                .createdAt(createdAt != null ? LocalDateTime.parse(createdAt) : null)
+                .score(score)
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface IndexChange {
+        void applyTo(IndexWriter target) throws IOException;
+    }
+
+    /**
+     * Source of the posts a rebuild indexes.
+     */
+    interface PostReader {
+
+        /**
+         * @return the shards to read, in order
+         */
+        List<String> shards();
+
+        /**
+         * Reads the next posts of a shard, in ID order, with their authors' usernames.
+         *
+         * @param shard   the shard
+         * @param afterId the ID to start after
+         * @param limit   the maximum number of posts
+         * @return the posts; fewer than the limit once the shard is exhausted
+         */
+        List<PostSearchResult> readAfter(String shard, long afterId, int limit);
+    }
+
+    /**
+     * Reads the posts from the shard databases.
+     */
+    private record RepositoryPostReader(ShardRouter shardRouter,
+                                        PostRepository postRepository,
+                                        UserRepository userRepository) implements PostReader {
+
+        @Override
+        public List<String> shards() {
+            return shardRouter.getShards();
+        }
+
+        @Override
+        public List<PostSearchResult> readAfter(String shard, long afterId, int limit) {
+            List<Post> posts = shardRouter.inShard(shard, true, () -> postRepository.findByIdGreaterThan(
+                    afterId, PageRequest.of(0, limit, Sort.by("id"))));
+            Set<Long> authorIds = posts.stream().map(Post::getUserId).collect(Collectors.toSet());
+            Map<Long, String> usernames = userRepository.findAllById(authorIds).stream()
+                    .collect(Collectors.toMap(User::getId, User::getUsername));
+            return posts.stream()
+                    .map(post -> PostSearchResult.builder()
+                            .postId(post.getId())
+                            .authorUsername(usernames.get(post.getUserId()))
+                            .content(post.getContent())
+                            .createdAt(post.getCreatedAt())
+                            .build())
+                    .toList();
+        }
+    }
+}
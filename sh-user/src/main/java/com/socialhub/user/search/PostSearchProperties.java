@@ -0,0 +1,34 @@
+package com.socialhub.user.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of the embedded post search index.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.search")
+public class PostSearchProperties {
+
+    /**
+     * Directory holding the index segment files.
+     */
+    private Path indexPath = Path.of("data", "post-index");
+
+    /**
+     * Deepest result position a search page may reach ({@code (page + 1) * size}).
+     */
+    private int maxResultWindow = 1000;
+
+    /**
+     * Largest number of query terms used; the rest are ignored.
+     */
+    private int maxQueryTerms = 16;
+
+    /**
+     * Whether to rebuild the index from the database on startup when it is empty.
+     */
+    private boolean rebuildOnEmptyIndex = true;
+}
@@ -0,0 +1,41 @@
+package com.socialhub.user.security;
+
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Resource;
+import com.socialhub.user.client.AuthServiceClient;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+
+/**
+ * Registers the source of AUTH-SERVICE's public signing keys.
+ * <p>
+ * The JWKS is fetched through {@link AuthServiceClient}, so that it comes from any registered
+ * AUTH-SERVICE instance, and cached. Keys are fetched again in the background before the cache
+ * expires, and at once, rate-limited, when a token names a key not in the cache. If
+ * AUTH-SERVICE cannot be reached the cached keys are kept.
+ */
+@Configuration
+@EnableConfigurationProperties(JwksProperties.class)
+public class JwksConfig {
+
+    @Bean
+    public JWKSource<SecurityContext> jwkSource(JwksProperties properties, AuthServiceClient authServiceClient)
+            throws MalformedURLException {
+        // Only names the source in Nimbus' messages; the retriever below does the fetching
+        URL url = URI.create("http://AUTH-SERVICE/.well-known/jwks.json").toURL();
+        return JWKSourceBuilder.<SecurityContext>create(url,
+                        ignored -> new Resource(authServiceClient.getJwks(), "application/json"))
+                .cache(properties.getCacheTtl().toMillis(), properties.getRefreshTimeout().toMillis())
+                .refreshAheadCache(properties.getRefreshAhead().toMillis(), true)
+                .rateLimited(properties.getMinRefetchInterval().toMillis())
+                .outageTolerantForever()
+                .build();
+    }
+}
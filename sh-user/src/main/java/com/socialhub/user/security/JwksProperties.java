@@ -0,0 +1,35 @@
+package com.socialhub.user.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the cache of AUTH-SERVICE's public signing keys.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.jwks")
+public class JwksProperties {
+
+    /**
+     * How long fetched keys are used before fetching again; keep it under AUTH-SERVICE's
+     * {@code socialhub.jwt.publish-ahead}, so that a new key is known before it signs.
+     */
+    private Duration cacheTtl = Duration.ofMinutes(10);
+
+    /**
+     * How long before the cache expires the keys are fetched again in the background.
+     */
+    private Duration refreshAhead = Duration.ofMinutes(1);
+
+    /**
+     * How long a request waits for keys being fetched.
+     */
+    private Duration refreshTimeout = Duration.ofSeconds(15);
+
+    /**
+     * Minimum interval between fetches caused by tokens signed with an unknown key.
+     */
+    private Duration minRefetchInterval = Duration.ofSeconds(30);
+}
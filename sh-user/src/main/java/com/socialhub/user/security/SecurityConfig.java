@@ -1,7 +1,11 @@
 package com.socialhub.user.security;
 
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -10,12 +14,13 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 
-import javax.crypto.SecretKey;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -27,14 +32,16 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthenticationConverter jwtAuthenticationConverter;
+    private final TokenDenylist tokenDenylist;
+    private final JWKSource<SecurityContext> jwkSource;
 
-    public SecurityConfig(JwtAuthenticationConverter jwtAuthenticationConverter) {
+    public SecurityConfig(JwtAuthenticationConverter jwtAuthenticationConverter, TokenDenylist tokenDenylist,
+                          JWKSource<SecurityContext> jwkSource) {
         this.jwtAuthenticationConverter = jwtAuthenticationConverter;
+        this.tokenDenylist = tokenDenylist;
+        this.jwkSource = jwkSource;
     }
 
-    @Value("${spring.security.jwt.secret}")
-    private String jwtSecret;
-
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -44,9 +51,16 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authorizeHttpRequests(authorize -> authorize
+                        // async dispatches continue requests already authorized, e.g. SSE streams
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/auth/register",
                                 "/auth/login",
+                                "/auth/available",
+                                "/auth/refresh",
+                                "/auth/logout",
+                                // messages between instances; checked against socialhub.cluster.secret, not routed by the gateway
+                                "/internal/cluster/**",
                                 "/v3/api-docs/**",
                                 "/swagger-ui.html",
                                 "/swagger-ui/**"
@@ -64,8 +78,16 @@ public class SecurityConfig {
 
     @Bean
     public JwtDecoder jwtDecoder() {
-        SecretKey secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        return NimbusJwtDecoder.withSecretKey(secretKey).build();
+        // RS256 tokens, verified with AUTH-SERVICE's published key named by their kid
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // Claims are checked by the validators below
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        // Expiry checks plus the sessions revoked in AUTH-SERVICE
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefault(), tokenDenylist));
+        return decoder;
     }
 
     @Bean
@@ -0,0 +1,149 @@
+package com.socialhub.user.security;
+
+import com.socialhub.user.bitmap.RoaringBitmap;
+import com.socialhub.user.client.AuthServiceClient;
+import com.socialhub.user.dto.RevocationsResponse;
+import com.socialhub.user.dto.RevokedSessionResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Rejects access tokens of revoked sessions, by the session ID in their {@code sid} claim.
+ * <p>
+ * Revoked sessions are fetched from AUTH-SERVICE every {@code sync-interval}, asking only for
+ * those revoked since the previous fetch. A session stays listed until its last access token
+ * has expired, so the list only holds the revocations of the last access token lifetime. The
+ * IDs are kept in a bitmap, rebuilt on each change and swapped in, so that the check on every
+ * request is a lock-free lookup. If AUTH-SERVICE cannot be reached, the last list is kept.
+ * Tokens without a {@code sid} predate sessions and are accepted until they expire.
+ */
+@Slf4j
+@Component
+public class TokenDenylist implements OAuth2TokenValidator<Jwt> {
+
+    /**
+     * Leeway Spring Security gives expiry checks, kept on top of the revoked sessions' expiry.
+     */
+    static final long CLOCK_SKEW_MILLIS = 60_000;
+
+    private static final long MAX_BITMAP_ID = 0xFFFFFFFFL;
+    private static final OAuth2Error REVOKED = new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN,
+            "The session of the token has been revoked", null);
+
+    private final TokenDenylistProperties properties;
+    private final Clock clock;
+    private final Function<Long, RevocationsResponse> fetcher;
+    private final Map<Long, Long> expiries = new HashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(new RoaringBitmap(), Set.of());
+    private Long until;
+    private boolean failing;
+
+    @Autowired
+    public TokenDenylist(TokenDenylistProperties properties, AuthServiceClient authServiceClient) {
+        this(properties, Clock.systemUTC(), authServiceClient::getRevocations);
+    }
+
+    TokenDenylist(TokenDenylistProperties properties, Clock clock, Function<Long, RevocationsResponse> fetcher) {
+        this.properties = properties;
+        this.clock = clock;
+        this.fetcher = fetcher;
+    }
+
+    /**
+     * Checks whether a session has been revoked.
+     *
+     * @param sessionId the ID of the session
+     * @return true if access tokens of the session must be rejected
+     */
+    public boolean isRevoked(long sessionId) {
+        Snapshot current = snapshot;
+        return sessionId >= 0 && sessionId <= MAX_BITMAP_ID
+                ? current.bitmap().contains((int) sessionId)
+                : current.others().contains(sessionId);
+    }
+
+    @Override
+    public OAuth2TokenValidatorResult validate(Jwt token) {
+        if (properties.isEnabled() && token.getClaims().get("sid") instanceof Number sessionId
+                && isRevoked(sessionId.longValue())) {
+            return OAuth2TokenValidatorResult.failure(REVOKED);
+        }
+        return OAuth2TokenValidatorResult.success();
+    }
+
+    /**
+     * @return the number of sessions listed
+     */
+    public synchronized int size() {
+        return expiries.size();
+    }
+
+    /**
+     * Fetches the sessions revoked since the last fetch and drops those whose tokens have expired.
+     */
+    @Scheduled(fixedDelayString = "${socialhub.token-denylist.sync-interval:PT5S}")
+    public synchronized void sync() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        RevocationsResponse response;
+        try {
+            response = fetcher.apply(until);
+        } catch (RuntimeException ex) {
+            if (!failing) {
+                log.warn("Fetching revoked sessions failed, keeping the {} known until it succeeds", expiries.size(), ex);
+                failing = true;
+            }
+            response = null;
+        }
+
+        boolean changed = false;
+        if (response != null) {
+            if (failing) {
+                log.info("Fetching revoked sessions succeeded again");
+                failing = false;
+            }
+            for (RevokedSessionResponse session : response.getSessions()) {
+                Long previous = expiries.put(session.getSessionId(), session.getExpiresAt() + CLOCK_SKEW_MILLIS);
+                changed |= previous == null;
+            }
+            until = response.getUntil();
+        }
+        long now = clock.millis();
+        changed |= expiries.values().removeIf(expiry -> expiry < now);
+
+        if (changed) {
+            RoaringBitmap bitmap = new RoaringBitmap();
+            Set<Long> others = new HashSet<>();
+            expiries.keySet().forEach(sessionId -> {
+                if (sessionId >= 0 && sessionId <= MAX_BITMAP_ID) {
+                    bitmap.add((int) (long) sessionId);
+                } else {
+                    others.add(sessionId);
+                }
+            });
+            snapshot = new Snapshot(bitmap, others);
+        }
+    }
+
+    /**
+     * The revoked session IDs requests are checked against; those beyond 32 bits, not expected
+     * from an auto-increment column, are kept aside.
+     */
+    private record Snapshot(RoaringBitmap bitmap, Set<Long> others) {
+    }
+}
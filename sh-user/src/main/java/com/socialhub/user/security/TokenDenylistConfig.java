@@ -0,0 +1,12 @@
+package com.socialhub.user.security;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the token denylist settings.
+ */
+@Configuration
+@EnableConfigurationProperties(TokenDenylistProperties.class)
+public class TokenDenylistConfig {
+}
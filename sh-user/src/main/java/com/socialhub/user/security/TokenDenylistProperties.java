@@ -0,0 +1,24 @@
+package com.socialhub.user.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the denylist of revoked sessions copied from AUTH-SERVICE.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.token-denylist")
+public class TokenDenylistProperties {
+
+    /**
+     * Whether access tokens of revoked sessions are rejected.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Interval between fetches of new revocations; the longest a revoked access token is still accepted.
+     */
+    private Duration syncInterval = Duration.ofSeconds(5);
+}
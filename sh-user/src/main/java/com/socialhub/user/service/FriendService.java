@@ -4,13 +4,19 @@ import com.socialhub.user.dto.FriendActionRequest;
 import com.socialhub.user.dto.FriendResponse;
 import com.socialhub.user.entity.Friend;
 import com.socialhub.user.entity.User;
+import com.socialhub.user.event.FriendRemovedEvent;
+import com.socialhub.user.event.FriendRequestAcceptedEvent;
+import com.socialhub.user.event.FriendRequestDeclinedEvent;
+import com.socialhub.user.event.FriendRequestSentEvent;
 import com.socialhub.user.exception.ResourceNotFoundException;
 import com.socialhub.user.repository.FriendRepository;
 import com.socialhub.user.repository.UserRepository;
+import com.socialhub.user.repository.projection.FriendRequestView;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -24,6 +30,7 @@ public class FriendService {
 
     private final FriendRepository friendRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Sends a friend request from the authenticated user to another user.
@@ -60,8 +67,9 @@ public class FriendService {
                 .requestedAt(LocalDateTime.now())
                 .build();
 
-        friendRepository.save(friendRequest);
-
+        Friend savedRequest = friendRepository.save(friendRequest);
+        eventPublisher.publishEvent(new FriendRequestSentEvent(savedRequest.getId(), fromUser.getId(),
+                fromUser.getUsername(), toUser.getId()));
     }
 
     /**
@@ -96,8 +104,8 @@ public class FriendService {
                 .requestedAt(LocalDateTime.now())
                 .build();
         friendRepository.save(reciprocalFriend);
-
-
+        eventPublisher.publishEvent(new FriendRequestAcceptedEvent(friendRequest.getId(), toUser.getId(),
+                toUser.getUsername(), friendRequest.getUserId()));
     }
 
     /**
@@ -123,7 +131,8 @@ public class FriendService {
         // Update the status to DECLINED
         friendRequest.setStatus(Friend.Status.DECLINED);
         friendRepository.save(friendRequest);
-
+        eventPublisher.publishEvent(new FriendRequestDeclinedEvent(friendRequest.getId(), toUser.getId(),
+                friendRequest.getUserId()));
     }
 
     /**
@@ -132,12 +141,10 @@ public class FriendService {
      * @param username the username of the authenticated user
      * @return List of friend usernames
      */
+    @Transactional(readOnly = true)
     public List<String> getFriends(String username) {
         User user = getUserByUsername(username);
-        List<Friend> friends = friendRepository.findByUserIdAndStatus(user.getId(), Friend.Status.ACCEPTED);
-        return friends.stream()
-                .map(friend -> getUsernameById(friend.getFriendId()))
-                .collect(Collectors.toList());
+        return friendRepository.findFriendUsernames(user.getId(), Friend.Status.ACCEPTED);
     }
 
     /**
@@ -146,17 +153,11 @@ public class FriendService {
      * @param username the username of the authenticated user
      * @return List of FriendResponse DTOs representing received friend requests
      */
+    @Transactional(readOnly = true)
     public List<FriendResponse> getReceivedFriendRequests(String username) {
         User user = getUserByUsername(username);
-        List<Friend> receivedRequests = friendRepository.findByFriendIdAndStatus(user.getId(), Friend.Status.PENDING);
-        return receivedRequests.stream()
-                .map(request -> FriendResponse.builder()
-                        .requestId(request.getId())
-                        .fromUsername(getUsernameById(request.getUserId()))
-                        .toUsername(getUsernameById(request.getFriendId()))
-                        .status(FriendResponse.Status.PENDING)
-                        .requestedAt(request.getRequestedAt())
-                        .build())
+        return friendRepository.findReceivedRequests(user.getId(), Friend.Status.PENDING).stream()
+                .map(this::mapToPendingFriendResponse)
                 .collect(Collectors.toList());
     }
 
@@ -166,17 +167,11 @@ public class FriendService {
      * @param username the username of the authenticated user
      * @return List of FriendResponse DTOs representing sent friend requests
      */
+    @Transactional(readOnly = true)
     public List<FriendResponse> getSentFriendRequests(String username) {
         User user = getUserByUsername(username);
-        List<Friend> sentRequests = friendRepository.findByUserIdAndStatus(user.getId(), Friend.Status.PENDING);
-        return sentRequests.stream()
-                .map(request -> FriendResponse.builder()
-                        .requestId(request.getId())
-                        .fromUsername(getUsernameById(request.getUserId()))
-                        .toUsername(getUsernameById(request.getFriendId()))
-                        .status(FriendResponse.Status.PENDING)
-                        .requestedAt(request.getRequestedAt())
-                        .build())
+        return friendRepository.findSentRequests(user.getId(), Friend.Status.PENDING).stream()
+                .map(this::mapToPendingFriendResponse)
                 .collect(Collectors.toList());
     }
 
@@ -201,7 +196,7 @@ public class FriendService {
         // Delete the original friend relationship if exists
         friendRepository.findByUserIdAndFriendIdAndStatus(friendId, user.getId(), Friend.Status.ACCEPTED)
                 .ifPresent(friendRepository::delete);
-
+        eventPublisher.publishEvent(new FriendRemovedEvent(user.getId(), friend.getId()));
     }
 
     /**
@@ -227,12 +222,18 @@ public class FriendService {
     }
 
     /**
-     * Retrieves a username by user ID.
+     * Maps a pending friend request projection to FriendResponse DTO.
      *
-     * @param id the ID of the user
-     * @return Username as a String
+     * @param request the friend request with both usernames
+     * @return FriendResponse DTO
      */
-    private String getUsernameById(Long id) {
-        return getUserById(id).getUsername();
+    private FriendResponse mapToPendingFriendResponse(FriendRequestView request) {
+        return FriendResponse.builder()
+                .requestId(request.getRequestId())
+                .fromUsername(request.getFromUsername())
+                .toUsername(request.getToUsername())
+                .status(FriendResponse.Status.PENDING)
+                .requestedAt(request.getRequestedAt())
+                .build();
     }
 }
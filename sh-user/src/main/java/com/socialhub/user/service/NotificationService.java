@@ -0,0 +1,302 @@
+package com.socialhub.user.service;
+
+import com.socialhub.user.cluster.ClusterMembership;
+import com.socialhub.user.dto.NotificationPageResponse;
+import com.socialhub.user.dto.NotificationReadRequest;
+import com.socialhub.user.dto.NotificationResponse;
+import com.socialhub.user.dto.UnreadCountResponse;
+import com.socialhub.user.entity.Notification;
+import com.socialhub.user.entity.NotificationCounter;
+import com.socialhub.user.entity.User;
+import com.socialhub.user.event.FriendRequestAcceptedEvent;
+import com.socialhub.user.event.FriendRequestSentEvent;
+import com.socialhub.user.event.PostCommentedEvent;
+import com.socialhub.user.event.PostLikedEvent;
+import com.socialhub.user.exception.CustomException;
+import com.socialhub.user.notification.NotificationBus;
+import com.socialhub.user.notification.NotificationProperties;
+import com.socialhub.user.notification.NotificationType;
+import com.socialhub.user.repository.NotificationCounterRepository;
+import com.socialhub.user.repository.NotificationRepository;
+import com.socialhub.user.repository.UserRepository;
+import com.socialhub.user.repository.projection.NotificationView;
+import com.socialhub.user.repository.projection.UnreadCountView;
+import com.socialhub.user.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Service turning likes, comments and friend requests into notifications for the affected user.
+ * <p>
+ * Each notification is recorded in the recipient's inbox, together with the recipient's
+ * unread count, and then pushed to their open streams. The inbox and the counters live on
+ * the default shard. Notifications are recorded while the change is made, through
+ * {@link ShardRouter#onDefaultShard(Runnable)}: in the same transaction when the change is
+ * made on the default shard, otherwise right after the change's shard transaction commits,
+ * in a transaction of their own, where a failure is logged and the committed change stands.
+ * They are pushed once that transaction has committed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationService {
+
+    /**
+     * Bits below the timestamp in notification IDs, holding the node ID of the instance that
+     * recorded the notification.
+     */
+    static final int NODE_BITS = 10;
+
+    private final NotificationBus notificationBus;
+    private final NotificationProperties properties;
+    private final NotificationRepository notificationRepository;
+    private final NotificationCounterRepository notificationCounterRepository;
+    private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+    private final ClusterMembership clusterMembership;
+
+    /**
+     * Timestamp of the last notification ID this instance derived: the current time in
+     * microseconds since the epoch, bumped by one when several notifications are recorded
+     * within the same microsecond. With the node ID below it, IDs keep growing across
+     * restarts, differ between instances and tell when an inbox entry was created; the
+     * recipient's counter then makes them increase per user across instances, so they can
+     * be compared with Last-Event-ID.
+     */
+    private final AtomicLong lastMicros = new AtomicLong();
+
+    /**
+     * Opens a notification stream for the authenticated user.
+     *
+     * @param username    the username of the authenticated user
+     * @param lastEventId the ID of the last notification the client received, or null
+     * @return SseEmitter streaming the user's notifications
+     */
+    public SseEmitter subscribe(String username, Long lastEventId) {
+        User user = getUserByUsername(username);
+        return notificationBus.subscribe(user.getId(), lastEventId);
+    }
+
+    /**
+     * Retrieves a page of the authenticated user's inbox, newest first.
+     *
+     * @param username the username of the authenticated user
+     * @param before   return notifications older than this ID, or null for the newest
+     * @param size     the number of notifications to return
+     * @return NotificationPageResponse with the notifications, the unread count and the next cursor
+     */
+    @Transactional(readOnly = true)
+    public NotificationPageResponse getNotifications(String username, Long before, int size) {
+        User user = getUserByUsername(username);
+        int pageSize = Math.max(1, Math.min(size, properties.getInboxMaxPageSize()));
+        long beforeId = before != null ? before : Long.MAX_VALUE;
+
+        List<NotificationView> notifications = notificationRepository
+                .findPageByUserId(user.getId(), beforeId, PageRequest.of(0, pageSize));
+
+        return NotificationPageResponse.builder()
+                .notifications(notifications.stream()
+                        .map(this::mapToNotificationResponse)
+                        .collect(Collectors.toList()))
+                .unreadCount(getUnreadCount(user.getId()))
+                .nextCursor(notifications.size() == pageSize
+                        ? notifications.get(notifications.size() - 1).getId()
+                        : null)
+                .build();
+    }
+
+    /**
+     * Retrieves the authenticated user's number of unread notifications.
+     *
+     * @param username the username of the authenticated user
+     * @return UnreadCountResponse with the unread count
+     */
+    @Transactional(readOnly = true)
+    public UnreadCountResponse getUnreadCount(String username) {
+        User user = getUserByUsername(username);
+        return UnreadCountResponse.builder().unreadCount(getUnreadCount(user.getId())).build();
+    }
+
+    /**
+     * Marks notifications of the authenticated user as read, either the given ones or
+     * all of them up to a given one.
+     *
+     * @param username the username of the authenticated user
+     * @param request  the IDs to mark, or the newest ID to mark up to
+     * @return UnreadCountResponse with the remaining unread count
+     */
+    @Transactional
+    public UnreadCountResponse markAsRead(String username, NotificationReadRequest request) {
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (!hasIds && request.getUpToId() == null) {
+            throw new CustomException("Either ids or upToId must be given", HttpStatus.BAD_REQUEST);
+        }
+        User user = getUserByUsername(username);
+
+        int marked = hasIds
+                ? notificationRepository.markRead(user.getId(), request.getIds())
+                : notificationRepository.markReadUpTo(user.getId(), request.getUpToId());
+        if (marked > 0) {
+            notificationCounterRepository.addUnread(user.getId(), -marked);
+        }
+        return UnreadCountResponse.builder().unreadCount(getUnreadCount(user.getId())).build();
+    }
+
+    /**
+     * Deletes notifications older than the retention, oldest first, in short transactions
+     * of at most {@link NotificationProperties#getInboxPruneBatchSize()} notifications each.
+     * Runs on the instance owning the job only.
+     */
+    @Scheduled(fixedDelayString = "${socialhub.notifications.inbox-prune-interval:PT1H}")
+    public void pruneInbox() {
+        if (!clusterMembership.owns("notification-inbox-prune")) {
+            return;
+        }
+        long cutoffId = firstIdAt(Instant.now().minus(properties.getInboxRetention()));
+        int batchSize = properties.getInboxPruneBatchSize();
+        long deleted = 0;
+        boolean more = true;
+        while (more) {
+            Long bound = notificationRepository.findPruneBound(cutoffId, batchSize);
+            more = bound != null;
+            long boundId = more ? bound : cutoffId;
+            deleted += shardRouter.inDefaultShard(() -> {
+                List<UnreadCountView> unread = notificationRepository.countUnreadBefore(boundId);
+                int count = notificationRepository.deleteBefore(boundId);
+                unread.forEach(view -> notificationCounterRepository.addUnread(view.getUserId(), -view.getUnreadCount()));
+                return count;
+            });
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} notifications older than {}", deleted, properties.getInboxRetention());
+        }
+    }
+
+    @EventListener
+    public void onPostLiked(PostLikedEvent event) {
+        notify(event.postAuthorId(), event.likerId(), NotificationResponse.builder()
+                .type(NotificationType.POST_LIKED)
+                .actorUsername(event.likerUsername())
+                .postId(event.postId())
+                .createdAt(event.likedAt()));
+    }
+
+    @EventListener
+    public void onPostCommented(PostCommentedEvent event) {
+        notify(event.postAuthorId(), event.commenterId(), NotificationResponse.builder()
+                .type(NotificationType.POST_COMMENTED)
+                .actorUsername(event.commenterUsername())
+                .postId(event.postId())
+                .commentId(event.commentId())
+                .createdAt(event.createdAt()));
+    }
+
+    @EventListener
+    public void onFriendRequestSent(FriendRequestSentEvent event) {
+        notify(event.recipientId(), event.senderId(), NotificationResponse.builder()
+                .type(NotificationType.FRIEND_REQUEST_RECEIVED)
+                .actorUsername(event.senderUsername())
+                .friendRequestId(event.requestId())
+                .createdAt(LocalDateTime.now()));
+    }
+
+    @EventListener
+    public void onFriendRequestAccepted(FriendRequestAcceptedEvent event) {
+        notify(event.requesterId(), event.accepterId(), NotificationResponse.builder()
+                .type(NotificationType.FRIEND_REQUEST_ACCEPTED)
+                .actorUsername(event.accepterUsername())
+                .friendRequestId(event.requestId())
+                .createdAt(LocalDateTime.now()));
+    }
+
+    /**
+     * Records and publishes a notification unless the users acted on their own content.
+     */
+    private void notify(Long recipientId, Long actorId, NotificationResponse.NotificationResponseBuilder builder) {
+        if (recipientId.equals(actorId)) {
+            return;
+        }
+        shardRouter.onDefaultShard(() -> record(recipientId, actorId, builder));
+    }
+
+    private void record(Long recipientId, Long actorId, NotificationResponse.NotificationResponseBuilder builder) {
+        long micros = lastMicros.accumulateAndGet(toMicros(Instant.now()), (last, now) -> Math.max(last + 1, now));
+        notificationCounterRepository.addNotification(recipientId, micros << NODE_BITS | nodeId());
+        long id = notificationCounterRepository.findLastId(recipientId);
+        NotificationResponse notification = builder.id(id).build();
+
+        notificationRepository.insert(Notification.builder()
+                .userId(recipientId)
+                .id(id)
+                .type(notification.getType())
+                .actorId(actorId)
+                .postId(notification.getPostId())
+                .commentId(notification.getCommentId())
+                .friendRequestId(notification.getFriendRequestId())
+                .build());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notificationBus.publish(recipientId, notification);
+            }
+        });
+    }
+
+    private int getUnreadCount(Long userId) {
+        return notificationCounterRepository.findById(userId)
+                .map(NotificationCounter::getUnreadCount)
+                .orElse(0);
+    }
+
+    private NotificationResponse mapToNotificationResponse(NotificationView notification) {
+        return NotificationResponse.builder()
+                .id(notification.getId())
+                .type(notification.getType())
+                .actorUsername(notification.getActorUsername())
+                .postId(notification.getPostId())
+                .commentId(notification.getCommentId())
+                .friendRequestId(notification.getFriendRequestId())
+                .createdAt(LocalDateTime.ofInstant(Instant.EPOCH.plus(notification.getId() >> NODE_BITS, ChronoUnit.MICROS),
+                        ZoneId.systemDefault()))
+                .read(notification.isRead())
+                .build();
+    }
+
+    private User getUserByUsername(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new CustomException("User not found with username: " + username, HttpStatus.NOT_FOUND));
+    }
+
+    private int nodeId() {
+        Integer nodeId = properties.getNodeId();
+        return Math.floorMod(nodeId != null ? nodeId : clusterMembership.getSelf().id().hashCode(), 1 << NODE_BITS);
+    }
+
+    /**
+     * @return the lowest notification ID recorded at or after the given time
+     */
+    static long firstIdAt(Instant time) {
+        return toMicros(time) << NODE_BITS;
+    }
+
+    private static long toMicros(Instant time) {
+        return time.getEpochSecond() * 1_000_000 + time.getNano() / 1000;
+    }
+}
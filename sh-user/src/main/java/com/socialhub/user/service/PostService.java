@@ -1,33 +1,84 @@
 package com.socialhub.user.service;
 
+import com.socialhub.user.comment.CommentPath;
 import com.socialhub.user.dto.*;
 import com.socialhub.user.entity.*;
+import com.socialhub.user.event.PostCommentedEvent;
+import com.socialhub.user.event.PostCreatedEvent;
+import com.socialhub.user.event.PostDeletedEvent;
+import com.socialhub.user.event.PostLikedEvent;
 import com.socialhub.user.exception.CustomException;
+import com.socialhub.user.likes.LikeIndex;
 import com.socialhub.user.repository.*;
+import com.socialhub.user.repository.projection.CommentView;
+import com.socialhub.user.repository.projection.LikeView;
+import com.socialhub.user.repository.projection.PostView;
+import com.socialhub.user.search.PostSearchIndex;
+import com.socialhub.user.sharding.ShardRouter;
+import com.socialhub.user.trending.TrendingPostsEngine;
+import com.socialhub.user.trending.TrendingSnapshot;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Service to handle post-related operations.
+ * <p>
+ * Posts, likes and comments live on the shard owning the author's bucket (see {@link ShardRouter});
+ * users live on the default shard and are always resolved outside the shard calls.
  */
 @Service
 @RequiredArgsConstructor
 public class PostService {
 
+    /**
+     * Most comments returned for one thread.
+     */
+    private static final int MAX_THREAD_COMMENTS = 1000;
+
+    /**
+     * Most comments or likes returned per page, whatever size is requested.
+     */
+    private static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Comments or likes returned in summary mode.
+     */
+    private static final int SUMMARY_SIZE = 3;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private static final Comparator<PostView> NEWEST_POST_FIRST = Comparator
+            .comparing(PostView::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(PostView::getId, Comparator.reverseOrder());
+
     private final PostRepository postRepository;
     private final UserRepository userRepository;
-    private final FriendRepository friendRepository;
     private final LikeRepository likeRepository;
     private final CommentRepository commentRepository;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TrendingPostsEngine trendingPostsEngine;
+    private final PostSearchIndex postSearchIndex;
+    private final LikeIndex likeIndex;
 
     /**
      * Creates a new post for the authenticated user.
@@ -48,9 +99,12 @@ public class PostService {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        Post savedPost = postRepository.save(post);
-
-        return mapToPostResponse(savedPost, user);
+        return shardRouter.inAuthorShard(user.getId(), false, () -> {
+            Post savedPost = postRepository.save(post);
+            eventPublisher.publishEvent(new PostCreatedEvent(savedPost.getId(), user.getId(), user.getUsername(),
+                    savedPost.getContent(), savedPost.getCreatedAt()));
+            return mapToPostResponse(savedPost, user);
+        });
     }
 
     /**
@@ -62,25 +116,28 @@ public class PostService {
     @Transactional
     public void likePost(Long postId, String username) {
         User user = getUserByUsername(username);
-        Post post = getPostById(postId);
-
-        // Check if the user has already liked the post
-        if (likeRepository.existsByPostIdAndUserId(postId, user.getId())) {
-            throw new CustomException("You have already liked this post.", HttpStatus.BAD_REQUEST);
-        }
-
-        Like like = Like.builder()
-                .postId(postId)
-                .userId(user.getId())
-                .likedAt(LocalDateTime.now())
-                .build();
-
-        likeRepository.save(like);
 
+        inPostShard(postId, false, post -> {
+            // Check if the user has already liked the post
+            if (likeRepository.existsByPostIdAndUserId(postId, user.getId())) {
+                throw new CustomException("You have already liked this post.", HttpStatus.BAD_REQUEST);
+            }
+
+            Like like = Like.builder()
+                    .postId(postId)
+                    .userId(user.getId())
+                    .likedAt(LocalDateTime.now())
+                    .build();
+
+            Like savedLike = likeRepository.save(like);
+            eventPublisher.publishEvent(new PostLikedEvent(postId, post.getUserId(), user.getId(),
+                    user.getUsername(), savedLike.getLikedAt()));
+            return savedLike;
+        });
     }
 
     /**
-     * Allows a user to comment on a post.
+     * Allows a user to comment on a post or reply to one of its comments.
      *
      * @param postId         the ID of the post to comment on
      * @param commentRequest the comment creation request
@@ -90,7 +147,6 @@ public class PostService {
     @Transactional
     public CommentResponse commentPost(Long postId, CommentRequest commentRequest, String username) {
         User user = getUserByUsername(username);
-        Post post = getPostById(postId);
 
         Comment comment = Comment.builder()
                 .postId(postId)
@@ -99,38 +155,97 @@ public class PostService {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        Comment savedComment = commentRepository.save(comment);
+        Comment savedComment = inPostShard(postId, false, post -> {
+            Comment saved = commentRequest.getParentId() == null
+                    ? saveTopLevelComment(comment)
+                    : saveReply(comment, commentRequest.getParentId());
+            eventPublisher.publishEvent(new PostCommentedEvent(postId, post.getUserId(), saved.getId(),
+                    user.getId(), user.getUsername(), saved.getCreatedAt()));
+            return saved;
+        });
         return mapToCommentResponse(savedComment, user);
     }
 
     /**
-     * Retrieves all posts.
+     * Retrieves all posts, newest first.
      *
+     * @param page           the page number
+     * @param size           the page size
+     * @param viewerUsername the username of the user viewing the posts
      * @return List of PostResponse containing all posts
      */
-    public List<PostResponse> getAllPosts(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        List<Post> posts = postRepository.findAll(pageable).getContent();
+    @Transactional(readOnly = true)
+    public List<PostResponse> getAllPosts(int page, int size, String viewerUsername) {
+        List<PostView> posts = findNewestPosts(page, size);
+        Map<Long, String> usernames = resolveMissingUsernames(posts, PostView::getUserId, PostView::getUsername);
+        Set<Long> liked = findLikedByViewer(userRepository.findByUsername(viewerUsername).map(User::getId).orElse(null),
+                posts);
         return posts.stream()
-                .map(post -> {
-                    User user = getUserById(post.getUserId());
-                    return mapToPostResponse(post, user);
-                })
+                .map(post -> mapToPostResponse(post, Optional.ofNullable(post.getUsername())
+                        .orElseGet(() -> usernames.get(post.getUserId())), liked))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves the trending posts from the latest snapshot of the trending engine.
+     * Does not query the database.
+     *
+     * @param limit the maximum number of posts to return
+     * @return TrendingPostsResponse with the posts ranked by score
+     */
+    public TrendingPostsResponse getTrendingPosts(int limit) {
+        TrendingSnapshot snapshot = trendingPostsEngine.getSnapshot();
+        List<TrendingSnapshot.TrendingPost> posts = snapshot.posts();
+        int count = Math.max(0, Math.min(limit, posts.size()));
+        List<TrendingPostResponse> ranked = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ranked.add(TrendingPostResponse.builder()
+                    .rank(i + 1)
+                    .postId(posts.get(i).postId())
+                    .score(posts.get(i).score())
+                    .build());
+        }
+        return TrendingPostsResponse.builder()
+                .generatedAt(snapshot.generatedAt())
+                .posts(ranked)
+                .build();
+    }
+
+    /**
+     * Searches post content using the embedded search index.
+     * Does not query the database.
+     *
+     * @param query the search text
+     * @param page  the page number (zero-based)
+     * @param size  the page size
+     * @return PaginatedResponse of matching posts, most relevant first
+     */
+    public PaginatedResponse<PostSearchResult> searchPosts(String query, int page, int size) {
+        return postSearchIndex.search(query, page, size);
+    }
+
     /**
      * Retrieves all posts created by a specific user.
      *
-     * @param username the username of the user
+     * @param username       the username of the user
+     * @param page           the page number
+     * @param size           the page size
+     * @param viewerUsername the username of the user viewing the posts
      * @return List of PostResponse containing the user's posts
      */
-    public PaginatedResponse<PostResponse> getPostsByUsername(String username, int page, int size) {
+    @Transactional(readOnly = true)
+    public PaginatedResponse<PostResponse> getPostsByUsername(String username, int page, int size,
+                                                              String viewerUsername) {
         User user = getUserByUsername(username);
+        Long viewerId = username.equals(viewerUsername) ? user.getId()
+                : userRepository.findByUsername(viewerUsername).map(User::getId).orElse(null);
         Pageable pageable = PageRequest.of(page, size);
-        Page<Post> postPage = postRepository.findByUserId(user.getId(), pageable);
+        Page<PostView> postPage = shardRouter.inAuthorShard(user.getId(), true,
+                () -> postRepository.findViewsByUserId(user.getId(), pageable));
+        // Outside the shard transaction: the like index may load from every shard
+        Set<Long> liked = findLikedByViewer(viewerId, postPage.getContent());
         List<PostResponse> content = postPage.getContent().stream()
-                .map(post -> mapToPostResponse(post, user))
+                .map(post -> mapToPostResponse(post, user.getUsername(), liked))
                 .collect(Collectors.toList());
         return PaginatedResponse.<PostResponse>builder()
                 .content(content)
@@ -149,61 +264,180 @@ public class PostService {
     @Transactional
     public void deletePost(Long postId, String username) {
         User user = getUserByUsername(username);
-        Post post = getPostById(postId);
 
-        if (!post.getUserId().equals(user.getId())) {
-            throw new CustomException("You are not authorized to delete this post.", HttpStatus.FORBIDDEN);
-        }
+        inPostShard(postId, false, post -> {
+            if (!post.getUserId().equals(user.getId())) {
+                throw new CustomException("You are not authorized to delete this post.", HttpStatus.FORBIDDEN);
+            }
 
-        postRepository.delete(post);
+            postRepository.delete(post);
+            eventPublisher.publishEvent(new PostDeletedEvent(postId, post.getUserId()));
+            return post;
+        });
     }
 
     /**
-     * Retrieves all comments associated with a specific post.
+     * Retrieves a page of the comments on a post in thread order, each comment followed by its replies.
      *
-     * @param postId the ID of the post
-     * @return List of CommentResponse DTOs
+     * @param postId  the ID of the post
+     * @param after   the cursor returned with the previous page, or null for the first page
+     * @param size    the number of comments to return, capped at {@value #MAX_PAGE_SIZE}
+     * @param summary whether to return only the comment count and the first few comments
+     * @return CursorPageResponse of CommentResponse DTOs
      */
-    public List<CommentResponse> getCommentsByPostId(Long postId) {
-        Post post = getPostById(postId); // Ensure the post exists
-
-        List<Comment> comments = commentRepository.findByPostId(postId);
-        return comments.stream()
-                .map(comment -> {
-                    User user = getUserById(comment.getUserId());
-                    return CommentResponse.builder()
-                            .id(comment.getId())
-                            .postId(comment.getPostId())
-                            .authorUsername(user.getUsername())
-                            .content(comment.getContent())
-                            .createdAt(comment.getCreatedAt())
-                            .build();
-                })
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CommentResponse> getCommentsByPostId(Long postId, String after, int size, boolean summary) {
+        int pageSize = summary ? SUMMARY_SIZE : clampPageSize(size);
+        String afterPath = summary || after == null ? "" : after;
+
+        // Ensures the post exists
+        CursorPageResponse<CommentView> page = inPostShard(postId, true, post -> {
+            List<CommentView> comments = commentRepository.findPageByPostId(postId, afterPath, PageRequest.of(0, pageSize));
+            return CursorPageResponse.<CommentView>builder()
+                    .content(comments)
+                    .nextCursor(summary || comments.size() < pageSize ? null : comments.get(comments.size() - 1).getPath())
+                    .totalCount(summary ? commentRepository.countByPostId(postId) : null)
+                    .build();
+        });
+
+        Map<Long, String> usernames = resolveMissingUsernames(page.getContent(), CommentView::getUserId, CommentView::getUsername);
+        return CursorPageResponse.<CommentResponse>builder()
+                .content(page.getContent().stream()
+                        .map(comment -> mapToCommentResponse(comment, usernames))
+                        .collect(Collectors.toList()))
+                .nextCursor(page.getNextCursor())
+                .totalCount(page.getTotalCount())
+                .build();
     }
 
     /**
-     * Retrieves all likes associated with a specific post.
+     * Retrieves a comment with its replies in thread order, read as one range of the post's comments.
+     * When the replies per comment are limited, the range is read in pages that skip the subtree of
+     * each reply beyond the limit.
      *
-     * @param postId the ID of the post
-     * @return List of LikeResponse DTOs
+     * @param postId    the ID of the post
+     * @param commentId the ID of the comment at the top of the thread
+     * @param depth     the number of reply levels to include, or null for all
+     * @param replies   the number of replies to include per comment, or null for all
+     * @return List of CommentResponse DTOs, the requested comment first
      */
-    public List<LikeResponse> getLikesByPostId(Long postId) {
-        Post post = getPostById(postId); // Ensure the post exists
-
-        List<Like> likes = likeRepository.findByPostId(postId);
-        return likes.stream()
-                .map(like -> {
-                    User user = getUserById(like.getUserId());
-                    return LikeResponse.builder()
-                            .id(like.getId())
-                            .username(user.getUsername())
-                            .likedAt(like.getLikedAt())
-                            .build();
-                })
+    @Transactional(readOnly = true)
+    public List<CommentResponse> getCommentThread(Long postId, Long commentId, Integer depth, Integer replies) {
+        if ((depth != null && depth < 0) || (replies != null && replies < 0)) {
+            throw new CustomException("Depth and replies cannot be negative", HttpStatus.BAD_REQUEST);
+        }
+
+        List<CommentView> thread = inPostShard(postId, true, post -> {
+            Comment top = commentRepository.findByIdAndPostId(commentId, postId)
+                    .orElseThrow(() -> new CustomException("Comment not found with ID: " + commentId, HttpStatus.NOT_FOUND));
+            String toPath = replies == null
+                    ? CommentPath.subtreeEnd(top.getPath())
+                    : CommentPath.firstRepliesEnd(top.getPath(), replies);
+            int maxDepth = depth == null ? CommentPath.MAX_DEPTH : top.getDepth() + Math.min(depth, CommentPath.MAX_DEPTH);
+
+            if (replies == null) {
+                return commentRepository.findThread(postId, top.getPath(), toPath, maxDepth,
+                        PageRequest.of(0, MAX_THREAD_COMMENTS));
+            }
+            // the range already stops after the top comment's first replies; deeper levels are skipped here
+            List<CommentView> comments = new ArrayList<>();
+            String fromPath = top.getPath();
+            while (fromPath != null && comments.size() < MAX_THREAD_COMMENTS) {
+                int limit = MAX_THREAD_COMMENTS - comments.size();
+                List<CommentView> page = commentRepository.findThread(postId, fromPath, toPath, maxDepth,
+                        PageRequest.of(0, limit));
+                fromPath = null;
+                for (CommentView comment : page) {
+                    String beyond = CommentPath.beyondFirstReplies(comment.getPath(), top.getPath(), replies);
+                    if (beyond != null) {
+                        fromPath = CommentPath.subtreeEnd(beyond);
+                        break;
+                    }
+                    comments.add(comment);
+                }
+            }
+            return comments;
+        });
+
+        Map<Long, String> usernames = resolveMissingUsernames(thread, CommentView::getUserId, CommentView::getUsername);
+        return thread.stream()
+                .map(comment -> mapToCommentResponse(comment, usernames))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves a page of the likes on a post, newest first.
+     *
+     * @param postId  the ID of the post
+     * @param after   the cursor returned with the previous page, or null for the first page
+     * @param size    the number of likes to return, capped at {@value #MAX_PAGE_SIZE}
+     * @param summary whether to return only the like count and the most recent likers
+     * @return CursorPageResponse of LikeResponse DTOs
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<LikeResponse> getLikesByPostId(Long postId, String after, int size, boolean summary) {
+        int pageSize = summary ? SUMMARY_SIZE : clampPageSize(size);
+        long beforeId = summary || after == null ? Long.MAX_VALUE : parseCursor(after);
+
+        // Ensures the post exists
+        CursorPageResponse<LikeView> page = inPostShard(postId, true, post -> {
+            List<LikeView> likes = likeRepository.findPageByPostId(postId, beforeId, PageRequest.of(0, pageSize));
+            return CursorPageResponse.<LikeView>builder()
+                    .content(likes)
+                    .nextCursor(summary || likes.size() < pageSize ? null : likes.get(likes.size() - 1).getId().toString())
+                    .totalCount(summary ? likeRepository.countByPostId(postId) : null)
+                    .build();
+        });
+
+        Map<Long, String> usernames = resolveMissingUsernames(page.getContent(), LikeView::getUserId, LikeView::getUsername);
+        return CursorPageResponse.<LikeResponse>builder()
+                .content(page.getContent().stream()
+                        .map(like -> LikeResponse.builder()
+                                .id(like.getId())
+                                .username(Optional.ofNullable(like.getUsername())
+                                        .orElseGet(() -> usernames.get(like.getUserId())))
+                                .likedAt(like.getLikedAt())
+                                .build())
+                        .collect(Collectors.toList()))
+                .nextCursor(page.getNextCursor())
+                .totalCount(page.getTotalCount())
+                .build();
+    }
+
+    /**
+     * Looks up, in one query, the usernames a shard query could not join. With sharding
+     * enabled users live on the default shard only, so rows read from other shards come
+     * back without them.
+     *
+     * @param rows     the rows read from a shard
+     * @param userId   extracts the user ID of a row
+     * @param username extracts the joined username of a row
+     * @return usernames of the rows lacking one, keyed by user ID
+     */
+    private <T> Map<Long, String> resolveMissingUsernames(List<T> rows, Function<T, Long> userId, Function<T, String> username) {
+        Set<Long> missing = rows.stream()
+                .filter(row -> username.apply(row) == null)
+                .map(userId)
+                .collect(Collectors.toSet());
+        if (missing.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findAllById(missing).stream()
+                .collect(Collectors.toMap(User::getId, User::getUsername));
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private static long parseCursor(String cursor) {
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException ex) {
+            throw new CustomException("Invalid cursor: " + cursor, HttpStatus.BAD_REQUEST);
+        }
+    }
+
     /**
      * Retrieves a user by username.
      *
@@ -216,46 +450,96 @@ public class PostService {
     }
 
     /**
-     * Retrieves a user by ID.
+     * Loads a post and runs work on it within a transaction on the shard holding it.
+     * Shards are probed in {@link ShardRouter#candidateShardsForPost(Long)} order. Read-write
+     * work holds a shared lock on the post, so {@link com.socialhub.user.sharding.ShardRebalancer}
+     * cannot move it meanwhile.
      *
-     * @param userId the ID of the user
-     * @return User entity
+     * @param postId   the ID of the post
+     * @param readOnly whether the transaction is read-only
+     * @param work     the work to run on the post; must not return null
+     * @return the work's result
      */
-    private User getUserById(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new CustomException("User not found with ID: " + userId, HttpStatus.NOT_FOUND));
+    private <T> T inPostShard(Long postId, boolean readOnly, Function<Post, T> work) {
+        for (String shard : shardRouter.candidateShardsForPost(postId)) {
+            Optional<T> result = shardRouter.inPostShard(shard, postId, readOnly,
+                    () -> (readOnly ? postRepository.findById(postId) : postRepository.findByIdForShare(postId))
+                            .map(work));
+            if (result.isPresent()) {
+                return result.get();
+            }
+        }
+        throw new CustomException("Post not found with ID: " + postId, HttpStatus.NOT_FOUND);
     }
 
     /**
-     * Retrieves a post by ID.
+     * Retrieves a page of the newest posts across all shards. Each shard returns its newest
+     * {@code (page + 1) * size} posts, already sorted, and the sorted runs are merged, so with
+     * more than one shard pages end within {@link ShardRouter#getMaxMergeWindow()}. A single
+     * shard is paged directly, without the limit.
      *
-     * @param postId the ID of the post
-     * @return Post entity
+     * @param page the page number
+     * @param size the page size
+     * @return posts newest first
      */
-    private Post getPostById(Long postId) {
-        return postRepository.findById(postId)
-                .orElseThrow(() -> new CustomException("Post not found with ID: " + postId, HttpStatus.NOT_FOUND));
+    private List<PostView> findNewestPosts(int page, int size) {
+        List<String> shards = shardRouter.getShards();
+        if (shards.size() == 1) {
+            return shardRouter.inShard(shards.get(0), true,
+                    () -> postRepository.findViewsBy(PageRequest.of(page, size, NEWEST_FIRST)));
+        }
+        if ((long) (page + 1) * size > shardRouter.getMaxMergeWindow()) {
+            throw new CustomException("Posts are limited to the newest "
+                    + shardRouter.getMaxMergeWindow() + ".", HttpStatus.BAD_REQUEST);
+        }
+
+        int offset = page * size;
+        Map<String, List<PostView>> newestPerShard = shardRouter.onEveryShard(true,
+                shard -> postRepository.findViewsBy(PageRequest.of(0, offset + size, NEWEST_FIRST)));
+
+        // k-way merge: the heap holds the next unmerged post of each shard
+        PriorityQueue<ShardCursor> heads = new PriorityQueue<>(
+                Comparator.comparing(ShardCursor::head, NEWEST_POST_FIRST));
+        newestPerShard.forEach((shard, posts) -> {
+            ShardCursor cursor = new ShardCursor(posts.iterator());
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        });
+
+        List<PostView> merged = new ArrayList<>(size);
+        for (int position = 0; position < offset + size && !heads.isEmpty(); position++) {
+            ShardCursor cursor = heads.poll();
+            if (position >= offset) {
+                merged.add(cursor.head());
+            }
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
     }
 
     /**
-     * Retrieves a list of friend usernames for a given user ID.
+     * Finds which posts of a page the viewer liked, in one pass over the like index.
      *
-     * @param userId the ID of the user
-     * @return List of friend usernames
+     * @param viewerId the ID of the viewer, or null if unknown
+     * @param posts    the posts of the page
+     * @return the IDs of the posts the viewer liked
      */
-    private List<String> getFriendsUsernames(Long userId) {
-        List<Friend> friends = friendRepository.findByUserIdAndStatus(userId, Friend.Status.ACCEPTED);
-        return friends.stream()
-                .map(friend -> getUserById(friend.getFriendId()).getUsername())
-                .collect(Collectors.toList());
+    private Set<Long> findLikedByViewer(Long viewerId, List<PostView> posts) {
+        if (viewerId == null || posts.isEmpty()) {
+            return Set.of();
+        }
+        return likeIndex.likedBy(viewerId, posts.stream().map(PostView::getId).toList());
     }
 
     /**
-     * Maps Post entity to PostResponse DTO.
+     * Maps a newly created Post entity to PostResponse DTO.
      *
      * @param post the Post entity
      * @param user the User entity (author)
-     * @return PostResponse DTO
+     * @return PostResponse DTO without likes or comments
      */
     private PostResponse mapToPostResponse(Post post, User user) {
         return PostResponse.builder()
@@ -265,8 +549,31 @@ public class PostService {
                 .mediaUrl(post.getMediaUrl())
                 .mediaType(post.getMediaType())
                 .createdAt(post.getCreatedAt())
-                .likeCount(likeRepository.countByPostId(post.getId()))
-                .commentCount((long) commentRepository.findByPostId(post.getId()).size())
+                .likeCount(0L)
+                .commentCount(0L)
+                .likedByMe(false)
+                .build();
+    }
+
+    /**
+     * Maps a post projection to PostResponse DTO.
+     *
+     * @param post           the post projection
+     * @param authorUsername the username of the author
+     * @param likedByViewer  the IDs of the posts the viewer liked
+     * @return PostResponse DTO
+     */
+    private PostResponse mapToPostResponse(PostView post, String authorUsername, Set<Long> likedByViewer) {
+        return PostResponse.builder()
+                .id(post.getId())
+                .authorUsername(authorUsername)
+                .content(post.getContent())
+                .mediaUrl(post.getMediaUrl())
+                .mediaType(post.getMediaType())
+                .createdAt(post.getCreatedAt())
+                .likeCount(post.getLikeCount())
+                .commentCount(post.getCommentCount())
+                .likedByMe(likedByViewer.contains(post.getId()))
                 .build();
     }
 
@@ -284,8 +591,95 @@ public class PostService {
                 .authorUsername(user.getUsername())
                 .content(comment.getContent())
                 .createdAt(comment.getCreatedAt())
+                .parentId(comment.getParentId())
+                .depth(comment.getDepth())
+                .replyCount(comment.getReplyCount())
+                .totalReplyCount(comment.getTotalReplyCount())
                 .build();
     }
 
+    /**
+     * Maps a comment projection to CommentResponse DTO.
+     *
+     * @param comment   the comment projection
+     * @param usernames usernames the projection could not join, keyed by user ID
+     * @return CommentResponse DTO
+     */
+    private CommentResponse mapToCommentResponse(CommentView comment, Map<Long, String> usernames) {
+        return CommentResponse.builder()
+                .id(comment.getId())
+                .postId(comment.getPostId())
+                .authorUsername(Optional.ofNullable(comment.getUsername())
+                        .orElseGet(() -> usernames.get(comment.getUserId())))
+                .content(comment.getContent())
+                .createdAt(comment.getCreatedAt())
+                .parentId(comment.getParentId())
+                .depth(comment.getDepth())
+                .replyCount(comment.getReplyCount())
+                .totalReplyCount(comment.getTotalReplyCount())
+                .build();
+    }
+
+    /**
+     * Saves a top-level comment, whose path is derived from its generated ID.
+     * Must run in the post's shard transaction.
+     *
+     * @param comment the new comment
+     * @return the saved comment
+     */
+    private Comment saveTopLevelComment(Comment comment) {
+        comment.setPath("");
+        Comment saved = commentRepository.save(comment);
+        saved.setPath(CommentPath.root(saved.getId()));
+        return saved;
+    }
 
+    /**
+     * Saves a reply after the parent's existing replies and counts it on all its ancestors.
+     * Must run in the post's shard transaction; the parent stays locked until it commits.
+     *
+     * @param comment  the new reply
+     * @param parentId the ID of the comment replied to
+     * @return the saved reply
+     */
+    private Comment saveReply(Comment comment, Long parentId) {
+        Comment parent = commentRepository.findByIdAndPostIdForUpdate(parentId, comment.getPostId())
+                .orElseThrow(() -> new CustomException("Comment not found with ID: " + parentId, HttpStatus.NOT_FOUND));
+        if (parent.getDepth() >= CommentPath.MAX_DEPTH) {
+            throw new CustomException("Replies cannot be nested more than " + CommentPath.MAX_DEPTH + " levels deep.",
+                    HttpStatus.BAD_REQUEST);
+        }
+        if (parent.getReplyCount() >= CommentPath.MAX_REPLIES) {
+            throw new CustomException("This comment cannot receive more replies.", HttpStatus.BAD_REQUEST);
+        }
+
+        comment.setParentId(parentId);
+        comment.setDepth(parent.getDepth() + 1);
+        comment.setPath(CommentPath.reply(parent.getPath(), parent.getReplyCount() + 1));
+        Comment saved = commentRepository.save(comment);
+        commentRepository.incrementReplyCounts(comment.getPostId(), CommentPath.ancestors(saved.getPath()), parentId);
+        return saved;
+    }
+
+    /**
+     * Position in one shard's sorted run of posts during the merge.
+     */
+    private static final class ShardCursor {
+
+        private final Iterator<PostView> posts;
+        private PostView head;
+
+        private ShardCursor(Iterator<PostView> posts) {
+            this.posts = posts;
+        }
+
+        private PostView head() {
+            return head;
+        }
+
+        private boolean advance() {
+            head = posts.hasNext() ? posts.next() : null;
+            return head != null;
+        }
+    }
 }
@@ -1,16 +1,34 @@
 package com.socialhub.user.service;
 
+import com.socialhub.user.dto.ProfileBatchRequest;
+import com.socialhub.user.dto.ProfileBatchResponse;
 import com.socialhub.user.dto.UserProfileResponse;
 import com.socialhub.user.dto.UserProfileUpdateRequest;
 import com.socialhub.user.entity.Profile;
 import com.socialhub.user.entity.User;
+import com.socialhub.user.event.ProfileUpdatedEvent;
 import com.socialhub.user.exception.ResourceNotFoundException;
+import com.socialhub.user.profile.CachedProfile;
+import com.socialhub.user.profile.ProfileCache;
 import com.socialhub.user.repository.ProfileRepository;
 import com.socialhub.user.repository.UserRepository;
+import com.socialhub.user.repository.projection.ProfileView;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Service to handle user profile-related operations.
@@ -21,35 +39,56 @@ public class ProfileService {
 
     private final ProfileRepository profileRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProfileCache profileCache;
 
     /**
-     * Retrieves a user's profile by their username.
+     * Retrieves a user's profile by their username, from the cache when possible.
+     * Not transactional, so that a cache hit does not touch the database.
      *
      * @param username the username of the user
-     * @return UserProfileResponse containing profile details
+     * @return the profile details with the version they were read at
      */
-    public UserProfileResponse getProfileByUsername(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
-
-        Profile profile = profileRepository.findByUser(user)
-                .orElseThrow(() -> new ResourceNotFoundException("Profile not found for user: " + username));
-
-        return mapToUserProfileResponse(user, profile);
+    public CachedProfile getProfileByUsername(String username) {
+        return profileCache.getByUsername(username).orElseGet(() -> cache(profileRepository.findViewByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("Profile not found for user: " + username))));
     }
 
     /**
-     * Retrieves a user's profile by their profile ID.
+     * Retrieves a user's profile by their profile ID, from the cache when possible.
+     * Not transactional, so that a cache hit does not touch the database.
      *
      * @param profileId the ID of the profile
-     * @return UserProfileResponse containing profile details
+     * @return the profile details with the version they were read at
      */
-    public UserProfileResponse getProfileById(Long profileId) {
-        Profile profile = profileRepository.findById(profileId)
-                .orElseThrow(() -> new ResourceNotFoundException("Profile not found with ID: " + profileId));
-        User user = profile.getUser();
+    public CachedProfile getProfileById(Long profileId) {
+        return profileCache.getById(profileId).orElseGet(() -> cache(profileRepository.findViewById(profileId)
+                .orElseThrow(() -> new ResourceNotFoundException("Profile not found with ID: " + profileId))));
+    }
 
-        return mapToUserProfileResponse(user, profile);
+    /**
+     * Retrieves several profiles at once by profile ID and by user ID. Duplicate IDs are collapsed,
+     * cached profiles are served from the cache and the rest are read with at most one query per
+     * kind of ID. IDs without a profile are reported rather than failing the lookup.
+     *
+     * @param request the profile IDs and user IDs to look up
+     * @return ProfileBatchResponse with the profiles found, in request order, and the IDs not found
+     */
+    public ProfileBatchResponse getProfiles(ProfileBatchRequest request) {
+        Set<Long> profileIds = distinct(request.getProfileIds());
+        Set<Long> userIds = distinct(request.getUserIds());
+
+        Map<Long, UserProfileResponse> byProfileId = resolve(profileIds, profileCache::getById,
+                profileRepository::findViewsByIdIn, ProfileView::getProfileId);
+        Map<Long, UserProfileResponse> byUserId = resolve(userIds, profileCache::getByUserId,
+                profileRepository::findViewsByUserIdIn, ProfileView::getUserId);
+
+        return ProfileBatchResponse.builder()
+                .profiles(byProfileId)
+                .users(byUserId)
+                .missingProfileIds(profileIds.stream().filter(id -> !byProfileId.containsKey(id)).toList())
+                .missingUserIds(userIds.stream().filter(id -> !byUserId.containsKey(id)).toList())
+                .build();
     }
 
     /**
@@ -80,21 +119,70 @@ public class ProfileService {
             profile.setProfilePictureUrl(updateRequest.getProfilePictureUrl());
         }
 
-        profileRepository.save(profile);
+        // Flush so that the event carries the incremented version
+        profileRepository.saveAndFlush(profile);
+        eventPublisher.publishEvent(new ProfileUpdatedEvent(profile.getId(), user.getId(), user.getUsername(),
+                profile.getFirstName(), profile.getLastName(), profile.getVersion()));
+    }
+
+    /**
+     * Looks up profiles in the cache and reads the ones not cached with a single query.
+     *
+     * @param ids    the IDs to look up
+     * @param cached the cache lookup by ID
+     * @param load   the query for the IDs not cached
+     * @param key    the ID of a loaded profile, of the same kind as the requested IDs
+     * @return the profiles found, keyed by ID in request order
+     */
+    private Map<Long, UserProfileResponse> resolve(Set<Long> ids, Function<Long, Optional<CachedProfile>> cached,
+                                                   Function<List<Long>, List<ProfileView>> load,
+                                                   Function<ProfileView, Long> key) {
+        Map<Long, UserProfileResponse> found = new HashMap<>();
+        List<Long> uncached = new ArrayList<>();
+        for (Long id : ids) {
+            cached.apply(id).ifPresentOrElse(profile -> found.put(id, profile.response()), () -> uncached.add(id));
+        }
+        if (!uncached.isEmpty()) {
+            load.apply(uncached).forEach(profile -> found.put(key.apply(profile), cache(profile).response()));
+        }
+
+        Map<Long, UserProfileResponse> ordered = new LinkedHashMap<>();
+        ids.stream().filter(found::containsKey).forEach(id -> ordered.put(id, found.get(id)));
+        return ordered;
+    }
+
+    private static Set<Long> distinct(List<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>();
+        if (ids != null) {
+            ids.stream().filter(Objects::nonNull).forEach(distinct::add);
+        }
+        return distinct;
+    }
+
+    /**
+     * Caches a profile read from the database.
+     *
+     * @param profile the profile projection
+     * @return the cached profile
+     */
+    private CachedProfile cache(ProfileView profile) {
+        CachedProfile cached = new CachedProfile(profile.getProfileId(), profile.getVersion(),
+                mapToUserProfileResponse(profile));
+        profileCache.put(cached);
+        return cached;
     }
 
     /**
-     * Maps User and Profile entities to UserProfileResponse DTO.
+     * Maps a profile projection to UserProfileResponse DTO.
      *
-     * @param user the User entity
-     * @param profile the Profile entity
+     * @param profile the profile with its owner's username and email
      * @return UserProfileResponse DTO
      */
-    private UserProfileResponse mapToUserProfileResponse(User user, Profile profile) {
+    private UserProfileResponse mapToUserProfileResponse(ProfileView profile) {
         return UserProfileResponse.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
+                .id(profile.getUserId())
+                .username(profile.getUsername())
+                .email(profile.getEmail())
                 .firstName(profile.getFirstName())
                 .lastName(profile.getLastName())
                 .bio(profile.getBio())
@@ -3,14 +3,16 @@ package com.socialhub.user.service;
 import com.socialhub.user.dto.UserDetailsResponse;
 import com.socialhub.user.entity.Profile;
 import com.socialhub.user.entity.User;
+import com.socialhub.user.event.UserRegisteredEvent;
 import com.socialhub.user.exception.CustomException;
 import com.socialhub.user.repository.ProfileRepository;
 import com.socialhub.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 /**
@@ -23,6 +25,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final ProfileRepository profileRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Creates a user profile in user_SERVICE based on the registered user details from AUTH_SERVICE.
@@ -55,6 +58,7 @@ public class UserService {
                 .profilePictureUrl("")
                 .build();
 
-        profileRepository.save(profile);
+        Profile savedProfile = profileRepository.save(profile);
+        eventPublisher.publishEvent(new UserRegisteredEvent(savedUser.getId(), savedProfile.getId(), savedUser.getUsername()));
     }
 }
@@ -0,0 +1,320 @@
+package com.socialhub.user.service;
+
+import com.socialhub.user.dto.UserSuggestionResponse;
+import com.socialhub.user.entity.Friend;
+import com.socialhub.user.event.ProfileUpdatedEvent;
+import com.socialhub.user.event.UserRegisteredEvent;
+import com.socialhub.user.exception.CustomException;
+import com.socialhub.user.outbox.ChangeEventBus;
+import com.socialhub.user.repository.FriendRepository;
+import com.socialhub.user.repository.ProfileRepository;
+import com.socialhub.user.repository.projection.FriendCountView;
+import com.socialhub.user.repository.projection.ProfileNameView;
+import com.socialhub.user.suggest.UserSuggestIndex;
+import com.socialhub.user.suggest.UserSuggestProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Service suggesting users whose username or profile name starts with a prefix.
+ * <p>
+ * Lookups read an immutable {@link UserSuggestIndex} rebuilt from the database periodically,
+ * plus a small concurrent map of users registered or renamed since, so new users are
+ * suggested immediately, including users registered or renamed through other instances, which
+ * arrive through the outbox's {@link ChangeEventBus}. Suggestions are ranked by number of friends.
+ * <p>
+ * Once too many users are pending, a rebuild is started in the background; the thread adding
+ * the user does not wait for it.
+ */
+@Slf4j
+@Service
+public class UserSuggestService {
+
+    private static final int LOAD_BATCH_SIZE = 5_000;
+
+    private final UserSource userSource;
+    private final UserSuggestProperties properties;
+    private final ChangeEventBus changeEventBus;
+
+    /**
+     * Users registered or renamed since the last rebuild, by name key and by profile ID.
+     * Both maps are changed together while holding {@link #pendingLock}.
+     */
+    private final ConcurrentSkipListMap<String, PendingUser> pendingKeys = new ConcurrentSkipListMap<>();
+    private final Map<Long, PendingUser> pendingUsers = new ConcurrentHashMap<>();
+    private final Object pendingLock = new Object();
+    private long sequence;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final ExecutorService backgroundRebuild = Executors.newSingleThreadExecutor(
+            new CustomizableThreadFactory("user-suggest-rebuild-"));
+
+    private volatile UserSuggestIndex index = UserSuggestIndex.EMPTY;
+
+    @Autowired
+    public UserSuggestService(ProfileRepository profileRepository,
+                              FriendRepository friendRepository,
+                              UserSuggestProperties properties,
+                              ChangeEventBus changeEventBus) {
+        this(new RepositoryUserSource(profileRepository, friendRepository), properties, changeEventBus);
+    }
+
+    UserSuggestService(UserSource userSource, UserSuggestProperties properties, ChangeEventBus changeEventBus) {
+        this.userSource = userSource;
+        this.properties = properties;
+        this.changeEventBus = changeEventBus;
+    }
+
+    /**
+     * Suggests users for a prefix of their username, first name, last name or full name.
+     *
+     * @param prefix the typed prefix
+     * @param limit  the maximum number of suggestions
+     * @return List of UserSuggestionResponse, most popular first
+     */
+    public List<UserSuggestionResponse> suggest(String prefix, int limit) {
+        String normalized = UserSuggestIndex.normalize(prefix);
+        if (normalized.isEmpty()) {
+            throw new CustomException("Prefix must not be blank.", HttpStatus.BAD_REQUEST);
+        }
+        int count = Math.max(0, Math.min(limit, properties.getMaxResults()));
+
+        UserSuggestIndex snapshot = index;
+        Map<Long, Candidate> candidates = new LinkedHashMap<>();
+        int requested = count;
+        while (true) {
+            List<Integer> top = snapshot.top(normalized, requested);
+            int renamedAway = 0;
+            candidates.clear();
+            for (int user : top) {
+                long profileId = snapshot.profileId(user);
+                PendingUser renamed = pendingUsers.get(profileId);
+                if (renamed == null) {
+                    candidates.put(profileId, new Candidate(profileId, snapshot.username(user),
+                            snapshot.displayName(user), snapshot.popularity(user)));
+                } else if (renamed.matches(normalized)) {
+                    candidates.put(profileId, new Candidate(profileId, renamed.username(), renamed.displayName(),
+                            snapshot.popularity(user)));
+                } else {
+                    // indexed under a name the user no longer has
+                    renamedAway++;
+                }
+            }
+            if (renamedAway == 0 || top.size() < requested || requested >= count + renamedAway) {
+                break;
+            }
+            requested = count + renamedAway;
+        }
+        pendingKeys.subMap(normalized, true, normalized + Character.MAX_VALUE, true).values().stream()
+                .limit(count * 4L)
+                .forEach(pending -> candidates.putIfAbsent(pending.profileId(), new Candidate(pending.profileId(),
+                        pending.username(), pending.displayName(), pending.popularity())));
+
+        return candidates.values().stream()
+                .sorted(Comparator.comparingInt(Candidate::popularity).reversed()
+                        .thenComparing(Candidate::username))
+                .limit(count)
+                .map(candidate -> UserSuggestionResponse.builder()
+                        .profileId(candidate.profileId())
+                        .username(candidate.username())
+                        .displayName(candidate.displayName())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Subscribes to users registered or renamed through any instance; those of this instance
+     * are already added when their transaction commits.
+     */
+    @PostConstruct
+    public void subscribeToChanges() {
+        changeEventBus.subscribe(UserRegisteredEvent.class, this::onUserRegistered);
+        changeEventBus.subscribe(ProfileUpdatedEvent.class, this::onProfileUpdated);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        addPending(event.profileId(), event.username(), null, null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileUpdated(ProfileUpdatedEvent event) {
+        addPending(event.profileId(), event.username(), event.firstName(), event.lastName());
+    }
+
+    /**
+     * Rebuilds the index from the database once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the index from the database, refreshing popularity and dropping stale names.
+     */
+    @Scheduled(initialDelayString = "${socialhub.suggest.rebuild-interval:PT10M}",
+            fixedDelayString = "${socialhub.suggest.rebuild-interval:PT10M}")
+    public void rebuild() {
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            long sequenceAtStart;
+            synchronized (pendingLock) {
+                sequenceAtStart = sequence;
+            }
+
+            Map<Long, Integer> friendCounts = userSource.friendCounts();
+
+            UserSuggestIndex.Builder builder = new UserSuggestIndex.Builder();
+            long lastProfileId = 0;
+            List<ProfileNameView> batch;
+            do {
+                batch = userSource.namesAfter(lastProfileId, LOAD_BATCH_SIZE);
+                for (ProfileNameView view : batch) {
+                    builder.add(view.getProfileId(), view.getUsername(), view.getFirstName(), view.getLastName(),
+                            friendCounts.getOrDefault(view.getUserId(), 0));
+                    lastProfileId = view.getProfileId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+
+            UserSuggestIndex rebuilt = builder.build();
+            synchronized (pendingLock) {
+                index = rebuilt;
+                pendingKeys.values().removeIf(pending -> pending.sequence() <= sequenceAtStart);
+                pendingUsers.values().removeIf(pending -> pending.sequence() <= sequenceAtStart);
+            }
+
+            log.info("Rebuilt user suggestion index: {} users, {} keys, {} KB in {} ms", rebuilt.userCount(),
+                    rebuilt.keyCount(), rebuilt.sizeInBytes() / 1024, System.currentTimeMillis() - started);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backgroundRebuild.shutdownNow();
+    }
+
+    private void addPending(Long profileId, String username, String firstName, String lastName) {
+        int pendingCount;
+        synchronized (pendingLock) {
+            PendingUser previous = pendingUsers.get(profileId);
+            if (previous != null) {
+                previous.keys().forEach(key -> pendingKeys.remove(key, previous));
+            }
+
+            PendingUser pending = new PendingUser(profileId, username, UserSuggestIndex.displayName(firstName, lastName),
+                    0, ++sequence, new ArrayList<>());
+            for (String name : List.of(username, pending.displayName(), nullToEmpty(firstName), nullToEmpty(lastName))) {
+                String key = UserSuggestIndex.normalize(name);
+                if (!key.isEmpty()) {
+                    // the profile ID suffix keeps keys unique when several users share a name
+                    String uniqueKey = key + '\0' + profileId;
+                    pending.keys().add(uniqueKey);
+                    pendingKeys.put(uniqueKey, pending);
+                }
+            }
+            pendingUsers.put(profileId, pending);
+            pendingCount = pendingUsers.size();
+        }
+
+        if (pendingCount > properties.getMaxPendingUsers() && rebuildRequested.compareAndSet(false, true)) {
+            backgroundRebuild.execute(() -> {
+                rebuildRequested.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException ex) {
+                    log.error("Rebuilding the user suggestion index failed", ex);
+                }
+            });
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * A user registered or renamed since the last rebuild.
+     */
+    private record PendingUser(long profileId, String username, String displayName, int popularity,
+                               long sequence, List<String> keys) {
+
+        boolean matches(String normalizedPrefix) {
+            return keys.stream().anyMatch(key -> key.startsWith(normalizedPrefix));
+        }
+    }
+
+    private record Candidate(long profileId, String username, String displayName, int popularity) {
+    }
+
+    /**
+     * Source of the users a rebuild indexes.
+     */
+    interface UserSource {
+
+        /**
+         * @return the number of accepted friends per user ID
+         */
+        Map<Long, Integer> friendCounts();
+
+        /**
+         * Reads the next users' names in profile ID order.
+         *
+         * @param profileId the profile ID to start after
+         * @param limit     the maximum number of users
+         * @return the names; fewer than the limit once all users are read
+         */
+        List<ProfileNameView> namesAfter(long profileId, int limit);
+    }
+
+    /**
+     * Reads the users from the database.
+     */
+    private record RepositoryUserSource(ProfileRepository profileRepository,
+                                        FriendRepository friendRepository) implements UserSource {
+
+        @Override
+        public Map<Long, Integer> friendCounts() {
+            Map<Long, Integer> friendCounts = new HashMap<>();
+            for (FriendCountView count : friendRepository.countByStatusGroupByUserId(Friend.Status.ACCEPTED)) {
+                friendCounts.put(count.getUserId(), (int) count.getFriendCount());
+            }
+            return friendCounts;
+        }
+
+        @Override
+        public List<ProfileNameView> namesAfter(long profileId, int limit) {
+            return profileRepository.findNamesAfter(profileId, PageRequest.of(0, limit));
+        }
+    }
+}
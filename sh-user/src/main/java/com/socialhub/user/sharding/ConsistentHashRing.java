@@ -0,0 +1,78 @@
+package com.socialhub.user.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring mapping 64-bit keys to shard names.
+ * <p>
+ * Each shard is placed on the ring at several virtual nodes, so adding or removing
+ * a shard only moves the keys between it and its ring neighbours (about 1/N of all keys).
+ */
+public class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<String> shards, int virtualNodes) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        for (String shard : shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(shard + "#" + i), shard);
+            }
+        }
+    }
+
+    /**
+     * Finds the shard owning the given key: the first virtual node clockwise from the key's hash.
+     *
+     * @param key the key to place
+     * @return the owning shard name
+     */
+    public String shardFor(long key) {
+        return ownerOf(mix(key));
+    }
+
+    /**
+     * Finds the shard owning the given name, e.g. of a job run by one shard only.
+     *
+     * @param key the name to place
+     * @return the owning shard name
+     */
+    public String shardFor(String key) {
+        return ownerOf(hash(key));
+    }
+
+    private String ownerOf(long position) {
+        Map.Entry<Long, String> owner = ring.ceilingEntry(position);
+        return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finalised with {@link #mix(long)}.
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * MurmurHash3 64-bit finaliser; spreads sequential IDs evenly over the ring.
+     */
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
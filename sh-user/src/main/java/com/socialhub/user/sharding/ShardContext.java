@@ -0,0 +1,45 @@
+package com.socialhub.user.sharding;
+
+/**
+ * Holds the shard the current thread's next transaction should run against.
+ * A {@code null} value selects the default shard.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return the shard selected for the current thread, or null for the default shard
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Selects a shard for the current thread.
+     *
+     * @param shard the shard name, or null for the default shard
+     * @return the previously selected shard, to be passed to {@link #restore(String)}
+     */
+    static String select(String shard) {
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    /**
+     * Restores the selection returned by {@link #select(String)}.
+     *
+     * @param previous the previously selected shard
+     */
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.socialhub.user.sharding;
+
+import com.socialhub.user.dto.ShardLayoutResponse;
+import com.socialhub.user.dto.ShardRebalanceResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves posts, with their likes and comments, to the shard the ring currently assigns
+ * to their author. Run it after adding or removing a shard, or after enabling sharding
+ * on an existing database.
+ * <p>
+ * Each post is moved within one transaction on the source shard that locks the post row:
+ * the post, its likes and its comments are copied to the target shard in a transaction of
+ * their own, then deleted from the source. Likes and comments are only added to a post
+ * while holding a shared lock on it, so none are written to the source while it is moved;
+ * writers waiting for the lock find the post gone and retry on the target. Re-running
+ * after an interruption is safe: rows already present on the target are skipped and the
+ * rest, including any added since the interruption, are copied.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ShardRebalancer {
+
+    private static final int BATCH_SIZE = 500;
+    private static final List<String> SHARDED_TABLES = List.of("posts", "likes", "comments");
+
+    private final ShardRouter shardRouter;
+
+    /**
+     * Describes the current bucket placement.
+     *
+     * @return ShardLayoutResponse with the number of buckets per shard
+     */
+    public ShardLayoutResponse getLayout() {
+        Map<String, Long> bucketsPerShard = new LinkedHashMap<>();
+        shardRouter.getShards().forEach(shard -> bucketsPerShard.put(shard, 0L));
+        for (int bucket = 0; bucket < shardRouter.getBuckets(); bucket++) {
+            bucketsPerShard.merge(shardRouter.shardOfBucket(bucket), 1L, Long::sum);
+        }
+        return ShardLayoutResponse.builder()
+                .enabled(shardRouter.isEnabled())
+                .buckets(shardRouter.getBuckets())
+                .bucketsPerShard(bucketsPerShard)
+                .build();
+    }
+
+    /**
+     * Moves every misplaced post to the shard owning its author's bucket.
+     *
+     * @return ShardRebalanceResponse with the number of rows scanned and moved
+     */
+    public ShardRebalanceResponse rebalance() {
+        ShardRebalanceResponse report = new ShardRebalanceResponse();
+        if (!shardRouter.isEnabled()) {
+            return report;
+        }
+
+        alignAutoIncrement();
+        for (String source : shardRouter.getShards()) {
+            JdbcTemplate sourceJdbc = jdbc(source);
+            long lastId = 0;
+            List<Map<String, Object>> batch;
+            do {
+                batch = sourceJdbc.queryForList(
+                        "SELECT id, user_id FROM posts WHERE id > ? ORDER BY id LIMIT ?", lastId, BATCH_SIZE);
+                for (Map<String, Object> row : batch) {
+                    long postId = ((Number) row.get("id")).longValue();
+                    long authorId = ((Number) row.get("user_id")).longValue();
+                    lastId = postId;
+                    report.setPostsScanned(report.getPostsScanned() + 1);
+
+                    String target = shardRouter.shardForAuthor(authorId);
+                    if (!target.equals(source)) {
+                        movePost(postId, source, target, report);
+                    }
+                }
+            } while (batch.size() == BATCH_SIZE);
+        }
+        log.info("Shard rebalance finished: {}", report);
+        return report;
+    }
+
+    /**
+     * Raises every shard's AUTO_INCREMENT counters above the highest ID on any shard, so rows
+     * created before sharding never collide with rows generated on another shard. Tables whose
+     * counter is already high enough are left alone.
+     */
+    private void alignAutoIncrement() {
+        for (String table : SHARDED_TABLES) {
+            long maxId = shardRouter.getShards().stream()
+                    .mapToLong(shard -> jdbc(shard).queryForObject(
+                            "SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class))
+                    .max()
+                    .orElse(0);
+            for (String shard : shardRouter.getShards()) {
+                // information_schema may report a cached, lower counter; that only costs an unneeded ALTER
+                Long next = jdbc(shard).queryForObject("SELECT AUTO_INCREMENT FROM information_schema.TABLES "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Long.class, table);
+                if (next == null || next <= maxId) {
+                    jdbc(shard).execute("ALTER TABLE " + table + " AUTO_INCREMENT = " + (maxId + 1));
+                }
+            }
+        }
+    }
+
+    private void movePost(long postId, String source, String target, ShardRebalanceResponse report) {
+        JdbcTemplate sourceJdbc = jdbc(source);
+        JdbcTemplate targetJdbc = jdbc(target);
+
+        transaction(source).executeWithoutResult(status -> {
+            Map<String, Object> post;
+            try {
+                post = sourceJdbc.queryForMap("SELECT * FROM posts WHERE id = ? FOR UPDATE", postId);
+            } catch (EmptyResultDataAccessException ex) {
+                return;
+            }
+            List<Map<String, Object>> likes = sourceJdbc.queryForList("SELECT * FROM likes WHERE post_id = ?", postId);
+            List<Map<String, Object>> comments = sourceJdbc.queryForList("SELECT * FROM comments WHERE post_id = ?", postId);
+
+            int[] copied = transaction(target).execute(targetStatus -> new int[]{
+                    insert(targetJdbc, "posts", post),
+                    likes.stream().mapToInt(like -> insert(targetJdbc, "likes", like)).sum(),
+                    comments.stream().mapToInt(comment -> insert(targetJdbc, "comments", comment)).sum()});
+
+            sourceJdbc.update("DELETE FROM likes WHERE post_id = ?", postId);
+            sourceJdbc.update("DELETE FROM comments WHERE post_id = ?", postId);
+            sourceJdbc.update("DELETE FROM posts WHERE id = ?", postId);
+
+            report.setPostsMoved(report.getPostsMoved() + 1);
+            report.setLikesMoved(report.getLikesMoved() + copied[1]);
+            report.setCommentsMoved(report.getCommentsMoved() + copied[2]);
+        });
+    }
+
+    /**
+     * Inserts a row unless a row with the same key exists.
+     *
+     * @return 1 if the row was inserted, 0 if it was already present
+     */
+    private int insert(JdbcTemplate jdbcTemplate, String table, Map<String, Object> row) {
+        String columns = String.join(", ", row.keySet());
+        String placeholders = String.join(", ", Collections.nCopies(row.size(), "?"));
+        return jdbcTemplate.update("INSERT IGNORE INTO " + table + " (" + columns + ") VALUES (" + placeholders + ")",
+                row.values().toArray());
+    }
+
+    private JdbcTemplate jdbc(String shard) {
+        return new JdbcTemplate(shardRouter.getShardDataSources().get(shard));
+    }
+
+    private TransactionTemplate transaction(String shard) {
+        return new TransactionTemplate(new DataSourceTransactionManager(shardRouter.getShardDataSources().get(shard)));
+    }
+}
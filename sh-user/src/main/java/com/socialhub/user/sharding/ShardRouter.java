@@ -0,0 +1,374 @@
+package com.socialhub.user.sharding;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs post, like and comment work on the shard that owns it.
+ * <p>
+ * Authors are hashed into {@link ShardingProperties#getBuckets() buckets} and the buckets
+ * are placed on a {@link ConsistentHashRing}. Rows inserted into a sharded table receive
+ * IDs congruent to their bucket ({@code auto_increment_offset = bucket + 1} with
+ * {@code auto_increment_increment = buckets}), so a post ID alone identifies the author's
+ * bucket and IDs stay unique when buckets move between shards.
+ * <p>
+ * Each call runs in its own transaction bound to a single shard. With sharding disabled
+ * there is one shard and calls simply join the caller's transaction. With sharding enabled
+ * the shard transactions, the default shard's included, take their connections from the
+ * shard pools and never from the {@code spring.datasource} pool the caller's transaction
+ * may be holding a connection of. Shard work and listeners running when a shard
+ * transaction commits must not start other transactions, which could wait for a connection
+ * held by a caller waiting for theirs; writes to the default shard they need to make go
+ * through {@link #onDefaultShard(Runnable)}.
+ */
+@Slf4j
+@Component
+public class ShardRouter {
+
+    private final ShardingProperties properties;
+    private final EntityManager entityManager;
+    private final Map<String, DataSource> shardDataSources;
+    private final List<String> shards;
+    private final String[] bucketOwners;
+    private final TransactionTemplate readWriteTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate newTransaction;
+    private final TransactionTemplate joinedTransaction;
+    private final ExecutorService fanOutExecutor;
+
+    /**
+     * Default shard work held back until the outermost shard transaction of the thread has
+     * committed; null outside shard work.
+     */
+    private final ThreadLocal<List<Runnable>> deferredDefaultShardWork = new ThreadLocal<>();
+
+    public ShardRouter(ShardingProperties properties,
+                       EntityManager entityManager,
+                       PlatformTransactionManager transactionManager,
+                       DataSource dataSource) throws SQLException {
+        this.properties = properties;
+        this.entityManager = entityManager;
+        this.shardDataSources = resolveShardDataSources(properties, dataSource);
+        this.shards = List.copyOf(shardDataSources.keySet());
+
+        ConsistentHashRing ring = new ConsistentHashRing(shards, properties.getVirtualNodes());
+        this.bucketOwners = new String[properties.getBuckets()];
+        for (int bucket = 0; bucket < bucketOwners.length; bucket++) {
+            bucketOwners[bucket] = ring.shardFor(bucket);
+        }
+
+        int propagation = properties.isEnabled()
+                ? TransactionDefinition.PROPAGATION_REQUIRES_NEW
+                : TransactionDefinition.PROPAGATION_REQUIRED;
+        this.readWriteTransaction = new TransactionTemplate(transactionManager);
+        this.readWriteTransaction.setPropagationBehavior(propagation);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setPropagationBehavior(propagation);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.joinedTransaction = new TransactionTemplate(transactionManager);
+        this.joinedTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+
+        this.fanOutExecutor = shards.size() > 1
+                ? new DelegatingSecurityContextExecutorService(
+                        Executors.newFixedThreadPool(shards.size(), new CustomizableThreadFactory("shard-fan-out-")))
+                : null;
+    }
+
+    /**
+     * @return the names of all shards, default shard first
+     */
+    public List<String> getShards() {
+        return shards;
+    }
+
+    /**
+     * @return the physical data source of every shard, keyed by shard name
+     */
+    public Map<String, DataSource> getShardDataSources() {
+        return shardDataSources;
+    }
+
+    /**
+     * @return the number of logical buckets
+     */
+    public int getBuckets() {
+        return bucketOwners.length;
+    }
+
+    /**
+     * @return the deepest position a page merged from every shard may reach
+     */
+    public int getMaxMergeWindow() {
+        return properties.getMaxMergeWindow();
+    }
+
+    /**
+     * @return true if more than the default shard is in use
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * @param authorId the ID of the post author
+     * @return the bucket the author's posts, likes and comments belong to
+     */
+    public int bucketOfAuthor(Long authorId) {
+        return (int) Math.floorMod(ConsistentHashRing.mix(authorId), (long) properties.getBuckets());
+    }
+
+    /**
+     * @param postId the ID of a post created with sharding enabled
+     * @return the bucket encoded in the post ID
+     */
+    public int bucketOfPost(Long postId) {
+        return (int) Math.floorMod(postId - 1, (long) properties.getBuckets());
+    }
+
+    /**
+     * @param bucket the bucket
+     * @return the shard currently owning the bucket
+     */
+    public String shardOfBucket(int bucket) {
+        return bucketOwners[bucket];
+    }
+
+    /**
+     * @param authorId the ID of the post author
+     * @return the shard holding the author's posts
+     */
+    public String shardForAuthor(Long authorId) {
+        return shardOfBucket(bucketOfAuthor(authorId));
+    }
+
+    /**
+     * Lists the shards to probe for a post: the owner of the bucket encoded in its ID first,
+     * then the others, for posts created before sharding or not yet moved by a rebalance.
+     *
+     * @param postId the ID of the post
+     * @return shard names in probing order
+     */
+    public List<String> candidateShardsForPost(Long postId) {
+        String owner = shardOfBucket(bucketOfPost(postId));
+        List<String> candidates = new ArrayList<>(shards.size());
+        candidates.add(owner);
+        shards.stream().filter(shard -> !shard.equals(owner)).forEach(candidates::add);
+        return candidates;
+    }
+
+    /**
+     * Runs work in a transaction on the given shard.
+     *
+     * @param shard    the shard name
+     * @param readOnly whether the transaction is read-only
+     * @param work     the work to run
+     * @return the work's result
+     */
+    public <T> T inShard(String shard, boolean readOnly, Supplier<T> work) {
+        return inShard(shard, readOnly, null, work);
+    }
+
+    /**
+     * Runs work in a transaction on the shard owning the author's bucket. Rows inserted
+     * by read-write work get IDs in that bucket.
+     *
+     * @param authorId the ID of the post author
+     * @param readOnly whether the transaction is read-only
+     * @param work     the work to run
+     * @return the work's result
+     */
+    public <T> T inAuthorShard(Long authorId, boolean readOnly, Supplier<T> work) {
+        int bucket = bucketOfAuthor(authorId);
+        return inShard(shardOfBucket(bucket), readOnly, bucket, work);
+    }
+
+    /**
+     * Runs work in a transaction on a shard that may hold the given post. Rows inserted by
+     * read-write work get IDs in the post's bucket.
+     *
+     * @param shard    the shard name, one of {@link #candidateShardsForPost(Long)}
+     * @param postId   the ID of the post
+     * @param readOnly whether the transaction is read-only
+     * @param work     the work to run
+     * @return the work's result
+     */
+    public <T> T inPostShard(String shard, Long postId, boolean readOnly, Supplier<T> work) {
+        return inShard(shard, readOnly, bucketOfPost(postId), work);
+    }
+
+    /**
+     * Runs work in a new read-write transaction on the default shard, which holds the
+     * tables that are not sharded. Unlike the other methods it never joins the caller's
+     * transaction. It takes a connection from the {@code spring.datasource} pool, so the
+     * calling thread must not hold one already.
+     *
+     * @param work the work to run
+     * @return the work's result
+     */
+    public <T> T inDefaultShard(Supplier<T> work) {
+        String previous = ShardContext.select(null);
+        try {
+            return newTransaction.execute(status -> work.get());
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    /**
+     * Runs work on the default shard as part of the caller's flow. Outside shard work, and in
+     * work on the default shard, it runs right away in the current transaction, or in a new
+     * one if there is none, so it commits or rolls back together with it. In work on another
+     * shard it runs on the same thread once the outermost shard transaction has committed,
+     * before that shard call returns, in a transaction of its own on the default shard's pool;
+     * it is dropped if the shard transaction rolls back. As the shard's write is then already
+     * committed, a failure of the work is logged rather than thrown. Either way it takes no
+     * connection while the thread holds a shard connection.
+     *
+     * @param work the work to run
+     */
+    public void onDefaultShard(Runnable work) {
+        String current = ShardContext.current();
+        List<Runnable> deferred = deferredDefaultShardWork.get();
+        if (!properties.isEnabled() || deferred == null || current == null
+                || current.equals(properties.getDefaultShard())) {
+            joinedTransaction.executeWithoutResult(status -> work.run());
+        } else {
+            deferred.add(work);
+        }
+    }
+
+    /**
+     * Runs work on every shard, in parallel when there is more than one.
+     *
+     * @param readOnly whether the transactions are read-only
+     * @param work     the work to run, given the shard name
+     * @return each shard's result keyed by shard name, in shard order
+     */
+    public <T> Map<String, T> onEveryShard(boolean readOnly, Function<String, T> work) {
+        Map<String, T> results = new LinkedHashMap<>();
+        if (fanOutExecutor == null) {
+            shards.forEach(shard -> results.put(shard, inShard(shard, readOnly, () -> work.apply(shard))));
+            return results;
+        }
+
+        Map<String, Future<T>> futures = new LinkedHashMap<>();
+        shards.forEach(shard -> futures.put(shard,
+                fanOutExecutor.submit(() -> inShard(shard, readOnly, () -> work.apply(shard)))));
+        futures.forEach((shard, future) -> results.put(shard, await(shard, future)));
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdown();
+        }
+    }
+
+    private <T> T inShard(String shard, boolean readOnly, Integer bucket, Supplier<T> work) {
+        if (!properties.isEnabled()) {
+            return (readOnly ? readOnlyTransaction : readWriteTransaction).execute(status -> work.get());
+        }
+
+        List<Runnable> deferred = deferredDefaultShardWork.get();
+        boolean outermost = deferred == null;
+        if (outermost) {
+            deferred = new ArrayList<>();
+            deferredDefaultShardWork.set(deferred);
+        }
+        String previous = ShardContext.select(shard);
+        T result;
+        try {
+            if (readOnly || bucket == null) {
+                result = (readOnly ? readOnlyTransaction : readWriteTransaction).execute(status -> work.get());
+            } else {
+                result = readWriteTransaction.execute(status -> {
+                    setIdentityStride(properties.getBuckets(), bucket + 1);
+                    try {
+                        return work.get();
+                    } finally {
+                        // Session variables outlive the transaction; the pooled connection must not keep the stride
+                        setIdentityStride(1, 1);
+                    }
+                });
+            }
+        } finally {
+            ShardContext.restore(previous);
+            if (outermost) {
+                deferredDefaultShardWork.remove();
+            }
+        }
+        if (outermost) {
+            // The shard connection is back in its pool. The work must not join the caller's transaction,
+            // which a failure would mark rollback-only after the shard write has committed.
+            for (Runnable defaultShardWork : deferred) {
+                try {
+                    inShard(properties.getDefaultShard(), false, null, () -> {
+                        defaultShardWork.run();
+                        return null;
+                    });
+                } catch (RuntimeException ex) {
+                    log.error("Work on the default shard after a commit on {} failed", shard, ex);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Makes AUTO_INCREMENT values generated on the transaction's connection congruent to the bucket.
+     */
+    private void setIdentityStride(int increment, int offset) {
+        entityManager.createNativeQuery("SET SESSION auto_increment_increment = " + increment
+                + ", auto_increment_offset = " + offset).executeUpdate();
+    }
+
+    private <T> T await(String shard, Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying shard " + shard, ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Query on shard " + shard + " failed", ex.getCause());
+        }
+    }
+
+    private static Map<String, DataSource> resolveShardDataSources(ShardingProperties properties,
+                                                                   DataSource dataSource) throws SQLException {
+        if (!properties.isEnabled() || !dataSource.isWrapperFor(ShardRoutingDataSource.class)) {
+            return Map.of(properties.getDefaultShard(), dataSource);
+        }
+        Map<Object, DataSource> targets = dataSource.unwrap(ShardRoutingDataSource.class).getResolvedDataSources();
+        Map<String, DataSource> resolved = new LinkedHashMap<>();
+        resolved.put(properties.getDefaultShard(), targets.get(properties.getDefaultShard()));
+        properties.getShards().keySet().forEach(shard -> resolved.put(shard, targets.get(shard)));
+        return Collections.unmodifiableMap(resolved);
+    }
+}
@@ -0,0 +1,98 @@
+package com.socialhub.user.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the application's {@code dataSource} bean with a {@link ShardRoutingDataSource}
+ * and migrates every additional shard with the same Flyway scripts before JPA validates
+ * the schema.
+ * <p>
+ * Transactions that select no shard keep using the original data source. Selecting the
+ * default shard by name routes to a second pool on the same database, so that a shard
+ * transaction never waits for a connection from the pool its caller is holding one of.
+ */
+@Slf4j
+public class ShardRoutingDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final Environment environment;
+
+    public ShardRoutingDataSourcePostProcessor(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!"dataSource".equals(beanName) || !(bean instanceof DataSource defaultDataSource)) {
+            return bean;
+        }
+
+        ShardingProperties properties = Binder.get(environment)
+                .bind("socialhub.sharding", ShardingProperties.class)
+                .orElseGet(ShardingProperties::new);
+
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(properties.getDefaultShard(), createDefaultShardDataSource(properties));
+        properties.getShards().forEach((name, shard) -> {
+            DataSource shardDataSource = createDataSource(name, shard);
+            migrate(name, shardDataSource);
+            targets.put(name, shardDataSource);
+        });
+
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(defaultDataSource);
+        routing.afterPropertiesSet();
+        log.info("Sharding posts, likes and comments across {}", targets.keySet());
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private DataSource createDefaultShardDataSource(ShardingProperties properties) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource dataSource = binder.bind("spring.datasource", DataSourceProperties.class)
+                .orElseGet(DataSourceProperties::new)
+                .initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("shard-" + properties.getDefaultShard());
+        dataSource.setMaximumPoolSize(properties.getDefaultShardMaximumPoolSize());
+        return dataSource;
+    }
+
+    private DataSource createDataSource(String name, ShardingProperties.Shard shard) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("shard-" + name);
+        dataSource.setJdbcUrl(shard.getUrl());
+        dataSource.setUsername(shard.getUsername());
+        dataSource.setPassword(shard.getPassword());
+        dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+        return dataSource;
+    }
+
+    private void migrate(String name, DataSource dataSource) {
+        if (!environment.getProperty("spring.flyway.enabled", Boolean.class, true)) {
+            return;
+        }
+        log.info("Migrating shard {}", name);
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations(environment.getProperty("spring.flyway.locations", String[].class,
+                        new String[]{"classpath:db/migration"}))
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+}
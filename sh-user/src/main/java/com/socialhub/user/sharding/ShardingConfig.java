@@ -0,0 +1,22 @@
+package com.socialhub.user.sharding;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Registers the sharding properties and, when {@code socialhub.sharding.enabled=true},
+ * swaps the application data source for a shard-routing one.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "socialhub.sharding", name = "enabled", havingValue = "true")
+    public static ShardRoutingDataSourcePostProcessor shardRoutingDataSourcePostProcessor(Environment environment) {
+        return new ShardRoutingDataSourcePostProcessor(environment);
+    }
+}
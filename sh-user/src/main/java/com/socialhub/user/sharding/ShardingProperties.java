@@ -0,0 +1,69 @@
+package com.socialhub.user.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Layout of the post, like and comment shards.
+ * <p>
+ * The default shard is the application's regular database and also holds the
+ * unsharded tables (users, profiles, friends). Additional shards are listed under
+ * {@code socialhub.sharding.shards.<name>}.
+ * <p>
+ * Shard transactions start while the caller's transaction may already hold a connection
+ * from the {@code spring.datasource} pool, so work on the default shard takes its
+ * connections from a pool of its own.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.sharding")
+public class ShardingProperties {
+
+    /**
+     * Whether posts, likes and comments are spread over several databases.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Name of the shard backed by {@code spring.datasource}.
+     */
+    private String defaultShard = "shard-0";
+
+    /**
+     * Number of logical buckets. Every author and every post ID maps to one bucket and
+     * buckets, not authors, are placed on the ring. Must not change once data is sharded.
+     */
+    private int buckets = 1024;
+
+    /**
+     * Points each shard occupies on the consistent-hash ring.
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * Connections of the pool used by shard transactions on the default shard, besides the
+     * {@code spring.datasource} pool.
+     */
+    private int defaultShardMaximumPoolSize = 10;
+
+    /**
+     * Deepest position a page of the newest posts may reach ({@code (page + 1) * size}). Every
+     * shard returns that many rows for the page to be merged from.
+     */
+    private int maxMergeWindow = 1000;
+
+    /**
+     * Additional shard databases keyed by shard name.
+     */
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,171 @@
+package com.socialhub.user.suggest;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable sorted set of byte strings stored with front coding.
+ * <p>
+ * Keys are grouped in blocks of {@value #BLOCK_SIZE}. The first key of a block is stored in
+ * full; each following key stores only the length of the prefix it shares with the previous
+ * key and the remaining suffix. Lookups binary-search the block heads and then scan one block.
+ * Keys compare as unsigned bytes, which for UTF-8 is code point order.
+ */
+final class FrontCodedKeys {
+
+    private static final int BLOCK_SIZE = 16;
+
+    private final byte[] data;
+    private final int[] blockOffsets;
+    private final int size;
+
+    private FrontCodedKeys(byte[] data, int[] blockOffsets, int size) {
+        this.data = data;
+        this.blockOffsets = blockOffsets;
+        this.size = size;
+    }
+
+    /**
+     * @param sortedKeys keys in ascending unsigned byte order
+     * @return the encoded keys
+     */
+    static FrontCodedKeys of(List<byte[]> sortedKeys) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int[] blockOffsets = new int[(sortedKeys.size() + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        byte[] previous = null;
+        for (int i = 0; i < sortedKeys.size(); i++) {
+            byte[] key = sortedKeys.get(i);
+            if (i % BLOCK_SIZE == 0) {
+                blockOffsets[i / BLOCK_SIZE] = out.size();
+                writeVarInt(out, key.length);
+                out.write(key, 0, key.length);
+            } else {
+                int shared = Arrays.mismatch(previous, key);
+                shared = shared < 0 ? key.length : shared;
+                writeVarInt(out, shared);
+                writeVarInt(out, key.length - shared);
+                out.write(key, shared, key.length - shared);
+            }
+            previous = key;
+        }
+        return new FrontCodedKeys(out.toByteArray(), blockOffsets, sortedKeys.size());
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the index of the first key not lexicographically below the prefix
+     */
+    int lowerBound(byte[] prefix) {
+        return search(prefix, false);
+    }
+
+    /**
+     * @return the index of the first key that neither starts with nor sorts below the prefix
+     */
+    int upperBound(byte[] prefix) {
+        return search(prefix, true);
+    }
+
+    /**
+     * @return bytes held by the encoded keys
+     */
+    long sizeInBytes() {
+        return data.length + 4L * blockOffsets.length;
+    }
+
+    private int search(byte[] prefix, boolean includeMatches) {
+        // first block whose head is not before the prefix
+        int low = 0;
+        int high = blockOffsets.length;
+        Cursor cursor = new Cursor();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            cursor.seekBlock(mid);
+            if (isBefore(cursor, prefix, includeMatches)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low == 0) {
+            return 0;
+        }
+
+        // the answer lies inside the previous block, or is the head of this one
+        int block = low - 1;
+        cursor.seekBlock(block);
+        int index = block * BLOCK_SIZE;
+        int end = Math.min(size, index + BLOCK_SIZE);
+        while (isBefore(cursor, prefix, includeMatches)) {
+            index++;
+            if (index == end) {
+                break;
+            }
+            cursor.next();
+        }
+        return index;
+    }
+
+    private static boolean isBefore(Cursor cursor, byte[] prefix, boolean includeMatches) {
+        int comparison = Arrays.compareUnsigned(cursor.key, 0, Math.min(cursor.length, prefix.length),
+                prefix, 0, Math.min(cursor.length, prefix.length));
+        if (comparison == 0 && cursor.length < prefix.length) {
+            comparison = -1;
+        }
+        return includeMatches ? comparison <= 0 : comparison < 0;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Decodes keys of one block in order into a reusable buffer.
+     */
+    private final class Cursor {
+
+        private byte[] key = new byte[64];
+        private int length;
+        private int position;
+
+        void seekBlock(int block) {
+            position = blockOffsets[block];
+            length = 0;
+            append(readVarInt());
+        }
+
+        void next() {
+            length = readVarInt();
+            append(readVarInt());
+        }
+
+        private void append(int suffixLength) {
+            if (key.length < length + suffixLength) {
+                key = Arrays.copyOf(key, Math.max(key.length * 2, length + suffixLength));
+            }
+            System.arraycopy(data, position, key, length, suffixLength);
+            length += suffixLength;
+            position += suffixLength;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
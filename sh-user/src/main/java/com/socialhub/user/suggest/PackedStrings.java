@@ -0,0 +1,38 @@
+package com.socialhub.user.suggest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Immutable list of strings packed as UTF-8 into one byte array, avoiding a String object per entry.
+ */
+final class PackedStrings {
+
+    private final byte[] data;
+    private final int[] offsets;
+
+    private PackedStrings(byte[] data, int[] offsets) {
+        this.data = data;
+        this.offsets = offsets;
+    }
+
+    static PackedStrings of(List<String> values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int[] offsets = new int[values.size() + 1];
+        for (int i = 0; i < values.size(); i++) {
+            byte[] bytes = values.get(i).getBytes(StandardCharsets.UTF_8);
+            out.write(bytes, 0, bytes.length);
+            offsets[i + 1] = out.size();
+        }
+        return new PackedStrings(out.toByteArray(), offsets);
+    }
+
+    String get(int index) {
+        return new String(data, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+    }
+
+    long sizeInBytes() {
+        return data.length + 4L * offsets.length;
+    }
+}
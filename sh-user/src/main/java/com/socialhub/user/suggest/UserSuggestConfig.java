@@ -0,0 +1,12 @@
+package com.socialhub.user.suggest;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the username suggestion settings.
+ */
+@Configuration
+@EnableConfigurationProperties(UserSuggestProperties.class)
+public class UserSuggestConfig {
+}
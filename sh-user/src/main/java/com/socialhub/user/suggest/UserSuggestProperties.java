@@ -0,0 +1,22 @@
+package com.socialhub.user.suggest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the username suggestion index.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.suggest")
+public class UserSuggestProperties {
+
+    /**
+     * Largest number of suggestions returned per request.
+     */
+    private int maxResults = 20;
+
+    /**
+     * Number of users registered or renamed since the last rebuild that triggers an early rebuild.
+     */
+    private int maxPendingUsers = 10_000;
+}
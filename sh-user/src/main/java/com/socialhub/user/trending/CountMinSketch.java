@@ -0,0 +1,88 @@
+package com.socialhub.user.trending;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min Sketch of weighted counts keyed by post ID.
+ * <p>
+ * Memory is fixed at {@code depth * width} doubles whatever the number of keys. Estimates
+ * never undercount; with width {@code w} they overcount by at most {@code e / w} of the
+ * total weight added, with probability {@code 1 - e^-depth}.
+ * Not thread-safe.
+ */
+class CountMinSketch {
+
+    private final int width;
+    private final double[][] counts;
+
+    CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("Sketch depth and width must be positive");
+        }
+        this.width = width;
+        this.counts = new double[depth][width];
+    }
+
+    /**
+     * Adds weight to a key, updating only the rows holding the current minimum
+     * (conservative update) to reduce overcounting.
+     *
+     * @param key    the key
+     * @param weight the weight to add
+     */
+    void add(long key, double weight) {
+        int[] cells = cells(key);
+        double target = estimate(cells) + weight;
+        for (int row = 0; row < counts.length; row++) {
+            counts[row][cells[row]] = Math.max(counts[row][cells[row]], target);
+        }
+    }
+
+    /**
+     * @param key the key
+     * @return the estimated total weight added for the key
+     */
+    double estimate(long key) {
+        return estimate(cells(key));
+    }
+
+    void clear() {
+        for (double[] row : counts) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    private double estimate(int[] cells) {
+        double min = Double.MAX_VALUE;
+        for (int row = 0; row < counts.length; row++) {
+            min = Math.min(min, counts[row][cells[row]]);
+        }
+        return min;
+    }
+
+    /**
+     * Derives one cell per row from a single 64-bit hash (Kirsch-Mitzenmacher double hashing).
+     */
+    private int[] cells(long key) {
+        long hash = mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int[] cells = new int[counts.length];
+        for (int row = 0; row < cells.length; row++) {
+            cells[row] = Math.floorMod(h1 + row * h2, width);
+        }
+        return cells;
+    }
+
+    /**
+     * MurmurHash3 64-bit finaliser.
+     */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,252 @@
+package com.socialhub.user.trending;
+
+import com.socialhub.user.activitylog.ActivityLog;
+import com.socialhub.user.activitylog.ActivityLogSink;
+import com.socialhub.user.activitylog.ActivityRecord;
+import com.socialhub.user.outbox.OutboxProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Streaming heavy-hitter detection over likes and comments.
+ * <p>
+ * The window is split into slices, each holding a {@link CountMinSketch} of activity per
+ * post; the oldest slice is cleared and reused when the window advances. A post's score is
+ * the sum of its slice estimates, each decayed by the slice's age. Posts whose score made
+ * the candidate set are rescored on every publish and the top K are published as an
+ * immutable {@link TrendingSnapshot}, so readers never lock and never touch the database.
+ * <p>
+ * Activity is read from the {@link ActivityLog}, which the outbox relay fills with the activity
+ * of every instance: on startup back to the start of the window, then each publish counts the
+ * records written since. Every instance thus ranks the same activity whether it was running
+ * when the activity happened or not. The application does not start unless the outbox is
+ * enabled and publishes to the {@value ActivityLogSink#NAME} sink, without which nothing
+ * would ever trend.
+ */
+@Slf4j
+@Component
+public class TrendingPostsEngine {
+
+    private static final int READ_BATCH_SIZE = 1000;
+
+    private final TrendingProperties properties;
+    private final Clock clock;
+    private final ActivityLog activityLog;
+    private final long sliceMillis;
+    private final double[] decayByAge;
+    private final CountMinSketch[] sketches;
+    private final long[] sliceOfSketch;
+    private final Map<Long, Double> candidates = new HashMap<>();
+    private final int candidateCapacity;
+
+    /**
+     * Offset of the next activity log record to count. Publishing thread only.
+     */
+    private long nextOffset;
+
+    private volatile TrendingSnapshot snapshot = TrendingSnapshot.EMPTY;
+
+    @Autowired
+    public TrendingPostsEngine(TrendingProperties properties, ActivityLog activityLog, OutboxProperties outboxProperties) {
+        this(properties, Clock.systemUTC(), activityLog);
+        if (!outboxProperties.isEnabled() || !outboxProperties.getSinks().contains(ActivityLogSink.NAME)) {
+            throw new IllegalStateException("Trending posts are read from the activity log; set socialhub.outbox.enabled=true "
+                    + "and list " + ActivityLogSink.NAME + " in socialhub.outbox.sinks");
+        }
+    }
+
+    TrendingPostsEngine(TrendingProperties properties, Clock clock) {
+        this(properties, clock, null);
+    }
+
+    TrendingPostsEngine(TrendingProperties properties, Clock clock, ActivityLog activityLog) {
+        this.properties = properties;
+        this.clock = clock;
+        this.activityLog = activityLog;
+        this.sliceMillis = Math.max(1, properties.getWindow().toMillis() / properties.getSlices());
+        this.candidateCapacity = properties.getTopK() * properties.getCandidateFactor();
+
+        int slices = properties.getSlices();
+        this.sketches = new CountMinSketch[slices];
+        this.sliceOfSketch = new long[slices];
+        this.decayByAge = new double[slices];
+        double halfLifeMillis = properties.getHalfLife().toMillis();
+        for (int i = 0; i < slices; i++) {
+            sketches[i] = new CountMinSketch(properties.getSketchDepth(), properties.getSketchWidth());
+            sliceOfSketch[i] = Long.MIN_VALUE;
+            decayByAge[i] = Math.pow(0.5, i * sliceMillis / halfLifeMillis);
+        }
+    }
+
+    /**
+     * Rebuilds the window from the activity log.
+     */
+    @PostConstruct
+    public void replayActivityLog() {
+        if (activityLog == null) {
+            return;
+        }
+        nextOffset = activityLog.offsetForTime(clock.instant().minus(properties.getWindow()));
+        long replayed = readActivityLog();
+        publish();
+        log.info("Rebuilt the trending window from {} activity log records", replayed);
+    }
+
+    /**
+     * @return the latest published snapshot
+     */
+    public TrendingSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Adds activity for a post in the current slice.
+     *
+     * @param postId the ID of the post
+     * @param weight the score to add
+     */
+    public void record(Long postId, double weight) {
+        record(postId, weight, clock.millis());
+    }
+
+    /**
+     * Adds activity for a post in the slice of the time it happened. Activity outside the window
+     * is ignored.
+     *
+     * @param postId the ID of the post
+     * @param weight the score to add
+     * @param time   when the activity happened, in epoch milliseconds
+     */
+    public synchronized void record(Long postId, double weight, long time) {
+        long currentSlice = currentSlice();
+        long slice = Math.min(time / sliceMillis, currentSlice);
+        int index = (int) Math.floorMod(slice, (long) sketches.length);
+        if (currentSlice - slice >= sketches.length || sliceOfSketch[index] > slice) {
+            return;
+        }
+        sketchFor(slice).add(postId, weight);
+        candidates.put(postId, score(postId, currentSlice));
+        if (candidates.size() > 2 * candidateCapacity) {
+            trimCandidates();
+        }
+    }
+
+    /**
+     * Stops tracking a post; it disappears from the next snapshot.
+     *
+     * @param postId the ID of the post
+     */
+    public synchronized void remove(Long postId) {
+        candidates.remove(postId);
+    }
+
+    /**
+     * Counts the activity logged since the last publish, rescores the candidates and publishes
+     * the top K as a new snapshot.
+     */
+    @Scheduled(fixedDelayString = "${socialhub.trending.publish-interval:PT5S}")
+    public void publish() {
+        if (activityLog != null) {
+            readActivityLog();
+        }
+        List<TrendingSnapshot.TrendingPost> top;
+        synchronized (this) {
+            long currentSlice = currentSlice();
+            candidates.replaceAll((postId, score) -> score(postId, currentSlice));
+            candidates.values().removeIf(score -> score <= 0);
+
+            PriorityQueue<TrendingSnapshot.TrendingPost> heap = new PriorityQueue<>(
+                    Comparator.comparingDouble(TrendingSnapshot.TrendingPost::score));
+            candidates.forEach((postId, score) -> {
+                heap.add(new TrendingSnapshot.TrendingPost(postId, score));
+                if (heap.size() > properties.getTopK()) {
+                    heap.poll();
+                }
+            });
+            top = new ArrayList<>(heap);
+        }
+        top.sort(Comparator.comparingDouble(TrendingSnapshot.TrendingPost::score).reversed());
+        snapshot = new TrendingSnapshot(clock.instant(), top);
+    }
+
+    /**
+     * Counts the activity log records from {@link #nextOffset} to the end of the log.
+     *
+     * @return the number of records read
+     */
+    private long readActivityLog() {
+        long read = 0;
+        List<ActivityRecord> records;
+        while (!(records = activityLog.read(nextOffset, READ_BATCH_SIZE)).isEmpty()) {
+            records.forEach(this::count);
+            read += records.size();
+            nextOffset = records.get(records.size() - 1).offset() + 1;
+        }
+        return read;
+    }
+
+    private void count(ActivityRecord record) {
+        switch (record.type()) {
+            case POST_LIKED -> record(record.aggregateId(), properties.getLikeWeight(), record.timestamp());
+            case POST_COMMENTED -> record(record.aggregateId(), properties.getCommentWeight(), record.timestamp());
+            case POST_DELETED -> remove(record.aggregateId());
+            default -> {
+            }
+        }
+    }
+
+    private long currentSlice() {
+        return clock.millis() / sliceMillis;
+    }
+
+    /**
+     * Returns the sketch of the given slice, clearing a sketch left over from an expired slice.
+     */
+    private CountMinSketch sketchFor(long slice) {
+        int index = (int) Math.floorMod(slice, (long) sketches.length);
+        if (sliceOfSketch[index] != slice) {
+            sketches[index].clear();
+            sliceOfSketch[index] = slice;
+        }
+        return sketches[index];
+    }
+
+    /**
+     * Sums a post's estimates over the slices still inside the window, decayed by age.
+     */
+    private double score(long postId, long currentSlice) {
+        double score = 0;
+        for (int i = 0; i < sketches.length; i++) {
+            long age = currentSlice - sliceOfSketch[i];
+            if (age >= 0 && age < sketches.length) {
+                score += sketches[i].estimate(postId) * decayByAge[(int) age];
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Drops the lowest scoring candidates once the set has grown to twice its capacity.
+     */
+    private void trimCandidates() {
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(candidates.entrySet());
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed());
+        Iterator<Map.Entry<Long, Double>> evicted = ranked.listIterator(candidateCapacity);
+        while (evicted.hasNext()) {
+            candidates.remove(evicted.next().getKey());
+        }
+        log.debug("Trimmed trending candidates to {}", candidates.size());
+    }
+}
@@ -0,0 +1,59 @@
+package com.socialhub.user.trending;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the trending posts engine.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.trending")
+public class TrendingProperties {
+
+    /**
+     * Length of the sliding window; activity older than this no longer counts.
+     */
+    private Duration window = Duration.ofHours(1);
+
+    /**
+     * Number of slices the window is divided into. The window advances one slice at a time.
+     */
+    private int slices = 12;
+
+    /**
+     * Age at which activity counts half as much as fresh activity.
+     */
+    private Duration halfLife = Duration.ofMinutes(20);
+
+    /**
+     * Number of posts published in each snapshot.
+     */
+    private int topK = 50;
+
+    /**
+     * Number of posts tracked as trending candidates, as a multiple of {@link #topK}.
+     */
+    private int candidateFactor = 4;
+
+    /**
+     * Counters per row of each slice's Count-Min Sketch.
+     */
+    private int sketchWidth = 2048;
+
+    /**
+     * Rows (independent hash functions) of each slice's Count-Min Sketch.
+     */
+    private int sketchDepth = 4;
+
+    /**
+     * Score added by a like.
+     */
+    private double likeWeight = 1.0;
+
+    /**
+     * Score added by a comment.
+     */
+    private double commentWeight = 3.0;
+}
@@ -0,0 +1,28 @@
+package com.socialhub.user.trending;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable trending list published by {@link TrendingPostsEngine}.
+ *
+ * @param generatedAt when the snapshot was computed
+ * @param posts       trending posts, highest score first
+ */
+public record TrendingSnapshot(Instant generatedAt, List<TrendingPost> posts) {
+
+    static final TrendingSnapshot EMPTY = new TrendingSnapshot(Instant.EPOCH, List.of());
+
+    public TrendingSnapshot {
+        posts = List.copyOf(posts);
+    }
+
+    /**
+     * A post and its time-decayed score.
+     *
+     * @param postId the ID of the post
+     * @param score  the score within the window
+     */
+    public record TrendingPost(Long postId, double score) {
+    }
+}
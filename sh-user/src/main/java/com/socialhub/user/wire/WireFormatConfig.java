@@ -0,0 +1,35 @@
+package com.socialhub.user.wire;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Serves and accepts CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile})
+ * next to JSON, chosen by the request's Accept and Content-Type headers. Both are binary
+ * encodings of the same documents as the JSON, so every response type, such as
+ * {@code PaginatedResponse<PostResponse>}, has them without a separate schema. JSON stays the
+ * format of requests that accept anything.
+ * <p>
+ * The converters take the place of the defaults Spring MVC adds for these formats, which would
+ * not use the application's Jackson settings. Feign clients decode with them as well.
+ */
+@Configuration
+@EnableConfigurationProperties(WireFormatProperties.class)
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
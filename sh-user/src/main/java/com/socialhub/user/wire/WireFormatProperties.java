@@ -0,0 +1,17 @@
+package com.socialhub.user.wire;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the formats bodies are exchanged in with other services.
+ */
+@Data
+@ConfigurationProperties(prefix = "socialhub.wire-format")
+public class WireFormatProperties {
+
+    /**
+     * Format of the bodies exchanged with AUTH-SERVICE; responses fall back to JSON if it does not offer it.
+     */
+    private WireFormat authClient = WireFormat.CBOR;
+}
@@ -0,0 +1,62 @@
+-- Baseline schema for USER-SERVICE.
+-- Mirrors the tables previously created by hibernate.ddl-auto=update so that
+-- existing databases can be baselined at version 1 and new ones created from scratch.
+
+CREATE TABLE IF NOT EXISTS users (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    auth_user_id BIGINT       NOT NULL,
+    username     VARCHAR(50)  NOT NULL,
+    email        VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_auth_user_id UNIQUE (auth_user_id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS profiles (
+    id                  BIGINT       NOT NULL AUTO_INCREMENT,
+    first_name          VARCHAR(255),
+    last_name           VARCHAR(255),
+    bio                 VARCHAR(255),
+    profile_picture_url VARCHAR(255),
+    user_id             BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_profiles_user_id UNIQUE (user_id),
+    CONSTRAINT fk_profiles_user_id FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS posts (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT,
+    content    VARCHAR(255),
+    media_url  VARCHAR(255),
+    media_type VARCHAR(255),
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS comments (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    post_id    BIGINT,
+    user_id    BIGINT,
+    content    VARCHAR(255),
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS likes (
+    id       BIGINT      NOT NULL AUTO_INCREMENT,
+    post_id  BIGINT,
+    user_id  BIGINT,
+    liked_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS friends (
+    id           BIGINT                                  NOT NULL AUTO_INCREMENT,
+    user_id      BIGINT                                  NOT NULL,
+    friend_id    BIGINT                                  NOT NULL,
+    status       ENUM ('PENDING', 'ACCEPTED', 'DECLINED') NOT NULL,
+    requested_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
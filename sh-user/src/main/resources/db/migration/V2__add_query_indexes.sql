@@ -0,0 +1,17 @@
+-- Composite indexes backing the derived query methods of the repositories.
+-- Each index lists the equality columns first, followed by the ordering column where one applies.
+
+-- PostRepository.findByUserId(userId, pageable)
+CREATE INDEX idx_posts_user_id_created_at ON posts (user_id, created_at);
+
+-- CommentRepository.findByPostId(postId)
+CREATE INDEX idx_comments_post_id_created_at ON comments (post_id, created_at);
+
+-- LikeRepository.existsByPostIdAndUserId, countByPostId, findByPostId
+CREATE INDEX idx_likes_post_id_user_id ON likes (post_id, user_id);
+
+-- FriendRepository.findByUserIdAndStatus, existsByUserIdAndFriendIdAndStatus, findByUserIdAndFriendIdAndStatus
+CREATE INDEX idx_friends_user_id_status_friend_id ON friends (user_id, status, friend_id);
+
+-- FriendRepository.findByFriendIdAndStatus
+CREATE INDEX idx_friends_friend_id_status ON friends (friend_id, status);
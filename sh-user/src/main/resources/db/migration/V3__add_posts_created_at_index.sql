@@ -0,0 +1,3 @@
+-- PostRepository.findAllBy(pageable) sorted by created_at DESC, id DESC.
+-- Backs the global feed, which is read newest first from every shard and merged.
+CREATE INDEX idx_posts_created_at ON posts (created_at);
@@ -0,0 +1,27 @@
+-- Notification inbox written when a user's post is liked or commented on and on friend requests.
+-- The primary key clusters each user's notifications together in ID order, and IDs are
+-- microseconds since the epoch, so the inbox is read newest first by a single range scan
+-- and the creation time needs no column of its own.
+CREATE TABLE notifications (
+    user_id           BIGINT  NOT NULL,
+    id                BIGINT  NOT NULL,
+    type              TINYINT NOT NULL,
+    actor_id          BIGINT  NOT NULL,
+    post_id           BIGINT,
+    comment_id        BIGINT,
+    friend_request_id BIGINT,
+    is_read           BIT(1)  NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, id)
+) ENGINE = InnoDB;
+
+-- NotificationRepository.findPruneBound, countUnreadBefore, deleteBefore: expired notifications
+-- are deleted oldest first in small ID ranges.
+CREATE INDEX idx_notifications_id ON notifications (id);
+
+-- Unread notifications per user, maintained together with the notifications so the badge
+-- count is a primary key lookup.
+CREATE TABLE notification_counters (
+    user_id      BIGINT NOT NULL,
+    unread_count INT    NOT NULL,
+    PRIMARY KEY (user_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,15 @@
+-- Threaded comments. path is the comment's materialized path (see CommentPath): the
+-- zero-padded base-36 ID of the top-level comment followed by one 5-character segment per
+-- reply level, so a thread or subtree is one range of (post_id, path).
+ALTER TABLE comments
+    ADD COLUMN parent_id         BIGINT,
+    ADD COLUMN path              VARCHAR(200) CHARACTER SET ascii COLLATE ascii_bin NOT NULL DEFAULT '',
+    ADD COLUMN depth             INT NOT NULL DEFAULT 0,
+    ADD COLUMN reply_count       INT NOT NULL DEFAULT 0,
+    ADD COLUMN total_reply_count INT NOT NULL DEFAULT 0;
+
+-- Existing comments become top-level comments.
+UPDATE comments SET path = LPAD(LOWER(CONV(id, 10, 36)), 13, '0');
+
+-- CommentRepository.findByPostIdOrderByPath, findThread, incrementReplyCounts
+CREATE INDEX idx_comments_post_id_path_depth ON comments (post_id, path, depth);
@@ -0,0 +1,2 @@
+-- LikeRepository.findPageByPostId(postId, beforeId, pageable): likes of a post newest first, by ID cursor.
+CREATE INDEX idx_likes_post_id_id ON likes (post_id, id);
@@ -0,0 +1,2 @@
+-- Profile.version: optimistic lock counter, bumped on every profile update; the profile ETag is derived from it.
+ALTER TABLE profiles ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,27 @@
+-- Transactional outbox: writes to posts, likes, comments, friends, users and profiles append a
+-- change event here in the same transaction, on the same shard. IDs follow the shard's identity
+-- stride and rows commit out of ID order, so OutboxRelay gives committed rows a dense sequence
+-- number per shard, in the order it first sees them; consumers track their position by it.
+CREATE TABLE outbox_events (
+    id              BIGINT        NOT NULL AUTO_INCREMENT,
+    sequence_number BIGINT,
+    type            TINYINT       NOT NULL,
+    aggregate_id    BIGINT        NOT NULL,
+    payload         VARCHAR(2000) NOT NULL,
+    created_at      DATETIME(6)   NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- OutboxEventRepository.findUnsequenced (sequence_number IS NULL, in ID order) and findAfter.
+CREATE UNIQUE INDEX uk_outbox_events_sequence_number ON outbox_events (sequence_number);
+
+-- OutboxEventRepository.deleteSequencedBefore: expired events are deleted oldest first.
+CREATE INDEX idx_outbox_events_created_at ON outbox_events (created_at);
+
+-- Last sequence number processed per consumer on this shard. The relay's own row records the
+-- last sequence number it assigned and is locked while it assigns more.
+CREATE TABLE outbox_offsets (
+    consumer        VARCHAR(100) NOT NULL,
+    sequence_number BIGINT       NOT NULL,
+    PRIMARY KEY (consumer)
+) ENGINE = InnoDB;
@@ -0,0 +1,12 @@
+-- Notification IDs end in ten bits naming the instance that recorded them, so instances recording
+-- notifications within the same microsecond no longer collide; existing IDs are moved to the new
+-- layout, highest first so that no two rows of a user share an ID in between.
+UPDATE notifications SET id = id * 1024 ORDER BY user_id, id DESC;
+
+-- Last ID handed out per user: NotificationCounterRepository.addNotification gives the next one
+-- a higher ID under the counter's lock, so IDs increase per user across instances even when
+-- their clocks disagree.
+ALTER TABLE notification_counters ADD COLUMN last_id BIGINT NOT NULL DEFAULT 0;
+
+UPDATE notification_counters c
+SET c.last_id = COALESCE((SELECT MAX(n.id) FROM notifications n WHERE n.user_id = c.user_id), 0);
@@ -0,0 +1,195 @@
+package com.socialhub.user.activitylog;
+
+import com.socialhub.user.outbox.ChangeEvent;
+import com.socialhub.user.outbox.ChangeEventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes to small segments in a temporary directory to check reads, seeks, recovery and retention.
+ */
+class ActivityLogTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @TempDir
+    Path directory;
+
+    private final ActivityLogProperties properties = new ActivityLogProperties();
+    private final List<ActivityLog> logs = new ArrayList<>();
+
+    ActivityLogTests() {
+        properties.setSegmentSize(DataSize.ofKilobytes(2));
+        properties.setIndexInterval(DataSize.ofBytes(256));
+    }
+
+    @AfterEach
+    void close() throws Exception {
+        for (ActivityLog log : logs) {
+            log.close();
+        }
+    }
+
+    @Test
+    void concurrentAppendsGetDenseOffsetsAcrossSegments() throws Exception {
+        ActivityLog log = open(Clock.systemUTC());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<CompletableFuture<Long>> appends = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            ChangeEvent event = like(i, START.plusSeconds(i));
+            appends.add(CompletableFuture.supplyAsync(() -> log.append(List.of(event)), executor).thenCompose(f -> f));
+        }
+        CompletableFuture.allOf(appends.toArray(CompletableFuture[]::new)).get();
+        executor.shutdown();
+
+        List<ActivityRecord> records = log.read(0, 1000);
+        assertThat(records).extracting(ActivityRecord::offset)
+                .containsExactlyElementsOf(Stream.iterate(0L, i -> i + 1).limit(200).toList());
+        assertThat(records).extracting(ActivityRecord::sequenceNumber).doesNotHaveDuplicates().hasSize(200);
+        ActivityRecord record = records.get(0);
+        assertThat(record.payloadAsString()).isEqualTo("{\"postId\":" + record.aggregateId() + "}");
+        assertThat(segmentFiles()).hasSizeGreaterThan(5);
+        assertThat(log.read(150, 10)).extracting(ActivityRecord::offset).containsExactly(150L, 151L, 152L, 153L,
+                154L, 155L, 156L, 157L, 158L, 159L);
+    }
+
+    @Test
+    void reopeningDropsTornRecordsAndResumes() throws Exception {
+        ActivityLog log = open(Clock.systemUTC());
+        appendLikes(log, 1, 30);
+        log.close();
+        logs.remove(log);
+
+        // A record whose write was torn by a crash: a length prefix followed by the wrong bytes
+        Path active = segmentFiles().get(segmentFiles().size() - 1);
+        try (FileChannel channel = FileChannel.open(active, StandardOpenOption.WRITE)) {
+            int end = lastRecordEnd(active);
+            channel.write(ByteBuffer.allocate(8).putInt(60).putInt(12345).flip(), end);
+        }
+
+        ActivityLog reopened = open(Clock.systemUTC());
+        assertThat(reopened.endOffset()).isEqualTo(30);
+        assertThat(reopened.lastSequenceNumber("shard-0")).isEqualTo(30);
+        appendLikes(reopened, 31, 40);
+        assertThat(reopened.read(0, 100)).extracting(ActivityRecord::sequenceNumber)
+                .containsExactlyElementsOf(Stream.iterate(1L, i -> i + 1).limit(40).toList());
+    }
+
+    @Test
+    void seeksByTimeAndReplaysFromThere() throws Exception {
+        ActivityLog log = open(Clock.systemUTC());
+        appendLikes(log, 1, 100);
+
+        long offset = log.offsetForTime(START.plusSeconds(60).atZone(ZoneId.systemDefault()).toInstant());
+        assertThat(offset).isEqualTo(59);
+
+        List<Long> replayed = new ArrayList<>();
+        long count = log.replay(START.plusSeconds(91).atZone(ZoneId.systemDefault()).toInstant(),
+                record -> replayed.add(record.sequenceNumber()));
+        assertThat(count).isEqualTo(10);
+        assertThat(replayed).containsExactly(91L, 92L, 93L, 94L, 95L, 96L, 97L, 98L, 99L, 100L);
+    }
+
+    @Test
+    void deletesFullSegmentsPastRetention() throws Exception {
+        Clock later = Clock.fixed(START.plus(properties.getRetention()).plusMinutes(1)
+                .atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        ActivityLog log = open(later);
+        appendLikes(log, 1, 50);
+        appendLikes(log, 51, 100, START.plusDays(1));
+        int segmentsBefore = segmentFiles().size();
+
+        log.deleteExpiredSegments();
+
+        assertThat(segmentFiles()).hasSizeLessThan(segmentsBefore);
+        assertThat(log.startOffset()).isPositive();
+        List<ActivityRecord> records = log.read(0, 1000);
+        assertThat(records.get(0).offset()).isEqualTo(log.startOffset());
+        assertThat(records).extracting(ActivityRecord::sequenceNumber).contains(51L, 100L);
+    }
+
+    @Test
+    void recordsForcedBeforeAFailedRollStayAppendedOnce() throws Exception {
+        properties.setCommitDelay(Duration.ofMillis(100));
+        ActivityLog log = open(Clock.systemUTC());
+        // Two of these records fill a segment; the file the next segment needs is taken
+        Path blocker = Files.createFile(directory.resolve(LogSegment.fileName(2, LogSegment.LOG_SUFFIX)));
+
+        CompletableFuture<Long> first = log.append(List.of(large(1), large(2)));
+        CompletableFuture<Long> second = log.append(List.of(large(3)));
+
+        assertThat(first.get()).isEqualTo(1);
+        assertThat(second).failsWithin(Duration.ofSeconds(5));
+        assertThat(log.lastSequenceNumber("shard-0")).isEqualTo(2);
+
+        // The relay publishes the failed batch again
+        Files.delete(blocker);
+        assertThat(log.append(List.of(large(3))).get()).isEqualTo(2);
+        assertThat(log.read(0, 10)).extracting(ActivityRecord::sequenceNumber).containsExactly(1L, 2L, 3L);
+    }
+
+    private ActivityLog open(Clock clock) throws IOException {
+        properties.setDirectory(directory);
+        ActivityLog log = new ActivityLog(properties, clock);
+        logs.add(log);
+        return log;
+    }
+
+    private static void appendLikes(ActivityLog log, int from, int to) throws Exception {
+        appendLikes(log, from, to, START);
+    }
+
+    private static void appendLikes(ActivityLog log, int from, int to, LocalDateTime start) throws Exception {
+        for (int i = from; i <= to; i++) {
+            log.append(List.of(like(i, start.plusSeconds(i)))).get();
+        }
+    }
+
+    private static ChangeEvent like(long sequenceNumber, LocalDateTime createdAt) {
+        long postId = sequenceNumber % 7;
+        return new ChangeEvent("shard-0", sequenceNumber, ChangeEventType.POST_LIKED, postId,
+                "{\"postId\":" + postId + "}", createdAt);
+    }
+
+    private static ChangeEvent large(long sequenceNumber) {
+        return new ChangeEvent("shard-0", sequenceNumber, ChangeEventType.POST_CREATED, sequenceNumber,
+                "{\"content\":\"" + "x".repeat(700) + "\"}", START.plusSeconds(sequenceNumber));
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(LogSegment.LOG_SUFFIX)).sorted().toList();
+        }
+    }
+
+    private static int lastRecordEnd(Path segment) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int position = 0;
+        int size;
+        while ((size = RecordFormat.validSize(bytes, position, bytes.capacity())) > 0) {
+            position += size;
+        }
+        return position;
+    }
+}
@@ -0,0 +1,58 @@
+package com.socialhub.user.bitmap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the bitmap against {@link BitSet} across sparse and dense groups.
+ */
+class RoaringBitmapTests {
+
+    @Test
+    void agreesWithBitSetAcrossArrayAndBitmapContainers() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        BitSet expected = new BitSet();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            // Dense values in the first group, sparse ones across the next few hundred
+            int value = i % 2 == 0 ? random.nextInt(1 << 16) : random.nextInt(1 << 24);
+            assertThat(bitmap.add(value)).isEqualTo(!expected.get(value));
+            expected.set(value);
+        }
+
+        assertThat(bitmap.cardinality()).isEqualTo(expected.cardinality());
+        for (int value = 0; value < 1 << 24; value += 7) {
+            assertThat(bitmap.contains(value)).isEqualTo(expected.get(value));
+        }
+    }
+
+    @Test
+    void readsValuesAsUnsigned() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        bitmap.add(-1);
+        bitmap.add(Integer.MIN_VALUE);
+
+        assertThat(bitmap.contains((int) 0xFFFFFFFFL)).isTrue();
+        assertThat(bitmap.contains((int) 0x80000000L)).isTrue();
+        assertThat(bitmap.contains(Integer.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    void sparseGroupsTakeTwoBytesAndDenseOnesABitPerValue() {
+        RoaringBitmap sparse = new RoaringBitmap();
+        RoaringBitmap dense = new RoaringBitmap();
+        for (int i = 0; i < 1000; i++) {
+            sparse.add(i * 1000);
+        }
+        for (int i = 0; i < 60_000; i++) {
+            dense.add(i);
+        }
+
+        assertThat(sparse.sizeInBytes()).isLessThan(1000 * 2 + 16 * 256);
+        assertThat(dense.sizeInBytes()).isLessThan(9_000);
+    }
+}
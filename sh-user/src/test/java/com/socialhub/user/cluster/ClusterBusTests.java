@@ -0,0 +1,48 @@
+package com.socialhub.user.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that messages between instances are only accepted with the configured secret.
+ */
+class ClusterBusTests {
+
+    private final ClusterProperties properties = new ClusterProperties();
+
+    @Test
+    void httpTransportRequiresASecret() {
+        assertThatThrownBy(this::bus).isInstanceOf(IllegalStateException.class);
+
+        properties.setSecret(" ");
+        assertThatThrownBy(this::bus).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void acceptsOnlyMessagesCarryingTheSecret() {
+        properties.setSecret("s3cret");
+        ClusterBus bus = bus();
+
+        assertThat(bus.isAuthorized("s3cret")).isTrue();
+        assertThat(bus.isAuthorized("s3cre")).isFalse();
+        assertThat(bus.isAuthorized("")).isFalse();
+        assertThat(bus.isAuthorized(null)).isFalse();
+    }
+
+    @Test
+    void localTransportAcceptsNoMessagesWithoutASecret() {
+        properties.setTransport(ClusterProperties.Transport.LOCAL);
+
+        assertThat(bus().isAuthorized(null)).isFalse();
+        assertThat(bus().isAuthorized("")).isFalse();
+    }
+
+    private ClusterBus bus() {
+        return new ClusterBus(properties, new ClusterMembership(properties, List::of, () -> "a"), new ObjectMapper());
+    }
+}
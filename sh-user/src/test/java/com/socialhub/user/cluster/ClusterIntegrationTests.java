@@ -0,0 +1,216 @@
+package com.socialhub.user.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.socialhub.user.UserServiceApplication;
+import com.socialhub.user.dto.PostRequest;
+import com.socialhub.user.dto.PostResponse;
+import com.socialhub.user.dto.PostSearchResult;
+import com.socialhub.user.dto.UserProfileUpdateRequest;
+import com.socialhub.user.dto.UserSuggestionResponse;
+import com.socialhub.user.entity.Profile;
+import com.socialhub.user.entity.User;
+import com.socialhub.user.likes.LikeIndex;
+import com.socialhub.user.repository.ProfileRepository;
+import com.socialhub.user.repository.UserRepository;
+import com.socialhub.user.search.PostSearchIndex;
+import com.socialhub.user.service.PostService;
+import com.socialhub.user.service.ProfileService;
+import com.socialhub.user.service.UserSuggestService;
+import com.socialhub.user.trending.TrendingPostsEngine;
+import com.socialhub.user.trending.TrendingSnapshot;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts three instances sharing one MySQL database, listed to each other as the cluster members since
+ * there is no Eureka, writes through one of them and checks that the others see the writes.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ClusterIntegrationTests {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withUsername("root")
+            .withPassword("test");
+
+    @TempDir
+    static Path dataDirectory;
+
+    private final List<ConfigurableApplicationContext> instances = new ArrayList<>();
+
+    @BeforeAll
+    void start() throws IOException {
+        String server = "jdbc:mysql://" + mysql.getHost() + ":" + mysql.getMappedPort(MySQLContainer.MYSQL_PORT);
+        int[] ports = {freePort(), freePort(), freePort()};
+        String members = Arrays.stream(ports)
+                .mapToObj(port -> "http://localhost:" + port)
+                .collect(Collectors.joining(","));
+        for (int i = 0; i < ports.length; i++) {
+            instances.add(new SpringApplicationBuilder(UserServiceApplication.class).run(
+                    "--server.port=" + ports[i],
+                    "--eureka.client.enabled=false",
+                    "--logging.level.root=WARN",
+                    "--spring.jpa.show-sql=false",
+                    "--spring.datasource.url=" + server + "/sh_user_cluster_test?createDatabaseIfNotExist=true",
+                    "--spring.datasource.username=root",
+                    "--spring.datasource.password=test",
+                    "--socialhub.cluster.members=" + members,
+                    "--socialhub.outbox.instance-id=cluster-test-" + i,
+                    "--socialhub.activity-log.directory=" + dataDirectory.resolve(i + "/activity-log"),
+                    "--socialhub.search.index-path=" + dataDirectory.resolve(i + "/post-index"),
+                    "--socialhub.search.refresh-interval=PT0.2S",
+                    "--socialhub.trending.publish-interval=PT0.2S"));
+        }
+    }
+
+    @AfterAll
+    void stop() {
+        instances.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void instancesAgreeOnMembersAndOwners() {
+        List<ClusterMembership> memberships = instances.stream().map(instance -> instance.getBean(ClusterMembership.class)).toList();
+
+        assertThat(memberships).allSatisfy(membership -> assertThat(membership.getMembers()).hasSize(3)
+                .isEqualTo(memberships.get(0).getMembers()));
+        assertThat(memberships).extracting(membership -> membership.getSelf().id()).doesNotHaveDuplicates();
+        for (long userId = 1; userId <= 1000; userId++) {
+            long key = userId;
+            assertThat(memberships).filteredOn(membership -> membership.owns(key)).hasSize(1);
+        }
+    }
+
+    @Test
+    void writesThroughOneInstanceAreSeenByTheOthers() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User author = createUser("author_" + suffix);
+        User liker = createUser("liker_" + suffix);
+
+        // Cache the author's profile on every instance before changing it
+        instances.forEach(instance -> assertThat(instance.getBean(ProfileService.class)
+                .getProfileByUsername(author.getUsername()).response().getFirstName()).isEmpty());
+        String firstName = "Quintessa" + suffix;
+        bean(0, ProfileService.class).updateProfile(author.getUsername(),
+                UserProfileUpdateRequest.builder().firstName(firstName).build());
+
+        eventually(() -> instances.forEach(instance -> {
+            assertThat(instance.getBean(ProfileService.class).getProfileByUsername(author.getUsername())
+                    .response().getFirstName()).isEqualTo(firstName);
+            assertThat(instance.getBean(UserSuggestService.class).suggest(firstName, 5))
+                    .extracting(UserSuggestionResponse::getUsername).containsExactly(author.getUsername());
+        }));
+
+        String term = "xylophone" + suffix;
+        PostResponse post = bean(0, PostService.class).createPost(
+                PostRequest.builder().content("Playing the " + term + " tonight").build(), author.getUsername());
+        eventually(() -> instances.forEach(instance -> assertThat(instance.getBean(PostSearchIndex.class)
+                .search(term, 0, 10).getContent()).extracting(PostSearchResult::getPostId).containsExactly(post.getId())));
+
+        // Load who liked the post on every instance before the like
+        instances.forEach(instance -> assertThat(instance.getBean(LikeIndex.class)
+                .likedBy(liker.getId(), List.of(post.getId()))).isEmpty());
+        List<JsonNode> notifications = new CopyOnWriteArrayList<>();
+        bean(2, ClusterBus.class).subscribe("notifications", JsonNode.class, notifications::add);
+
+        bean(1, PostService.class).likePost(post.getId(), liker.getUsername());
+
+        eventually(() -> {
+            instances.forEach(instance -> {
+                assertThat(instance.getBean(LikeIndex.class).likedBy(liker.getId(), List.of(post.getId())))
+                        .containsExactly(post.getId());
+                assertThat(instance.getBean(TrendingPostsEngine.class).getSnapshot().posts())
+                        .extracting(TrendingSnapshot.TrendingPost::postId).contains(post.getId());
+            });
+            assertThat(notifications).anySatisfy(delivery -> {
+                assertThat(delivery.get("recipientId").asLong()).isEqualTo(author.getId());
+                assertThat(delivery.get("notification").get("actorUsername").asText()).isEqualTo(liker.getUsername());
+            });
+        });
+    }
+
+    @Test
+    void rebuildingTheSearchIndexKeepsPostsSearchable() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User author = createUser("rebuild_" + suffix);
+        String term = "marimba" + suffix;
+        PostResponse post = bean(0, PostService.class).createPost(
+                PostRequest.builder().content("Tuning the " + term).build(), author.getUsername());
+        PostSearchIndex index = bean(0, PostSearchIndex.class);
+        eventually(() -> assertThat(index.search(term, 0, 10).getContent()).hasSize(1));
+
+        assertThat(index.rebuild().getPostsIndexed()).isPositive();
+
+        assertThat(index.search(term, 0, 10).getContent())
+                .extracting(PostSearchResult::getPostId).containsExactly(post.getId());
+    }
+
+    private User createUser(String username) {
+        User user = bean(0, UserRepository.class).save(User.builder()
+                .authUserId(Math.abs(UUID.randomUUID().getMostSignificantBits()))
+                .username(username)
+                .email(username + "@example.com")
+                .build());
+        bean(0, ProfileRepository.class).save(Profile.builder()
+                .user(user)
+                .firstName("")
+                .lastName("")
+                .bio("")
+                .profilePictureUrl("")
+                .build());
+        return user;
+    }
+
+    private <T> T bean(int instance, Class<T> type) {
+        return instances.get(instance).getBean(type);
+    }
+
+    private static void eventually(Runnable assertion) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (true) {
+            try {
+                assertion.run();
+                return;
+            } catch (AssertionError ex) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw ex;
+                }
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(ex);
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.socialhub.user.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that instances agree on the members and owners, and that an instance leaving only
+ * moves the keys it owned.
+ */
+class ClusterMembershipTests {
+
+    private static final int KEYS = 3000;
+
+    @Test
+    void instancesListedStaticallyRecogniseThemselvesAndAgreeOnOwners() {
+        List<ClusterMembership> instances = List.of(start(8101, List.of()), start(8102, List.of()), start(8103, List.of()));
+
+        assertThat(instances).extracting(instance -> instance.getSelf().id())
+                .containsExactly("localhost:8101", "127.0.0.1:8102", "localhost:8103");
+        assertThat(instances.get(0).getPeers()).extracting(ClusterMember::id)
+                .containsExactly("127.0.0.1:8102", "localhost:8103");
+
+        Map<String, Integer> keysPerMember = new HashMap<>();
+        for (long key = 0; key < KEYS; key++) {
+            String owner = instances.get(0).ownerOf(key).id();
+            for (ClusterMembership instance : instances) {
+                assertThat(instance.ownerOf(key).id()).isEqualTo(owner);
+                assertThat(instance.owns(key)).isEqualTo(instance.getSelf().id().equals(owner));
+            }
+            keysPerMember.merge(owner, 1, Integer::sum);
+        }
+        assertThat(keysPerMember.values()).allSatisfy(count -> assertThat(count).isBetween(KEYS / 3 * 3 / 4, KEYS / 3 * 5 / 4));
+        assertThat(instances).filteredOn(instance -> instance.owns("outbox-prune")).hasSize(1);
+    }
+
+    @Test
+    void instanceLeavingTheRegistryOnlyHandsOverItsOwnKeys() {
+        List<ClusterMember> registry = new ArrayList<>(List.of(registered("a"), registered("b"), registered("c")));
+        ClusterMembership a = new ClusterMembership(new ClusterProperties(), () -> List.copyOf(registry), () -> "a");
+        a.start(8101);
+        Map<Long, String> before = new HashMap<>();
+        for (long key = 0; key < KEYS; key++) {
+            before.put(key, a.ownerOf(key).id());
+        }
+
+        registry.remove(2);
+        a.refresh();
+
+        assertThat(a.getMembers()).extracting(ClusterMember::id).containsExactly("a", "b");
+        for (long key = 0; key < KEYS; key++) {
+            if (!before.get(key).equals("c")) {
+                assertThat(a.ownerOf(key).id()).isEqualTo(before.get(key));
+            }
+        }
+    }
+
+    @Test
+    void registeredInstanceMissingFromTheFetchedRegistryCountsItself() {
+        ClusterMembership c = new ClusterMembership(new ClusterProperties(),
+                () -> List.of(registered("a"), registered("b")), () -> "c");
+        c.start(8103);
+
+        assertThat(c.getMembers()).extracting(ClusterMember::id).containsExactly("a", "b", "c");
+        assertThat(c.getSelf().id()).isEqualTo("c");
+    }
+
+    private static ClusterMembership start(int port, List<ClusterMember> registry) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setMembers(List.of(URI.create("http://localhost:8101"), URI.create("http://127.0.0.1:8102"),
+                URI.create("http://localhost:8103")));
+        ClusterMembership membership = new ClusterMembership(properties, () -> registry, () -> null);
+        membership.start(port);
+        return membership;
+    }
+
+    private static ClusterMember registered(String id) {
+        return new ClusterMember(id, URI.create("http://" + id + ".internal:8082"));
+    }
+}
@@ -0,0 +1,53 @@
+package com.socialhub.user.comment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that sorting paths yields thread order and that subtree bounds cover exactly the subtree.
+ */
+class CommentPathTests {
+
+    @Test
+    void sortingPathsListsThreadsDepthFirstInReplyOrder() {
+        String first = CommentPath.root(7);
+        String second = CommentPath.root(40);
+        String reply1 = CommentPath.reply(first, 1);
+        String reply1Reply = CommentPath.reply(reply1, 1);
+        String reply2 = CommentPath.reply(first, 2);
+        String reply10 = CommentPath.reply(first, 10);
+
+        List<String> paths = new ArrayList<>(List.of(reply10, second, reply2, reply1Reply, first, reply1));
+        paths.sort(null);
+
+        assertThat(paths).containsExactly(first, reply1, reply1Reply, reply2, reply10, second);
+        assertThat(CommentPath.depth(first)).isZero();
+        assertThat(CommentPath.depth(reply1Reply)).isEqualTo(2);
+        assertThat(CommentPath.ancestors(reply1Reply)).containsExactly(first, reply1);
+    }
+
+    @Test
+    void subtreeBoundsCoverOnlyTheSubtree() {
+        String top = CommentPath.root(Long.MAX_VALUE);
+        String reply1 = CommentPath.reply(top, 1);
+        String deepest = CommentPath.reply(CommentPath.reply(reply1, CommentPath.MAX_REPLIES), CommentPath.MAX_REPLIES);
+        String reply2 = CommentPath.reply(top, 2);
+        String reply3 = CommentPath.reply(top, 3);
+
+        assertThat(top).hasSize(CommentPath.ROOT_SEGMENT_LENGTH);
+        assertThat(deepest.compareTo(CommentPath.subtreeEnd(reply1))).isNegative();
+        assertThat(reply2.compareTo(CommentPath.subtreeEnd(reply1))).isPositive();
+
+        String firstTwo = CommentPath.firstRepliesEnd(top, 2);
+        assertThat(reply2.compareTo(firstTwo)).isNegative();
+        assertThat(reply3.compareTo(firstTwo)).isGreaterThanOrEqualTo(0);
+        assertThat(CommentPath.withinFirstReplies(CommentPath.reply(reply2, 2), top, 2)).isTrue();
+        assertThat(CommentPath.withinFirstReplies(CommentPath.reply(reply2, 3), top, 2)).isFalse();
+        assertThat(CommentPath.beyondFirstReplies(CommentPath.reply(reply3, 1), top, 2)).isEqualTo(reply3);
+        assertThat(CommentPath.beyondFirstReplies(CommentPath.reply(reply2, 1), top, 2)).isNull();
+    }
+}
@@ -0,0 +1,54 @@
+package com.socialhub.user.config;
+
+import com.socialhub.user.datasource.ReadWriteRoutingConfig;
+import com.socialhub.user.sharding.ShardRoutingDataSourcePostProcessor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that sharding and replica settings without their beans stop the application.
+ */
+class AheadOfTimeConditionsCheckTests {
+
+    private final MockEnvironment environment = new MockEnvironment();
+    private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+    @Test
+    void passesWithoutShardingOrAReplica() {
+        environment.setProperty("socialhub.sharding.enabled", "false");
+
+        assertThatCode(this::check).doesNotThrowAnyException();
+    }
+
+    @Test
+    void failsWhenShardingIsEnabledWithoutItsBeans() {
+        environment.setProperty("socialhub.sharding.enabled", "true");
+        assertThatThrownBy(this::check).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("socialhub.sharding.enabled");
+
+        beanFactory.registerBeanDefinition("shardRoutingDataSourcePostProcessor",
+                new RootBeanDefinition(ShardRoutingDataSourcePostProcessor.class));
+        assertThatCode(this::check).doesNotThrowAnyException();
+    }
+
+    @Test
+    void failsWhenAReplicaIsSetWithoutItsBeans() {
+        environment.setProperty("socialhub.datasource.replica.url", "jdbc:mysql://replica:3306/sh_user_db");
+        assertThatThrownBy(this::check).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("socialhub.datasource.replica.url");
+
+        beanFactory.registerBeanDefinition("readWriteRoutingConfig", new RootBeanDefinition(ReadWriteRoutingConfig.class));
+        assertThatCode(this::check).doesNotThrowAnyException();
+    }
+
+    private void check() {
+        AheadOfTimeConditionsCheck check = new AheadOfTimeConditionsCheck();
+        check.setEnvironment(environment);
+        check.postProcessBeanFactory(beanFactory);
+    }
+}
@@ -0,0 +1,127 @@
+package com.socialhub.user.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exercises the routing decisions against two H2 databases standing in for the primary and the replica.
+ */
+class ReadWriteRoutingDataSourceTests {
+
+    private final ReplicaRoutingProperties properties = new ReplicaRoutingProperties();
+    private final RecentWriteTracker writeTracker = new RecentWriteTracker();
+
+    private DataSource replica;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("primary");
+        replica = h2("replica");
+
+        properties.setLagQuery("SELECT seconds_behind AS Seconds_Behind_Source FROM replication_status");
+        lagMonitor = new ReplicaLagMonitor(replica, properties);
+        lagMonitor.refresh();
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(lagMonitor, writeTracker, properties);
+        routing.setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaAndWritesUsePrimary() {
+        assertThat(readOnlyNode()).isEqualTo("replica");
+        assertThat(readWriteNode()).isEqualTo("primary");
+        assertThat(node()).as("outside a transaction").isEqualTo("primary");
+    }
+
+    @Test
+    void readsFollowOwnWritesToPrimaryWithinWindow() {
+        authenticate("alice");
+        readWrite.executeWithoutResult(status -> node());
+        assertThat(readOnlyNode()).isEqualTo("primary");
+
+        authenticate("bob");
+        assertThat(readOnlyNode()).isEqualTo("replica");
+
+        properties.setReadYourWritesWindow(Duration.ZERO);
+        authenticate("alice");
+        assertThat(readOnlyNode()).isEqualTo("replica");
+    }
+
+    @Test
+    void lagBeyondThresholdOrBrokenReplicationFallsBackToPrimary() {
+        setReplicaLag("10");
+        assertThat(readOnlyNode()).isEqualTo("primary");
+
+        setReplicaLag("NULL");
+        assertThat(readOnlyNode()).isEqualTo("primary");
+
+        setReplicaLag("1");
+        assertThat(readOnlyNode()).isEqualTo("replica");
+    }
+
+    private String readOnlyNode() {
+        return readOnly.execute(status -> node());
+    }
+
+    private String readWriteNode() {
+        return readWrite.execute(status -> node());
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private void setReplicaLag(String seconds) {
+        new JdbcTemplate(replica).update("UPDATE replication_status SET seconds_behind = " + seconds);
+        lagMonitor.refresh();
+    }
+
+    private void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        jdbcTemplate.execute("CREATE TABLE replication_status (seconds_behind INT)");
+        jdbcTemplate.update("INSERT INTO replication_status VALUES (0)");
+        return dataSource;
+    }
+}
@@ -0,0 +1,98 @@
+package com.socialhub.user.likes;
+
+import com.socialhub.user.bitmap.RoaringBitmap;
+import com.socialhub.user.event.PostLikedEvent;
+import com.socialhub.user.repository.projection.LikerView;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the index with an in-memory likes table to check loading, updates and eviction.
+ */
+class LikeIndexTests {
+
+    private final List<Liker> likes = new ArrayList<>();
+    private final List<Collection<Long>> loads = new ArrayList<>();
+    private final LikeIndexProperties properties = new LikeIndexProperties();
+
+    @Test
+    void loadsMissingPostsInOneCallAndAnswersLaterPagesFromMemory() {
+        likes.add(new Liker(1L, 7L));
+        likes.add(new Liker(3L, 7L));
+        likes.add(new Liker(3L, 8L));
+        LikeIndex index = index();
+
+        assertThat(index.likedBy(7L, List.of(1L, 2L, 3L))).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.likedBy(8L, List.of(1L, 2L, 3L))).containsExactly(3L);
+        assertThat(loads).containsExactly(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void likesAfterLoadingAreAddedAndRecentOnesReachLaterLoads() {
+        LikeIndex index = index();
+        assertThat(index.likedBy(7L, List.of(1L))).isEmpty();
+
+        index.onPostLiked(like(1L, 7L));
+        // Committed, but not yet returned by the replica the next load reads
+        index.onPostLiked(like(2L, 7L));
+
+        assertThat(index.likedBy(7L, List.of(1L, 2L))).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void evictsLeastRecentlyReadPostsBeyondTheBudget() {
+        RoaringBitmap likers = new RoaringBitmap();
+        for (long userId = 0; userId < 3000; userId++) {
+            likes.add(new Liker(1L, userId * 100));
+            likes.add(new Liker(2L, userId * 100));
+            likers.add((int) userId * 100);
+        }
+        // Room for one post's likers, not two
+        long budget = likers.sizeInBytes() * 3 / 2;
+        properties.setMaxMemory(DataSize.ofBytes(budget));
+        LikeIndex index = index();
+
+        index.likedBy(1L, List.of(1L));
+        index.likedBy(1L, List.of(2L));
+        index.likedBy(1L, List.of(1L));
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.sizeInBytes()).isLessThanOrEqualTo(budget);
+        assertThat(loads).hasSize(3);
+    }
+
+    private LikeIndex index() {
+        return new LikeIndex(properties, Clock.systemUTC(), postIds -> {
+            loads.add(List.copyOf(postIds));
+            return likes.stream()
+                    .filter(like -> postIds.contains(like.getPostId()))
+                    .map(LikerView.class::cast)
+                    .toList();
+        });
+    }
+
+    private static PostLikedEvent like(Long postId, Long likerId) {
+        return new PostLikedEvent(postId, 1L, likerId, "user" + likerId, LocalDateTime.now());
+    }
+
+    private record Liker(Long postId, Long userId) implements LikerView {
+
+        @Override
+        public Long getPostId() {
+            return postId;
+        }
+
+        @Override
+        public Long getUserId() {
+            return userId;
+        }
+    }
+}
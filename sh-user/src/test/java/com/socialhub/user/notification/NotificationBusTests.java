@@ -0,0 +1,173 @@
+package com.socialhub.user.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialhub.user.cluster.ClusterBus;
+import com.socialhub.user.cluster.ClusterMembership;
+import com.socialhub.user.cluster.ClusterProperties;
+import com.socialhub.user.dto.NotificationResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the bus with emitters that record, stall or fail their writes in place of client
+ * connections.
+ */
+class NotificationBusTests {
+
+    private final NotificationProperties properties = new NotificationProperties();
+    private NotificationBus bus;
+
+    @AfterEach
+    void shutdown() {
+        if (bus != null) {
+            bus.shutdown();
+        }
+    }
+
+    @Test
+    void clientThatStopsReadingDoesNotHoldUpOthers() throws InterruptedException {
+        properties.setWriterThreads(1);
+        properties.setWriteTimeout(Duration.ofMillis(50));
+        bus = bus();
+        CountDownLatch clientReads = new CountDownLatch(1);
+        StreamEmitter stalled = new StreamEmitter(clientReads);
+        StreamEmitter reading = new StreamEmitter(null);
+        bus.subscribe(1L, null, stalled);
+        await(() -> stalled.writing);
+        bus.subscribe(2L, null, reading);
+
+        bus.publish(2L, notification(10L));
+        Thread.sleep(100);
+        bus.abandonStalledWrites();
+
+        await(() -> reading.eventIds.contains(10L));
+        assertThat(bus.getConnectionCount()).isEqualTo(1);
+        assertThat(bus.getWriterThreads()).isEqualTo(2);
+
+        clientReads.countDown();
+        await(() -> stalled.completed);
+        bus.abandonStalledWrites();
+        assertThat(bus.getWriterThreads()).isEqualTo(1);
+    }
+
+    @Test
+    void reconnectingClientReceivesNotificationsAfterItsLastEventId() {
+        bus = bus();
+        bus.publish(1L, notification(1L));
+        bus.publish(1L, notification(2L));
+        bus.publish(1L, notification(3L));
+        bus.publish(2L, notification(4L));
+        StreamEmitter emitter = new StreamEmitter(null);
+
+        bus.subscribe(1L, 1L, emitter);
+        bus.publish(1L, notification(5L));
+
+        await(() -> emitter.eventIds.size() == 3);
+        assertThat(emitter.eventIds).containsExactly(2L, 3L, 5L);
+    }
+
+    @Test
+    void disconnectedClientIsDroppedOnTheFailedWrite() {
+        bus = bus();
+        StreamEmitter emitter = new StreamEmitter(null);
+        emitter.disconnected = true;
+
+        bus.subscribe(1L, null, emitter);
+
+        await(() -> bus.getConnectionCount() == 0);
+        await(() -> emitter.completed);
+        bus.publish(1L, notification(1L));
+        assertThat(emitter.eventIds).isEmpty();
+    }
+
+    private NotificationBus bus() {
+        ClusterProperties clusterProperties = new ClusterProperties();
+        clusterProperties.setTransport(ClusterProperties.Transport.LOCAL);
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        ClusterMembership membership = new ClusterMembership(clusterProperties,
+                beans.getBeanProvider(DiscoveryClient.class), beans.getBeanProvider(Registration.class));
+        return new NotificationBus(properties, new ClusterBus(clusterProperties, membership, new ObjectMapper()));
+    }
+
+    private static NotificationResponse notification(Long id) {
+        return NotificationResponse.builder().id(id).type(NotificationType.POST_LIKED).actorUsername("jane").build();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    /**
+     * Records the IDs of the events written; blocks each write until the client reads, or
+     * fails it once the client disconnected.
+     */
+    private static final class StreamEmitter extends SseEmitter {
+
+        private static final Pattern EVENT_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+
+        private final CountDownLatch clientReads;
+        private final List<Long> eventIds = new CopyOnWriteArrayList<>();
+        private volatile boolean writing;
+        private volatile boolean disconnected;
+        private volatile boolean completed;
+
+        StreamEmitter(CountDownLatch clientReads) {
+            this.clientReads = clientReads;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            writing = true;
+            try {
+                if (disconnected) {
+                    throw new IOException("Broken pipe");
+                }
+                if (clientReads != null && !clientReads.await(5, TimeUnit.SECONDS)) {
+                    throw new IOException("Write timed out");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            } finally {
+                writing = false;
+            }
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                Matcher id = EVENT_ID.matcher(data.getData().toString());
+                if (id.find()) {
+                    eventIds.add(Long.parseLong(id.group(1)));
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.socialhub.user.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialhub.user.event.PostLikedEvent;
+import com.socialhub.user.event.ProfileUpdatedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that subscribers receive the domain events they subscribed to, decoded from the payload.
+ */
+class ChangeEventBusTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ChangeEventBus bus = new ChangeEventBus(objectMapper);
+
+    @Test
+    void typedSubscribersReceiveOnlyTheirEvents() throws Exception {
+        List<PostLikedEvent> likes = new ArrayList<>();
+        bus.subscribe(PostLikedEvent.class, likes::add);
+
+        PostLikedEvent like = new PostLikedEvent(1L, 2L, 3L, "alice", LocalDateTime.of(2024, 1, 1, 12, 0));
+        ProfileUpdatedEvent profileUpdate = new ProfileUpdatedEvent(5L, 4L, "bob", "Bob", "Smith", 1);
+        bus.publish(List.of(
+                change(1, ChangeEventType.PROFILE_UPDATED, objectMapper.writeValueAsString(profileUpdate)),
+                change(2, ChangeEventType.POST_LIKED, objectMapper.writeValueAsString(like))));
+
+        assertThat(likes).containsExactly(like);
+    }
+
+    @Test
+    void failingSubscriberDoesNotStopDelivery() throws Exception {
+        List<Long> sequenceNumbers = new ArrayList<>();
+        bus.subscribe(event -> {
+            throw new IllegalStateException("boom");
+        });
+        bus.subscribe(event -> sequenceNumbers.add(event.sequenceNumber()));
+
+        bus.publish(List.of(
+                change(1, ChangeEventType.POST_LIKED, "{}"),
+                change(2, ChangeEventType.POST_LIKED, "{}")));
+
+        assertThat(sequenceNumbers).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void everyTypeMapsBackFromItsEventClass() {
+        for (ChangeEventType type : ChangeEventType.values()) {
+            assertThat(ChangeEventType.of(type.getEventClass())).isEqualTo(type);
+        }
+    }
+
+    private static ChangeEvent change(long sequenceNumber, ChangeEventType type, String payload) {
+        return new ChangeEvent("shard-0", sequenceNumber, type, 1L, payload, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,64 @@
+package com.socialhub.user.profile;
+
+import com.socialhub.user.MutableClock;
+import com.socialhub.user.dto.UserProfileResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks lookups, version ordering, expiry and eviction of the profile cache.
+ */
+class ProfileCacheTests {
+
+    private final MutableClock clock = new MutableClock();
+    private final ProfileProperties properties = new ProfileProperties();
+    private final ProfileCache cache;
+
+    ProfileCacheTests() {
+        properties.setCacheSize(2);
+        cache = new ProfileCache(properties, clock);
+    }
+
+    @Test
+    void findsProfilesByIdUserIdAndUsername() {
+        cache.put(profile(1L, 0, "alice"));
+
+        assertThat(cache.getById(1L)).map(CachedProfile::etag).contains("\"1-0\"");
+        assertThat(cache.getByUsername("alice")).map(CachedProfile::profileId).contains(1L);
+        assertThat(cache.getByUserId(11L)).map(CachedProfile::profileId).contains(1L);
+        assertThat(cache.getByUsername("bob")).isEmpty();
+    }
+
+    @Test
+    void invalidationRejectsOlderVersions() {
+        cache.put(profile(1L, 0, "alice"));
+        cache.invalidate(1L, 1);
+        assertThat(cache.getByUsername("alice")).isEmpty();
+
+        cache.put(profile(1L, 0, "alice"));
+        assertThat(cache.getById(1L)).as("stale read after the update").isEmpty();
+
+        cache.put(profile(1L, 1, "alice"));
+        assertThat(cache.getById(1L)).map(CachedProfile::version).contains(1L);
+    }
+
+    @Test
+    void entriesExpireAndLeastRecentlyReadAreEvicted() {
+        cache.put(profile(1L, 0, "alice"));
+        cache.put(profile(2L, 0, "bob"));
+        cache.getById(1L);
+        cache.put(profile(3L, 0, "carol"));
+
+        assertThat(cache.getById(1L)).isPresent();
+        assertThat(cache.getById(2L)).isEmpty();
+
+        clock.advance(properties.getCacheTtl());
+        assertThat(cache.getById(1L)).isEmpty();
+    }
+
+    private static CachedProfile profile(Long profileId, long version, String username) {
+        UserProfileResponse response = UserProfileResponse.builder().id(profileId + 10).username(username).build();
+        return new CachedProfile(profileId, version, response);
+    }
+}
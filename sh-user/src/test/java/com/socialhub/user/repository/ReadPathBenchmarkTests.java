@@ -0,0 +1,221 @@
+package com.socialhub.user.repository;
+
+import com.socialhub.user.entity.Friend;
+import com.socialhub.user.entity.Post;
+import com.socialhub.user.entity.Profile;
+import com.socialhub.user.entity.User;
+import com.socialhub.user.repository.projection.FriendRequestView;
+import com.socialhub.user.repository.projection.PostView;
+import com.socialhub.user.repository.projection.ProfileView;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the entity-based read paths with the projections that replaced them, reporting the
+ * bytes allocated and the mean latency per call on the calling thread.
+ * <p>
+ * Opt-in: {@code mvn test -Dtest=ReadPathBenchmarkTests -Dbenchmark=true}.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReadPathBenchmarkTests {
+
+    private static final int USERS = 500;
+    private static final int POSTS_PER_USER = 20;
+    private static final int LIKES_PER_POST = 10;
+    private static final int COMMENTS_PER_POST = 5;
+    private static final int PENDING_REQUESTS_PER_USER = 20;
+
+    private static final int WARMUP = 300;
+    private static final int ITERATIONS = 2_000;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private FriendRepository friendRepository;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeAll
+    void seed() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> profiles = new ArrayList<>();
+        List<Object[]> posts = new ArrayList<>();
+        List<Object[]> likes = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        List<Object[]> friends = new ArrayList<>();
+        long postId = 0;
+        for (long userId = 1; userId <= USERS; userId++) {
+            users.add(new Object[]{userId, userId, "user" + userId, "user" + userId + "@example.com"});
+            profiles.add(new Object[]{userId, userId, "First" + userId, "Last" + userId});
+            for (int i = 0; i < POSTS_PER_USER; i++) {
+                postId++;
+                posts.add(new Object[]{postId, userId, "post " + postId, now});
+                for (long like = 1; like <= LIKES_PER_POST; like++) {
+                    likes.add(new Object[]{postId, (userId + like) % USERS + 1, now});
+                }
+                for (long comment = 1; comment <= COMMENTS_PER_POST; comment++) {
+                    comments.add(new Object[]{postId, (userId + comment) % USERS + 1, "comment " + comment, now});
+                }
+            }
+            for (long offset = 1; offset <= PENDING_REQUESTS_PER_USER; offset++) {
+                friends.add(new Object[]{(userId + offset) % USERS + 1, userId, now});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, auth_user_id, username, email) VALUES (?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO profiles (id, user_id, first_name, last_name, bio, profile_picture_url) "
+                + "VALUES (?, ?, ?, ?, '', '')", profiles);
+        jdbcTemplate.batchUpdate("INSERT INTO posts (id, user_id, content, created_at) VALUES (?, ?, ?, ?)", posts);
+        jdbcTemplate.batchUpdate("INSERT INTO likes (post_id, user_id, liked_at) VALUES (?, ?, ?)", likes);
+        jdbcTemplate.batchUpdate("INSERT INTO comments (post_id, user_id, content, created_at) VALUES (?, ?, ?, ?)", comments);
+        jdbcTemplate.batchUpdate("INSERT INTO friends (user_id, friend_id, status, requested_at) "
+                + "VALUES (?, ?, 'PENDING', ?)", friends);
+        jdbcTemplate.execute("ANALYZE TABLE users, profiles, posts, likes, comments, friends");
+    }
+
+    @Test
+    void postsByUser() {
+        PageRequest page = PageRequest.of(0, 10);
+        compare("posts by user (10)",
+                () -> {
+                    User user = userRepository.findById(7L).orElseThrow();
+                    Page<Post> posts = postRepository.findByUserId(user.getId(), page);
+                    long total = 0;
+                    for (Post post : posts) {
+                        total += likeRepository.countByPostId(post.getId()) + commentRepository.countByPostId(post.getId());
+                    }
+                    return total + user.getUsername().length();
+                },
+                () -> {
+                    long total = 0;
+                    for (PostView post : postRepository.findViewsByUserId(7L, page)) {
+                        total += post.getLikeCount() + post.getCommentCount();
+                    }
+                    return total + "user7".length();
+                });
+    }
+
+    @Test
+    void profileByUsername() {
+        compare("profile by username",
+                () -> {
+                    User user = userRepository.findByUsername("user7").orElseThrow();
+                    Profile profile = profileRepository.findByUser(user).orElseThrow();
+                    return (long) (user.getEmail().length() + profile.getFirstName().length());
+                },
+                () -> {
+                    ProfileView profile = profileRepository.findViewByUsername("user7").orElseThrow();
+                    return (long) (profile.getEmail().length() + profile.getFirstName().length());
+                });
+    }
+
+    @Test
+    void receivedFriendRequests() {
+        compare("received friend requests (20)",
+                () -> {
+                    long total = 0;
+                    for (Friend friend : friendRepository.findByFriendIdAndStatus(7L, Friend.Status.PENDING)) {
+                        total += userRepository.findById(friend.getUserId()).orElseThrow().getUsername().length()
+                                + userRepository.findById(friend.getFriendId()).orElseThrow().getUsername().length();
+                    }
+                    return total;
+                },
+                () -> {
+                    long total = 0;
+                    for (FriendRequestView request : friendRepository.findReceivedRequests(7L, Friend.Status.PENDING)) {
+                        total += request.getFromUsername().length() + request.getToUsername().length();
+                    }
+                    return total;
+                });
+    }
+
+    /**
+     * Runs both read paths in read-only transactions, checks that they agree and prints the
+     * allocation and latency of each.
+     */
+    private void compare(String name, Supplier<Long> entities, Supplier<Long> projections) {
+        Long expected = readOnly.execute(status -> entities.get());
+        Long actual = readOnly.execute(status -> projections.get());
+        assertThat(actual).as(name).isEqualTo(expected);
+
+        Measurement before = measure(entities);
+        Measurement after = measure(projections);
+        System.out.printf("%-32s entities: %8d B/op %8.1f us/op | projections: %8d B/op %8.1f us/op%n",
+                name, before.bytesPerOp(), before.microsPerOp(), after.bytesPerOp(), after.microsPerOp());
+    }
+
+    private Measurement measure(Supplier<Long> path) {
+        for (int i = 0; i < WARMUP; i++) {
+            readOnly.execute(status -> path.get());
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            readOnly.execute(status -> path.get());
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Measurement(allocated / ITERATIONS, elapsed / 1_000.0 / ITERATIONS);
+    }
+
+    private record Measurement(long bytesPerOp, double microsPerOp) {
+    }
+}
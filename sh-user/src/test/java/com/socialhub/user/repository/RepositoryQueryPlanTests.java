@@ -0,0 +1,255 @@
+package com.socialhub.user.repository;
+
+import com.socialhub.user.entity.Friend;
+import com.socialhub.user.entity.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every repository query against a migrated MySQL schema and fails if
+ * {@code EXPLAIN} reports a full table scan or a full index scan for it.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.socialhub.user.repository.RepositoryQueryPlanTests$CapturingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTests {
+
+    private static final int USERS = 200;
+    private static final int POSTS = 2_000;
+    private static final int COMMENTS = 5_000;
+    private static final int LIKES = 5_000;
+    private static final int NOTIFICATIONS = 5_000;
+    private static final int OUTBOX_EVENTS = 5_000;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private FriendRepository friendRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxOffsetRepository outboxOffsetRepository;
+
+    /**
+     * Seeds enough rows for the optimizer to prefer indexes over scanning small tables.
+     */
+    @BeforeAll
+    void seed() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> profiles = new ArrayList<>();
+        for (long i = 1; i <= USERS; i++) {
+            users.add(new Object[]{i, i, "user" + i, "user" + i + "@example.com"});
+            profiles.add(new Object[]{i, i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, auth_user_id, username, email) VALUES (?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO profiles (id, user_id, first_name, last_name, bio, profile_picture_url) "
+                + "VALUES (?, ?, '', '', '', '')", profiles);
+
+        List<Object[]> posts = new ArrayList<>();
+        for (long i = 1; i <= POSTS; i++) {
+            posts.add(new Object[]{i, i % USERS + 1, "post " + i, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO posts (id, user_id, content, created_at) VALUES (?, ?, ?, ?)", posts);
+
+        List<Object[]> comments = new ArrayList<>();
+        for (long i = 1; i <= COMMENTS; i++) {
+            comments.add(new Object[]{i % POSTS + 1, i % USERS + 1, "comment " + i, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO comments (post_id, user_id, content, created_at) VALUES (?, ?, ?, ?)", comments);
+
+        List<Object[]> likes = new ArrayList<>();
+        for (long i = 0; i < LIKES; i++) {
+            likes.add(new Object[]{i % POSTS + 1, i / POSTS + 1, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO likes (post_id, user_id, liked_at) VALUES (?, ?, ?)", likes);
+
+        List<Object[]> friends = new ArrayList<>();
+        Friend.Status[] statuses = Friend.Status.values();
+        for (long userId = 1; userId <= USERS; userId++) {
+            for (long offset = 1; offset <= 10; offset++) {
+                long friendId = (userId + offset - 1) % USERS + 1;
+                friends.add(new Object[]{userId, friendId, statuses[(int) (offset % statuses.length)].name(), now});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO friends (user_id, friend_id, status, requested_at) VALUES (?, ?, ?, ?)", friends);
+
+        List<Object[]> notifications = new ArrayList<>();
+        for (long i = 1; i <= NOTIFICATIONS; i++) {
+            notifications.add(new Object[]{i % USERS + 1, i, i % POSTS + 1, i % 2 == 0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO notifications (user_id, id, type, actor_id, post_id, is_read) "
+                + "VALUES (?, ?, 0, 1, ?, ?)", notifications);
+
+        List<Object[]> outboxEvents = new ArrayList<>();
+        for (long i = 1; i <= OUTBOX_EVENTS; i++) {
+            outboxEvents.add(new Object[]{i <= OUTBOX_EVENTS - 100 ? i : null, i, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO outbox_events (sequence_number, type, aggregate_id, payload, created_at) "
+                + "VALUES (?, 0, ?, '{}', ?)", outboxEvents);
+        jdbcTemplate.update("INSERT INTO outbox_offsets (consumer, sequence_number) VALUES ('log', 0)");
+
+        jdbcTemplate.execute("ANALYZE TABLE users, profiles, posts, comments, likes, friends, notifications, "
+                + "outbox_events, outbox_offsets");
+    }
+
+    @Test
+    void postRepositoryQueriesUseIndexes() {
+        assertIndexed(() -> postRepository.findByUserId(1L, PageRequest.of(0, 10)), 1L, 10);
+        assertIndexed(() -> postRepository.findViewsByUserId(1L, PageRequest.of(0, 10)), 1L, 10);
+    }
+
+    @Test
+    void commentRepositoryQueriesUseIndexes() {
+        assertIndexed(() -> commentRepository.findByPostId(1L), 1L);
+        assertIndexed(() -> commentRepository.findByPostIdOrderByPath(1L), 1L);
+        assertIndexed(() -> commentRepository.findPageByPostId(1L, "", PageRequest.of(0, 20)), 1L, "", 20);
+        assertIndexed(() -> commentRepository.countByPostId(1L), 1L);
+        assertIndexed(() -> commentRepository.findThread(1L, "0", "1", 3, PageRequest.of(0, 100)), 1L, "0", "1", 3, 100);
+    }
+
+    @Test
+    void likeRepositoryQueriesUseIndexes() {
+        assertIndexed(() -> likeRepository.existsByPostIdAndUserId(1L, 1L), 1L, 1L, 1);
+        assertIndexed(() -> likeRepository.countByPostId(1L), 1L);
+        assertIndexed(() -> likeRepository.findByPostId(1L), 1L);
+        assertIndexed(() -> likeRepository.findPageByPostId(1L, Long.MAX_VALUE, PageRequest.of(0, 20)), 1L, Long.MAX_VALUE, 20);
+        assertIndexed(() -> likeRepository.findLikersByPostIdIn(List.of(1L, 2L, 3L)), 1L, 2L, 3L);
+    }
+
+    @Test
+    void friendRepositoryQueriesUseIndexes() {
+        String accepted = Friend.Status.ACCEPTED.name();
+        String pending = Friend.Status.PENDING.name();
+        assertIndexed(() -> friendRepository.findByUserIdAndStatus(1L, Friend.Status.ACCEPTED), 1L, accepted);
+        assertIndexed(() -> friendRepository.existsByUserIdAndFriendIdAndStatus(1L, 2L, Friend.Status.PENDING), 1L, 2L, pending, 1);
+        assertIndexed(() -> friendRepository.findByUserIdAndFriendIdAndStatus(1L, 2L, Friend.Status.ACCEPTED), 1L, 2L, accepted);
+        assertIndexed(() -> friendRepository.findByFriendIdAndStatus(1L, Friend.Status.PENDING), 1L, pending);
+        assertIndexed(() -> friendRepository.findFriendUsernames(1L, Friend.Status.ACCEPTED), 1L, accepted);
+        assertIndexed(() -> friendRepository.findReceivedRequests(1L, Friend.Status.PENDING), 1L, pending);
+        assertIndexed(() -> friendRepository.findSentRequests(1L, Friend.Status.PENDING), 1L, pending);
+    }
+
+    @Test
+    void userAndProfileRepositoryQueriesUseIndexes() {
+        assertIndexed(() -> userRepository.findByUsername("user1"), "user1");
+        assertIndexed(() -> userRepository.findByEmail("user1@example.com"), "user1@example.com");
+        assertIndexed(() -> userRepository.findByAuthUserId(1L), 1L);
+
+        User user = userRepository.findById(1L).orElseThrow();
+        assertIndexed(() -> profileRepository.findByUser(user), 1L);
+        assertIndexed(() -> profileRepository.findViewByUsername("user1"), "user1");
+        assertIndexed(() -> profileRepository.findViewById(1L), 1L);
+        assertIndexed(() -> profileRepository.findViewsByIdIn(List.of(1L, 2L, 3L)), 1L, 2L, 3L);
+        assertIndexed(() -> profileRepository.findViewsByUserIdIn(List.of(1L, 2L, 3L)), 1L, 2L, 3L);
+    }
+
+    @Test
+    void notificationRepositoryQueriesUseIndexes() {
+        assertIndexed(() -> notificationRepository.findPageByUserId(1L, Long.MAX_VALUE,
+                PageRequest.of(0, 20)), 1L, Long.MAX_VALUE, 20);
+        assertIndexed(() -> notificationRepository.findPruneBound(100L, 10), 100L, 10);
+        assertIndexed(() -> notificationRepository.countUnreadBefore(100L), 100L);
+    }
+
+    @Test
+    void outboxRepositoryQueriesUseIndexes() {
+        assertIndexed(() -> outboxEventRepository.findUnsequenced(PageRequest.of(0, 500)), 500);
+        assertIndexed(() -> outboxEventRepository.findAfter(OUTBOX_EVENTS - 200, PageRequest.of(0, 500)),
+                OUTBOX_EVENTS - 200, 500);
+        assertIndexed(() -> outboxEventRepository.findLastSequenceNumber());
+        assertIndexed(() -> outboxOffsetRepository.findById("log"), "log");
+    }
+
+    /**
+     * Invokes a repository method, captures the SELECT statements Hibernate issues for it
+     * and asserts that none of their plans scans a whole table or index.
+     *
+     * @param query      the repository call to inspect
+     * @param parameters bind values in placeholder order; statements with fewer placeholders use a prefix
+     */
+    private void assertIndexed(Runnable query, Object... parameters) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        query.run();
+
+        List<String> selects = CapturingStatementInspector.STATEMENTS.stream()
+                .filter(sql -> sql.trim().toLowerCase().startsWith("select"))
+                .toList();
+        assertThat(selects).as("captured SELECT statements").isNotEmpty();
+
+        for (String sql : selects) {
+            int placeholders = (int) sql.chars().filter(c -> c == '?').count();
+            Object[] bindings = Arrays.copyOf(parameters, placeholders);
+            for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + sql, bindings)) {
+                assertThat(String.valueOf(row.get("type")))
+                        .as("access type of %s in plan for: %s", row.get("table"), sql)
+                        .isNotIn("ALL", "index");
+            }
+        }
+    }
+
+    /**
+     * Records the SQL of every statement Hibernate prepares during the test.
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.socialhub.user.search;
+
+import com.socialhub.user.dto.PaginatedResponse;
+import com.socialhub.user.dto.PostSearchResult;
+import com.socialhub.user.event.PostCreatedEvent;
+import com.socialhub.user.event.PostDeletedEvent;
+import com.socialhub.user.exception.CustomException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the index over a temporary directory, with an in-memory posts table standing in
+ * for the shards a rebuild reads.
+ */
+class PostSearchIndexTests {
+
+    @TempDir
+    Path indexPath;
+
+    private final Map<Long, String> posts = new TreeMap<>();
+    private final PostSearchProperties properties = new PostSearchProperties();
+    private Runnable duringRebuild = () -> {
+    };
+    private PostSearchIndex index;
+
+    @AfterEach
+    void close() throws IOException {
+        if (index != null) {
+            index.close();
+        }
+    }
+
+    @Test
+    void ranksPostsMentioningTheTermsMoreOftenFirst() throws IOException {
+        index = index();
+        create(1L, "A walk by the river, then coffee");
+        create(2L, "River, river, river: three rivers of river stones by the river");
+        create(3L, "Coffee and cake");
+        index.refresh();
+
+        assertThat(postIds(index.search("river", 0, 10))).containsExactly(2L, 1L);
+        assertThat(postIds(index.search("river coffee", 0, 10))).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(postIds(index.search("river coffee", 0, 10)).get(0)).isEqualTo(1L);
+        assertThat(index.search("", 0, 10).getContent()).isEmpty();
+    }
+
+    @Test
+    void pagesThroughMatchesUpToTheResultWindow() throws IOException {
+        properties.setMaxResultWindow(20);
+        index = index();
+        for (long id = 1; id <= 25; id++) {
+            create(id, "Post number " + id + " about gardening");
+        }
+        index.refresh();
+
+        PaginatedResponse<PostSearchResult> first = index.search("gardening", 0, 10);
+        PaginatedResponse<PostSearchResult> second = index.search("gardening", 1, 10);
+
+        assertThat(first.getContent()).hasSize(10);
+        assertThat(second.getContent()).hasSize(10);
+        assertThat(postIds(first)).doesNotContainAnyElementsOf(postIds(second));
+        assertThat(first.getTotalElements()).isEqualTo(25);
+        assertThat(first.getTotalPages()).isEqualTo(3);
+        assertThatThrownBy(() -> index.search("gardening", 2, 10)).isInstanceOf(CustomException.class);
+        assertThatThrownBy(() -> index.search("gardening", -1, 10)).isInstanceOf(CustomException.class);
+    }
+
+    @Test
+    void deletedPostsAreNoLongerFound() throws IOException {
+        index = index();
+        create(1L, "Selling my bicycle");
+        create(2L, "Bought a bicycle");
+        index.refresh();
+
+        index.onPostDeleted(new PostDeletedEvent(1L, 10L));
+        index.refresh();
+
+        assertThat(postIds(index.search("bicycle", 0, 10))).containsExactly(2L);
+    }
+
+    @Test
+    void rebuildKeepsTheOldContentsSearchableAndReappliesChangesMadeMeanwhile() throws IOException {
+        index = index();
+        create(1L, "Old post about marimbas");
+        index.refresh();
+        // Created in the database while the index missed it
+        posts.put(2L, "Missed post about marimbas");
+        duringRebuild = () -> {
+            assertThat(postIds(search("marimbas"))).containsExactly(1L);
+            create(3L, "New post about marimbas");
+            index.onPostDeleted(new PostDeletedEvent(1L, 10L));
+            posts.remove(1L);
+        };
+
+        assertThat(index.rebuild().getPostsIndexed()).isEqualTo(2);
+
+        assertThat(postIds(index.search("marimbas", 0, 10))).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    private PostSearchIndex index() throws IOException {
+        properties.setIndexPath(indexPath);
+        return new PostSearchIndex(properties, new PostSearchIndex.PostReader() {
+            @Override
+            public List<String> shards() {
+                return List.of("shard-0");
+            }
+
+            @Override
+            public List<PostSearchResult> readAfter(String shard, long afterId, int limit) {
+                List<PostSearchResult> batch = posts.entrySet().stream()
+                        .filter(post -> post.getKey() > afterId)
+                        .limit(limit)
+                        .map(post -> PostSearchResult.builder()
+                                .postId(post.getKey())
+                                .authorUsername("author")
+                                .content(post.getValue())
+                                .build())
+                        .toList();
+                Runnable hook = duringRebuild;
+                duringRebuild = () -> {
+                };
+                hook.run();
+                return batch;
+            }
+        });
+    }
+
+    private void create(Long postId, String content) {
+        posts.put(postId, content);
+        index.onPostCreated(new PostCreatedEvent(postId, 10L, "author", content, LocalDateTime.now()));
+    }
+
+    private PaginatedResponse<PostSearchResult> search(String text) {
+        try {
+            index.refresh();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return index.search(text, 0, 10);
+    }
+
+    private static List<Long> postIds(PaginatedResponse<PostSearchResult> results) {
+        return results.getContent().stream().map(PostSearchResult::getPostId).toList();
+    }
+}
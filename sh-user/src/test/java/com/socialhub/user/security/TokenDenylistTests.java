@@ -0,0 +1,81 @@
+package com.socialhub.user.security;
+
+import com.socialhub.user.MutableClock;
+import com.socialhub.user.dto.RevocationsResponse;
+import com.socialhub.user.dto.RevokedSessionResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenDenylistTests {
+
+    private final MutableClock clock = new MutableClock();
+    private final List<Long> requested = new ArrayList<>();
+    private final List<RevocationsResponse> responses = new ArrayList<>();
+    private final TokenDenylist denylist = new TokenDenylist(new TokenDenylistProperties(), clock, since -> {
+        requested.add(since);
+        if (responses.isEmpty()) {
+            throw new IllegalStateException("AUTH-SERVICE unavailable");
+        }
+        return responses.remove(0);
+    });
+
+    @Test
+    void rejectsTokensOfRevokedSessionsOnly() {
+        long expiresAt = clock.millis() + Duration.ofMinutes(15).toMillis();
+        responses.add(revocations(100L, new RevokedSessionResponse(7L, expiresAt)));
+        denylist.sync();
+
+        assertThat(denylist.validate(token(7L)).hasErrors()).isTrue();
+        assertThat(denylist.validate(token(8L)).hasErrors()).isFalse();
+        assertThat(denylist.validate(token(null)).hasErrors()).isFalse();
+    }
+
+    @Test
+    void asksForNewRevocationsOnlyAndKeepsTheListWhileUnreachable() {
+        long expiresAt = clock.millis() + Duration.ofMinutes(15).toMillis();
+        responses.add(revocations(100L, new RevokedSessionResponse(7L, expiresAt)));
+        responses.add(revocations(200L, new RevokedSessionResponse(1L << 40, expiresAt)));
+        denylist.sync();
+        denylist.sync();
+        denylist.sync();
+
+        assertThat(requested).containsExactly(null, 100L, 200L);
+        assertThat(denylist.isRevoked(7L)).isTrue();
+        assertThat(denylist.isRevoked(1L << 40)).isTrue();
+    }
+
+    @Test
+    void dropsSessionsOnceTheirTokensHaveExpired() {
+        long expiresAt = clock.millis() + Duration.ofMinutes(15).toMillis();
+        responses.add(revocations(100L, new RevokedSessionResponse(7L, expiresAt)));
+        denylist.sync();
+
+        clock.advance(Duration.ofMinutes(15));
+        denylist.sync();
+        assertThat(denylist.isRevoked(7L)).isTrue();
+
+        // Beyond the leeway the tokens fail the expiry check anyway
+        clock.advance(Duration.ofMillis(TokenDenylist.CLOCK_SKEW_MILLIS + 1));
+        denylist.sync();
+        assertThat(denylist.isRevoked(7L)).isFalse();
+        assertThat(denylist.size()).isZero();
+    }
+
+    private static RevocationsResponse revocations(long until, RevokedSessionResponse... sessions) {
+        return new RevocationsResponse(List.of(sessions), until);
+    }
+
+    private static Jwt token(Long sessionId) {
+        Jwt.Builder builder = Jwt.withTokenValue("token").header("alg", "HS256").subject("john_doe");
+        if (sessionId != null) {
+            builder.claim("sid", sessionId);
+        }
+        return builder.build();
+    }
+}
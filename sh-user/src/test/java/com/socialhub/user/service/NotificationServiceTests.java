@@ -0,0 +1,187 @@
+package com.socialhub.user.service;
+
+import com.socialhub.user.UserServiceApplication;
+import com.socialhub.user.dto.NotificationReadRequest;
+import com.socialhub.user.dto.NotificationResponse;
+import com.socialhub.user.entity.Notification;
+import com.socialhub.user.entity.User;
+import com.socialhub.user.event.PostLikedEvent;
+import com.socialhub.user.notification.NotificationType;
+import com.socialhub.user.repository.NotificationCounterRepository;
+import com.socialhub.user.repository.NotificationRepository;
+import com.socialhub.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Records notifications through the event listeners against MySQL and checks the unread
+ * counters, marking as read, pruning and the IDs handed out.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NotificationServiceTests {
+
+    private static final int NODE_ID = 5;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withUsername("root")
+            .withPassword("test");
+
+    @TempDir
+    static Path dataDirectory;
+
+    private ConfigurableApplicationContext context;
+    private NotificationService notificationService;
+    private NotificationRepository notificationRepository;
+    private NotificationCounterRepository notificationCounterRepository;
+    private TransactionTemplate transaction;
+
+    @BeforeAll
+    void start() {
+        String server = "jdbc:mysql://" + mysql.getHost() + ":" + mysql.getMappedPort(MySQLContainer.MYSQL_PORT);
+        context = new SpringApplicationBuilder(UserServiceApplication.class).run(
+                "--server.port=0",
+                "--eureka.client.enabled=false",
+                "--logging.level.root=WARN",
+                "--spring.jpa.show-sql=false",
+                "--spring.datasource.url=" + server + "/sh_user_notification_test?createDatabaseIfNotExist=true",
+                "--spring.datasource.username=root",
+                "--spring.datasource.password=test",
+                "--socialhub.cluster.transport=local",
+                "--socialhub.notifications.node-id=" + NODE_ID,
+                "--socialhub.notifications.inbox-retention=30d",
+                "--socialhub.notifications.inbox-prune-batch-size=2",
+                "--socialhub.activity-log.directory=" + dataDirectory.resolve("activity-log"),
+                "--socialhub.search.index-path=" + dataDirectory.resolve("post-index"));
+        notificationService = context.getBean(NotificationService.class);
+        notificationRepository = context.getBean(NotificationRepository.class);
+        notificationCounterRepository = context.getBean(NotificationCounterRepository.class);
+        transaction = new TransactionTemplate(context.getBean("transactionManager", PlatformTransactionManager.class));
+    }
+
+    @AfterAll
+    void stop() {
+        context.close();
+    }
+
+    @Test
+    void unreadCountFollowsRecordedAndReadNotifications() {
+        User author = createUser();
+        like(author, createUser());
+        like(author, createUser());
+        like(author, createUser());
+        List<Long> ids = inboxIds(author);
+
+        assertThat(unreadCount(author)).isEqualTo(3);
+        assertThat(markAsRead(author, NotificationReadRequest.builder().ids(List.of(ids.get(2))).build())).isEqualTo(2);
+        // Marking the same notification again changes nothing
+        assertThat(markAsRead(author, NotificationReadRequest.builder().ids(List.of(ids.get(2))).build())).isEqualTo(2);
+        assertThat(markAsRead(author, NotificationReadRequest.builder().upToId(ids.get(0)).build())).isEqualTo(0);
+        assertThat(markAsRead(author, NotificationReadRequest.builder().upToId(ids.get(0)).build())).isEqualTo(0);
+
+        like(author, createUser());
+        assertThat(unreadCount(author)).isEqualTo(1);
+    }
+
+    @Test
+    void idsEndInTheNodeIdAndKeepIncreasingPastAnotherInstancesClock() {
+        User author = createUser();
+        like(author, createUser());
+        long first = inboxIds(author).get(0);
+        assertThat(first & ((1 << NotificationService.NODE_BITS) - 1)).isEqualTo(NODE_ID);
+
+        // Another instance, its clock a minute ahead, notified the same user
+        long ahead = NotificationService.firstIdAt(Instant.now().plus(Duration.ofMinutes(1))) + 7;
+        transaction.executeWithoutResult(status -> notificationCounterRepository.addNotification(author.getId(), ahead));
+        like(author, createUser());
+
+        assertThat(inboxIds(author).get(0)).isEqualTo(ahead + 1);
+    }
+
+    @Test
+    void pruningDeletesExpiredNotificationsInBatchesAndAdjustsUnreadCounts() {
+        User author = createUser();
+        User other = createUser();
+        User liker = createUser();
+        long expired = NotificationService.firstIdAt(Instant.now().minus(Duration.ofDays(31)));
+        transaction.executeWithoutResult(status -> {
+            for (int i = 0; i < 5; i++) {
+                insert(author, liker, expired + i, i < 2);
+            }
+            insert(other, liker, expired + 5, false);
+        });
+        like(author, liker);
+        like(other, liker);
+        assertThat(unreadCount(author)).isEqualTo(4);
+        assertThat(unreadCount(other)).isEqualTo(2);
+
+        notificationService.pruneInbox();
+
+        assertThat(inboxIds(author)).hasSize(1).allMatch(id -> id > expired);
+        assertThat(inboxIds(other)).hasSize(1).allMatch(id -> id > expired);
+        assertThat(unreadCount(author)).isEqualTo(1);
+        assertThat(unreadCount(other)).isEqualTo(1);
+    }
+
+    private void like(User author, User liker) {
+        transaction.executeWithoutResult(status -> notificationService.onPostLiked(new PostLikedEvent(
+                1L, author.getId(), liker.getId(), liker.getUsername(), LocalDateTime.now())));
+    }
+
+    private void insert(User recipient, User actor, long id, boolean read) {
+        notificationRepository.insert(Notification.builder()
+                .userId(recipient.getId())
+                .id(id)
+                .type(NotificationType.POST_LIKED)
+                .actorId(actor.getId())
+                .postId(1L)
+                .read(read)
+                .build());
+        if (!read) {
+            notificationCounterRepository.addUnread(recipient.getId(), 1);
+        }
+    }
+
+    private List<Long> inboxIds(User user) {
+        return notificationService.getNotifications(user.getUsername(), null, 100).getNotifications().stream()
+                .map(NotificationResponse::getId)
+                .toList();
+    }
+
+    private int unreadCount(User user) {
+        return notificationService.getUnreadCount(user.getUsername()).getUnreadCount();
+    }
+
+    private int markAsRead(User user, NotificationReadRequest request) {
+        return notificationService.markAsRead(user.getUsername(), request).getUnreadCount();
+    }
+
+    private User createUser() {
+        String username = "notify_" + UUID.randomUUID().toString().substring(0, 8);
+        return context.getBean(UserRepository.class).save(User.builder()
+                .authUserId(Math.abs(UUID.randomUUID().getMostSignificantBits()))
+                .username(username)
+                .email(username + "@example.com")
+                .build());
+    }
+}
@@ -0,0 +1,141 @@
+package com.socialhub.user.service;
+
+import com.socialhub.user.UserServiceApplication;
+import com.socialhub.user.comment.CommentPath;
+import com.socialhub.user.dto.CommentRequest;
+import com.socialhub.user.dto.CommentResponse;
+import com.socialhub.user.dto.PostRequest;
+import com.socialhub.user.dto.PostResponse;
+import com.socialhub.user.entity.Comment;
+import com.socialhub.user.entity.User;
+import com.socialhub.user.repository.CommentRepository;
+import com.socialhub.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reads comment threads from MySQL through the service, with more replies beyond the
+ * requested ones than a single read of the thread's range returns, and pages of posts from a
+ * single, unsharded database.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PostServiceTests {
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withUsername("root")
+            .withPassword("test");
+
+    @TempDir
+    static Path dataDirectory;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+
+    @BeforeAll
+    void start() {
+        String server = "jdbc:mysql://" + mysql.getHost() + ":" + mysql.getMappedPort(MySQLContainer.MYSQL_PORT);
+        context = new SpringApplicationBuilder(UserServiceApplication.class).run(
+                "--server.port=0",
+                "--eureka.client.enabled=false",
+                "--logging.level.root=WARN",
+                "--spring.jpa.show-sql=false",
+                "--spring.datasource.url=" + server + "/sh_user_post_test?createDatabaseIfNotExist=true",
+                "--spring.datasource.username=root",
+                "--spring.datasource.password=test",
+                "--socialhub.cluster.transport=local",
+                "--socialhub.activity-log.directory=" + dataDirectory.resolve("activity-log"),
+                "--socialhub.search.index-path=" + dataDirectory.resolve("post-index"));
+        postService = context.getBean(PostService.class);
+    }
+
+    @AfterAll
+    void stop() {
+        context.close();
+    }
+
+    @Test
+    void threadWithLimitedRepliesSkipsTheSubtreesOfLaterReplies() {
+        String username = createUser().getUsername();
+        Long postId = postService.createPost(PostRequest.builder().content("Threads").build(), username).getId();
+        CommentResponse top = comment(postId, null, username);
+        CommentResponse first = comment(postId, top.getId(), username);
+        CommentResponse firstFirst = comment(postId, first.getId(), username);
+        CommentResponse firstSecond = comment(postId, first.getId(), username);
+        // Replies to the first reply beyond the second, more than one read of the range returns
+        addReplies(postId, first.getId(), 2, 1500);
+        CommentResponse second = comment(postId, top.getId(), username);
+        comment(postId, top.getId(), username);
+
+        List<CommentResponse> thread = postService.getCommentThread(postId, top.getId(), null, 2);
+
+        assertThat(thread).extracting(CommentResponse::getId).containsExactly(
+                top.getId(), first.getId(), firstFirst.getId(), firstSecond.getId(), second.getId());
+        assertThat(postService.getCommentThread(postId, top.getId(), 1, 2)).extracting(CommentResponse::getId)
+                .containsExactly(top.getId(), first.getId(), second.getId());
+    }
+
+    @Test
+    void pagesOfNewestPostsGoBeyondTheMergeWindowWithOneShard() {
+        String username = createUser().getUsername();
+        Long postId = postService.createPost(PostRequest.builder().content("Deep").build(), username).getId();
+        int size = 10;
+        // Pages beyond socialhub.sharding.max-merge-window, which only bounds merging shards
+        int page = 1000 / size;
+
+        assertThat(postService.getAllPosts(page, size, username)).isEmpty();
+        assertThat(postService.getAllPosts(0, size, username)).extracting(PostResponse::getId).contains(postId);
+    }
+
+    private CommentResponse comment(Long postId, Long parentId, String username) {
+        return postService.commentPost(postId, CommentRequest.builder().content("Comment").parentId(parentId).build(),
+                username);
+    }
+
+    /**
+     * Adds replies to a comment directly, at the positions after the given one.
+     */
+    private void addReplies(Long postId, Long parentId, int after, int count) {
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+        Comment parent = commentRepository.findById(parentId).orElseThrow();
+        List<Comment> replies = new ArrayList<>(count);
+        for (int position = after + 1; position <= after + count; position++) {
+            replies.add(Comment.builder()
+                    .postId(postId)
+                    .userId(parent.getUserId())
+                    .content("Reply " + position)
+                    .createdAt(LocalDateTime.now())
+                    .parentId(parentId)
+                    .path(CommentPath.reply(parent.getPath(), position))
+                    .depth(parent.getDepth() + 1)
+                    .build());
+        }
+        commentRepository.saveAll(replies);
+    }
+
+    private User createUser() {
+        String username = "thread_" + UUID.randomUUID().toString().substring(0, 8);
+        return context.getBean(UserRepository.class).save(User.builder()
+                .authUserId(Math.abs(UUID.randomUUID().getMostSignificantBits()))
+                .username(username)
+                .email(username + "@example.com")
+                .build());
+    }
+}
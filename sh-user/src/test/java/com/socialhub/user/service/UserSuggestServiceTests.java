@@ -0,0 +1,143 @@
+package com.socialhub.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialhub.user.dto.UserSuggestionResponse;
+import com.socialhub.user.event.ProfileUpdatedEvent;
+import com.socialhub.user.event.UserRegisteredEvent;
+import com.socialhub.user.outbox.ChangeEventBus;
+import com.socialhub.user.repository.projection.ProfileNameView;
+import com.socialhub.user.suggest.UserSuggestProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the service with an in-memory profiles table to check pending users, renames and
+ * the rebuild started when too many users are pending.
+ */
+class UserSuggestServiceTests {
+
+    private final Map<Long, Name> profiles = new TreeMap<>();
+    private final UserSuggestProperties properties = new UserSuggestProperties();
+    private final CountDownLatch rebuildStarted = new CountDownLatch(1);
+    private volatile CountDownLatch rebuildMayRead = new CountDownLatch(0);
+    private final UserSuggestService service = new UserSuggestService(new UserSuggestService.UserSource() {
+        @Override
+        public Map<Long, Integer> friendCounts() {
+            rebuildStarted.countDown();
+            await(rebuildMayRead);
+            return Map.of(1L, 5, 3L, 7);
+        }
+
+        @Override
+        public List<ProfileNameView> namesAfter(long profileId, int limit) {
+            return profiles.values().stream()
+                    .filter(name -> name.getProfileId() > profileId)
+                    .limit(limit)
+                    .map(ProfileNameView.class::cast)
+                    .toList();
+        }
+    }, properties, new ChangeEventBus(new ObjectMapper()));
+
+    @AfterEach
+    void shutdown() {
+        rebuildMayRead.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void suggestsRegisteredUsersBeforeTheNextRebuild() {
+        profiles.put(1L, new Name(1L, 1L, "alice", "Alice", "Smith"));
+        service.rebuild();
+
+        service.onUserRegistered(new UserRegisteredEvent(2L, 2L, "alfred"));
+
+        assertThat(usernames("al")).containsExactly("alice", "alfred");
+    }
+
+    @Test
+    void renamedUsersNoLongerMatchTheirOldName() {
+        profiles.put(1L, new Name(1L, 1L, "alice", "Alice", "Smith"));
+        profiles.put(2L, new Name(2L, 2L, "alina", null, null));
+        service.rebuild();
+
+        service.onProfileUpdated(new ProfileUpdatedEvent(1L, 1L, "alice", "Beatrice", "Jones", 2));
+
+        assertThat(usernames("ali")).containsExactly("alice", "alina");
+        assertThat(usernames("smith")).isEmpty();
+        assertThat(usernames("beatrice j")).containsExactly("alice");
+        assertThat(service.suggest("beatrice", 10)).extracting(UserSuggestionResponse::getDisplayName)
+                .containsExactly("Beatrice Jones");
+    }
+
+    @Test
+    void tooManyPendingUsersStartARebuildWithoutWaitingForIt() throws InterruptedException {
+        properties.setMaxPendingUsers(2);
+        rebuildMayRead = new CountDownLatch(1);
+        for (long id = 1; id <= 3; id++) {
+            profiles.put(id, new Name(id, id, "user" + id, null, null));
+            service.onUserRegistered(new UserRegisteredEvent(id, id, "user" + id));
+        }
+
+        assertThat(rebuildStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        // The rebuild is still blocked; the users remain suggested from the pending entries
+        assertThat(usernames("user")).containsExactlyInAnyOrder("user1", "user2", "user3");
+
+        rebuildMayRead.countDown();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!usernames("user").equals(List.of("user3", "user1", "user2"))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // Rebuilt with user3's friend count ranking it first
+        assertThat(usernames("user")).containsExactly("user3", "user1", "user2");
+    }
+
+    private List<String> usernames(String prefix) {
+        return service.suggest(prefix, 10).stream().map(UserSuggestionResponse::getUsername).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Name(Long profileId, Long userId, String username, String firstName, String lastName)
+            implements ProfileNameView {
+
+        @Override
+        public Long getProfileId() {
+            return profileId;
+        }
+
+        @Override
+        public Long getUserId() {
+            return userId;
+        }
+
+        @Override
+        public String getUsername() {
+            return username;
+        }
+
+        @Override
+        public String getFirstName() {
+            return firstName;
+        }
+
+        @Override
+        public String getLastName() {
+            return lastName;
+        }
+    }
+}
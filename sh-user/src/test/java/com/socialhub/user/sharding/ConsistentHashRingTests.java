@@ -0,0 +1,48 @@
+package com.socialhub.user.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that buckets spread evenly over the ring and that adding a shard only moves buckets onto it.
+ */
+class ConsistentHashRingTests {
+
+    private static final int BUCKETS = 1024;
+    private static final int VIRTUAL_NODES = 128;
+
+    @Test
+    void bucketsAreSpreadEvenlyOverShards() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("shard-0", "shard-1", "shard-2", "shard-3"), VIRTUAL_NODES);
+
+        Map<String, Integer> bucketsPerShard = new HashMap<>();
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            bucketsPerShard.merge(ring.shardFor(bucket), 1, Integer::sum);
+        }
+
+        assertThat(bucketsPerShard).hasSize(4);
+        assertThat(bucketsPerShard.values()).allSatisfy(count -> assertThat(count).isBetween(BUCKETS / 4 * 3 / 4, BUCKETS / 4 * 5 / 4));
+    }
+
+    @Test
+    void addingShardOnlyMovesBucketsToTheNewShard() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("shard-0", "shard-1", "shard-2"), VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("shard-0", "shard-1", "shard-2", "shard-3"), VIRTUAL_NODES);
+
+        int moved = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            String owner = after.shardFor(bucket);
+            if (!owner.equals(before.shardFor(bucket))) {
+                assertThat(owner).isEqualTo("shard-3");
+                moved++;
+            }
+        }
+
+        assertThat(moved).isBetween(BUCKETS / 4 * 3 / 4, BUCKETS / 4 * 5 / 4);
+    }
+}
@@ -0,0 +1,170 @@
+package com.socialhub.user.sharding;
+
+import com.socialhub.user.UserServiceApplication;
+import com.socialhub.user.dto.PostRequest;
+import com.socialhub.user.dto.PostResponse;
+import com.socialhub.user.entity.Like;
+import com.socialhub.user.entity.User;
+import com.socialhub.user.exception.CustomException;
+import com.socialhub.user.repository.LikeRepository;
+import com.socialhub.user.repository.UserRepository;
+import com.socialhub.user.service.PostService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Starts an instance sharding over two databases with one connection per pool, so that a
+ * shard transaction needing a second connection from its caller's pool fails, and work
+ * failing on a shard leaves its pooled connection behind for the next one. Both databases
+ * live in one MySQL container.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ShardRouterTests {
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withUsername("root")
+            .withPassword("test");
+
+    @TempDir
+    static Path dataDirectory;
+
+    private ConfigurableApplicationContext context;
+    private ShardRouter shardRouter;
+    private PostService postService;
+
+    @BeforeAll
+    void start() {
+        String server = "jdbc:mysql://" + mysql.getHost() + ":" + mysql.getMappedPort(MySQLContainer.MYSQL_PORT);
+        context = new SpringApplicationBuilder(UserServiceApplication.class).run(
+                "--server.port=0",
+                "--eureka.client.enabled=false",
+                "--logging.level.root=WARN",
+                "--spring.jpa.show-sql=false",
+                "--spring.datasource.url=" + server + "/sh_user_shard_test?createDatabaseIfNotExist=true",
+                "--spring.datasource.username=root",
+                "--spring.datasource.password=test",
+                "--spring.datasource.hikari.maximum-pool-size=1",
+                "--spring.datasource.hikari.connection-timeout=5000",
+                "--socialhub.sharding.enabled=true",
+                "--socialhub.sharding.default-shard-maximum-pool-size=1",
+                "--socialhub.sharding.shards.shard-1.url=" + server + "/sh_user_shard_test_1?createDatabaseIfNotExist=true",
+                "--socialhub.sharding.shards.shard-1.username=root",
+                "--socialhub.sharding.shards.shard-1.password=test",
+                "--socialhub.sharding.shards.shard-1.maximum-pool-size=1",
+                "--socialhub.cluster.transport=local",
+                "--socialhub.activity-log.directory=" + dataDirectory.resolve("activity-log"),
+                "--socialhub.search.index-path=" + dataDirectory.resolve("post-index"));
+        shardRouter = context.getBean(ShardRouter.class);
+        postService = context.getBean(PostService.class);
+    }
+
+    @AfterAll
+    void stop() {
+        context.close();
+    }
+
+    @Test
+    void shardWorkDoesNotWaitForTheCallersPool() {
+        // The caller's transaction holds the only spring.datasource connection
+        User author = createUserOnShard("shard-0");
+
+        PostResponse post = postService.createPost(PostRequest.builder().content("On the default shard").build(),
+                author.getUsername());
+        postService.likePost(post.getId(), createUserOnShard("shard-1").getUsername());
+
+        assertThat(shardRouter.bucketOfPost(post.getId())).isEqualTo(shardRouter.bucketOfAuthor(author.getId()));
+    }
+
+    @Test
+    void failedWorkLeavesTheConnectionWithoutTheBucketStride() {
+        User author = createUserOnShard("shard-1");
+        User liker = createUserOnShard("shard-1");
+        PostResponse post = postService.createPost(PostRequest.builder().content("On another shard").build(),
+                author.getUsername());
+        postService.likePost(post.getId(), liker.getUsername());
+
+        assertThatThrownBy(() -> postService.likePost(post.getId(), liker.getUsername()))
+                .isInstanceOf(CustomException.class);
+
+        // The shard pool has one connection: the one the failed work ran on
+        LikeRepository likeRepository = context.getBean(LikeRepository.class);
+        List<Long> ids = shardRouter.inShard("shard-1", false, () -> List.of(
+                likeRepository.save(like(post.getId())).getId(),
+                likeRepository.save(like(post.getId())).getId()));
+        assertThat(ids.get(1) - ids.get(0)).isEqualTo(1);
+    }
+
+    @Test
+    void failedDefaultShardWorkAfterACommitDoesNotFailTheShardWrite() {
+        User author = createUserOnShard("shard-1");
+        PostResponse post = postService.createPost(PostRequest.builder().content("Liked despite the inbox").build(),
+                author.getUsername());
+        LikeRepository likeRepository = context.getBean(LikeRepository.class);
+        TransactionTemplate callerTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        Long likeId = callerTransaction.execute(status -> shardRouter.inShard("shard-1", false, () -> {
+            Long id = likeRepository.save(like(post.getId())).getId();
+            shardRouter.onDefaultShard(() -> {
+                throw new IllegalStateException("Inbox unavailable");
+            });
+            return id;
+        }));
+
+        assertThat(shardRouter.inShard("shard-1", true, () -> likeRepository.existsById(likeId))).isTrue();
+    }
+
+    @Test
+    void pagesOfNewestPostsEndWithinTheMergeWindow() {
+        String viewer = createUserOnShard("shard-0").getUsername();
+
+        assertThat(postService.getAllPosts(99, 10, viewer)).isNotNull();
+        assertThatThrownBy(() -> postService.getAllPosts(100, 10, viewer))
+                .isInstanceOf(CustomException.class);
+    }
+
+    /**
+     * Creates users until one's posts belong on the given shard.
+     */
+    private User createUserOnShard(String shard) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        while (true) {
+            String username = "shard_" + UUID.randomUUID().toString().substring(0, 8);
+            User user = userRepository.save(User.builder()
+                    .authUserId(Math.abs(UUID.randomUUID().getMostSignificantBits()))
+                    .username(username)
+                    .email(username + "@example.com")
+                    .build());
+            if (shardRouter.shardForAuthor(user.getId()).equals(shard)) {
+                return user;
+            }
+        }
+    }
+
+    private static Like like(Long postId) {
+        return Like.builder()
+                .postId(postId)
+                .userId(Math.abs(UUID.randomUUID().getMostSignificantBits()))
+                .likedAt(LocalDateTime.now())
+                .build();
+    }
+}
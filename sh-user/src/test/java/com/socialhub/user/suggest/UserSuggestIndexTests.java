@@ -0,0 +1,75 @@
+package com.socialhub.user.suggest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares index lookups with a brute-force scan over the same users.
+ */
+class UserSuggestIndexTests {
+
+    private static final String[] FIRST_NAMES = {"John", "Johanna", "Jo", "Mary", "Marie", "Zoë", "Ali", "Alison"};
+    private static final String[] LAST_NAMES = {"Smith", "Smithers", "Doe", "Östberg", "Allen", ""};
+
+    @Test
+    void matchesUsernamesAndProfileNamesCaseInsensitively() {
+        UserSuggestIndex index = new UserSuggestIndex.Builder()
+                .add(1, "john_doe", "John", "Doe", 5)
+                .add(2, "jsmith", "Jane", "Smith", 9)
+                .add(3, "zoe", "Zoë", "Östberg", 1)
+                .build();
+
+        assertThat(usernames(index, "JO", 10)).containsExactly("john_doe");
+        assertThat(usernames(index, "jane s", 10)).containsExactly("jsmith");
+        assertThat(usernames(index, "j", 10)).containsExactly("jsmith", "john_doe");
+        assertThat(usernames(index, "ös", 10)).containsExactly("zoe");
+        assertThat(usernames(index, "x", 10)).isEmpty();
+    }
+
+    @Test
+    void returnsTheMostPopularMatchesLikeABruteForceScan() {
+        Random random = new Random(42);
+        UserSuggestIndex.Builder builder = new UserSuggestIndex.Builder();
+        List<String[]> users = IntStream.range(0, 5_000)
+                .mapToObj(i -> new String[]{
+                        "user" + random.nextInt(100_000),
+                        FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                        LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                        String.valueOf(random.nextInt(1_000))})
+                .toList();
+        for (int i = 0; i < users.size(); i++) {
+            String[] user = users.get(i);
+            builder.add(i, user[0], user[1], user[2], Integer.parseInt(user[3]));
+        }
+        UserSuggestIndex index = builder.build();
+
+        for (String prefix : List.of("user1", "user99", "jo", "john s", "mar", "smith", "ö", "a", "zz")) {
+            List<Integer> expected = IntStream.range(0, users.size())
+                    .filter(i -> matches(users.get(i), prefix))
+                    .boxed()
+                    .sorted(Comparator.comparingInt((Integer i) -> Integer.parseInt(users.get(i)[3])).reversed())
+                    .limit(10)
+                    .map(i -> Integer.parseInt(users.get(i)[3]))
+                    .toList();
+
+            List<Integer> actual = index.top(prefix, 10).stream().map(index::popularity).toList();
+            assertThat(actual).as("popularity of top matches for '%s'", prefix).isEqualTo(expected);
+        }
+    }
+
+    private static boolean matches(String[] user, String prefix) {
+        return List.of(user[0], user[1], user[2], UserSuggestIndex.displayName(user[1], user[2])).stream()
+                .map(UserSuggestIndex::normalize)
+                .anyMatch(key -> !key.isEmpty() && key.startsWith(prefix));
+    }
+
+    private static List<String> usernames(UserSuggestIndex index, String prefix, int limit) {
+        return index.top(UserSuggestIndex.normalize(prefix), limit).stream().map(index::username).toList();
+    }
+}
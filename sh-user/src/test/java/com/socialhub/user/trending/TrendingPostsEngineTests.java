@@ -0,0 +1,149 @@
+package com.socialhub.user.trending;
+
+import com.socialhub.user.MutableClock;
+import com.socialhub.user.activitylog.ActivityLog;
+import com.socialhub.user.activitylog.ActivityLogProperties;
+import com.socialhub.user.outbox.ChangeEvent;
+import com.socialhub.user.outbox.ChangeEventType;
+import com.socialhub.user.outbox.OutboxProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Drives the engine with a manual clock to check ranking, decay and window expiry.
+ */
+class TrendingPostsEngineTests {
+
+    private final MutableClock clock = new MutableClock();
+    private final TrendingProperties properties = new TrendingProperties();
+    private final TrendingPostsEngine engine;
+
+    TrendingPostsEngineTests() {
+        properties.setTopK(2);
+        engine = new TrendingPostsEngine(properties, clock);
+    }
+
+    @Test
+    void requiresTheActivityLogSink() {
+        OutboxProperties outbox = new OutboxProperties();
+        outbox.setSinks(List.of("memory"));
+        assertThatThrownBy(() -> new TrendingPostsEngine(properties, null, outbox))
+                .isInstanceOf(IllegalStateException.class);
+
+        outbox.setSinks(List.of("memory", "activity-log"));
+        outbox.setEnabled(false);
+        assertThatThrownBy(() -> new TrendingPostsEngine(properties, null, outbox))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void publishesTopKByScore() {
+        record(1L, 3);
+        record(2L, 10);
+        record(3L, 5);
+        engine.publish();
+
+        assertThat(engine.getSnapshot().posts())
+                .extracting(TrendingSnapshot.TrendingPost::postId)
+                .containsExactly(2L, 3L);
+    }
+
+    @Test
+    void olderActivityDecaysAndExpiresWithTheWindow() {
+        record(1L, 10);
+        clock.advance(properties.getHalfLife());
+        record(2L, 6);
+        engine.publish();
+
+        assertThat(engine.getSnapshot().posts())
+                .extracting(TrendingSnapshot.TrendingPost::postId)
+                .containsExactly(2L, 1L);
+
+        clock.advance(properties.getWindow());
+        engine.publish();
+        assertThat(engine.getSnapshot().posts()).isEmpty();
+    }
+
+    @Test
+    void deletedPostsAreDropped() {
+        record(1L, 5);
+        engine.remove(1L);
+        engine.publish();
+
+        assertThat(engine.getSnapshot().posts()).isEmpty();
+    }
+
+    @Test
+    void rebuildsTheWindowFromTheActivityLog(@TempDir Path directory) throws Exception {
+        ActivityLogProperties logProperties = new ActivityLogProperties();
+        logProperties.setDirectory(directory);
+        ActivityLog activityLog = new ActivityLog(logProperties);
+        try {
+            LocalDateTime now = LocalDateTime.ofInstant(clock.instant(), ZoneId.systemDefault());
+            List<ChangeEvent> events = new ArrayList<>();
+            events.add(change(1, ChangeEventType.POST_LIKED, 1L, now.minus(properties.getWindow()).minusMinutes(1)));
+            events.add(change(2, ChangeEventType.POST_LIKED, 2L, now.minusMinutes(30)));
+            events.add(change(3, ChangeEventType.POST_COMMENTED, 3L, now.minusMinutes(1)));
+            events.add(change(4, ChangeEventType.POST_LIKED, 3L, now));
+            activityLog.append(events).get();
+
+            TrendingPostsEngine rebuilt = new TrendingPostsEngine(properties, clock, activityLog);
+            rebuilt.replayActivityLog();
+
+            assertThat(rebuilt.getSnapshot().posts())
+                    .extracting(TrendingSnapshot.TrendingPost::postId)
+                    .containsExactly(3L, 2L);
+        } finally {
+            activityLog.close();
+        }
+    }
+
+    @Test
+    void countsActivityLoggedAfterTheRebuildOnce(@TempDir Path directory) throws Exception {
+        ActivityLogProperties logProperties = new ActivityLogProperties();
+        logProperties.setDirectory(directory);
+        ActivityLog activityLog = new ActivityLog(logProperties);
+        try {
+            LocalDateTime now = LocalDateTime.ofInstant(clock.instant(), ZoneId.systemDefault());
+            activityLog.append(List.of(
+                    change(1, ChangeEventType.POST_LIKED, 1L, now),
+                    change(2, ChangeEventType.POST_LIKED, 1L, now),
+                    change(3, ChangeEventType.POST_LIKED, 2L, now))).get();
+            TrendingPostsEngine rebuilt = new TrendingPostsEngine(properties, clock, activityLog);
+            rebuilt.replayActivityLog();
+
+            activityLog.append(List.of(
+                    change(4, ChangeEventType.POST_COMMENTED, 2L, now),
+                    change(5, ChangeEventType.POST_LIKED, 3L, now))).get();
+            rebuilt.publish();
+            rebuilt.publish();
+
+            List<TrendingSnapshot.TrendingPost> posts = rebuilt.getSnapshot().posts();
+            assertThat(posts).extracting(TrendingSnapshot.TrendingPost::postId).containsExactly(2L, 1L);
+            assertThat(posts.get(0).score())
+                    .isEqualTo(properties.getLikeWeight() + properties.getCommentWeight(), within(1e-9));
+        } finally {
+            activityLog.close();
+        }
+    }
+
+    private static ChangeEvent change(long sequenceNumber, ChangeEventType type, Long postId, LocalDateTime createdAt) {
+        return new ChangeEvent("shard-0", sequenceNumber, type, postId, "{}", createdAt);
+    }
+
+    private void record(Long postId, int likes) {
+        for (int i = 0; i < likes; i++) {
+            engine.record(postId, properties.getLikeWeight());
+        }
+    }
+}
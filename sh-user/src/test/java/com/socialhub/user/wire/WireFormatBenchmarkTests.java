@@ -0,0 +1,112 @@
+package com.socialhub.user.wire;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.socialhub.user.dto.CommentResponse;
+import com.socialhub.user.dto.FriendResponse;
+import com.socialhub.user.dto.PaginatedResponse;
+import com.socialhub.user.dto.PostResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the size of typical responses and the time to encode and decode them in JSON, Smile
+ * and CBOR, with the mappers the message converters use.
+ * <p>
+ * Opt-in: {@code mvn test -Dtest=WireFormatBenchmarkTests -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class WireFormatBenchmarkTests {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 50_000;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 30, 15);
+
+    @Test
+    void compareFormats() throws Exception {
+        ObjectMapper json = mapper(WireFormat.JSON);
+        PaginatedResponse<PostResponse> posts = PaginatedResponse.<PostResponse>builder()
+                .content(IntStream.range(0, 20).mapToObj(i -> PostResponse.builder()
+                        .id(1_000L + i)
+                        .authorUsername("user_" + (i % 7))
+                        .content("Post number " + i + " with a sentence or two of text, as posts usually have.")
+                        .createdAt(NOW.minusMinutes(i))
+                        .likeCount((long) i * 3)
+                        .commentCount((long) i)
+                        .likedByMe(i % 2 == 0)
+                        .build()).toList())
+                .pageNumber(0)
+                .pageSize(20)
+                .totalPages(12)
+                .totalElements(240)
+                .build();
+        List<CommentResponse> comments = IntStream.range(0, 50).mapToObj(i -> CommentResponse.builder()
+                .id(5_000L + i)
+                .postId(1_000L)
+                .authorUsername("user_" + (i % 11))
+                .content("Comment " + i)
+                .createdAt(NOW.plusSeconds(i))
+                .parentId(i % 3 == 0 ? null : 5_000L + i - 1)
+                .depth(i % 3)
+                .build()).toList();
+        List<FriendResponse> friends = IntStream.range(0, 50).mapToObj(i -> FriendResponse.builder()
+                .requestId(100L + i)
+                .fromUsername("user_" + i)
+                .toUsername("alice")
+                .status(FriendResponse.Status.ACCEPTED)
+                .requestedAt(NOW.minusDays(i))
+                .build()).toList();
+
+        measure("20 posts", posts, json.getTypeFactory()
+                .constructParametricType(PaginatedResponse.class, PostResponse.class));
+        measure("50 comments", comments, json.getTypeFactory()
+                .constructCollectionType(List.class, CommentResponse.class));
+        measure("50 friends", friends, json.getTypeFactory()
+                .constructCollectionType(List.class, FriendResponse.class));
+    }
+
+    private static void measure(String name, Object value, JavaType type) throws Exception {
+        for (WireFormat format : WireFormat.values()) {
+            ObjectMapper mapper = mapper(format);
+            byte[] bytes = mapper.writeValueAsBytes(value);
+            for (int i = 0; i < WARMUP; i++) {
+                mapper.readValue(mapper.writeValueAsBytes(value), type);
+            }
+
+            long started = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                mapper.writeValueAsBytes(value);
+            }
+            double encode = (System.nanoTime() - started) / 1e3 / ITERATIONS;
+            started = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                mapper.readValue(bytes, type);
+            }
+            double decode = (System.nanoTime() - started) / 1e3 / ITERATIONS;
+
+            System.out.printf("%-12s %-6s %6d B | encode %6.2f us | decode %6.2f us%n",
+                    name, format, bytes.length, encode, decode);
+        }
+    }
+
+    /**
+     * Configured like the application's converters, which write dates as ISO strings.
+     */
+    private static ObjectMapper mapper(WireFormat format) {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return switch (format) {
+            case JSON -> builder.build();
+            case CBOR -> builder.factory(new CBORFactory()).build();
+            case SMILE -> builder.factory(new SmileFactory()).build();
+        };
+    }
+}
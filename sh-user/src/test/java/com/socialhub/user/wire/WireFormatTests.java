@@ -0,0 +1,120 @@
+package com.socialhub.user.wire;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.socialhub.user.dto.CommentResponse;
+import com.socialhub.user.dto.PaginatedResponse;
+import com.socialhub.user.dto.PostResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+class WireFormatTests {
+
+    private static final PaginatedResponse<PostResponse> PAGE = PaginatedResponse.<PostResponse>builder()
+            .content(List.of(PostResponse.builder()
+                    .id(1L)
+                    .authorUsername("alice")
+                    .content("Hello")
+                    .createdAt(LocalDateTime.of(2024, 5, 1, 12, 30, 15))
+                    .likeCount(3L)
+                    .commentCount(1L)
+                    .likedByMe(true)
+                    .build()))
+            .pageNumber(0)
+            .pageSize(10)
+            .totalPages(1)
+            .totalElements(1)
+            .build();
+
+    private final WireFormatConfig config = new WireFormatConfig();
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new WireController())
+            .setMessageConverters(new HttpMessageConverters(
+                    config.cborHttpMessageConverter(new Jackson2ObjectMapperBuilder()),
+                    config.smileHttpMessageConverter(new Jackson2ObjectMapperBuilder())).getConverters()
+                    .toArray(new HttpMessageConverter[0]))
+            .build();
+
+    @Test
+    void answersJsonWhenTheClientAcceptsAnything() throws Exception {
+        MvcResult result = mockMvc.perform(get("/page").header(HttpHeaders.ACCEPT, "*/*")).andReturn();
+
+        assertThat(result.getResponse().getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(result.getResponse().getContentAsString()).contains("\"authorUsername\":\"alice\"");
+    }
+
+    @Test
+    void answersTheBinaryFormatTheClientAsksFor() throws Exception {
+        for (WireFormat format : List.of(WireFormat.CBOR, WireFormat.SMILE)) {
+            MvcResult result = mockMvc.perform(get("/page").accept(format.getMediaType())).andReturn();
+
+            assertThat(MediaType.parseMediaType(result.getResponse().getContentType())).isEqualTo(format.getMediaType());
+            PaginatedResponse<PostResponse> page = mapper(format).readValue(result.getResponse().getContentAsByteArray(),
+                    new TypeReference<>() {
+                    });
+            assertThat(page).isEqualTo(PAGE);
+        }
+    }
+
+    @Test
+    void readsBinaryRequestBodies() throws Exception {
+        CommentResponse comment = CommentResponse.builder()
+                .id(5L)
+                .postId(1L)
+                .authorUsername("bob")
+                .content("Nice")
+                .createdAt(LocalDateTime.of(2024, 5, 1, 13, 0))
+                .build();
+
+        MvcResult result = mockMvc.perform(post("/comment")
+                        .contentType(WireFormat.CBOR.getMediaType())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(mapper(WireFormat.CBOR).writeValueAsBytes(comment)))
+                .andReturn();
+
+        assertThat(mapper(WireFormat.JSON).readValue(result.getResponse().getContentAsByteArray(), CommentResponse.class))
+                .isEqualTo(comment);
+    }
+
+    private static ObjectMapper mapper(WireFormat format) {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        return switch (format) {
+            case JSON -> builder.build();
+            case CBOR -> builder.factory(new CBORFactory()).build();
+            case SMILE -> builder.factory(new SmileFactory()).build();
+        };
+    }
+
+    @RestController
+    private static class WireController {
+
+        @GetMapping("/page")
+        PaginatedResponse<PostResponse> page() {
+            return PAGE;
+        }
+
+        @PostMapping("/comment")
+        CommentResponse comment(@RequestBody CommentResponse comment) {
+            return comment;
+        }
+    }
+}